@@ -9,6 +9,7 @@ import com.grpctrl.client.error.ClientException;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.EndPoint;
 
+import okhttp3.HttpUrl;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -20,6 +21,7 @@ import java.util.Base64;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
@@ -91,7 +93,9 @@ public class AccountClient {
         throw new ClientException("Failed with code " + code + " and message: " + message);
     }
 
-    private void consumeAccounts(@Nonnull final Response response, @Nonnull final Consumer<Account> consumer)
+    @Nonnull
+    private Optional<String> consumeAccounts(
+            @Nonnull final Response response, @Nonnull final Consumer<Account> consumer)
             throws ClientException, IOException {
         switch (response.code()) {
             case HttpServletResponse.SC_OK:
@@ -108,24 +112,40 @@ public class AccountClient {
                         final JsonToken accountsArray = jsonParser.nextToken();
                         Preconditions.checkArgument(accountsArray == JsonToken.START_ARRAY);
                         final JsonToken firstAccount = jsonParser.nextToken();
-                        Preconditions.checkArgument(firstAccount == JsonToken.START_OBJECT);
-                        final Iterator<Account> iter = jsonParser.readValuesAs(Account.class);
-                        while (iter.hasNext()) {
-                            consumer.accept(iter.next());
+                        if (firstAccount == JsonToken.START_OBJECT) {
+                            final Iterator<Account> iter = jsonParser.readValuesAs(Account.class);
+                            while (iter.hasNext()) {
+                                consumer.accept(iter.next());
+                            }
+                        } else {
+                            Preconditions.checkArgument(firstAccount == JsonToken.END_ARRAY);
                         }
+                        return consumeNext(jsonParser);
                     } else {
                         throw new IOException("Expected account or accounts field in response");
                     }
                 } else {
                     processError(jsonParser);
                 }
-                break;
+                return Optional.empty();
             default:
                 throw new ClientException(
                         "Response code " + response.code() + " with body: " + response.body().string());
         }
     }
 
+    @Nonnull
+    private Optional<String> consumeNext(@Nonnull final JsonParser jsonParser) throws IOException {
+        // The continuation token, when more results are available, follows the array of results.
+        final JsonToken nextField = jsonParser.nextToken();
+        if (nextField == JsonToken.FIELD_NAME && "next".equals(jsonParser.getCurrentName())) {
+            final JsonToken nextValue = jsonParser.nextToken();
+            Preconditions.checkArgument(nextValue == JsonToken.VALUE_STRING);
+            return Optional.of(jsonParser.getValueAsString());
+        }
+        return Optional.empty();
+    }
+
     public void get(final long accountId, @Nonnull final Consumer<Account> consumer) throws ClientException {
         try {
             final Request request = new Request.Builder().url(getEndPointUrl() + "/" + accountId)
@@ -138,10 +158,18 @@ public class AccountClient {
 
     public void getAll(@Nonnull final Consumer<Account> consumer) throws ClientException {
         try {
-            final Request request =
-                    new Request.Builder().url(getEndPointUrl()).header("Authorization", this.authorization).get()
-                            .build();
-            consumeAccounts(this.httpClient.newCall(request).execute(), consumer);
+            // Follow the continuation tokens until all of the pages of accounts have been consumed.
+            Optional<String> next = Optional.empty();
+            do {
+                final HttpUrl.Builder url = HttpUrl.parse(getEndPointUrl()).newBuilder();
+                if (next.isPresent()) {
+                    url.addQueryParameter("next", next.get());
+                }
+                final Request request =
+                        new Request.Builder().url(url.build()).header("Authorization", this.authorization).get()
+                                .build();
+                next = consumeAccounts(this.httpClient.newCall(request).execute(), consumer);
+            } while (next.isPresent());
         } catch (final IOException ioException) {
             throw new ClientException("Failed to communicate with back-end server", ioException);
         }
@@ -71,6 +71,70 @@ public enum ConfigKeys {
     DB_CLEAN,
     /** Whether the migration sql scripts should be applied to the database. */
     DB_MIGRATE,
+    /** The number of rows to fetch per round trip when streaming query results, zero to read all rows at once. */
+    DB_FETCH_SIZE,
+    /** How often the stored account usage is compared with the groups and tags owned by each account. */
+    DB_USAGE_RECONCILE_INTERVAL,
+    /** How often the removed accounts and groups are purged from the database. */
+    DB_PURGE_INTERVAL,
+    /** The maximum number of removed accounts or groups deleted from the database in each purge transaction. */
+    DB_PURGE_BATCH_SIZE,
+    /** How long to pause between purge transactions, limiting the load the purge places on the database. */
+    DB_PURGE_PAUSE,
+    /** The JDBC URL of a read-only replica database used for read queries, empty when there is no replica. */
+    DB_REPLICA_URL,
+    /** The maximum number of connections to keep in the read-only replica pool. */
+    DB_REPLICA_MAXIMUM_POOL_SIZE,
+    /** The amount of time to wait for a replica connection before the replica is considered unavailable. */
+    DB_REPLICA_TIMEOUT_CONNECTION,
+    /** How far the replica is allowed to lag behind the primary database before reads return to the primary. */
+    DB_REPLICA_MAX_LAG,
+    /** How often the availability and replication lag of the replica are checked. */
+    DB_REPLICA_CHECK_INTERVAL,
+    /** How often the change feed checks the database for change notifications published by other transactions. */
+    DB_FEED_POLL_INTERVAL,
+    /** The maximum number of api logins whose accounts are cached, along with the logins that were not found. */
+    DB_ACCOUNT_CACHE_SIZE,
+    /** How long the account found for an api login is cached before it is retrieved from the database again. */
+    DB_ACCOUNT_CACHE_TTL,
+    /** How long an api login that does not match any account is remembered before it is checked again. */
+    DB_ACCOUNT_CACHE_NEGATIVE_TTL,
+    /** The maximum number of successfully validated user credentials to cache. */
+    DB_USER_CACHE_SIZE,
+    /** How long validated user credentials are cached before they are validated against the database again. */
+    DB_USER_CACHE_TTL,
+    /** The maximum number of accounts whose in-memory group and tag indexes are held, of each type of index. */
+    DB_INDEX_CACHE_SIZE,
+    /** How long the in-memory group and tag indexes of an account are held after they were last used. */
+    DB_INDEX_CACHE_TTL,
+    /** The maximum number of asynchronous database operations that can wait for a database executor thread. */
+    DB_EXECUTOR_QUEUE_SIZE,
+    /** The maximum number of rows to buffer so a connection can be released before results are sent to clients. */
+    DB_STREAM_BUFFER_SIZE,
+    /** Whether the time, row count, and errors of every data access object method call are tracked in the metrics. */
+    DB_DAO_METRICS_ENABLED,
+    /** Whether the size of the connection pool is adjusted at runtime based on the observed connection wait times. */
+    DB_POOL_SIZING_ENABLED,
+    /** The smallest maximum pool size the connection pool can be shrunk to when it is sized at runtime. */
+    DB_POOL_SIZING_MINIMUM,
+    /** The largest maximum pool size the connection pool can be grown to when it is sized at runtime. */
+    DB_POOL_SIZING_MAXIMUM,
+    /** How often the connection pool statistics are reviewed to decide whether the pool should be resized. */
+    DB_POOL_SIZING_INTERVAL,
+    /** The average time spent waiting for a connection above which the connection pool is grown. */
+    DB_POOL_SIZING_WAIT_TARGET,
+    /** The average time connections are held above which the database is considered overloaded, shrinking the pool. */
+    DB_POOL_SIZING_LATENCY_LIMIT,
+    /** Whether the statements that take longer than the threshold are logged along with their execution plans. */
+    DB_SLOW_QUERY_ENABLED,
+    /** The time a statement can take to execute before it is considered slow. */
+    DB_SLOW_QUERY_THRESHOLD,
+    /** The maximum number of slow statements logged per minute, the others are only counted in the metrics. */
+    DB_SLOW_QUERY_RATE_LIMIT,
+    /** The number of the most recent slow statements kept in memory for the administrators to review. */
+    DB_SLOW_QUERY_LOG_SIZE,
+    /** The time allowed to capture the execution plan of a slow statement before giving up. */
+    DB_SLOW_QUERY_EXPLAIN_TIMEOUT,
 
     /** The timeout to wait for the remote server to connect. */
     CLIENT_TIMEOUT_CONNECT,
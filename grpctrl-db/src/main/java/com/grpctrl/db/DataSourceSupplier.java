@@ -1,18 +1,40 @@
 package com.grpctrl.db;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.grpctrl.common.config.ConfigKeys;
 import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
+import com.grpctrl.db.pool.PoolMonitor;
+import com.grpctrl.db.slow.SlowQueryInterceptor;
+import com.grpctrl.db.slow.SlowQueryLog;
 import com.typesafe.config.Config;
 import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
 import com.zaxxer.hikari.HikariDataSource;
 
+import org.apache.commons.lang3.StringUtils;
 import org.flywaydb.core.Flyway;
 import org.glassfish.hk2.api.Factory;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
@@ -24,17 +46,55 @@ import javax.ws.rs.ext.ContextResolver;
 import javax.ws.rs.ext.Provider;
 
 /**
- * Provides singleton access to a {@link DataSource} used to communicate with the configured JDBC database.
+ * Provides singleton access to a {@link DataSource} used to communicate with the configured JDBC database, and to an
+ * optional read-only replica of the database used by queries that can tolerate slightly stale data. The connection
+ * pools publish their metrics and health checks to the shared registries. When enabled, the statements executed
+ * through the provided data sources are timed, and the slow statements are recorded in a {@link SlowQueryLog}. The
+ * connections to the primary database use an application name unique to this node, so the change events published
+ * for the writes made by this node can be told apart from those made by other nodes.
  */
 @Provider
 public class DataSourceSupplier implements Supplier<DataSource>, Factory<DataSource>, ContextResolver<DataSource> {
+    private static final Logger LOG = LoggerFactory.getLogger(DataSourceSupplier.class);
+
+    // The number of slow statement plans waiting to be captured, beyond which the plans are skipped.
+    private static final int EXPLAIN_QUEUE_SIZE = 10;
+    // Used when the index cache is not configured, as with the configurations built for tests.
+    private static final long DEFAULT_INDEX_CACHE_SIZE = 1000;
+    private static final long DEFAULT_INDEX_CACHE_TTL = TimeUnit.MINUTES.toMillis(30);
+
+    // The number of seconds the replica has fallen behind the primary, which is zero when the replica has replayed
+    // everything it has received, or when the database is not a replica at all.
+    private static final String REPLICA_LAG = "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() "
+            + "= pg_last_wal_replay_lsn() THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - "
+            + "pg_last_xact_replay_timestamp()), 0) END";
+
     @Nonnull
     private final ConfigSupplier configSupplier;
     @Nonnull
     private final PasswordBasedEncryptionSupplier pbeSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+    @Nonnull
+    private final HealthCheckRegistrySupplier healthCheckRegistrySupplier;
 
     @Nullable
-    private volatile DataSource singleton;
+    private volatile HikariDataSource singleton;
+    @Nullable
+    private volatile DataSource primary;
+    @Nullable
+    private volatile PoolMonitor poolMonitor;
+    @Nullable
+    @SuppressWarnings("all")
+    private volatile Optional<SlowQueryLog> slowQueryLog;
+    @Nullable
+    @SuppressWarnings("all")
+    private volatile Optional<DataSource> replica;
+    // The reads use the primary database until the first check finds the replica current.
+    private volatile boolean replicaCurrent;
+    private volatile boolean replicaChecked;
+    @Nonnull
+    private final String applicationName = "grpctrl-" + UUID.randomUUID();
 
     /**
      * Create the supplier with the necessary dependencies.
@@ -43,31 +103,223 @@ public class DataSourceSupplier implements Supplier<DataSource>, Factory<DataSou
      *     configuration
      * @param pbeSupplier the {@link PasswordBasedEncryptionSupplier} responsible for decrypting the database password
      *     configuration
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} to which the connection pool metrics are
+     *     published
+     * @param healthCheckRegistrySupplier the {@link HealthCheckRegistrySupplier} to which the connection pool health
+     *     checks are added
      *
-     * @throws NullPointerException if the provided parameter is {@code null}
+     * @throws NullPointerException if any of the provided parameters are {@code null}
      */
     @Inject
     public DataSourceSupplier(
-            @Nonnull final ConfigSupplier configSupplier, @Nonnull final PasswordBasedEncryptionSupplier pbeSupplier) {
+            @Nonnull final ConfigSupplier configSupplier, @Nonnull final PasswordBasedEncryptionSupplier pbeSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier,
+            @Nonnull final HealthCheckRegistrySupplier healthCheckRegistrySupplier) {
         this.configSupplier = Objects.requireNonNull(configSupplier);
         this.pbeSupplier = Objects.requireNonNull(pbeSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+        this.healthCheckRegistrySupplier = Objects.requireNonNull(healthCheckRegistrySupplier);
     }
 
     @Override
     @Nonnull
     @SuppressWarnings("all")
     public DataSource get() {
+        primary();
+        return this.primary;
+    }
+
+    /**
+     * @return the configuration of the running primary connection pool, through which the pool can be resized
+     */
+    @Nonnull
+    public HikariConfigMXBean getPoolConfig() {
+        return primary();
+    }
+
+    /**
+     * @return the {@link PoolMonitor} tracking the activity of the primary connection pool
+     */
+    @Nonnull
+    @SuppressWarnings("all")
+    public PoolMonitor getPoolMonitor() {
+        primary();
+        return this.poolMonitor;
+    }
+
+    /**
+     * @return the {@link SlowQueryLog} recording the slow statements executed on the primary database and the replica,
+     *     if slow statements are being recorded
+     */
+    @Nonnull
+    @SuppressWarnings("all")
+    public Optional<SlowQueryLog> getSlowQueryLog() {
+        primary();
+        return this.slowQueryLog;
+    }
+
+    @Nonnull
+    @SuppressWarnings("all")
+    private HikariDataSource primary() {
         // Use double-check locking (with volatile singleton).
         if (this.singleton == null) {
             synchronized (DataSourceSupplier.class) {
                 if (this.singleton == null) {
-                    this.singleton = create();
+                    this.poolMonitor = new PoolMonitor(this.metricRegistrySupplier.get());
+                    final HikariDataSource dataSource = create(this.poolMonitor);
+                    this.slowQueryLog = createSlowQueryLog();
+                    this.primary = intercept(dataSource, this.slowQueryLog);
+                    this.singleton = dataSource;
                 }
             }
         }
         return this.singleton;
     }
 
+    /**
+     * Retrieve the {@link DataSource} to use for a read-only query. The configured replica is used while it is
+     * reachable and its replication lag is within the configured limit, otherwise the primary database is used. The
+     * decision uses the result of the latest {@link #checkReplica()}, so no query is run here and the returned replica
+     * may be up to the check interval out of date. Queries whose results are cached, or that must see the writes just
+     * made, should use {@link #get()} instead.
+     *
+     * @return the {@link DataSource} to use for a read-only query
+     */
+    @Nonnull
+    public DataSource getReadOnly() {
+        final Optional<DataSource> replica = getReplica();
+        return replica.isPresent() && this.replicaCurrent ? replica.get() : get();
+    }
+
+    /**
+     * Measure the replication lag of the configured replica and record whether {@link #getReadOnly()} should use it.
+     * This is meant to be run periodically on a background thread, at the configured check interval, and does nothing
+     * when no replica is configured.
+     */
+    public void checkReplica() {
+        final Optional<DataSource> replica = getReplica();
+        if (replica.isPresent()) {
+            this.replicaCurrent = isCurrent(replica.get());
+            this.replicaChecked = true;
+        }
+    }
+
+    @Nonnull
+    @SuppressWarnings("all")
+    private Optional<DataSource> getReplica() {
+        // Use double-check locking (with volatile replica).
+        if (this.replica == null) {
+            synchronized (this) {
+                if (this.replica == null) {
+                    this.replica = createReplica();
+                }
+            }
+        }
+        return this.replica;
+    }
+
+    /**
+     * Retrieve a read-only pooled connection to the primary database, used to load in-memory indexes that need to see
+     * all the committed writes. The load runs separately from any transaction the caller is already in, so it neither
+     * sees nor extends that transaction. The caller is responsible for closing the connection.
+     *
+     * @return a read-only connection to the primary database
+     *
+     * @throws SQLException if there is a problem retrieving the connection
+     */
+    @Nonnull
+    public Connection getReadOnlyConnection() throws SQLException {
+        final Connection conn = get().getConnection();
+        try (final Statement stmt = conn.createStatement()) {
+            // Only the current transaction is read-only, since the pool does not roll back connections marked as
+            // read-only when they are returned, and the transaction is rolled back when the connection is returned.
+            stmt.execute("SET TRANSACTION READ ONLY");
+        } catch (final SQLException sqlException) {
+            conn.close();
+            throw sqlException;
+        }
+        return conn;
+    }
+
+    /**
+     * Create a new connection to the primary database outside of the connection pool, for long-lived uses like
+     * listening for notifications that would otherwise hold on to a pooled connection indefinitely. The connection is
+     * in auto-commit mode, and the caller is responsible for closing it.
+     *
+     * @return a new connection to the primary database
+     *
+     * @throws SQLException if there is a problem connecting to the database
+     */
+    @Nonnull
+    public Connection connect() throws SQLException {
+        final Config config = this.configSupplier.get();
+        return DriverManager.getConnection(config.getString(ConfigKeys.DB_URL.getKey()),
+                config.getString(ConfigKeys.DB_USERNAME.getKey()), this.pbeSupplier.get()
+                        .decryptProperty(config.getString(ConfigKeys.DB_PASSWORD.getKey()), Charsets.UTF_8));
+    }
+
+    /**
+     * @return the application name of the connections to the primary database, unique to this node, which the database
+     *     triggers include as the origin of the published change events
+     */
+    @Nonnull
+    public String getApplicationName() {
+        return this.applicationName;
+    }
+
+    /**
+     * @return the number of rows to retrieve per database round trip when streaming query results through a cursor,
+     *     where zero indicates that all rows should be retrieved at once
+     */
+    public int getFetchSize() {
+        return this.configSupplier.get().getInt(ConfigKeys.DB_FETCH_SIZE.getKey());
+    }
+
+    /**
+     * @return the maximum number of rows to buffer in memory so the connection used by a query can be released before
+     *     the rows are sent to a client, where zero indicates that rows should be streamed straight from the
+     *     connection; either way, the rows are read and sent on the request thread
+     */
+    public int getStreamBufferSize() {
+        final Config config = this.configSupplier.get();
+        if (!config.hasPath(ConfigKeys.DB_STREAM_BUFFER_SIZE.getKey())) {
+            return 0;
+        }
+        return Math.max(0, config.getInt(ConfigKeys.DB_STREAM_BUFFER_SIZE.getKey()));
+    }
+
+    /**
+     * @return the maximum number of accounts whose in-memory indexes are held, of each type of index
+     */
+    public long getIndexCacheSize() {
+        final Config config = this.configSupplier.get();
+        if (!config.hasPath(ConfigKeys.DB_INDEX_CACHE_SIZE.getKey())) {
+            return DEFAULT_INDEX_CACHE_SIZE;
+        }
+        return Math.max(0, config.getLong(ConfigKeys.DB_INDEX_CACHE_SIZE.getKey()));
+    }
+
+    /**
+     * @return how long, in milliseconds, the in-memory indexes of an account are held after they were last used
+     */
+    public long getIndexCacheTtl() {
+        final Config config = this.configSupplier.get();
+        if (!config.hasPath(ConfigKeys.DB_INDEX_CACHE_TTL.getKey())) {
+            return DEFAULT_INDEX_CACHE_TTL;
+        }
+        return Math.max(0, config.getDuration(ConfigKeys.DB_INDEX_CACHE_TTL.getKey(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * @return whether the data access objects should track the time, row count, and errors of each of their method
+     *     calls in the metrics
+     */
+    public boolean isDaoMetricsEnabled() {
+        final Config config = this.configSupplier.get();
+        return config.hasPath(ConfigKeys.DB_DAO_METRICS_ENABLED.getKey())
+                && config.getBoolean(ConfigKeys.DB_DAO_METRICS_ENABLED.getKey());
+    }
+
     @Override
     @Nonnull
     public DataSource getContext(@Nonnull final Class<?> type) {
@@ -86,19 +338,29 @@ public class DataSourceSupplier implements Supplier<DataSource>, Factory<DataSou
     }
 
     @Nonnull
-    private DataSource create() {
-        final Config config = this.configSupplier.get();
-
+    private HikariConfig hikariConfig(@Nonnull final Config config, @Nonnull final String name) {
         final HikariConfig hikariConfig = new HikariConfig();
-        hikariConfig.setJdbcUrl(config.getString(ConfigKeys.DB_URL.getKey()));
+        hikariConfig.setPoolName(MetricRegistry.name(DataSourceSupplier.class, name));
+        hikariConfig.setHealthCheckRegistry(this.healthCheckRegistrySupplier.get());
         hikariConfig.setUsername(config.getString(ConfigKeys.DB_USERNAME.getKey()));
         hikariConfig.setPassword(this.pbeSupplier.get()
                 .decryptProperty(config.getString(ConfigKeys.DB_PASSWORD.getKey()), Charsets.UTF_8));
         hikariConfig.setMinimumIdle(config.getInt(ConfigKeys.DB_MINIMUM_IDLE.getKey()));
-        hikariConfig.setMaximumPoolSize(config.getInt(ConfigKeys.DB_MAXIMUM_POOL_SIZE.getKey()));
         hikariConfig.setIdleTimeout(config.getDuration(ConfigKeys.DB_TIMEOUT_IDLE.getKey()).toMillis());
-        hikariConfig.setConnectionTimeout(config.getDuration(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey()).toMillis());
         hikariConfig.setAutoCommit(false);
+        return hikariConfig;
+    }
+
+    @Nonnull
+    private HikariDataSource create(@Nonnull final PoolMonitor poolMonitor) {
+        final Config config = this.configSupplier.get();
+
+        final HikariConfig hikariConfig = hikariConfig(config, "primary");
+        hikariConfig.setMetricsTrackerFactory(poolMonitor);
+        hikariConfig.setJdbcUrl(config.getString(ConfigKeys.DB_URL.getKey()));
+        hikariConfig.setMaximumPoolSize(config.getInt(ConfigKeys.DB_MAXIMUM_POOL_SIZE.getKey()));
+        hikariConfig.setConnectionTimeout(config.getDuration(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey()).toMillis());
+        hikariConfig.addDataSourceProperty("ApplicationName", this.applicationName);
 
         final HikariDataSource dataSource = new HikariDataSource(hikariConfig);
 
@@ -115,6 +377,82 @@ public class DataSourceSupplier implements Supplier<DataSource>, Factory<DataSou
         return dataSource;
     }
 
+    @Nonnull
+    private Optional<DataSource> createReplica() {
+        final Config config = this.configSupplier.get();
+        if (!config.hasPath(ConfigKeys.DB_REPLICA_URL.getKey())
+                || StringUtils.isBlank(config.getString(ConfigKeys.DB_REPLICA_URL.getKey()))) {
+            return Optional.empty();
+        }
+
+        // The replica shares the credentials of the primary database, and the schema is only migrated on the primary.
+        final HikariConfig hikariConfig = hikariConfig(config, "replica");
+        hikariConfig.setMetricsTrackerFactory(new PoolMonitor(this.metricRegistrySupplier.get()));
+        hikariConfig.setJdbcUrl(config.getString(ConfigKeys.DB_REPLICA_URL.getKey()));
+        hikariConfig.setMaximumPoolSize(config.getInt(ConfigKeys.DB_REPLICA_MAXIMUM_POOL_SIZE.getKey()));
+        hikariConfig.setConnectionTimeout(
+                config.getDuration(ConfigKeys.DB_REPLICA_TIMEOUT_CONNECTION.getKey()).toMillis());
+        // Marked read-only through the driver rather than the pool, since the pool does not roll back the transactions
+        // of read-only connections when they are returned, which would leave them holding their locks and snapshot.
+        hikariConfig.addDataSourceProperty("readOnly", "true");
+        // An unavailable replica must not prevent startup, the reads use the primary until the replica is available.
+        hikariConfig.setInitializationFailFast(false);
+        return Optional.of(intercept(new HikariDataSource(hikariConfig), getSlowQueryLog()));
+    }
+
+    @Nonnull
+    private Optional<SlowQueryLog> createSlowQueryLog() {
+        final Config config = this.configSupplier.get();
+        if (!config.hasPath(ConfigKeys.DB_SLOW_QUERY_ENABLED.getKey())
+                || !config.getBoolean(ConfigKeys.DB_SLOW_QUERY_ENABLED.getKey())) {
+            return Optional.empty();
+        }
+
+        // A single thread captures the plans so a burst of slow statements does not put even more load on the
+        // database, the plans that do not fit in the queue are skipped.
+        final ThreadPoolExecutor explainExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EXPLAIN_QUEUE_SIZE),
+                new ThreadFactoryBuilder().setNameFormat("slow-query-explain-%d").setDaemon(true).build());
+        return Optional.of(new SlowQueryLog(
+                config.getDuration(ConfigKeys.DB_SLOW_QUERY_THRESHOLD.getKey(), TimeUnit.MILLISECONDS),
+                config.getInt(ConfigKeys.DB_SLOW_QUERY_LOG_SIZE.getKey()),
+                config.getInt(ConfigKeys.DB_SLOW_QUERY_RATE_LIMIT.getKey()),
+                (int) config.getDuration(ConfigKeys.DB_SLOW_QUERY_EXPLAIN_TIMEOUT.getKey(), TimeUnit.SECONDS),
+                explainExecutor, this.metricRegistrySupplier.get()));
+    }
+
+    @Nonnull
+    private DataSource intercept(
+            @Nonnull final DataSource dataSource, @Nonnull final Optional<SlowQueryLog> slowQueryLog) {
+        return slowQueryLog.isPresent() ? SlowQueryInterceptor.wrap(dataSource, slowQueryLog.get()) : dataSource;
+    }
+
+    private boolean isCurrent(@Nonnull final DataSource replica) {
+        final long maxLag =
+                this.configSupplier.get().getDuration(ConfigKeys.DB_REPLICA_MAX_LAG.getKey(), TimeUnit.MILLISECONDS);
+        try (final Connection conn = replica.getConnection();
+             final PreparedStatement ps = conn.prepareStatement(REPLICA_LAG);
+             final ResultSet rs = ps.executeQuery()) {
+            final double lag = rs.next() ? rs.getDouble(1) : Double.MAX_VALUE;
+            conn.rollback();
+            final boolean current = lag * 1000 <= maxLag;
+            if (!this.replicaChecked || current != this.replicaCurrent) {
+                // Only the changes are logged, the replica is checked too often to log the result of every check.
+                if (current) {
+                    LOG.info("Read replica has caught up with the primary database, reading from the replica");
+                } else {
+                    LOG.warn("Read replica is {} seconds behind the primary database, reading from the primary", lag);
+                }
+            }
+            return current;
+        } catch (final SQLException sqlException) {
+            if (!this.replicaChecked || this.replicaCurrent) {
+                LOG.warn("Read replica is unavailable, reading from the primary database", sqlException);
+            }
+            return false;
+        }
+    }
+
     /**
      * Used to bind this supplier for dependency injection.
      */
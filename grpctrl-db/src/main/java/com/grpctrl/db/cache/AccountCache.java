@@ -0,0 +1,145 @@
+package com.grpctrl.db.cache;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ApiLogin;
+import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.feed.ChangeEvent;
+import com.grpctrl.db.feed.ChangeListener;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Caches the accounts, along with their service levels, found for the api logins provided with requests, so most
+ * requests do not need to query the database to identify the account. The api logins that do not match any account
+ * are also remembered, for a shorter time, so repeated requests with invalid logins do not reach the database either.
+ * The cached accounts are dropped when the change feed reports a change to the account, its service level or its api
+ * logins, and the cache entries expire after a fixed time in case the changes are not received.
+ */
+public class AccountCache implements ChangeListener {
+    @Nonnull
+    private final AccountDaoSupplier accountDaoSupplier;
+    @Nonnull
+    private final Cache<ApiLogin, Account> accounts;
+    @Nonnull
+    private final Cache<ApiLogin, Boolean> missing;
+    // Incremented on every invalidation, so accounts loaded before an invalidation are not added to the cache after it.
+    @Nonnull
+    private final AtomicLong generation = new AtomicLong();
+
+    @Nonnull
+    private final Counter hits;
+    @Nonnull
+    private final Counter misses;
+    @Nonnull
+    private final Timer loads;
+
+    /**
+     * @param accountDaoSupplier the {@link AccountDaoSupplier} used to find the accounts that are not cached
+     * @param metricRegistry the {@link MetricRegistry} used to track the cache hits, misses, and load times
+     * @param size the maximum number of api logins to cache, both with and without a matching account
+     * @param ttl how long, in milliseconds, an account is cached before it is retrieved from the database again
+     * @param negativeTtl how long, in milliseconds, an api login without a matching account is cached
+     *
+     * @throws NullPointerException if any of the object parameters are {@code null}
+     */
+    public AccountCache(
+            @Nonnull final AccountDaoSupplier accountDaoSupplier, @Nonnull final MetricRegistry metricRegistry,
+            final long size, final long ttl, final long negativeTtl) {
+        this.accountDaoSupplier = Objects.requireNonNull(accountDaoSupplier);
+        this.accounts = CacheBuilder.newBuilder().maximumSize(size).expireAfterWrite(ttl, TimeUnit.MILLISECONDS)
+                .build();
+        this.missing = CacheBuilder.newBuilder().maximumSize(size)
+                .expireAfterWrite(negativeTtl, TimeUnit.MILLISECONDS).build();
+
+        Objects.requireNonNull(metricRegistry);
+        this.hits = metricRegistry.counter(MetricRegistry.name(AccountCache.class, "hits"));
+        this.misses = metricRegistry.counter(MetricRegistry.name(AccountCache.class, "misses"));
+        this.loads = metricRegistry.timer(MetricRegistry.name(AccountCache.class, "load"));
+    }
+
+    /**
+     * @param apiLogin the api login for which the account should be retrieved
+     *
+     * @return the account matching the api login, if one exists, which the caller is free to modify
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    public Optional<Account> get(@Nonnull final ApiLogin apiLogin) {
+        Objects.requireNonNull(apiLogin);
+
+        final Account cached = this.accounts.getIfPresent(apiLogin);
+        if (cached != null) {
+            this.hits.inc();
+            return Optional.of(new Account(cached));
+        }
+        if (this.missing.getIfPresent(apiLogin) != null) {
+            this.hits.inc();
+            return Optional.empty();
+        }
+
+        this.misses.inc();
+        final long loadGeneration = this.generation.get();
+        final Optional<Account> account;
+        final Timer.Context context = this.loads.time();
+        try {
+            account = this.accountDaoSupplier.get().get(apiLogin);
+        } finally {
+            context.stop();
+        }
+
+        if (loadGeneration == this.generation.get()) {
+            // Copy the key so later modifications of the provided login do not affect the cache.
+            final ApiLogin key = new ApiLogin(apiLogin.getKey(), apiLogin.getSecret());
+            if (account.isPresent()) {
+                this.accounts.put(key, new Account(account.get()));
+            } else {
+                this.missing.put(key, Boolean.TRUE);
+            }
+        }
+        return account;
+    }
+
+    /**
+     * Drop the cached api logins of an account, along with all the api logins that did not match any account, since
+     * they may belong to the account now.
+     *
+     * @param accountId the unique identifier of the account that changed
+     */
+    public void invalidate(final long accountId) {
+        this.generation.incrementAndGet();
+        this.accounts.asMap().values().removeIf(account -> account.getId().orElse(0L) == accountId);
+        this.missing.invalidateAll();
+    }
+
+    /**
+     * Drop all of the cached api logins.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.accounts.invalidateAll();
+        this.missing.invalidateAll();
+    }
+
+    @Override
+    public void changed(@Nonnull final Collection<ChangeEvent> events) {
+        events.stream().filter(event -> event.getEntity() == ChangeEvent.Entity.ACCOUNT)
+                .mapToLong(ChangeEvent::getAccountId).distinct().forEach(this::invalidate);
+    }
+
+    @Override
+    public void resync() {
+        invalidateAll();
+    }
+}
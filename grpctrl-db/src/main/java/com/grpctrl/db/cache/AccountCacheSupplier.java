@@ -0,0 +1,116 @@
+package com.grpctrl.db.cache;
+
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
+import com.typesafe.config.Config;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to the {@link AccountCache} used to find the accounts for api logins. The cache is
+ * subscribed to the change feed when it is first retrieved.
+ */
+@Provider
+public class AccountCacheSupplier
+        implements Supplier<AccountCache>, Factory<AccountCache>, ContextResolver<AccountCache> {
+    @Nonnull
+    private final ConfigSupplier configSupplier;
+    @Nonnull
+    private final AccountDaoSupplier accountDaoSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+    @Nonnull
+    private final ChangeFeedSupplier changeFeedSupplier;
+
+    @Nullable
+    private volatile AccountCache singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param configSupplier the {@link ConfigSupplier} providing the cache size and expiration times
+     * @param accountDaoSupplier the {@link AccountDaoSupplier} used to find the accounts that are not cached
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track the cache performance
+     * @param changeFeedSupplier the {@link ChangeFeedSupplier} providing the account changes that invalidate the cache
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public AccountCacheSupplier(
+            @Nonnull final ConfigSupplier configSupplier, @Nonnull final AccountDaoSupplier accountDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier,
+            @Nonnull final ChangeFeedSupplier changeFeedSupplier) {
+        this.configSupplier = Objects.requireNonNull(configSupplier);
+        this.accountDaoSupplier = Objects.requireNonNull(accountDaoSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+        this.changeFeedSupplier = Objects.requireNonNull(changeFeedSupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public AccountCache get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (AccountCacheSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public AccountCache getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public AccountCache provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final AccountCache accountCache) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private AccountCache create() {
+        final Config config = this.configSupplier.get();
+        final AccountCache accountCache = new AccountCache(this.accountDaoSupplier, this.metricRegistrySupplier.get(),
+                config.getLong(ConfigKeys.DB_ACCOUNT_CACHE_SIZE.getKey()),
+                config.getDuration(ConfigKeys.DB_ACCOUNT_CACHE_TTL.getKey(), TimeUnit.MILLISECONDS),
+                config.getDuration(ConfigKeys.DB_ACCOUNT_CACHE_NEGATIVE_TTL.getKey(), TimeUnit.MILLISECONDS));
+        this.changeFeedSupplier.get().subscribe(accountCache);
+        return accountCache;
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(AccountCacheSupplier.class).to(AccountCacheSupplier.class).in(Singleton.class);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.grpctrl.db.cache;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Charsets;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.User;
+import com.grpctrl.db.feed.ChangeEvent;
+import com.grpctrl.db.feed.ChangeListener;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Caches the users whose login and password have been successfully validated, so repeated requests with the same
+ * credentials do not need to retrieve the user from the database or hash the password again. The credentials are only
+ * stored as a keyed hash, using a random key generated for each cache, so the cache never holds the passwords. Failed
+ * validations are not cached. The cached users are dropped when the change feed reports a change to the user or to
+ * one of the accounts of the user, and the cache entries expire after a short fixed time in case the changes are not
+ * received.
+ */
+public class UserCache implements ChangeListener {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Nonnull
+    private final Cache<HashCode, User> users;
+    @Nonnull
+    private final ThreadLocal<Mac> macs;
+    // Incremented on every invalidation, so users loaded before an invalidation are not added to the cache after it.
+    @Nonnull
+    private final AtomicLong generation = new AtomicLong();
+
+    @Nonnull
+    private final Counter hits;
+    @Nonnull
+    private final Counter misses;
+    @Nonnull
+    private final Timer loads;
+
+    /**
+     * @param metricRegistry the {@link MetricRegistry} used to track the cache hits, misses, and load times
+     * @param size the maximum number of validated credentials to cache
+     * @param ttl how long, in milliseconds, validated credentials are cached before they are validated again
+     *
+     * @throws NullPointerException if the metric registry is {@code null}
+     */
+    public UserCache(@Nonnull final MetricRegistry metricRegistry, final long size, final long ttl) {
+        this.users = CacheBuilder.newBuilder().maximumSize(size).expireAfterWrite(ttl, TimeUnit.MILLISECONDS).build();
+
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        final SecretKeySpec secretKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                final Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(secretKey);
+                return mac;
+            } catch (final GeneralSecurityException securityException) {
+                throw new IllegalStateException("Failed to create credential hash", securityException);
+            }
+        });
+
+        Objects.requireNonNull(metricRegistry);
+        this.hits = metricRegistry.counter(MetricRegistry.name(UserCache.class, "hits"));
+        this.misses = metricRegistry.counter(MetricRegistry.name(UserCache.class, "misses"));
+        this.loads = metricRegistry.timer(MetricRegistry.name(UserCache.class, "load"));
+    }
+
+    /**
+     * Retrieve the user with the provided credentials, validating the credentials only when they have not already been
+     * validated recently.
+     *
+     * @param login the login of the user
+     * @param password the password provided for the user
+     * @param validator retrieves the user and validates the password, throwing an exception when the credentials are
+     *     not valid
+     *
+     * @return the user with the provided credentials, which the caller is free to modify
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    public User get(
+            @Nonnull final String login, @Nonnull final String password, @Nonnull final Supplier<User> validator) {
+        Objects.requireNonNull(login);
+        Objects.requireNonNull(password);
+        Objects.requireNonNull(validator);
+
+        final HashCode key = hash(login, password);
+        final User cached = this.users.getIfPresent(key);
+        if (cached != null) {
+            this.hits.inc();
+            return new User(cached);
+        }
+
+        this.misses.inc();
+        final long loadGeneration = this.generation.get();
+        final User user;
+        final Timer.Context context = this.loads.time();
+        try {
+            user = Objects.requireNonNull(validator.get());
+        } finally {
+            context.stop();
+        }
+        if (loadGeneration == this.generation.get()) {
+            this.users.put(key, new User(user));
+        }
+        return user;
+    }
+
+    @Nonnull
+    private HashCode hash(@Nonnull final String login, @Nonnull final String password) {
+        // The login cannot contain a colon, so the combined value is unique for each pair of credentials.
+        return HashCode.fromBytes(this.macs.get().doFinal((login + ":" + password).getBytes(Charsets.UTF_8)));
+    }
+
+    /**
+     * Drop the cached credentials of a user.
+     *
+     * @param userId the unique identifier of the user that changed
+     */
+    public void invalidate(final long userId) {
+        this.generation.incrementAndGet();
+        this.users.asMap().values().removeIf(user -> user.getId().orElse(0L) == userId);
+    }
+
+    /**
+     * Drop the cached credentials of the users that have access to any of the provided accounts.
+     *
+     * @param accountIds the unique identifiers of the accounts that changed
+     */
+    public void invalidateAccounts(@Nonnull final Set<Long> accountIds) {
+        Objects.requireNonNull(accountIds);
+        this.generation.incrementAndGet();
+        this.users.asMap().values().removeIf(user -> user.getAccounts().stream().map(Account::getId)
+                .anyMatch(accountId -> accountId.isPresent() && accountIds.contains(accountId.get())));
+    }
+
+    /**
+     * Drop all of the cached credentials.
+     */
+    public void invalidateAll() {
+        this.generation.incrementAndGet();
+        this.users.invalidateAll();
+    }
+
+    @Override
+    public void changed(@Nonnull final Collection<ChangeEvent> events) {
+        for (final ChangeEvent event : events) {
+            if (event.getEntity() == ChangeEvent.Entity.USER) {
+                if (event.getId().isPresent()) {
+                    invalidate(event.getId().get());
+                } else {
+                    // Multiple users changed, and there is no way to tell which ones.
+                    invalidateAll();
+                }
+            }
+        }
+
+        final Set<Long> accountIds =
+                events.stream().filter(event -> event.getEntity() == ChangeEvent.Entity.ACCOUNT)
+                        .map(ChangeEvent::getAccountId).collect(Collectors.toSet());
+        if (!accountIds.isEmpty()) {
+            invalidateAccounts(accountIds);
+        }
+    }
+
+    @Override
+    public void resync() {
+        invalidateAll();
+    }
+}
@@ -0,0 +1,108 @@
+package com.grpctrl.db.cache;
+
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
+import com.typesafe.config.Config;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to the {@link UserCache} used to find the users for validated credentials. The cache is
+ * subscribed to the change feed when it is first retrieved.
+ */
+@Provider
+public class UserCacheSupplier implements Supplier<UserCache>, Factory<UserCache>, ContextResolver<UserCache> {
+    @Nonnull
+    private final ConfigSupplier configSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+    @Nonnull
+    private final ChangeFeedSupplier changeFeedSupplier;
+
+    @Nullable
+    private volatile UserCache singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param configSupplier the {@link ConfigSupplier} providing the cache size and expiration time
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track the cache performance
+     * @param changeFeedSupplier the {@link ChangeFeedSupplier} providing the user changes that invalidate the cache
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public UserCacheSupplier(
+            @Nonnull final ConfigSupplier configSupplier, @Nonnull final MetricRegistrySupplier metricRegistrySupplier,
+            @Nonnull final ChangeFeedSupplier changeFeedSupplier) {
+        this.configSupplier = Objects.requireNonNull(configSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+        this.changeFeedSupplier = Objects.requireNonNull(changeFeedSupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public UserCache get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (UserCacheSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public UserCache getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public UserCache provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final UserCache userCache) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private UserCache create() {
+        final Config config = this.configSupplier.get();
+        final UserCache userCache = new UserCache(this.metricRegistrySupplier.get(),
+                config.getLong(ConfigKeys.DB_USER_CACHE_SIZE.getKey()),
+                config.getDuration(ConfigKeys.DB_USER_CACHE_TTL.getKey(), TimeUnit.MILLISECONDS));
+        this.changeFeedSupplier.get().subscribe(userCache);
+        return userCache;
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(UserCacheSupplier.class).to(UserCacheSupplier.class).in(Singleton.class);
+        }
+    }
+}
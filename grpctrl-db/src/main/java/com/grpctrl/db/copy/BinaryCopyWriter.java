@@ -0,0 +1,166 @@
+package com.grpctrl.db.copy;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Streams rows into a table using the PostgreSQL {@code COPY ... FROM STDIN (FORMAT binary)} protocol, which avoids
+ * the per-statement overhead of batched inserts when loading large amounts of data. Rows are encoded into a buffer
+ * that is sent to the server each time it fills, so memory use does not depend on the number of rows written.
+ *
+ * <p>Each row is started with {@link #startRow(int)} and is followed by exactly that many field values, written in the
+ * order of the columns listed in the {@code COPY} statement. The values must match the column types: {@code BIGINT}
+ * columns are written with {@link #writeLong(long)}, {@code INTEGER} columns with {@link #writeInt(int)}, and
+ * character columns with {@link #writeString(String)}. Once all rows are written, {@link #finish()} completes the
+ * copy operation. Closing a writer that was not finished cancels the copy operation.
+ */
+public class BinaryCopyWriter implements AutoCloseable {
+    private static final byte[] HEADER = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0,
+            0, 0, 0, 0, // flags
+            0, 0, 0, 0 // header extension length
+    };
+    private static final int FLUSH_SIZE = 64 * 1024;
+
+    @Nonnull
+    private final CopyIn copyIn;
+
+    @Nonnull
+    private byte[] buffer = new byte[FLUSH_SIZE + 1024];
+    private int position = 0;
+    private long rows = 0;
+
+    /**
+     * @param conn the {@link Connection} on which the copy operation is performed as part of an existing transaction
+     * @param sql the {@code COPY ... FROM STDIN (FORMAT binary)} statement to execute
+     *
+     * @throws NullPointerException if either of the parameters are {@code null}
+     * @throws SQLException if there is a problem starting the copy operation
+     */
+    public BinaryCopyWriter(@Nonnull final Connection conn, @Nonnull final String sql) throws SQLException {
+        this(Objects.requireNonNull(conn).unwrap(PGConnection.class).getCopyAPI().copyIn(Objects.requireNonNull(sql)));
+    }
+
+    /**
+     * @param copyIn the copy operation into which rows will be written
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    BinaryCopyWriter(@Nonnull final CopyIn copyIn) {
+        this.copyIn = Objects.requireNonNull(copyIn);
+        put(HEADER, HEADER.length);
+    }
+
+    /**
+     * Begin writing a new row.
+     *
+     * @param fields the number of field values that will be written for the row
+     *
+     * @throws SQLException if there is a problem sending the previous rows to the server
+     */
+    public void startRow(final int fields) throws SQLException {
+        if (this.position >= FLUSH_SIZE) {
+            flush();
+        }
+        putShort(fields);
+        this.rows++;
+    }
+
+    /**
+     * @param value the value of a {@code BIGINT} field to write into the current row
+     */
+    public void writeLong(final long value) {
+        putInt(Long.BYTES);
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    /**
+     * @param value the value of an {@code INTEGER} field to write into the current row
+     */
+    public void writeInt(final int value) {
+        putInt(Integer.BYTES);
+        putInt(value);
+    }
+
+    /**
+     * @param value the value of a character field to write into the current row, possibly {@code null}
+     */
+    public void writeString(@Nullable final String value) {
+        if (value == null) {
+            putInt(-1);
+        } else {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            put(bytes, bytes.length);
+        }
+    }
+
+    /**
+     * @return the number of rows that have been written
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    /**
+     * Complete the copy operation, sending any remaining rows to the server.
+     *
+     * @return the number of rows copied into the table
+     *
+     * @throws SQLException if there is a problem completing the copy operation
+     */
+    public long finish() throws SQLException {
+        putShort(-1);
+        flush();
+        return this.copyIn.endCopy();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (this.copyIn.isActive()) {
+            this.copyIn.cancelCopy();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (this.position > 0) {
+            this.copyIn.writeToCopy(this.buffer, 0, this.position);
+            this.position = 0;
+        }
+    }
+
+    private void ensure(final int length) {
+        if (this.position + length > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length << 1, this.position + length));
+        }
+    }
+
+    private void putShort(final int value) {
+        ensure(2);
+        this.buffer[this.position++] = (byte) (value >>> 8);
+        this.buffer[this.position++] = (byte) value;
+    }
+
+    private void putInt(final int value) {
+        ensure(4);
+        this.buffer[this.position++] = (byte) (value >>> 24);
+        this.buffer[this.position++] = (byte) (value >>> 16);
+        this.buffer[this.position++] = (byte) (value >>> 8);
+        this.buffer[this.position++] = (byte) value;
+    }
+
+    private void put(@Nonnull final byte[] bytes, final int length) {
+        ensure(length);
+        System.arraycopy(bytes, 0, this.buffer, this.position, length);
+        this.position += length;
+    }
+}
@@ -1,7 +1,10 @@
 package com.grpctrl.db.dao;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.ApiLogin;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
 
 import java.sql.Connection;
 import java.util.Collection;
@@ -76,14 +79,37 @@ public interface AccountDao {
     Map<Long, Collection<Account>> getForUsers(@Nonnull Connection conn, @Nonnull Collection<Long> userIds);
 
     /**
-     * Consume all the accounts in the system.
+     * Consume a page of all the accounts in the system, in order of their unique identifiers.
      *
+     * @param page the page of results to retrieve
      * @param consumer the consumer to receive each of the available account objects
      *
-     * @throws NullPointerException if the parameter is {@code null}
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
+     * @throws NullPointerException if either of the parameters are {@code null}
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
-    void getAll(@Nonnull Consumer<Account> consumer);
+    @Nonnull
+    Optional<PageToken> getAll(@Nonnull Page page, @Nonnull Consumer<Account> consumer);
+
+    /**
+     * Write a page of all the accounts in the system, in order of their unique identifiers, as JSON objects straight
+     * from the query results, without creating an account object for each of the results. The output is the same as
+     * serializing the accounts provided by {@link #getAll(Page, Consumer)}.
+     *
+     * @param page the page of results to retrieve
+     * @param generator the generator to receive each of the available accounts as a JSON object
+     *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
+     * @throws NullPointerException if either of the parameters are {@code null}
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database, or writing the
+     *     JSON data
+     */
+    @Nonnull
+    Optional<PageToken> writeAll(@Nonnull Page page, @Nonnull JsonGenerator generator);
 
     /**
      * Add the specified accounts to the backing store.
@@ -98,7 +124,23 @@ public interface AccountDao {
     void add(@Nonnull Iterator<Account> accounts, @Nonnull Consumer<Account> consumer);
 
     /**
-     * Remove the account with the specified id.
+     * Add the specified accounts to the backing store using a bulk-load operation. The accounts and their service
+     * levels are streamed into the database in a single pass, which is far more efficient than
+     * {@link #add(Iterator, Consumer)} for large numbers of accounts. The accounts are not passed to the consumer until
+     * all of them have been stored.
+     *
+     * @param accounts the iterable of accounts to be added to the backing store
+     * @param consumer the consumer to receive each of the stored account objects (which now include their unique
+     *     identifiers)
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    void bulkAdd(@Nonnull Iterator<Account> accounts, @Nonnull Consumer<Account> consumer);
+
+    /**
+     * Remove the account with the specified id. The account is only marked as deleted, which hides it from all the
+     * queries, and it is deleted from the backing store later by {@link #purge(int)}.
      *
      * @param accountId the unique identifier indicating the account to be deleted
      *
@@ -110,7 +152,8 @@ public interface AccountDao {
     int remove(@Nonnull Long accountId);
 
     /**
-     * Remove the accounts with the specified ids.
+     * Remove the accounts with the specified ids. The accounts are only marked as deleted, which hides them from all
+     * the queries, and they are deleted from the backing store later by {@link #purge(int)}.
      *
      * @param accountIds the unique identifiers indicating the accounts to be deleted
      *
@@ -120,4 +163,16 @@ public interface AccountDao {
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
     int remove(@Nonnull Collection<Long> accountIds);
+
+    /**
+     * Delete a limited number of the removed accounts from the backing store. The accounts are only deleted once all
+     * of their groups have been deleted by {@link GroupDao#purge(int)}, so each call does a bounded amount of work.
+     *
+     * @param limit the maximum number of accounts to delete
+     *
+     * @return the number of accounts deleted from the backing store
+     *
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    int purge(int limit);
 }
@@ -0,0 +1,80 @@
+package com.grpctrl.db.dao;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.db.usage.AccountUsage;
+
+import java.sql.Connection;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Defines the interface of the data access layer used to track the resources used by each account, which allows the
+ * service level quotas to be enforced without counting all of the groups and tags owned by an account.
+ */
+public interface AccountUsageDao {
+    /**
+     * Retrieve the usage of an account, from the cache when available.
+     *
+     * @param conn the {@link Connection} to use when retrieving the usage as part of an existing transaction
+     * @param account the account for which usage is to be retrieved
+     *
+     * @return the usage of the account
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    @Nonnull
+    AccountUsage get(@Nonnull Connection conn, @Nonnull Account account);
+
+    /**
+     * Apply changes to the usage of an account, verifying that any increases in usage remain within the service level
+     * quotas of the account. This is invoked within the transaction that modifies the groups and tags, and holds a
+     * lock on the usage of the account until the transaction completes, so concurrent changes to the same account are
+     * checked against each other. The returned usage should be provided to
+     * {@link #committed(AccountUsage)} once the transaction has been committed.
+     *
+     * @param conn the {@link Connection} on which the groups and tags were modified as part of an existing transaction
+     * @param account the account whose usage has changed
+     * @param groups the change in the number of groups owned by the account, negative when groups were removed
+     * @param tags the change in the number of tags owned by the account, negative when tags were removed
+     * @param depth the depth of any groups that were added, or zero when no groups were added
+     *
+     * @return the updated usage of the account
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     * @throws com.grpctrl.db.error.QuotaExceededException if the changes would exceed the quotas of the account
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    @Nonnull
+    AccountUsage update(@Nonnull Connection conn, @Nonnull Account account, long groups, long tags, int depth);
+
+    /**
+     * Make usage that was updated within a transaction available to subsequent reads, once the transaction has been
+     * committed.
+     *
+     * @param usage the usage returned from {@link #update(Connection, Account, long, long, int)}
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    void committed(@Nonnull AccountUsage usage);
+
+    /**
+     * Compare the stored usage of a range of accounts with the groups and tags they actually own, correcting any
+     * usage that has drifted.
+     *
+     * @param after the accounts with an identifier greater than this value are reconciled
+     * @param limit the maximum number of accounts to reconcile
+     * @param drifted the consumer to receive the stored and actual usage of each account whose group or tag counts
+     *     were found to be incorrect
+     *
+     * @return the identifier of the last account that was reconciled, to be used as the {@code after} value to
+     *     continue reconciling, or empty when no more accounts remain
+     *
+     * @throws NullPointerException if the consumer parameter is {@code null}
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    @Nonnull
+    Optional<Long> reconcile(long after, int limit, @Nonnull BiConsumer<AccountUsage, AccountUsage> drifted);
+}
@@ -0,0 +1,139 @@
+package com.grpctrl.db.dao;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ApiLogin;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Defines the asynchronous variant of the {@link AccountDao}, where each operation runs on the database executor and
+ * the returned future completes once the operation has finished. The consumers are called on the database executor
+ * threads before the future completes, and the futures complete exceptionally with the
+ * {@link javax.ws.rs.WebApplicationException} thrown by the {@link AccountDao}, or with a
+ * {@link javax.ws.rs.ServiceUnavailableException} when too many database operations are already waiting to run.
+ */
+public interface AsyncAccountDao {
+    /**
+     * Consume the account with the specified unique id, see {@link AccountDao#get(Long, Consumer)}.
+     *
+     * @param accountId the unique identifier of the account to be consumed
+     * @param consumer the consumer to receive the indicated account object
+     *
+     * @return a future completed once the account has been consumed
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> get(@Nonnull Long accountId, @Nonnull Consumer<Account> consumer);
+
+    /**
+     * Consume the accounts with the specified unique ids, see {@link AccountDao#get(Collection, Consumer)}.
+     *
+     * @param accountIds the unique identifiers of the accounts to be consumed
+     * @param consumer the consumer to receive the indicated account objects
+     *
+     * @return a future completed once the accounts have been consumed
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> get(@Nonnull Collection<Long> accountIds, @Nonnull Consumer<Account> consumer);
+
+    /**
+     * Retrieve the account associated with the specified API login, see {@link AccountDao#get(ApiLogin)}.
+     *
+     * @param apiLogin the unique API login used to lookup an account
+     *
+     * @return a future providing the account associated with the specified API login, if available
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<Account>> get(@Nonnull ApiLogin apiLogin);
+
+    /**
+     * Retrieve all the accounts available for the specified user id, see {@link AccountDao#getForUser(Long)}.
+     *
+     * @param userId the unique identifier of the user for which accounts should be retrieved
+     *
+     * @return a future providing the collection of accounts available for the specified user
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Collection<Account>> getForUser(@Nonnull Long userId);
+
+    /**
+     * Consume a page of all the accounts in the system, see {@link AccountDao#getAll(Page, Consumer)}.
+     *
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to receive each of the available account objects
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if either of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> getAll(@Nonnull Page page, @Nonnull Consumer<Account> consumer);
+
+    /**
+     * Add the specified accounts to the backing store, see {@link AccountDao#add(Iterator, Consumer)}. The iterator is
+     * consumed on the database executor thread.
+     *
+     * @param accounts the iterable of accounts to be added to the backing store
+     * @param consumer the consumer to receive each of the stored account objects
+     *
+     * @return a future completed once the accounts have been added
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> add(@Nonnull Iterator<Account> accounts, @Nonnull Consumer<Account> consumer);
+
+    /**
+     * Add the specified accounts to the backing store using a bulk-load operation, see
+     * {@link AccountDao#bulkAdd(Iterator, Consumer)}. The iterator is consumed on the database executor thread.
+     *
+     * @param accounts the iterable of accounts to be added to the backing store
+     * @param consumer the consumer to receive each of the stored account objects
+     *
+     * @return a future completed once the accounts have been added
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> bulkAdd(@Nonnull Iterator<Account> accounts, @Nonnull Consumer<Account> consumer);
+
+    /**
+     * Remove the account with the specified id, see {@link AccountDao#remove(Long)}.
+     *
+     * @param accountId the unique identifier indicating the account to be deleted
+     *
+     * @return a future providing the total number of accounts removed
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Integer> remove(@Nonnull Long accountId);
+
+    /**
+     * Remove the accounts with the specified ids, see {@link AccountDao#remove(Collection)}.
+     *
+     * @param accountIds the unique identifiers indicating the accounts to be deleted
+     *
+     * @return a future providing the total number of accounts removed
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Integer> remove(@Nonnull Collection<Long> accountIds);
+}
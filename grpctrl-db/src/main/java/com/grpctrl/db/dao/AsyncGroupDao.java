@@ -0,0 +1,274 @@
+package com.grpctrl.db.dao;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Defines the asynchronous variant of the {@link GroupDao}, where each operation runs on the database executor and
+ * the returned future completes once the operation has finished. The consumers are called on the database executor
+ * threads before the future completes, and the futures complete exceptionally with the
+ * {@link javax.ws.rs.WebApplicationException} thrown by the {@link GroupDao}, or with a
+ * {@link javax.ws.rs.ServiceUnavailableException} when too many database operations are already waiting to run.
+ */
+public interface AsyncGroupDao {
+    /**
+     * Check to see if the group with the specified id exists, see {@link GroupDao#exists(Account, Long)}.
+     *
+     * @param account the account to check for the existence of the group
+     * @param groupId the unique identifier of the group to check for existence
+     *
+     * @return a future providing whether any groups exist with the specified id
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Boolean> exists(@Nonnull Account account, @Nonnull Long groupId);
+
+    /**
+     * Check to see if the group with the specified name exists, see {@link GroupDao#exists(Account, String)}.
+     *
+     * @param account the account to check for the existence of the group
+     * @param groupName the name of the group to check for existence
+     *
+     * @return a future providing whether any groups exist with the specified name
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Boolean> exists(@Nonnull Account account, @Nonnull String groupName);
+
+    /**
+     * Retrieve the top-level groups, see {@link GroupDao#get(Account, Page, BiConsumer)}.
+     *
+     * @param account the account for which groups will be retrieved
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> get(
+            @Nonnull Account account, @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Retrieve the groups with the specified unique identifiers, see
+     * {@link GroupDao#getById(Account, Collection, Page, BiConsumer)}.
+     *
+     * @param account the account for which groups will be retrieved
+     * @param groupIds the unique ids of the groups to be retrieved
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> getById(
+            @Nonnull Account account, @Nonnull Collection<Long> groupIds,
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Retrieve the groups with the specified names, see
+     * {@link GroupDao#getByName(Account, Collection, Page, BiConsumer)}.
+     *
+     * @param account the account for which groups will be retrieved
+     * @param groupNames the names of the groups to be retrieved
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> getByName(
+            @Nonnull Account account, @Nonnull Collection<String> groupNames,
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Retrieve the groups with the names matching the provided POSIX regular expression values, see
+     * {@link GroupDao#find(Account, Collection, boolean, Page, BiConsumer)}.
+     *
+     * @param account the account for which groups will be retrieved
+     * @param regexes the POSIX regular expressions to use when finding groups
+     * @param caseSensitive whether the regular expressions should be processed with matching character case
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> find(
+            @Nonnull Account account, @Nonnull Collection<String> regexes, boolean caseSensitive,
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Retrieve the children of the groups with the specified ids, see
+     * {@link GroupDao#childrenById(Account, Collection, Page, BiConsumer)}.
+     *
+     * @param account the account for which group information will be retrieved
+     * @param parentIds the unique ids of the groups for which children will be retrieved
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> childrenById(
+            @Nonnull Account account, @Nonnull Collection<Long> parentIds,
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Retrieve the children of the groups with the specified names, see
+     * {@link GroupDao#childrenByName(Account, Collection, Page, BiConsumer)}.
+     *
+     * @param account the account for which group information will be retrieved
+     * @param parentNames the names of the parent groups for which children will be retrieved
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> childrenByName(
+            @Nonnull Account account, @Nonnull Collection<String> parentNames,
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Retrieve the children of the groups with names matching the provided POSIX regular expressions, see
+     * {@link GroupDao#childrenFind(Account, Collection, boolean, Page, BiConsumer)}.
+     *
+     * @param account the account for which group information will be retrieved
+     * @param regexes the POSIX regular expressions to use when finding groups
+     * @param caseSensitive whether the regular expressions should be processed with matching character case
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> childrenFind(
+            @Nonnull Account account, @Nonnull Collection<String> regexes, boolean caseSensitive,
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Retrieve all of the groups below the groups with the specified ids, see
+     * {@link GroupDao#descendants(Account, Collection, int, Page, BiConsumer)}.
+     *
+     * @param account the account for which group information will be retrieved
+     * @param rootIds the unique ids of the groups at the roots of the subtrees to retrieve
+     * @param maxDepth the maximum number of levels below the root groups to retrieve, where values less than 1 indicate
+     *     that the entire subtrees should be retrieved
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return a future providing the continuation token to use when retrieving the next page of results, empty when
+     *     there are no more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> descendants(
+            @Nonnull Account account, @Nonnull Collection<Long> rootIds, int maxDepth,
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Add the specified groups as children of the specified parent, see
+     * {@link GroupDao#add(Account, Long, Iterator, BiConsumer)}. The iterator is consumed on the database executor
+     * thread.
+     *
+     * @param account the account that owns the groups
+     * @param parentId the unique identifier of the parent group into which the provides groups will be added, possibly
+     *     {@code null} in which case the new groups will be top-level groups
+     * @param groups the collection of groups to be added to the backing store
+     * @param consumer the consumer to which all the inserted groups and tags will be passed
+     *
+     * @return a future completed once the groups have been added
+     *
+     * @throws NullPointerException if the account, groups, or consumer parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> add(
+            @Nonnull Account account, @Nullable Long parentId, @Nonnull Iterator<Group> groups,
+            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Add the specified groups as children of the specified parent using a bulk-load operation, see
+     * {@link GroupDao#bulkAdd(Account, Long, Iterator, BiConsumer)}. The iterator is consumed on the database executor
+     * thread.
+     *
+     * @param account the account that owns the groups
+     * @param parentId the unique identifier of the parent group into which the provides groups will be added, possibly
+     *     {@code null} in which case the new groups will be top-level groups
+     * @param groups the collection of groups to be added to the backing store
+     * @param consumer the consumer to which all the inserted groups and tags will be passed
+     *
+     * @return a future completed once the groups have been added
+     *
+     * @throws NullPointerException if the account, groups, or consumer parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> bulkAdd(
+            @Nonnull Account account, @Nullable Long parentId, @Nonnull Iterator<Group> groups,
+            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Move groups, along with all of their descendants, under a new parent group, see
+     * {@link GroupDao#move(Account, Collection, Long)}.
+     *
+     * @param account the account that owns the groups
+     * @param groupIds the collection of identifiers indicating which groups are to be moved
+     * @param parentId the unique identifier of the new parent group, possibly {@code null} in which case the groups
+     *     will become top-level groups
+     *
+     * @return a future providing the number of groups moved
+     *
+     * @throws NullPointerException if the account or group ids parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Integer> move(
+            @Nonnull Account account, @Nonnull Collection<Long> groupIds, @Nullable Long parentId);
+
+    /**
+     * Remove groups, along with all of their descendants, see {@link GroupDao#remove(Account, Collection)}.
+     *
+     * @param account the account that owns the groups
+     * @param groupIds the collection of identifiers indicating which groups are to be removed
+     *
+     * @return a future providing the number of groups removed
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Integer> remove(@Nonnull Account account, @Nonnull Collection<Long> groupIds);
+}
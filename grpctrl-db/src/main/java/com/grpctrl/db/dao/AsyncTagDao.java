@@ -0,0 +1,88 @@
+package com.grpctrl.db.dao;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.selector.TagSelector;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Defines the asynchronous variant of the {@link TagDao}, where each operation runs on the database executor and the
+ * returned future completes once the operation has finished. The consumers are called on the database executor
+ * threads before the future completes, and the futures complete exceptionally with the
+ * {@link javax.ws.rs.WebApplicationException} thrown by the {@link TagDao}, or with a
+ * {@link javax.ws.rs.ServiceUnavailableException} when too many database operations are already waiting to run.
+ */
+public interface AsyncTagDao {
+    /**
+     * Add the specified tags to the group with the provided id, see {@link TagDao#add(Account, Long, Iterable)}.
+     *
+     * @param account the account that owns the group
+     * @param groupId the unique identifier of the group to which the tag will be assigned
+     * @param tags the collection of tags to be assigned to the group
+     *
+     * @return a future providing the number of tags that were inserted into the backing store
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Integer> add(@Nonnull Account account, @Nonnull Long groupId, @Nonnull Iterable<Tag> tags);
+
+    /**
+     * Remove the specified tags from the group with the specified id, see
+     * {@link TagDao#remove(Account, Long, Iterable)}.
+     *
+     * @param account the account that owns the group
+     * @param groupId the unique identifier of the group from which the tag will be removed
+     * @param tags the collection tags to be removed from the group
+     *
+     * @return a future providing the number of tags removed from the backing store
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Integer> remove(@Nonnull Account account, @Nonnull Long groupId, @Nonnull Iterable<Tag> tags);
+
+    /**
+     * Remove tags with the specified labels from the group with the provided id, see
+     * {@link TagDao#removeLabels(Account, Long, Iterable)}.
+     *
+     * @param account the account that owns the group
+     * @param groupId the unique identifier of the group from which the tags will be removed
+     * @param tagLabels the collection of tag labels to be removed from the group (with corresponding values)
+     *
+     * @return a future providing the number of tags removed from the backing store
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Integer> removeLabels(
+            @Nonnull Account account, @Nonnull Long groupId, @Nonnull Iterable<String> tagLabels);
+
+    /**
+     * Retrieve a page of the groups, with tags, whose tags match the provided selector, see
+     * {@link TagDao#findGroups(Account, TagSelector, Page, BiConsumer)}.
+     *
+     * @param account the account that owns the groups
+     * @param selector the selector describing the tags the groups must have
+     * @param page the page of matching groups to retrieve
+     * @param consumer the consumer to receive each of the matching groups in the page
+     *
+     * @return a future providing the continuation token to use when retrieving the next page, when another page is
+     *     available
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<PageToken>> findGroups(
+            @Nonnull Account account, @Nonnull TagSelector selector, @Nonnull Page page,
+            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+}
@@ -0,0 +1,116 @@
+package com.grpctrl.db.dao;
+
+import com.grpctrl.common.model.User;
+import com.grpctrl.common.model.UserSource;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Defines the asynchronous variant of the {@link UserDao}, where each operation runs on the database executor and the
+ * returned future completes once the operation has finished. The futures complete exceptionally with the
+ * {@link javax.ws.rs.WebApplicationException} thrown by the {@link UserDao}, or with a
+ * {@link javax.ws.rs.ServiceUnavailableException} when too many database operations are already waiting to run.
+ */
+public interface AsyncUserDao {
+    /**
+     * Retrieve the user with the specified unique id, see {@link UserDao#get(Long)}.
+     *
+     * @param userId the unique id of the user to retrieve
+     *
+     * @return a future providing the requested user, if available
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<User>> get(@Nonnull Long userId);
+
+    /**
+     * Retrieve the users with the specified unique ids, see {@link UserDao#get(Collection)}.
+     *
+     * @param userIds the unique ids of the users to retrieve
+     *
+     * @return a future providing the requested users that were found
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Collection<User>> get(@Nonnull Collection<Long> userIds);
+
+    /**
+     * Retrieve the user with the specified source and login, see {@link UserDao#get(UserSource, String)}.
+     *
+     * @param source the source of the user account
+     * @param login the user login value
+     *
+     * @return a future providing the requested user, if available
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Optional<User>> get(@Nonnull UserSource source, @Nonnull String login);
+
+    /**
+     * Retrieve the users with the specified source and logins, see {@link UserDao#get(UserSource, Collection)}.
+     *
+     * @param source the source of the user accounts
+     * @param logins the user login values
+     *
+     * @return a future providing the requested users that were found
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Collection<User>> get(@Nonnull UserSource source, @Nonnull Collection<String> logins);
+
+    /**
+     * Add the specified user, see {@link UserDao#add(User)}.
+     *
+     * @param user the user to add
+     *
+     * @return a future completed once the user has been added, at which point it includes its unique id
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> add(@Nonnull User user);
+
+    /**
+     * Add the specified users, see {@link UserDao#add(Collection)}.
+     *
+     * @param users the users to add
+     *
+     * @return a future completed once the users have been added, at which point they include their unique ids
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> add(@Nonnull Collection<User> users);
+
+    /**
+     * Remove the user with the specified unique id, see {@link UserDao#remove(Long)}.
+     *
+     * @param userId the unique id of the user to remove
+     *
+     * @return a future completed once the user has been removed
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> remove(@Nonnull Long userId);
+
+    /**
+     * Remove the users with the specified unique ids, see {@link UserDao#remove(Collection)}.
+     *
+     * @param userIds the unique ids of the users to remove
+     *
+     * @return a future completed once the users have been removed
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    CompletableFuture<Void> remove(@Nonnull Collection<Long> userIds);
+}
@@ -3,21 +3,25 @@ package com.grpctrl.db.dao;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.Group;
 import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
 
 import java.sql.Connection;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Optional;
 import java.util.function.BiConsumer;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 /**
- * Defines the interface of the data access layer used to manage groups in the database.
+ * Defines the interface of the data access layer used to manage groups in the database. Groups are retrieved in order
+ * of their unique identifiers, one {@link Page} at a time.
  */
 public interface GroupDao {
     /**
-     * Retrieve a count of the number of groups owned by an account.
+     * Retrieve a count of the number of groups owned by an account, as tracked by the account usage.
      *
      * @param conn the {@link Connection} to use when retrieving the group count as part of an existing transaction
      * @param account the account for which groups are to be counted
@@ -73,40 +77,56 @@ public interface GroupDao {
      * Retrieve the top-level groups.
      *
      * @param account the account for which groups will be retrieved
+     * @param page the page of results to retrieve
      * @param consumer the consumer to which the identified groups and tags will be passed
      *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
      * @throws NullPointerException if any of the parameters are {@code null}
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
-    void get(@Nonnull Account account, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+    @Nonnull
+    Optional<PageToken> get(
+            @Nonnull Account account, @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
 
     /**
      * Retrieve the groups with the specified unique identifiers.
      *
      * @param account the account for which groups will be retrieved
      * @param groupIds the unique id of the group to be retrieved
+     * @param page the page of results to retrieve
      * @param consumer the consumer to which the identified group and tags will be passed, if found
      *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
      * @throws NullPointerException if any of the parameters are {@code null}
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
-    void getById(
+    @Nonnull
+    Optional<PageToken> getById(
             @Nonnull Account account, @Nonnull Collection<Long> groupIds,
-            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
 
     /**
      * Retrieve the groups with the specified names.
      *
      * @param account the account for which groups will be retrieved
      * @param groupNames the names of the groups to be retrieved
+     * @param page the page of results to retrieve
      * @param consumer the consumer to which the identified groups and tags will be passed
      *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
      * @throws NullPointerException if any of the parameters are {@code null}
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
-    void getByName(
+    @Nonnull
+    Optional<PageToken> getByName(
             @Nonnull Account account, @Nonnull Collection<String> groupNames,
-            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
 
     /**
      * Retrieve the groups with the names matching the provided POSIX regular expression values.
@@ -114,42 +134,57 @@ public interface GroupDao {
      * @param account the account for which groups will be retrieved
      * @param regexes the POSIX regular expressions to use when finding groups
      * @param caseSensitive whether the regular expressions should be processed with matching character case
+     * @param page the page of results to retrieve
      * @param consumer the consumer to which the identified groups and tags will be passed
      *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
      * @throws NullPointerException if any of the parameters are {@code null}
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
-    void find(
+    @Nonnull
+    Optional<PageToken> find(
             @Nonnull Account account, @Nonnull Collection<String> regexes, boolean caseSensitive,
-            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
 
     /**
      * Retrieve the children of the group with the specified id.
      *
      * @param account the account for which group information will be retrieved
      * @param parentIds the unique ids of the groups for which children will be retrieved
+     * @param page the page of results to retrieve
      * @param consumer the consumer to which the identified groups and tags will be passed
      *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
      * @throws NullPointerException if any of the parameters are {@code null}
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
-    void childrenById(
+    @Nonnull
+    Optional<PageToken> childrenById(
             @Nonnull Account account, @Nonnull Collection<Long> parentIds,
-            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
 
     /**
      * Retrieve the children of the groups with the specified name.
      *
      * @param account the account for which group information will be retrieved
      * @param parentNames the names of the parent groups for which children will be retrieved
+     * @param page the page of results to retrieve
      * @param consumer the consumer to which the identified groups will be passed
      *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
      * @throws NullPointerException if any of the parameters are {@code null}
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
-    void childrenByName(
+    @Nonnull
+    Optional<PageToken> childrenByName(
             @Nonnull Account account, @Nonnull Collection<String> parentNames,
-            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
 
     /**
      * Retrieve the children of the group with names matching the provided POSIX regular expressions.
@@ -157,14 +192,46 @@ public interface GroupDao {
      * @param account the account for which group information will be retrieved
      * @param regexes the POSIX regular expressions to use when finding groups
      * @param caseSensitive whether the regular expressions should be processed with matching character case
+     * @param page the page of results to retrieve
      * @param consumer the consumer to which the identified groups will be passed
      *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
      * @throws NullPointerException if any of the parameters are {@code null}
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
-    void childrenFind(
+    @Nonnull
+    Optional<PageToken> childrenFind(
             @Nonnull Account account, @Nonnull Collection<String> regexes, boolean caseSensitive,
-            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Retrieve all of the groups below the groups with the specified ids. The subtrees are walked in turn, depth-first
+     * with the children of each group in the order they were added, and the groups are provided in the order they are
+     * walked. Groups below more than one of the roots are only provided once. A continuation token resumes the walk
+     * after the last group of the previous page, and is no longer valid once that group is removed or moved out of the
+     * subtrees.
+     *
+     * @param account the account for which group information will be retrieved
+     * @param rootIds the unique ids of the groups at the roots of the subtrees to retrieve, which are not themselves
+     *     included in the results
+     * @param maxDepth the maximum number of levels below the root groups to retrieve, where values less than 1 indicate
+     *     that the entire subtrees should be retrieved
+     * @param page the page of results to retrieve
+     * @param consumer the consumer to which the identified groups and tags will be passed
+     *
+     * @return the continuation token to use when retrieving the next page of results, empty when there are no
+     *     more results
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     * @throws javax.ws.rs.BadRequestException if the continuation token is no longer valid
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    @Nonnull
+    Optional<PageToken> descendants(
+            @Nonnull Account account, @Nonnull Collection<Long> rootIds, int maxDepth,
+            @Nonnull Page page, @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
 
     /**
      * Add the specified groups to the backing store.
@@ -197,7 +264,49 @@ public interface GroupDao {
             @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
 
     /**
-     * Remove groups with the specified unique identifiers.
+     * Add the specified groups to the backing store as children for the specified parent id using a bulk-load
+     * operation. The groups and their tags are streamed into the database in a single pass and then merged together
+     * after the account quotas are verified, which is far more efficient than {@link #add(Account, Long, Iterator,
+     * BiConsumer)} for large numbers of groups and tags. The groups are not passed to the consumer until all of them
+     * have been stored, at which point they are provided in order of their new unique identifiers.
+     *
+     * @param account the account that owns the groups
+     * @param parentId the unique identifier of the parent group into which the provides groups will be added, possibly
+     *     {@code null} in which case the new groups will be top-level groups
+     * @param groups the collection of groups to be added to the backing store
+     * @param consumer the consumer to which all the inserted groups and tags will be passed
+     *
+     * @throws NullPointerException if the account, groups, or consumer parameters are {@code null}
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    void bulkAdd(
+            @Nonnull Account account, @Nullable Long parentId, @Nonnull Iterator<Group> groups,
+            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Move groups with the specified unique identifiers, along with all of their descendants, under a new parent
+     * group. All of the groups are moved with a single update, after verifying that the new parent is not within any
+     * of the moved subtrees and that the deepest moved descendant stays within the maximum depth of the account.
+     *
+     * @param account the account that owns the groups
+     * @param groupIds the collection of identifiers indicating which groups are to be moved
+     * @param parentId the unique identifier of the new parent group, possibly {@code null} in which case the groups
+     *     will become top-level groups
+     *
+     * @return the number of groups moved, will only be smaller than the size of the provided id collection when some
+     *     of the ids were not found to move
+     *
+     * @throws NullPointerException if the account or group ids parameters are {@code null}
+     * @throws javax.ws.rs.BadRequestException if the new parent does not exist or is within one of the moved subtrees
+     * @throws com.grpctrl.db.error.QuotaExceededException if the move would exceed the maximum depth of the account
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    int move(@Nonnull Account account, @Nonnull Collection<Long> groupIds, @Nullable Long parentId);
+
+    /**
+     * Remove groups with the specified unique identifiers, along with all of their descendants. The groups are only
+     * marked as deleted, which hides them from all the queries, and they are deleted from the backing store later by
+     * {@link #purge(int)}.
      *
      * @param account the account that owns the groups
      * @param groupIds the collection of identifiers indicating which groups are to be removed
@@ -209,4 +318,19 @@ public interface GroupDao {
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
     int remove(@Nonnull Account account, @Nonnull Collection<Long> groupIds);
+
+    /**
+     * Delete a limited number of the removed groups, and the groups of removed accounts, from the backing store. Only
+     * groups without children are deleted, so each call does a bounded amount of work and the deepest groups of the
+     * removed subtrees are deleted first. The groups of removed accounts are marked as removed, a limited number at a
+     * time, before they are deleted.
+     *
+     * @param limit the maximum number of groups to mark as removed, and the maximum number of groups to delete
+     *
+     * @return the number of groups marked as removed or deleted from the backing store, which is zero once there is
+     *     nothing left to purge
+     *
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    int purge(int limit);
 }
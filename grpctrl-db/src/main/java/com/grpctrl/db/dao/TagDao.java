@@ -1,10 +1,17 @@
 package com.grpctrl.db.dao;
 
 import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
 import com.grpctrl.common.model.Tag;
 import com.grpctrl.common.util.CloseableBiConsumer;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.selector.TagSelector;
 
 import java.sql.Connection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.BiConsumer;
 
 import javax.annotation.Nonnull;
 
@@ -13,7 +20,7 @@ import javax.annotation.Nonnull;
  */
 public interface TagDao {
     /**
-     * Retrieve a count of the number of tags owned by an account.
+     * Retrieve a count of the number of tags owned by an account, as tracked by the account usage.
      *
      * @param conn the {@link Connection} to use when retrieving the tag count as part of an existing transaction
      * @param account the account for which tags are to be counted
@@ -24,7 +31,11 @@ public interface TagDao {
     int count(@Nonnull Connection conn, @Nonnull Account account);
 
     /**
-     * Retrieve a consumer capable of adding tags to the database.
+     * Retrieve a consumer capable of adding tags to the database. The consumer does not track the added tags in the
+     * account usage, which remains the responsibility of the caller managing the transaction. The tags are made
+     * available to {@link #findGroups(Account, TagSelector, Page, BiConsumer)} as they are consumed, so the caller
+     * must {@link #invalidate(Account)} the account if the transaction is not committed, and must pass the consumer to
+     * {@link #committed(Account, CloseableBiConsumer)} once it is.
      *
      * @param conn the {@link Connection} to use when adding the tags as part of an existing transaction
      * @param account the account that owns the groups containing the tags
@@ -46,6 +57,7 @@ public interface TagDao {
      * @return the number of tags that were inserted into the backing store
      *
      * @throws NullPointerException if any of the parameters are {@code null}
+     * @throws com.grpctrl.db.error.QuotaExceededException if adding the tags would exceed the account tag quota
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
     int add(@Nonnull Account account, @Nonnull Long groupId, @Nonnull Iterable<Tag> tags);
@@ -80,4 +92,47 @@ public interface TagDao {
      * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
      */
     int removeLabels(@Nonnull Account account, @Nonnull Long groupId, @Nonnull Iterable<String> tagLabels);
+
+    /**
+     * Retrieve a page of the groups, with tags, whose tags match the provided selector. The first selector for an
+     * account is evaluated by the database against an indexed copy of the tags of each group, and later selectors are
+     * evaluated using an in-memory index of the tags owned by the account, which is loaded from the database the first
+     * time it is needed.
+     *
+     * @param account the account that owns the groups
+     * @param selector the selector describing the tags the groups must have
+     * @param page the page of matching groups to retrieve
+     * @param consumer the consumer to receive each of the matching groups in the page
+     *
+     * @return the continuation token to use when retrieving the next page, when another page is available
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+     */
+    @Nonnull
+    Optional<PageToken> findGroups(
+            @Nonnull Account account, @Nonnull TagSelector selector, @Nonnull Page page,
+            @Nonnull BiConsumer<Group, Iterator<Tag>> consumer);
+
+    /**
+     * Drop any in-memory tag information held for an account, so that it is reloaded from the database the next time
+     * it is needed. This is used when tags are modified other than through this DAO, such as when groups are removed.
+     *
+     * @param account the account whose tag information may no longer match the database
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    void invalidate(@Nonnull Account account);
+
+    /**
+     * Complete the addition of tags through a consumer retrieved from {@link #getAddConsumer(Connection, Account)},
+     * once the transaction in which the tags were added is committed. Any in-memory tag information for the account
+     * that may have missed the added tags, such as information that was being loaded meanwhile, is dropped.
+     *
+     * @param account the account that owns the groups containing the added tags
+     * @param addConsumer the consumer through which the tags were added
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    void committed(@Nonnull Account account, @Nonnull CloseableBiConsumer<Long, Tag> addConsumer);
 }
@@ -0,0 +1,69 @@
+package com.grpctrl.db.dao;
+
+import com.grpctrl.common.model.Tag;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Defines the interface of the data access layer used to map tag labels and values to the integer ids stored with
+ * each tag. The mappings never change once created, so they are cached for the life of the process.
+ */
+public interface TagDictionaryDao {
+    /**
+     * Retrieve a resolver capable of mapping tag labels and values to their ids, adding any that are not yet known to
+     * the dictionary. New entries are added as part of the transaction of the provided connection, so the ids they are
+     * assigned are only shared with other transactions once they are known to have been committed.
+     *
+     * @param conn the {@link Connection} to use when adding dictionary entries as part of an existing transaction
+     *
+     * @return the resolver to use for the tags added in the transaction
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    Resolver getResolver(@Nonnull Connection conn);
+
+    /**
+     * Read the tag from the current row of a result set having {@code label_id}, {@code value_id}, {@code tag_label}
+     * and {@code tag_value} columns. The label and value strings are shared by all the tags using the same ids, and are
+     * only read from the row when the ids have not been seen before.
+     *
+     * @param rs the result set positioned on the row to read
+     * @param tag the tag into which the label and value are read
+     *
+     * @return whether the row contained a tag, which is not the case for rows of groups without tags
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     * @throws SQLException if there is a problem reading from the result set
+     */
+    boolean readTag(@Nonnull ResultSet rs, @Nonnull Tag tag) throws SQLException;
+
+    /**
+     * Maps tag labels and values to their dictionary ids within a single transaction.
+     */
+    interface Resolver {
+        /**
+         * @param label the tag label to map
+         *
+         * @return the id of the label in the dictionary
+         *
+         * @throws NullPointerException if the parameter is {@code null}
+         * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+         */
+        int getLabelId(@Nonnull String label);
+
+        /**
+         * @param value the tag value to map
+         *
+         * @return the id of the value in the dictionary
+         *
+         * @throws NullPointerException if the parameter is {@code null}
+         * @throws javax.ws.rs.WebApplicationException if there is a problem interacting with the database
+         */
+        int getValueId(@Nonnull String value);
+    }
+}
@@ -0,0 +1,142 @@
+package com.grpctrl.db.dao.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ApiLogin;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.stream.RowBuffer;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.InternalServerErrorException;
+
+/**
+ * Provides an implementation of an {@link AccountDao} that buffers the accounts streamed by another {@link AccountDao}
+ * so the database connection is released before the accounts are passed to the consumer.
+ *
+ * <p>This is still a blocking implementation: the calling thread waits for the rows to be read and then for the
+ * consumer to accept each account. Only the time the connection is held no longer depends on the consumer. Releasing
+ * the request thread as well would need a non-blocking PostgreSQL driver, which this build does not include.</p>
+ */
+public class BufferedAccountDao implements AccountDao {
+    @Nonnull
+    private final AccountDao delegate;
+    private final int bufferSize;
+
+    /**
+     * @param delegate the {@link AccountDao} that performs the database operations
+     * @param bufferSize the maximum number of accounts to buffer for each request
+     *
+     * @throws NullPointerException if the delegate is {@code null}
+     */
+    public BufferedAccountDao(@Nonnull final AccountDao delegate, final int bufferSize) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void get(@Nonnull final Long accountId, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(accountId);
+        Objects.requireNonNull(consumer);
+
+        final RowBuffer<Account> buffer = new RowBuffer<>(this.bufferSize, consumer);
+        this.delegate.get(accountId, account -> buffer.accept(new Account(account)));
+        buffer.flush();
+    }
+
+    @Override
+    public void get(@Nonnull final Collection<Long> accountIds, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(accountIds);
+        Objects.requireNonNull(consumer);
+
+        final RowBuffer<Account> buffer = new RowBuffer<>(this.bufferSize, consumer);
+        this.delegate.get(accountIds, account -> buffer.accept(new Account(account)));
+        buffer.flush();
+    }
+
+    @Override
+    public Optional<Account> get(@Nonnull final ApiLogin apiLogin) {
+        return this.delegate.get(apiLogin);
+    }
+
+    @Override
+    public Collection<Account> getForUser(@Nonnull final Long userId) {
+        return this.delegate.getForUser(userId);
+    }
+
+    @Override
+    public Map<Long, Collection<Account>> getForUsers(
+            @Nonnull final Connection conn, @Nonnull final Collection<Long> userIds) {
+        return this.delegate.getForUsers(conn, userIds);
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> getAll(@Nonnull final Page page, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+
+        final RowBuffer<Account> buffer = new RowBuffer<>(this.bufferSize, consumer);
+        final Optional<PageToken> pageToken =
+                this.delegate.getAll(page, account -> buffer.accept(new Account(account)));
+        buffer.flush();
+        return pageToken;
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> writeAll(@Nonnull final Page page, @Nonnull final JsonGenerator generator) {
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(generator);
+
+        if (page.getLimit() > this.bufferSize) {
+            // The page may not fit in the buffer, so the accounts are written while the query is running.
+            return this.delegate.writeAll(page, generator);
+        }
+
+        final TokenBuffer buffer = new TokenBuffer(generator.getCodec(), false);
+        final Optional<PageToken> pageToken = this.delegate.writeAll(page, buffer);
+        try {
+            buffer.serialize(generator);
+        } catch (final IOException ioException) {
+            throw new InternalServerErrorException("Failed to write JSON data to client", ioException);
+        }
+        return pageToken;
+    }
+
+    @Override
+    public void add(@Nonnull final Iterator<Account> accounts, @Nonnull final Consumer<Account> consumer) {
+        this.delegate.add(accounts, consumer);
+    }
+
+    @Override
+    public void bulkAdd(@Nonnull final Iterator<Account> accounts, @Nonnull final Consumer<Account> consumer) {
+        this.delegate.bulkAdd(accounts, consumer);
+    }
+
+    @Override
+    public int remove(@Nonnull final Long accountId) {
+        return this.delegate.remove(accountId);
+    }
+
+    @Override
+    public int remove(@Nonnull final Collection<Long> accountIds) {
+        return this.delegate.remove(accountIds);
+    }
+
+    @Override
+    public int purge(final int limit) {
+        return this.delegate.purge(limit);
+    }
+}
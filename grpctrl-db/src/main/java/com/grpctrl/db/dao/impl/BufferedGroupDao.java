@@ -0,0 +1,180 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.stream.RowBuffer;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Provides an implementation of a {@link GroupDao} that buffers the groups streamed by another {@link GroupDao} so the
+ * database connection is released before the groups are passed to the consumer.
+ *
+ * <p>The consumer is still called on the thread that ran the query, and a slow consumer delays that thread, but not
+ * the return of the connection to the pool. A result larger than the buffer holds its connection while the rows past
+ * the buffer are streamed, which keeps memory bounded.</p>
+ */
+public class BufferedGroupDao implements GroupDao {
+    @Nonnull
+    private final GroupDao delegate;
+    private final int bufferSize;
+
+    /**
+     * @param delegate the {@link GroupDao} that performs the database operations
+     * @param bufferSize the maximum number of groups to buffer for each request
+     *
+     * @throws NullPointerException if the delegate is {@code null}
+     */
+    public BufferedGroupDao(@Nonnull final GroupDao delegate, final int bufferSize) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.bufferSize = bufferSize;
+    }
+
+    @Nonnull
+    private Optional<PageToken> buffered(
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer,
+            @Nonnull final Function<BiConsumer<Group, Iterator<Tag>>, Optional<PageToken>> query) {
+        Objects.requireNonNull(consumer);
+
+        // The groups and tags from the delegate are only valid until the next row is read, so they are copied.
+        final RowBuffer<Group> buffer =
+                new RowBuffer<>(this.bufferSize, group -> consumer.accept(group, group.getTags().iterator()));
+        final Optional<PageToken> pageToken = query.apply((group, tags) -> buffer.accept(new Group(group, tags)));
+        buffer.flush();
+        return pageToken;
+    }
+
+    @Override
+    public int count(@Nonnull final Connection conn, @Nonnull final Account account) {
+        return this.delegate.count(conn, account);
+    }
+
+    @Override
+    public int depth(@Nonnull final Connection conn, @Nonnull final Account account, @Nonnull final Long groupId) {
+        return this.delegate.depth(conn, account, groupId);
+    }
+
+    @Override
+    public boolean exists(@Nonnull final Account account, @Nonnull final Long groupId) {
+        return this.delegate.exists(account, groupId);
+    }
+
+    @Override
+    public boolean exists(@Nonnull final Account account, @Nonnull final String groupName) {
+        return this.delegate.exists(account, groupName);
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> get(
+            @Nonnull final Account account, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        return buffered(consumer, buffer -> this.delegate.get(account, page, buffer));
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> getById(
+            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        return buffered(consumer, buffer -> this.delegate.getById(account, groupIds, page, buffer));
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> getByName(
+            @Nonnull final Account account, @Nonnull final Collection<String> groupNames, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        return buffered(consumer, buffer -> this.delegate.getByName(account, groupNames, page, buffer));
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> find(
+            @Nonnull final Account account, @Nonnull final Collection<String> regexes, final boolean caseSensitive,
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        return buffered(consumer, buffer -> this.delegate.find(account, regexes, caseSensitive, page, buffer));
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> childrenById(
+            @Nonnull final Account account, @Nonnull final Collection<Long> parentIds, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        return buffered(consumer, buffer -> this.delegate.childrenById(account, parentIds, page, buffer));
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> childrenByName(
+            @Nonnull final Account account, @Nonnull final Collection<String> parentNames, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        return buffered(consumer, buffer -> this.delegate.childrenByName(account, parentNames, page, buffer));
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> childrenFind(
+            @Nonnull final Account account, @Nonnull final Collection<String> regexes, final boolean caseSensitive,
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        return buffered(consumer, buffer -> this.delegate.childrenFind(account, regexes, caseSensitive, page, buffer));
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> descendants(
+            @Nonnull final Account account, @Nonnull final Collection<Long> rootIds, final int maxDepth,
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        return buffered(consumer, buffer -> this.delegate.descendants(account, rootIds, maxDepth, page, buffer));
+    }
+
+    @Override
+    public void add(
+            @Nonnull final Account account, @Nonnull final Iterator<Group> groups,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        this.delegate.add(account, groups, consumer);
+    }
+
+    @Override
+    public void add(
+            @Nonnull final Account account, @Nullable final Long parentId, @Nonnull final Iterator<Group> groups,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        this.delegate.add(account, parentId, groups, consumer);
+    }
+
+    @Override
+    public void bulkAdd(
+            @Nonnull final Account account, @Nullable final Long parentId, @Nonnull final Iterator<Group> groups,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        this.delegate.bulkAdd(account, parentId, groups, consumer);
+    }
+
+    @Override
+    public int move(
+            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds, @Nullable final Long parentId) {
+        return this.delegate.move(account, groupIds, parentId);
+    }
+
+    @Override
+    public int remove(@Nonnull final Account account, @Nonnull final Collection<Long> groupIds) {
+        return this.delegate.remove(account, groupIds);
+    }
+
+    @Override
+    public int purge(final int limit) {
+        return this.delegate.purge(limit);
+    }
+}
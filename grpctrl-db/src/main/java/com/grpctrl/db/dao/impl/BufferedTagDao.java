@@ -0,0 +1,96 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.common.util.CloseableBiConsumer;
+import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.selector.TagSelector;
+import com.grpctrl.db.stream.RowBuffer;
+
+import java.sql.Connection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Provides an implementation of a {@link TagDao} that buffers the groups streamed by another {@link TagDao} so the
+ * database connection is released before the groups are passed to the consumer. As with the other buffered DAOs, the
+ * calling thread still blocks while the query runs and while the consumer accepts the groups.
+ */
+public class BufferedTagDao implements TagDao {
+    @Nonnull
+    private final TagDao delegate;
+    private final int bufferSize;
+
+    /**
+     * @param delegate the {@link TagDao} that performs the database operations
+     * @param bufferSize the maximum number of groups to buffer for each request
+     *
+     * @throws NullPointerException if the delegate is {@code null}
+     */
+    public BufferedTagDao(@Nonnull final TagDao delegate, final int bufferSize) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public int count(@Nonnull final Connection conn, @Nonnull final Account account) {
+        return this.delegate.count(conn, account);
+    }
+
+    @Override
+    public CloseableBiConsumer<Long, Tag> getAddConsumer(
+            @Nonnull final Connection conn, @Nonnull final Account account) {
+        return this.delegate.getAddConsumer(conn, account);
+    }
+
+    @Override
+    public int add(@Nonnull final Account account, @Nonnull final Long groupId, @Nonnull final Iterable<Tag> tags) {
+        return this.delegate.add(account, groupId, tags);
+    }
+
+    @Override
+    public int remove(@Nonnull final Account account, @Nonnull final Long groupId, @Nonnull final Iterable<Tag> tags) {
+        return this.delegate.remove(account, groupId, tags);
+    }
+
+    @Override
+    public int removeLabels(
+            @Nonnull final Account account, @Nonnull final Long groupId, @Nonnull final Iterable<String> tagLabels) {
+        return this.delegate.removeLabels(account, groupId, tagLabels);
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> findGroups(
+            @Nonnull final Account account, @Nonnull final TagSelector selector, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(selector);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+
+        final RowBuffer<Group> buffer =
+                new RowBuffer<>(this.bufferSize, group -> consumer.accept(group, group.getTags().iterator()));
+        final Optional<PageToken> pageToken = this.delegate
+                .findGroups(account, selector, page, (group, tags) -> buffer.accept(new Group(group, tags)));
+        buffer.flush();
+        return pageToken;
+    }
+
+    @Override
+    public void invalidate(@Nonnull final Account account) {
+        this.delegate.invalidate(account);
+    }
+
+    @Override
+    public void committed(@Nonnull final Account account, @Nonnull final CloseableBiConsumer<Long, Tag> addConsumer) {
+        this.delegate.committed(account, addConsumer);
+    }
+}
@@ -0,0 +1,117 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ApiLogin;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.AsyncAccountDao;
+import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Provides an implementation of an {@link AsyncAccountDao} that runs the operations of the blocking {@link AccountDao}
+ * on the database executor.
+ */
+public class ExecutorAsyncAccountDao implements AsyncAccountDao {
+    @Nonnull
+    private final AccountDaoSupplier accountDaoSupplier;
+    @Nonnull
+    private final DatabaseExecutorSupplier databaseExecutorSupplier;
+
+    /**
+     * @param accountDaoSupplier the {@link AccountDaoSupplier} providing the blocking account operations
+     * @param databaseExecutorSupplier the {@link DatabaseExecutorSupplier} providing the executor that runs the
+     *     operations
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    public ExecutorAsyncAccountDao(
+            @Nonnull final AccountDaoSupplier accountDaoSupplier,
+            @Nonnull final DatabaseExecutorSupplier databaseExecutorSupplier) {
+        this.accountDaoSupplier = Objects.requireNonNull(accountDaoSupplier);
+        this.databaseExecutorSupplier = Objects.requireNonNull(databaseExecutorSupplier);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> get(@Nonnull final Long accountId, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(accountId);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get().run(() -> this.accountDaoSupplier.get().get(accountId, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> get(
+            @Nonnull final Collection<Long> accountIds, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(accountIds);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get().run(() -> this.accountDaoSupplier.get().get(accountIds, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<Account>> get(@Nonnull final ApiLogin apiLogin) {
+        Objects.requireNonNull(apiLogin);
+        return this.databaseExecutorSupplier.get().supply(() -> this.accountDaoSupplier.get().get(apiLogin));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Collection<Account>> getForUser(@Nonnull final Long userId) {
+        Objects.requireNonNull(userId);
+        return this.databaseExecutorSupplier.get().supply(() -> this.accountDaoSupplier.get().getForUser(userId));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> getAll(
+            @Nonnull final Page page, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get().supply(() -> this.accountDaoSupplier.get().getAll(page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> add(
+            @Nonnull final Iterator<Account> accounts, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(accounts);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get().run(() -> this.accountDaoSupplier.get().add(accounts, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> bulkAdd(
+            @Nonnull final Iterator<Account> accounts, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(accounts);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .run(() -> this.accountDaoSupplier.get().bulkAdd(accounts, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Integer> remove(@Nonnull final Long accountId) {
+        Objects.requireNonNull(accountId);
+        return this.databaseExecutorSupplier.get().supply(() -> this.accountDaoSupplier.get().remove(accountId));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Integer> remove(@Nonnull final Collection<Long> accountIds) {
+        Objects.requireNonNull(accountIds);
+        return this.databaseExecutorSupplier.get().supply(() -> this.accountDaoSupplier.get().remove(accountIds));
+    }
+}
@@ -0,0 +1,209 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.AsyncGroupDao;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.dao.supplier.GroupDaoSupplier;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Provides an implementation of an {@link AsyncGroupDao} that runs the operations of the blocking {@link GroupDao} on
+ * the database executor.
+ */
+public class ExecutorAsyncGroupDao implements AsyncGroupDao {
+    @Nonnull
+    private final GroupDaoSupplier groupDaoSupplier;
+    @Nonnull
+    private final DatabaseExecutorSupplier databaseExecutorSupplier;
+
+    /**
+     * @param groupDaoSupplier the {@link GroupDaoSupplier} providing the blocking group operations
+     * @param databaseExecutorSupplier the {@link DatabaseExecutorSupplier} providing the executor that runs the
+     *     operations
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    public ExecutorAsyncGroupDao(
+            @Nonnull final GroupDaoSupplier groupDaoSupplier,
+            @Nonnull final DatabaseExecutorSupplier databaseExecutorSupplier) {
+        this.groupDaoSupplier = Objects.requireNonNull(groupDaoSupplier);
+        this.databaseExecutorSupplier = Objects.requireNonNull(databaseExecutorSupplier);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Boolean> exists(@Nonnull final Account account, @Nonnull final Long groupId) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupId);
+        return this.databaseExecutorSupplier.get().supply(() -> this.groupDaoSupplier.get().exists(account, groupId));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Boolean> exists(@Nonnull final Account account, @Nonnull final String groupName) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupName);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().exists(account, groupName));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> get(
+            @Nonnull final Account account, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().get(account, page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> getById(
+            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupIds);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().getById(account, groupIds, page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> getByName(
+            @Nonnull final Account account, @Nonnull final Collection<String> groupNames, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupNames);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().getByName(account, groupNames, page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> find(
+            @Nonnull final Account account, @Nonnull final Collection<String> regexes, final boolean caseSensitive,
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(regexes);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().find(account, regexes, caseSensitive, page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> childrenById(
+            @Nonnull final Account account, @Nonnull final Collection<Long> parentIds, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(parentIds);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().childrenById(account, parentIds, page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> childrenByName(
+            @Nonnull final Account account, @Nonnull final Collection<String> parentNames, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(parentNames);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().childrenByName(account, parentNames, page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> childrenFind(
+            @Nonnull final Account account, @Nonnull final Collection<String> regexes, final boolean caseSensitive,
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(regexes);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get().supply(
+                () -> this.groupDaoSupplier.get().childrenFind(account, regexes, caseSensitive, page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> descendants(
+            @Nonnull final Account account, @Nonnull final Collection<Long> rootIds, final int maxDepth,
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(rootIds);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().descendants(account, rootIds, maxDepth, page, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> add(
+            @Nonnull final Account account, @Nullable final Long parentId, @Nonnull final Iterator<Group> groups,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groups);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .run(() -> this.groupDaoSupplier.get().add(account, parentId, groups, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> bulkAdd(
+            @Nonnull final Account account, @Nullable final Long parentId, @Nonnull final Iterator<Group> groups,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groups);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .run(() -> this.groupDaoSupplier.get().bulkAdd(account, parentId, groups, consumer));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Integer> move(
+            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds, @Nullable final Long parentId) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupIds);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().move(account, groupIds, parentId));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Integer> remove(@Nonnull final Account account, @Nonnull final Collection<Long> groupIds) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupIds);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.groupDaoSupplier.get().remove(account, groupIds));
+    }
+}
@@ -0,0 +1,90 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.AsyncTagDao;
+import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.dao.supplier.TagDaoSupplier;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.selector.TagSelector;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Provides an implementation of an {@link AsyncTagDao} that runs the operations of the blocking {@link TagDao} on the
+ * database executor.
+ */
+public class ExecutorAsyncTagDao implements AsyncTagDao {
+    @Nonnull
+    private final TagDaoSupplier tagDaoSupplier;
+    @Nonnull
+    private final DatabaseExecutorSupplier databaseExecutorSupplier;
+
+    /**
+     * @param tagDaoSupplier the {@link TagDaoSupplier} providing the blocking tag operations
+     * @param databaseExecutorSupplier the {@link DatabaseExecutorSupplier} providing the executor that runs the
+     *     operations
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    public ExecutorAsyncTagDao(
+            @Nonnull final TagDaoSupplier tagDaoSupplier,
+            @Nonnull final DatabaseExecutorSupplier databaseExecutorSupplier) {
+        this.tagDaoSupplier = Objects.requireNonNull(tagDaoSupplier);
+        this.databaseExecutorSupplier = Objects.requireNonNull(databaseExecutorSupplier);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Integer> add(
+            @Nonnull final Account account, @Nonnull final Long groupId, @Nonnull final Iterable<Tag> tags) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupId);
+        Objects.requireNonNull(tags);
+        return this.databaseExecutorSupplier.get().supply(() -> this.tagDaoSupplier.get().add(account, groupId, tags));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Integer> remove(
+            @Nonnull final Account account, @Nonnull final Long groupId, @Nonnull final Iterable<Tag> tags) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupId);
+        Objects.requireNonNull(tags);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.tagDaoSupplier.get().remove(account, groupId, tags));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Integer> removeLabels(
+            @Nonnull final Account account, @Nonnull final Long groupId, @Nonnull final Iterable<String> tagLabels) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupId);
+        Objects.requireNonNull(tagLabels);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.tagDaoSupplier.get().removeLabels(account, groupId, tagLabels));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<PageToken>> findGroups(
+            @Nonnull final Account account, @Nonnull final TagSelector selector, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(selector);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+        return this.databaseExecutorSupplier.get()
+                .supply(() -> this.tagDaoSupplier.get().findGroups(account, selector, page, consumer));
+    }
+}
@@ -0,0 +1,99 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.User;
+import com.grpctrl.common.model.UserSource;
+import com.grpctrl.db.dao.AsyncUserDao;
+import com.grpctrl.db.dao.UserDao;
+import com.grpctrl.db.dao.supplier.UserDaoSupplier;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Provides an implementation of an {@link AsyncUserDao} that runs the operations of the blocking {@link UserDao} on the
+ * database executor.
+ */
+public class ExecutorAsyncUserDao implements AsyncUserDao {
+    @Nonnull
+    private final UserDaoSupplier userDaoSupplier;
+    @Nonnull
+    private final DatabaseExecutorSupplier databaseExecutorSupplier;
+
+    /**
+     * @param userDaoSupplier the {@link UserDaoSupplier} providing the blocking user operations
+     * @param databaseExecutorSupplier the {@link DatabaseExecutorSupplier} providing the executor that runs the
+     *     operations
+     *
+     * @throws NullPointerException if either parameter is {@code null}
+     */
+    public ExecutorAsyncUserDao(
+            @Nonnull final UserDaoSupplier userDaoSupplier,
+            @Nonnull final DatabaseExecutorSupplier databaseExecutorSupplier) {
+        this.userDaoSupplier = Objects.requireNonNull(userDaoSupplier);
+        this.databaseExecutorSupplier = Objects.requireNonNull(databaseExecutorSupplier);
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<User>> get(@Nonnull final Long userId) {
+        Objects.requireNonNull(userId);
+        return this.databaseExecutorSupplier.get().supply(() -> this.userDaoSupplier.get().get(userId));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Collection<User>> get(@Nonnull final Collection<Long> userIds) {
+        Objects.requireNonNull(userIds);
+        return this.databaseExecutorSupplier.get().supply(() -> this.userDaoSupplier.get().get(userIds));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Optional<User>> get(@Nonnull final UserSource source, @Nonnull final String login) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(login);
+        return this.databaseExecutorSupplier.get().supply(() -> this.userDaoSupplier.get().get(source, login));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Collection<User>> get(
+            @Nonnull final UserSource source, @Nonnull final Collection<String> logins) {
+        Objects.requireNonNull(source);
+        Objects.requireNonNull(logins);
+        return this.databaseExecutorSupplier.get().supply(() -> this.userDaoSupplier.get().get(source, logins));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> add(@Nonnull final User user) {
+        Objects.requireNonNull(user);
+        return this.databaseExecutorSupplier.get().run(() -> this.userDaoSupplier.get().add(user));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> add(@Nonnull final Collection<User> users) {
+        Objects.requireNonNull(users);
+        return this.databaseExecutorSupplier.get().run(() -> this.userDaoSupplier.get().add(users));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> remove(@Nonnull final Long userId) {
+        Objects.requireNonNull(userId);
+        return this.databaseExecutorSupplier.get().run(() -> this.userDaoSupplier.get().remove(userId));
+    }
+
+    @Override
+    @Nonnull
+    public CompletableFuture<Void> remove(@Nonnull final Collection<Long> userIds) {
+        Objects.requireNonNull(userIds);
+        return this.databaseExecutorSupplier.get().run(() -> this.userDaoSupplier.get().remove(userIds));
+    }
+}
@@ -0,0 +1,72 @@
+package com.grpctrl.db.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Reserves blocks of group ids from the groups sequence, so the ids of new groups are known before the groups are
+ * inserted. Each block is reserved with a single query and shared by all the inserts performed by this JVM. The ids are
+ * consumed by the sequence as soon as they are reserved, so ids that are never used, or used in transactions that are
+ * rolled back, leave gaps just like the sequence itself does.
+ */
+final class GroupIdAllocator {
+    private static final String SQL = "SELECT nextval('groups_group_id_seq') FROM generate_series(1, ?)";
+
+    private final int blockSize;
+
+    @Nonnull
+    private long[] block = new long[0];
+    private int next = 0;
+
+    /**
+     * @param blockSize the number of ids to reserve from the sequence at a time
+     *
+     * @throws IllegalArgumentException if the block size is not positive
+     */
+    GroupIdAllocator(final int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be positive");
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @param conn the connection used to reserve another block of ids, when the current block has been used up
+     *
+     * @return the next available group id
+     *
+     * @throws SQLException if there is a problem reserving another block of ids
+     */
+    synchronized long next(@Nonnull final Connection conn) throws SQLException {
+        Objects.requireNonNull(conn);
+        if (this.next >= this.block.length) {
+            this.block = reserve(conn);
+            this.next = 0;
+        }
+        return this.block[this.next++];
+    }
+
+    @Nonnull
+    private long[] reserve(@Nonnull final Connection conn) throws SQLException {
+        // The ids are only guaranteed to be increasing, since other inserts may draw from the sequence concurrently.
+        final long[] reserved = new long[this.blockSize];
+        try (final PreparedStatement ps = conn.prepareStatement(SQL)) {
+            ps.setInt(1, this.blockSize);
+            try (final ResultSet rs = ps.executeQuery()) {
+                int count = 0;
+                while (rs.next() && count < reserved.length) {
+                    reserved[count++] = rs.getLong(1);
+                }
+                if (count < reserved.length) {
+                    throw new SQLException("Only reserved " + count + " of " + reserved.length + " group ids");
+                }
+            }
+        }
+        return reserved;
+    }
+}
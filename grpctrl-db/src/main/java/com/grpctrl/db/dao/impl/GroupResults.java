@@ -0,0 +1,254 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.TagDictionaryDao;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.stream.ResultStream;
+import com.grpctrl.db.stream.ResultStreamer;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.BadRequestException;
+
+/**
+ * Provides the queries and result processing shared by the DAOs that stream pages of groups, with their tags, to a
+ * group consumer.
+ */
+final class GroupResults {
+    /**
+     * The tag columns read by {@link TagDictionaryDao#readTag(ResultSet, Tag)}, available after {@link #TAG_JOINS}.
+     */
+    static final String TAG_COLUMNS = "t.label_id, t.value_id, l.tag_label, v.tag_value";
+
+    /**
+     * Joins the tags, and their dictionary entries, of the groups selected with the alias {@code g}. Groups without
+     * tags are included with {@code null} tag columns.
+     */
+    static final String TAG_JOINS = "LEFT JOIN tags t ON (g.group_id = t.group_id AND g.account_id = t.account_id) "
+            + "LEFT JOIN tag_labels l ON (l.label_id = t.label_id) LEFT JOIN tag_values v ON (v.value_id = t.value_id)";
+
+    private GroupResults() {
+    }
+
+    /**
+     * Build a query that retrieves a single page of groups, with tags, using a keyset predicate on the group id so
+     * every page can be located with an index scan regardless of how deep into the results it is. The query
+     * parameters are the account id, the group id after which the page begins, any parameters used in the provided
+     * filter, and the number of groups to retrieve. Groups that have been removed but not yet purged are excluded.
+     *
+     * @param filter the additional criteria used to select the groups
+     *
+     * @return the SQL query that retrieves the page of groups
+     */
+    @Nonnull
+    static String pageQuery(@Nonnull final String filter) {
+        return "SELECT parent_id, g.group_id, group_name, " + TAG_COLUMNS + " FROM (SELECT account_id, group_id, "
+                + "parent_id, group_name FROM groups WHERE account_id = ? AND group_id > ? AND NOT deleted AND "
+                + filter + " ORDER BY group_id LIMIT ?) g " + TAG_JOINS + " ORDER BY g.group_id";
+    }
+
+    /**
+     * @param account the account that owns the groups
+     * @param page the page of groups being retrieved
+     *
+     * @return the group id after which the page begins
+     *
+     * @throws BadRequestException if the continuation token was issued for a different account
+     */
+    static long after(@Nonnull final Account account, @Nonnull final Page page) {
+        final Optional<PageToken> after = page.getAfter();
+        if (!after.isPresent()) {
+            return 0;
+        }
+        if (after.get().getAccountId() != account.getId().orElse(null)) {
+            throw new BadRequestException("The provided continuation token is not valid for this account");
+        }
+        return after.get().getId();
+    }
+
+    /**
+     * @param page the page of groups being retrieved
+     *
+     * @return the number of groups to be retrieved by the page query
+     */
+    static long limit(@Nonnull final Page page) {
+        // Retrieve one more group than requested to determine whether another page is available.
+        return (long) page.getLimit() + 1;
+    }
+
+    /**
+     * Stream the groups, with tags, retrieved by a query built with {@link #pageQuery(String)} to the consumer.
+     *
+     * @param resultStreamer the {@link ResultStreamer} used to execute the query
+     * @param dictionary the {@link TagDictionaryDao} used to read the tags of the groups
+     * @param ps the prepared statement to execute, with all parameters already set
+     * @param account the account that owns the groups
+     * @param page the page of groups being retrieved
+     * @param consumer the consumer to receive each of the groups in the page
+     *
+     * @return the continuation token for the next page, when another page is available
+     *
+     * @throws SQLException if there is a problem executing the query or reading the results
+     */
+    @Nonnull
+    static Optional<PageToken> consume(
+            @Nonnull final ResultStreamer resultStreamer, @Nonnull final TagDictionaryDao dictionary,
+            @Nonnull final PreparedStatement ps,
+            @Nonnull final Account account, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) throws SQLException {
+        try (final ResultStream stream = resultStreamer.open(ps)) {
+            final Group group = new Group();
+            final TagIterator tagIterator = new TagIterator(stream, dictionary, group);
+            long lastGroupId = 0;
+            int count = 0;
+            while (tagIterator.hasMoreGroups()) {
+                if (count == page.getLimit()) {
+                    // The query retrieves one extra group, so its presence indicates that another page is available.
+                    return Optional.of(new PageToken(account.getId().orElse(null), lastGroupId));
+                }
+
+                consumer.accept(group, tagIterator);
+                lastGroupId = group.getId().orElse(null);
+                count++;
+
+                tagIterator.nextGroup();
+            }
+
+            final Optional<SQLException> exception = tagIterator.getException();
+            if (exception.isPresent()) {
+                throw exception.get();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * This class is responsible for providing an iterator over {@link Tag} objects for streaming processing. The rows
+     * for each group must be contiguous in the result set.
+     */
+    private static class TagIterator implements Iterator<Tag> {
+        @Nonnull
+        private final ResultStream stream;
+        @Nonnull
+        private final ResultSet rs;
+        @Nonnull
+        private final TagDictionaryDao dictionary;
+        private final Group group;
+
+        private boolean started = false;
+        private boolean hasRow = false;
+        private boolean hasMoreGroups = true;
+        private boolean hasNext = false;
+        private long groupId = 0;
+        private final Tag prev = new Tag();
+        private final Tag next = new Tag();
+
+        private SQLException exception;
+
+        /**
+         * @param stream the stream of rows from which tags will be read
+         * @param dictionary the dictionary used to read the tag labels and values
+         * @param group the group into which the group data will be read
+         */
+        TagIterator(
+                @Nonnull final ResultStream stream, @Nonnull final TagDictionaryDao dictionary, final Group group) {
+            this.stream = stream;
+            this.rs = stream.getResultSet();
+            this.dictionary = dictionary;
+            this.group = group;
+
+            nextGroup();
+        }
+
+        /**
+         * @return whether more groups are available in the result set
+         */
+        public boolean hasMoreGroups() {
+            return this.hasMoreGroups;
+        }
+
+        /**
+         * Reset this tag iterator for the next group, skipping any tags of the current group that were not consumed.
+         */
+        public void nextGroup() {
+            try {
+                if (!this.started) {
+                    this.started = true;
+                    this.hasRow = this.stream.next();
+                }
+                while (this.hasRow && this.rs.getLong("group_id") == this.groupId) {
+                    this.hasRow = this.stream.next();
+                }
+                if (!this.hasRow) {
+                    this.hasMoreGroups = false;
+                    this.hasNext = false;
+                    return;
+                }
+
+                // Process the current row in the result set.
+                this.groupId = this.rs.getLong("group_id");
+                this.group.setId(this.groupId);
+                final long parentId = this.rs.getLong("parent_id");
+                this.group.setParentId(this.rs.wasNull() ? null : parentId);
+                this.group.setName(this.rs.getString("group_name"));
+
+                // A group without tags has a single row with no tag values, which is skipped with the next group.
+                this.hasNext = readTag();
+            } catch (final SQLException sqlException) {
+                this.exception = sqlException;
+                this.hasMoreGroups = false;
+                this.hasNext = false;
+            }
+        }
+
+        private boolean readTag() throws SQLException {
+            return this.dictionary.readTag(this.rs, this.next);
+        }
+
+        /**
+         * @return whether more tags are available for this group
+         */
+        public boolean hasNext() {
+            return this.hasNext;
+        }
+
+        /**
+         * @return the next tag that has been pulled from the result set
+         */
+        @Nonnull
+        public Tag next() {
+            if (!this.hasNext) {
+                throw new NoSuchElementException();
+            }
+            this.prev.setValues(this.next);
+            try {
+                this.hasRow = this.stream.next();
+                this.hasNext = this.hasRow && this.rs.getLong("group_id") == this.groupId && readTag();
+            } catch (final SQLException sqlException) {
+                this.exception = sqlException;
+                this.hasMoreGroups = false;
+                this.hasRow = false;
+                this.hasNext = false;
+            }
+            return this.prev;
+        }
+
+        /**
+         * @return any exception that was thrown during the tag processing
+         */
+        @Nonnull
+        public Optional<SQLException> getException() {
+            return Optional.ofNullable(this.exception);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.grpctrl.db.dao.impl;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingWindowReservoir;
+import com.codahale.metrics.Timer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Decorates a data access object so every call to its interface methods is tracked in the {@link MetricRegistry}.
+ * Each method gets a timer named after the interface and method, like {@code com.grpctrl.db.dao.GroupDao.getById},
+ * along with a {@code rows} histogram and an {@code errors} counter. The rows of a call are the objects passed to its
+ * consumers, the size of a returned collection or optional, or the count returned by methods like {@code remove}.
+ * Overloaded methods share their metrics. The timers and histograms sample the most recent calls rather than using the
+ * default exponentially decaying reservoir, which costs several times as much to update on every call.
+ */
+public final class InstrumentedDao implements InvocationHandler {
+    private static final int SAMPLE_SIZE = 1028;
+
+    @Nonnull
+    private final Object delegate;
+    @Nonnull
+    private final Map<Method, MethodMetrics> methodMetrics;
+
+    private InstrumentedDao(
+            @Nonnull final Class<?> type, @Nonnull final Object delegate,
+            @Nonnull final MetricRegistry metricRegistry) {
+        this.delegate = delegate;
+
+        // The metrics are looked up once, so the calls only pay for a map lookup and the metric updates.
+        final Map<Method, MethodMetrics> metrics = new HashMap<>();
+        for (final Method method : type.getMethods()) {
+            metrics.put(method, new MethodMetrics(metricRegistry, MetricRegistry.name(type, method.getName()),
+                    method.getParameterTypes()));
+        }
+        this.methodMetrics = metrics;
+    }
+
+    /**
+     * Wrap the data access object so the calls made through the specified interface are tracked.
+     *
+     * @param type the interface implemented by the data access object
+     * @param delegate the data access object that performs the database operations
+     * @param metricRegistry the {@link MetricRegistry} in which the method metrics are tracked
+     * @param <T> the type of the data access object
+     *
+     * @return the instrumented data access object
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     * @throws IllegalArgumentException if the type is not an interface
+     */
+    @Nonnull
+    public static <T> T wrap(
+            @Nonnull final Class<T> type, @Nonnull final T delegate, @Nonnull final MetricRegistry metricRegistry) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(delegate);
+        Objects.requireNonNull(metricRegistry);
+        if (!type.isInterface()) {
+            throw new IllegalArgumentException("Unable to instrument a class: " + type.getName());
+        }
+
+        return type.cast(Proxy.newProxyInstance(
+                type.getClassLoader(), new Class<?>[] {type}, new InstrumentedDao(type, delegate, metricRegistry)));
+    }
+
+    @Override
+    @Nullable
+    public Object invoke(@Nonnull final Object proxy, @Nonnull final Method method, @Nullable final Object[] args)
+            throws Throwable {
+        final MethodMetrics metrics = this.methodMetrics.get(method);
+        if (metrics == null) {
+            // The methods of Object, like toString, are not tracked.
+            return call(method, args);
+        }
+
+        final RowCounter rows = new RowCounter();
+        rows.wrap(args, metrics.consumers);
+        final Timer.Context context = metrics.timer.time();
+        try {
+            final Object result = call(method, args);
+            context.stop();
+            metrics.rows.update(rows.count(result));
+            return result;
+        } catch (final Throwable throwable) {
+            context.stop();
+            metrics.errors.inc();
+            throw throwable;
+        }
+    }
+
+    @Nullable
+    private Object call(@Nonnull final Method method, @Nullable final Object[] args) throws Throwable {
+        try {
+            return method.invoke(this.delegate, args);
+        } catch (final InvocationTargetException invocationTargetException) {
+            throw invocationTargetException.getCause();
+        }
+    }
+
+    private static class MethodMetrics {
+        @Nonnull
+        private final Timer timer;
+        @Nonnull
+        private final Histogram rows;
+        @Nonnull
+        private final Counter errors;
+        @Nonnull
+        private final boolean[] consumers;
+
+        MethodMetrics(
+                @Nonnull final MetricRegistry metricRegistry, @Nonnull final String name,
+                @Nonnull final Class<?>[] parameterTypes) {
+            this.timer = register(metricRegistry, name, new Timer(new SlidingWindowReservoir(SAMPLE_SIZE)));
+            this.rows = register(metricRegistry, MetricRegistry.name(name, "rows"),
+                    new Histogram(new SlidingWindowReservoir(SAMPLE_SIZE)));
+            this.errors = metricRegistry.counter(MetricRegistry.name(name, "errors"));
+
+            // Only the plain consumer parameters are counted, since a wrapped subtype could not be passed on.
+            this.consumers = new boolean[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                this.consumers[i] = parameterTypes[i] == Consumer.class || parameterTypes[i] == BiConsumer.class;
+            }
+        }
+    }
+
+    @Nonnull
+    @SuppressWarnings("unchecked")
+    private static <M extends Metric> M register(
+            @Nonnull final MetricRegistry metricRegistry, @Nonnull final String name, @Nonnull final M metric) {
+        try {
+            return metricRegistry.register(name, metric);
+        } catch (final IllegalArgumentException alreadyRegistered) {
+            // Shared by the overloaded methods, and by the data access objects of the same type.
+            return (M) metricRegistry.getMetrics().get(name);
+        }
+    }
+
+    private static class RowCounter {
+        private long consumed;
+        private boolean consumer;
+
+        @SuppressWarnings("unchecked")
+        void wrap(@Nullable final Object[] args, @Nonnull final boolean[] consumers) {
+            if (args == null) {
+                return;
+            }
+            // The proxy provides a new array of arguments for each call, so the consumers are replaced in place.
+            for (int i = 0; i < args.length; i++) {
+                final Object arg = args[i];
+                if (consumers[i] && arg != null) {
+                    this.consumer = true;
+                    args[i] = arg instanceof Consumer ? (Consumer<Object>) value -> {
+                        this.consumed++;
+                        ((Consumer<Object>) arg).accept(value);
+                    } : (BiConsumer<Object, Object>) (first, second) -> {
+                        this.consumed++;
+                        ((BiConsumer<Object, Object>) arg).accept(first, second);
+                    };
+                }
+            }
+        }
+
+        long count(@Nullable final Object result) {
+            if (this.consumer) {
+                return this.consumed;
+            } else if (result instanceof Collection) {
+                return ((Collection<?>) result).size();
+            } else if (result instanceof Map) {
+                return ((Map<?, ?>) result).size();
+            } else if (result instanceof Optional) {
+                return ((Optional<?>) result).isPresent() ? 1 : 0;
+            } else if (result instanceof Integer) {
+                return (Integer) result;
+            }
+            return 0;
+        }
+    }
+}
@@ -1,20 +1,30 @@
 package com.grpctrl.db.dao.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.ApiLogin;
 import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.common.util.CloseableBiConsumer;
 import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.copy.BinaryCopyWriter;
 import com.grpctrl.db.dao.AccountDao;
 import com.grpctrl.db.dao.ServiceLevelDao;
 import com.grpctrl.db.dao.supplier.ServiceLevelDaoSupplier;
 import com.grpctrl.db.error.ErrorTransformer;
+import com.grpctrl.db.json.AccountJsonWriter;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.stream.ResultStream;
+import com.grpctrl.db.stream.ResultStreamer;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -27,6 +37,7 @@ import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
 import javax.sql.DataSource;
+import javax.ws.rs.InternalServerErrorException;
 
 /**
  * Provides an implementation of an {@link AccountDao} using a JDBC {@link DataSourceSupplier} to communicate
@@ -37,17 +48,23 @@ public class PostgresAccountDao implements AccountDao {
     private final DataSourceSupplier dataSourceSupplier;
     @Nonnull
     private final ServiceLevelDaoSupplier serviceLevelDaoSupplier;
+    @Nonnull
+    private final ResultStreamer resultStreamer;
 
     /**
      * @param dataSourceSupplier the supplier of the JDBC {@link DataSource} to use when communicating with the
      *     back-end database
      * @param serviceLevelDaoSupplier the {@link ServiceLevelDaoSupplier} used to manage service level objects
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track query streaming metrics
      */
     public PostgresAccountDao(
             @Nonnull final DataSourceSupplier dataSourceSupplier,
-            @Nonnull final ServiceLevelDaoSupplier serviceLevelDaoSupplier) {
+            @Nonnull final ServiceLevelDaoSupplier serviceLevelDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
         this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
         this.serviceLevelDaoSupplier = Objects.requireNonNull(serviceLevelDaoSupplier);
+        this.resultStreamer =
+                new ResultStreamer(dataSourceSupplier, metricRegistrySupplier, PostgresAccountDao.class);
     }
 
     @Override
@@ -62,17 +79,19 @@ public class PostgresAccountDao implements AccountDao {
 
         final String sql =
                 "SELECT a.account_id, a.name, s.max_groups, s.max_tags, s.max_depth FROM accounts a LEFT JOIN "
-                        + "service_levels s ON (a.account_id = s.account_id) WHERE a.account_id = ANY (?)";
+                        + "service_levels s ON (a.account_id = s.account_id) WHERE a.account_id = ANY (?) AND "
+                        + "NOT a.deleted";
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setArray(1, conn.createArrayOf("bigint", accountIds.toArray()));
 
             final Account account = new Account();
 
-            try (final ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
+            try (final ResultStream stream = this.resultStreamer.open(ps)) {
+                final ResultSet rs = stream.getResultSet();
+                while (stream.next()) {
                     account.setId(rs.getLong("account_id"));
                     account.setName(rs.getString("name"));
 
@@ -95,9 +114,9 @@ public class PostgresAccountDao implements AccountDao {
         final String sql =
                 "SELECT a.account_id, a.name, s.max_groups, s.max_tags, s.max_depth FROM accounts a LEFT JOIN "
                         + "service_levels s ON (a.account_id = s.account_id) LEFT JOIN api_logins l ON "
-                        + "(a.account_id = l.account_id) WHERE l.key = ? AND l.secret = ?";
+                        + "(a.account_id = l.account_id) WHERE l.key = ? AND l.secret = ? AND NOT a.deleted";
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, apiLogin.getKey());
@@ -133,9 +152,9 @@ public class PostgresAccountDao implements AccountDao {
 
         final String sql = "SELECT a.account_id, a.name, s.max_groups, s.max_tags, s.max_depth FROM accounts a JOIN "
                 + "service_levels s ON (a.account_id = s.account_id) JOIN user_accounts u ON "
-                + "(u.account_id = a.account_id) WHERE u.user_id = ?";
+                + "(u.account_id = a.account_id) WHERE u.user_id = ? AND NOT a.deleted";
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, userId);
@@ -170,7 +189,7 @@ public class PostgresAccountDao implements AccountDao {
         final String sql =
                 "SELECT u.user_id, a.account_id, a.name, s.max_groups, s.max_tags, s.max_depth FROM accounts a JOIN "
                         + "service_levels s ON (a.account_id = s.account_id) JOIN user_accounts u ON "
-                        + "(u.account_id = a.account_id) WHERE u.user_id = ANY (?)";
+                        + "(u.account_id = a.account_id) WHERE u.user_id = ANY (?) AND NOT a.deleted";
 
         final Map<Long, Collection<Account>> map = new HashMap<>();
         try (final PreparedStatement ps = conn.prepareStatement(sql)) {
@@ -204,32 +223,90 @@ public class PostgresAccountDao implements AccountDao {
     }
 
     @Override
-    public void getAll(@Nonnull final Consumer<Account> consumer) {
+    @Nonnull
+    public Optional<PageToken> getAll(@Nonnull final Page page, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(page);
         Objects.requireNonNull(consumer);
 
+        // Uses a keyset predicate on the primary key so every page costs the same, and retrieves one more account
+        // than requested to determine whether another page is available.
         final String sql = "SELECT a.account_id, a.name, s.max_groups, s.max_tags, s.max_depth FROM accounts a JOIN "
-                + "service_levels s ON (a.account_id = s.account_id)";
+                + "service_levels s ON (a.account_id = s.account_id) WHERE a.account_id > ? AND NOT a.deleted ORDER BY "
+                + "a.account_id LIMIT ?";
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
-             final PreparedStatement ps = conn.prepareStatement(sql);
-             final ResultSet rs = ps.executeQuery()) {
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, page.getAfter().map(PageToken::getAccountId).orElse(0L));
+            ps.setLong(2, (long) page.getLimit() + 1);
 
-            final Account account = new Account();
+            try (final ResultStream stream = this.resultStreamer.open(ps)) {
+                final ResultSet rs = stream.getResultSet();
+                final Account account = new Account();
 
-            while (rs.next()) {
-                account.setId(rs.getLong("account_id"));
-                account.setName(rs.getString("name"));
+                int count = 0;
+                while (stream.next()) {
+                    if (count == page.getLimit()) {
+                        return Optional.of(new PageToken(account.getId().orElse(null), 0));
+                    }
 
-                account.getServiceLevel().setMaxGroups(rs.getInt("max_groups"));
-                account.getServiceLevel().setMaxTags(rs.getInt("max_tags"));
-                account.getServiceLevel().setMaxDepth(rs.getInt("max_depth"));
+                    account.setId(rs.getLong("account_id"));
+                    account.setName(rs.getString("name"));
 
-                consumer.accept(account);
+                    account.getServiceLevel().setMaxGroups(rs.getInt("max_groups"));
+                    account.getServiceLevel().setMaxTags(rs.getInt("max_tags"));
+                    account.getServiceLevel().setMaxDepth(rs.getInt("max_depth"));
+
+                    consumer.accept(account);
+                    count++;
+                }
+            }
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to get all accounts", sqlException);
+        }
+
+        return Optional.empty();
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> writeAll(@Nonnull final Page page, @Nonnull final JsonGenerator generator) {
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(generator);
+
+        // The same query as getAll, with the columns in the order expected by the JSON writer.
+        final String sql = "SELECT " + AccountJsonWriter.COLUMNS + " FROM accounts a JOIN service_levels s ON "
+                + "(a.account_id = s.account_id) WHERE a.account_id > ? AND NOT a.deleted ORDER BY a.account_id "
+                + "LIMIT ?";
+
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, page.getAfter().map(PageToken::getAccountId).orElse(0L));
+            ps.setLong(2, (long) page.getLimit() + 1);
+
+            try (final ResultStream stream = this.resultStreamer.open(ps)) {
+                final ResultSet rs = stream.getResultSet();
+
+                long lastAccountId = 0;
+                int count = 0;
+                while (stream.next()) {
+                    if (count == page.getLimit()) {
+                        return Optional.of(new PageToken(lastAccountId, 0));
+                    }
+
+                    AccountJsonWriter.write(rs, generator);
+                    lastAccountId = AccountJsonWriter.getAccountId(rs);
+                    count++;
+                }
             }
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to get all accounts", sqlException);
+        } catch (final IOException ioException) {
+            throw new InternalServerErrorException("Failed to write JSON data to client", ioException);
         }
+
+        return Optional.empty();
     }
 
     @Override
@@ -274,15 +351,82 @@ public class PostgresAccountDao implements AccountDao {
         }
     }
 
+    @Override
+    public void bulkAdd(@Nonnull final Iterator<Account> accounts, @Nonnull final Consumer<Account> consumer) {
+        Objects.requireNonNull(accounts);
+        Objects.requireNonNull(consumer);
+
+        // The account identifiers are assigned from the sequence by the column default as the rows are copied.
+        final String createStaging = "CREATE TEMPORARY TABLE staged_accounts (account_id BIGINT NOT NULL DEFAULT "
+                + "nextval('accounts_account_id_seq'), name VARCHAR(200) NOT NULL, max_groups INTEGER NOT NULL, "
+                + "max_tags INTEGER NOT NULL, max_depth INTEGER NOT NULL) ON COMMIT DROP";
+        final String copy =
+                "COPY staged_accounts (name, max_groups, max_tags, max_depth) FROM STDIN (FORMAT binary)";
+        final String mergeAccounts = "INSERT INTO accounts (account_id, name) SELECT account_id, name FROM "
+                + "staged_accounts";
+        final String mergeServiceLevels = "INSERT INTO service_levels (account_id, max_groups, max_tags, max_depth) "
+                + "SELECT account_id, max_groups, max_tags, max_depth FROM staged_accounts";
+        final String mergeUsage = "INSERT INTO account_usage (account_id) SELECT account_id FROM staged_accounts";
+        final String added = "SELECT account_id, name, max_groups, max_tags, max_depth FROM staged_accounts ORDER BY "
+                + "account_id";
+
+        final DataSource dataSource = this.dataSourceSupplier.get();
+        try (final Connection conn = dataSource.getConnection()) {
+            try (final Statement stmt = conn.createStatement()) {
+                stmt.execute(createStaging);
+            }
+
+            try (final BinaryCopyWriter writer = new BinaryCopyWriter(conn, copy)) {
+                while (accounts.hasNext()) {
+                    final Account account = accounts.next();
+                    writer.startRow(4);
+                    writer.writeString(account.getName());
+                    writer.writeInt(account.getServiceLevel().getMaxGroups());
+                    writer.writeInt(account.getServiceLevel().getMaxTags());
+                    writer.writeInt(account.getServiceLevel().getMaxDepth());
+                }
+                writer.finish();
+            }
+
+            try (final Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(mergeAccounts);
+                stmt.executeUpdate(mergeServiceLevels);
+                stmt.executeUpdate(mergeUsage);
+            }
+
+            try (final PreparedStatement ps = conn.prepareStatement(added);
+                 final ResultStream stream = this.resultStreamer.open(ps)) {
+                final ResultSet rs = stream.getResultSet();
+                final Account account = new Account();
+                while (stream.next()) {
+                    account.setId(rs.getLong("account_id"));
+                    account.setName(rs.getString("name"));
+
+                    account.getServiceLevel().setMaxGroups(rs.getInt("max_groups"));
+                    account.getServiceLevel().setMaxTags(rs.getInt("max_tags"));
+                    account.getServiceLevel().setMaxDepth(rs.getInt("max_depth"));
+
+                    consumer.accept(account);
+                }
+            }
+
+            conn.commit();
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to bulk add accounts", sqlException);
+        }
+    }
+
     private void processBatch(
             @Nonnull final PreparedStatement ps, @Nonnull final Collection<Account> batch,
             @Nonnull final CloseableBiConsumer<Long, ServiceLevel> serviceLevelAdder,
             @Nonnull final Consumer<Account> consumer)
             throws SQLException {
+        final Collection<Long> accountIds = new ArrayList<>(batch.size());
         try (final ResultSet rs = ps.getGeneratedKeys()) {
             final Iterator<Account> batchIter = batch.iterator();
             while (rs.next() && batchIter.hasNext()) {
                 final long accountId = rs.getLong(1);
+                accountIds.add(accountId);
 
                 final Account account = batchIter.next();
                 account.setId(accountId);
@@ -292,6 +436,13 @@ public class PostgresAccountDao implements AccountDao {
             }
             batch.clear();
         }
+
+        // New accounts start without any usage.
+        final String sql = "INSERT INTO account_usage (account_id) SELECT UNNEST(?)";
+        try (final PreparedStatement usage = ps.getConnection().prepareStatement(sql)) {
+            usage.setArray(1, ps.getConnection().createArrayOf("bigint", accountIds.toArray()));
+            usage.executeUpdate();
+        }
     }
 
     @Override
@@ -303,7 +454,8 @@ public class PostgresAccountDao implements AccountDao {
     public int remove(@Nonnull final Collection<Long> accountIds) {
         Objects.requireNonNull(accountIds);
 
-        final String sql = "DELETE FROM accounts WHERE account_id = ANY (?)";
+        // The accounts are only marked as deleted, their groups and tags are deleted in small batches by the purger.
+        final String sql = "UPDATE accounts SET deleted = TRUE WHERE account_id = ANY (?) AND NOT deleted";
 
         int removed = 0;
 
@@ -319,4 +471,22 @@ public class PostgresAccountDao implements AccountDao {
 
         return removed;
     }
+
+    @Override
+    public int purge(final int limit) {
+        // The remaining rows referencing the account, such as the service level and usage, are deleted by cascade.
+        final String sql = "DELETE FROM accounts WHERE account_id IN (SELECT account_id FROM accounts a WHERE deleted "
+                + "AND NOT EXISTS (SELECT 1 FROM groups g WHERE g.account_id = a.account_id) LIMIT ?)";
+
+        final DataSource dataSource = this.dataSourceSupplier.get();
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            final int purged = ps.executeUpdate();
+            conn.commit();
+            return purged;
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to purge removed accounts", sqlException);
+        }
+    }
 }
@@ -0,0 +1,292 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.dao.AccountUsageDao;
+import com.grpctrl.db.error.ErrorTransformer;
+import com.grpctrl.db.error.QuotaExceededException;
+import com.grpctrl.db.feed.ChangeEvent;
+import com.grpctrl.db.feed.ChangeListener;
+import com.grpctrl.db.usage.AccountUsage;
+import com.grpctrl.db.usage.AccountUsageCache;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+import javax.ws.rs.NotFoundException;
+
+/**
+ * Provides an implementation of an {@link AccountUsageDao} using a JDBC {@link DataSourceSupplier} to communicate
+ * with a back-end PostgreSQL database. The usage committed through this node is cached as it is committed, and is
+ * dropped when the change feed reports that the groups or tags of an account were changed by other nodes.
+ */
+@SuppressFBWarnings(value = "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING")
+public class PostgresAccountUsageDao implements AccountUsageDao, ChangeListener {
+    private static final String SELECT = "SELECT group_count, tag_count, max_depth, version FROM account_usage "
+            + "WHERE account_id = ?";
+    // Determines the usage of an account from the groups and tags it currently owns. Removed groups are marked as
+    // deleted along with all their descendants, so the walk from the remaining top-level groups skips all of them.
+    private static final String ACTUAL = "WITH RECURSIVE depths AS ("
+            + "    SELECT group_id, 1 AS depth FROM groups WHERE account_id = ? AND parent_id IS NULL AND NOT deleted"
+            + "    UNION ALL"
+            + "    SELECT g.group_id, d.depth + 1 FROM groups g JOIN depths d ON"
+            + "        (g.account_id = ? AND g.parent_id = d.group_id)"
+            + ")"
+            + "SELECT (SELECT COUNT(*) FROM depths) AS group_count, (SELECT COUNT(*) FROM tags WHERE account_id = ? "
+            + "AND group_id IN (SELECT group_id FROM depths)) AS tag_count, (SELECT COALESCE(MAX(depth), 0) FROM "
+            + "depths) AS max_depth, 1 AS version";
+
+    @Nonnull
+    private final DataSourceSupplier dataSourceSupplier;
+    @Nonnull
+    private final AccountUsageCache cache = new AccountUsageCache();
+
+    /**
+     * @param dataSourceSupplier the supplier of the JDBC {@link DataSource} to use when communicating with the
+     *     back-end database
+     */
+    public PostgresAccountUsageDao(@Nonnull final DataSourceSupplier dataSourceSupplier) {
+        this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+    }
+
+    @Override
+    @Nonnull
+    public AccountUsage get(@Nonnull final Connection conn, @Nonnull final Account account) {
+        Objects.requireNonNull(conn);
+        Objects.requireNonNull(account);
+
+        final long accountId = account.getId().orElse(null);
+        final Optional<AccountUsage> cached = this.cache.get(accountId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        try {
+            Optional<AccountUsage> usage = read(conn, SELECT, accountId);
+            if (!usage.isPresent()) {
+                create(accountId);
+                usage = read(conn, SELECT, accountId);
+            }
+            final AccountUsage stored = usage.orElseThrow(() -> new NotFoundException("Account not found"));
+            this.cache.put(stored);
+            return stored;
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to retrieve account usage", sqlException);
+        }
+    }
+
+    @Override
+    @Nonnull
+    public AccountUsage update(
+            @Nonnull final Connection conn, @Nonnull final Account account, final long groups, final long tags,
+            final int depth) {
+        Objects.requireNonNull(conn);
+        Objects.requireNonNull(account);
+
+        final long accountId = account.getId().orElse(null);
+        final AccountUsage usage;
+        try {
+            Optional<AccountUsage> updated = update(conn, accountId, groups, tags, depth);
+            if (!updated.isPresent()) {
+                // The created usage only includes committed changes, so the changes still need to be applied.
+                create(accountId);
+                updated = update(conn, accountId, groups, tags, depth);
+            }
+            usage = updated.orElseThrow(() -> new NotFoundException("Account not found"));
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to update account usage", sqlException);
+        }
+
+        if (groups > 0 && usage.getGroups() > account.getServiceLevel().getMaxGroups()) {
+            throw new QuotaExceededException(
+                    "Unable to add the requested groups without exceeding allocated quota. Account has "
+                            + "a limit of " + account.getServiceLevel().getMaxGroups() + " total groups.");
+        }
+        if (tags > 0 && usage.getTags() > account.getServiceLevel().getMaxTags()) {
+            throw new QuotaExceededException(
+                    "Unable to add the requested tags without exceeding allocated quota. Account has "
+                            + "a limit of " + account.getServiceLevel().getMaxTags() + " total tags.");
+        }
+        return usage;
+    }
+
+    @Nonnull
+    private Optional<AccountUsage> update(
+            @Nonnull final Connection conn, final long accountId, final long groups, final long tags, final int depth)
+            throws SQLException {
+        final String sql = "UPDATE account_usage SET group_count = group_count + ?, tag_count = tag_count + ?, "
+                + "max_depth = GREATEST(max_depth, ?), version = version + 1 WHERE account_id = ? RETURNING "
+                + "group_count, tag_count, max_depth, version";
+
+        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, groups);
+            ps.setLong(2, tags);
+            ps.setInt(3, depth);
+            ps.setLong(4, accountId);
+            return usage(ps, accountId);
+        }
+    }
+
+    private void create(final long accountId) throws SQLException {
+        // Only accounts created outside of the account DAO are missing usage. The usage is created in a separate
+        // transaction from the committed groups and tags, so it does not depend on the changes of any transaction
+        // that is still in progress.
+        final String sql = "INSERT INTO account_usage (account_id, group_count, tag_count, max_depth, version) "
+                + "SELECT a.account_id, u.group_count, u.tag_count, u.max_depth, u.version FROM accounts a, (" + ACTUAL
+                + ") u WHERE a.account_id = ? ON CONFLICT (account_id) DO NOTHING";
+
+        final DataSource dataSource = this.dataSourceSupplier.get();
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            ps.setLong(2, accountId);
+            ps.setLong(3, accountId);
+            ps.setLong(4, accountId);
+            if (ps.executeUpdate() > 0) {
+                // The version restarts with the created usage, so any cached usage would never be replaced.
+                this.cache.invalidate(accountId);
+            }
+            conn.commit();
+        }
+    }
+
+    @Nonnull
+    private Optional<AccountUsage> read(@Nonnull final Connection conn, @Nonnull final String sql, final long accountId)
+            throws SQLException {
+        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            return usage(ps, accountId);
+        }
+    }
+
+    @Nonnull
+    private Optional<AccountUsage> usage(@Nonnull final PreparedStatement ps, final long accountId)
+            throws SQLException {
+        try (final ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                return Optional.of(new AccountUsage(accountId, rs.getLong("group_count"), rs.getLong("tag_count"),
+                        rs.getInt("max_depth"), rs.getLong("version")));
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void committed(@Nonnull final AccountUsage usage) {
+        this.cache.put(Objects.requireNonNull(usage));
+    }
+
+    @Override
+    @Nonnull
+    public Optional<Long> reconcile(
+            final long after, final int limit, @Nonnull final BiConsumer<AccountUsage, AccountUsage> drifted) {
+        Objects.requireNonNull(drifted);
+
+        // Removed accounts are skipped, their usage is deleted along with them when they are purged.
+        final String accounts = "SELECT account_id FROM account_usage JOIN accounts USING (account_id) WHERE "
+                + "account_id > ? AND NOT deleted ORDER BY account_id LIMIT ?";
+
+        final DataSource dataSource = this.dataSourceSupplier.get();
+        try (final Connection conn = dataSource.getConnection()) {
+            final List<Long> accountIds = new ArrayList<>(limit);
+            try (final PreparedStatement ps = conn.prepareStatement(accounts)) {
+                ps.setLong(1, after);
+                ps.setInt(2, limit);
+                try (final ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        accountIds.add(rs.getLong(1));
+                    }
+                }
+            }
+            conn.commit();
+
+            // Each account is reconciled in a separate transaction so the usage is only locked briefly.
+            for (final Long accountId : accountIds) {
+                reconcile(conn, accountId, drifted);
+                conn.commit();
+            }
+
+            if (accountIds.size() < limit) {
+                return Optional.empty();
+            }
+            return Optional.of(accountIds.get(accountIds.size() - 1));
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to reconcile account usage", sqlException);
+        }
+    }
+
+    private void reconcile(
+            @Nonnull final Connection conn, final long accountId,
+            @Nonnull final BiConsumer<AccountUsage, AccountUsage> drifted) throws SQLException {
+        final String correct = "UPDATE account_usage SET group_count = ?, tag_count = ?, max_depth = ?, "
+                + "version = version + 1 WHERE account_id = ? RETURNING group_count, tag_count, max_depth, version";
+
+        // Locking the usage waits for any transactions changing the account to complete, so the counts that follow
+        // include all of their changes.
+        final Optional<AccountUsage> stored = read(conn, SELECT + " FOR UPDATE", accountId);
+        if (!stored.isPresent()) {
+            // The account was removed.
+            return;
+        }
+
+        final AccountUsage counted;
+        try (final PreparedStatement ps = conn.prepareStatement(ACTUAL)) {
+            ps.setLong(1, accountId);
+            ps.setLong(2, accountId);
+            ps.setLong(3, accountId);
+            counted = usage(ps, accountId).get();
+        }
+
+        if (stored.get().countsMatch(counted) && stored.get().getMaxDepth() == counted.getMaxDepth()) {
+            this.cache.put(stored.get());
+            return;
+        }
+
+        final AccountUsage corrected;
+        try (final PreparedStatement ps = conn.prepareStatement(correct)) {
+            ps.setLong(1, counted.getGroups());
+            ps.setLong(2, counted.getTags());
+            ps.setInt(3, counted.getMaxDepth());
+            ps.setLong(4, accountId);
+            corrected = usage(ps, accountId).get();
+        }
+        conn.commit();
+        this.cache.put(corrected);
+
+        // The maximum depth is expected to be lowered after groups are removed, so only the counts indicate drift.
+        if (!stored.get().countsMatch(counted)) {
+            drifted.accept(stored.get(), corrected);
+        }
+    }
+
+    @Override
+    public void changed(@Nonnull final Collection<ChangeEvent> events) {
+        // The usage is updated along with every change to the groups and tags of an account.
+        events.stream().filter(event -> event.getEntity() == ChangeEvent.Entity.TAG
+                || event.getEntity() == ChangeEvent.Entity.GROUP).mapToLong(ChangeEvent::getAccountId).distinct()
+                .forEach(this.cache::invalidate);
+    }
+
+    @Override
+    public boolean isLocalChangeListener() {
+        // The usage updated through this node is already cached when it is committed.
+        return false;
+    }
+
+    @Override
+    public void resync() {
+        this.cache.invalidateAll();
+    }
+}
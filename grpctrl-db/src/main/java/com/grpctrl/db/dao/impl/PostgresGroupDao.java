@@ -1,77 +1,122 @@
 package com.grpctrl.db.dao.impl;
 
+import static com.grpctrl.db.dao.impl.GroupResults.after;
+import static com.grpctrl.db.dao.impl.GroupResults.limit;
+import static com.grpctrl.db.dao.impl.GroupResults.pageQuery;
+
+import com.codahale.metrics.MetricRegistry;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.Group;
 import com.grpctrl.common.model.Tag;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.common.util.CloseableBiConsumer;
 import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.copy.BinaryCopyWriter;
+import com.grpctrl.db.dao.AccountUsageDao;
 import com.grpctrl.db.dao.GroupDao;
 import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.dao.supplier.AccountUsageDaoSupplier;
 import com.grpctrl.db.dao.supplier.TagDaoSupplier;
+import com.grpctrl.db.dao.supplier.TagDictionaryDaoSupplier;
 import com.grpctrl.db.error.ErrorTransformer;
 import com.grpctrl.db.error.QuotaExceededException;
+import com.grpctrl.db.feed.ChangeEvent;
+import com.grpctrl.db.feed.ChangeListener;
+import com.grpctrl.db.index.GroupHierarchy;
+import com.grpctrl.db.index.GroupHierarchyIndex;
+import com.grpctrl.db.index.GroupNameIndex;
+import com.grpctrl.db.index.GroupNameIndexCache;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.stream.ResultStream;
+import com.grpctrl.db.stream.ResultStreamer;
+import com.grpctrl.db.usage.AccountUsage;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.BiConsumer;
-import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.sql.DataSource;
+import javax.ws.rs.BadRequestException;
 
 /**
  * Provides an implementation of a {@link GroupDao} using a JDBC {@link DataSourceSupplier} to communicate
- * with a back-end PostgreSQL database.
+ * with a back-end PostgreSQL database. The in-memory group indexes are kept up to date with the changes made through
+ * this DAO, and are dropped when the change feed reports that the groups of an account were changed by other nodes.
  */
 @SuppressFBWarnings(value = "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING")
-public class PostgresGroupDao implements GroupDao {
+public class PostgresGroupDao implements GroupDao, ChangeListener {
+    private static final int BATCH_SIZE = 1000;
+    // Beyond this many candidates, binding them as an array costs more than letting the trigram index match the names.
+    private static final int MAX_CANDIDATES = 10_000;
+
     @Nonnull
     private final DataSourceSupplier dataSourceSupplier;
     @Nonnull
     private final TagDaoSupplier tagDaoSupplier;
+    @Nonnull
+    private final AccountUsageDaoSupplier accountUsageDaoSupplier;
+    @Nonnull
+    private final TagDictionaryDaoSupplier tagDictionaryDaoSupplier;
+    @Nonnull
+    private final ResultStreamer resultStreamer;
+    @Nonnull
+    private final GroupHierarchyIndex hierarchyIndex;
+    @Nonnull
+    private final GroupNameIndexCache nameIndex;
+    @Nonnull
+    private final GroupIdAllocator idAllocator = new GroupIdAllocator(BATCH_SIZE);
 
     /**
      * @param dataSourceSupplier the supplier of the JDBC {@link DataSource} to use when communicating with the
      *     back-end database
      * @param tagDaoSupplier the {@link TagDaoSupplier} used to perform tag operations
+     * @param accountUsageDaoSupplier the {@link AccountUsageDaoSupplier} used to track the groups and tags owned by
+     *     accounts
+     * @param tagDictionaryDaoSupplier the {@link TagDictionaryDaoSupplier} used to map tag labels and values to ids
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track query streaming metrics and the
+     *     number of accounts with in-memory indexes
      */
     public PostgresGroupDao(
-            @Nonnull final DataSourceSupplier dataSourceSupplier, @Nonnull final TagDaoSupplier tagDaoSupplier) {
+            @Nonnull final DataSourceSupplier dataSourceSupplier, @Nonnull final TagDaoSupplier tagDaoSupplier,
+            @Nonnull final AccountUsageDaoSupplier accountUsageDaoSupplier,
+            @Nonnull final TagDictionaryDaoSupplier tagDictionaryDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
         this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
         this.tagDaoSupplier = Objects.requireNonNull(tagDaoSupplier);
+        this.accountUsageDaoSupplier = Objects.requireNonNull(accountUsageDaoSupplier);
+        this.tagDictionaryDaoSupplier = Objects.requireNonNull(tagDictionaryDaoSupplier);
+        this.resultStreamer = new ResultStreamer(dataSourceSupplier, metricRegistrySupplier, PostgresGroupDao.class);
+
+        final long size = dataSourceSupplier.getIndexCacheSize();
+        final long ttl = dataSourceSupplier.getIndexCacheTtl();
+        this.hierarchyIndex = new GroupHierarchyIndex(size, ttl);
+        this.nameIndex = new GroupNameIndexCache(size, ttl);
+
+        final MetricRegistry metricRegistry = Objects.requireNonNull(metricRegistrySupplier).get();
+        this.hierarchyIndex.register(metricRegistry, MetricRegistry.name(PostgresGroupDao.class, "hierarchy-index"));
+        this.nameIndex.register(metricRegistry, MetricRegistry.name(PostgresGroupDao.class, "name-index"));
     }
 
     @Override
     public int count(@Nonnull final Connection conn, @Nonnull final Account account) {
-        Objects.requireNonNull(conn);
-        Objects.requireNonNull(account);
-
-        final String sql = "SELECT COUNT(*) FROM groups WHERE account_id = ?";
-
-        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, account.getId().orElse(null));
-            try (final ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
-                return 0;
-            }
-        } catch (final SQLException sqlException) {
-            throw ErrorTransformer.get("Failed to retrieve group count", sqlException);
-        }
+        return (int) this.accountUsageDaoSupplier.get().get(conn, account).getGroups();
     }
 
     @Override
@@ -80,10 +125,25 @@ public class PostgresGroupDao implements GroupDao {
         Objects.requireNonNull(account);
         Objects.requireNonNull(groupId);
 
+        final long accountId = account.getId().orElse(null);
+        final int depth = hierarchy(accountId).depth(groupId);
+        if (depth > 0) {
+            return depth;
+        }
+
+        // Not in the hierarchy, the group may have been added by another process since the hierarchy was loaded.
+        final int stored = depthQuery(conn, accountId, groupId);
+        if (stored > 0) {
+            this.hierarchyIndex.invalidate(accountId);
+        }
+        return stored;
+    }
+
+    private int depthQuery(@Nonnull final Connection conn, final long accountId, @Nonnull final Long groupId) {
         final String sql = "" +
                 "WITH RECURSIVE parents AS (" +
                 "    SELECT parent_id, group_id, group_name, 1 AS depth" +
-                "        FROM groups WHERE account_id = ? AND group_id = ?" +
+                "        FROM groups WHERE account_id = ? AND group_id = ? AND NOT deleted" +
                 "    UNION ALL" +
                 "    SELECT g.parent_id, g.group_id, g.group_name, depth + 1" +
                 "        FROM groups g JOIN parents p ON" +
@@ -92,17 +152,50 @@ public class PostgresGroupDao implements GroupDao {
                 "SELECT MAX(depth) AS depth FROM parents;";
 
         try (final PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, account.getId().orElse(null));
+            ps.setLong(1, accountId);
             ps.setLong(2, groupId);
-            ps.setLong(3, account.getId().orElse(null));
+            ps.setLong(3, accountId);
             try (final ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getInt(1);
+                    final int depth = rs.getInt(1);
+                    return rs.wasNull() ? -1 : depth;
                 }
                 return -1;
             }
         } catch (final SQLException sqlException) {
-            throw ErrorTransformer.get("Failed to retrieve group count", sqlException);
+            throw ErrorTransformer.get("Failed to retrieve group depth", sqlException);
+        }
+    }
+
+    @Nonnull
+    private GroupHierarchy hierarchy(final long accountId) {
+        return this.hierarchyIndex.get(accountId, () -> loadHierarchy(accountId));
+    }
+
+    @Nonnull
+    private GroupHierarchy loadHierarchy(final long accountId) {
+        final String sql = "SELECT group_id, parent_id FROM groups WHERE account_id = ? AND NOT deleted";
+
+        try (final Connection conn = this.dataSourceSupplier.getReadOnlyConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            try (final ResultSet rs = ps.executeQuery()) {
+                long[] groupIds = new long[1024];
+                long[] parentIds = new long[1024];
+                int count = 0;
+                while (rs.next()) {
+                    if (count == groupIds.length) {
+                        groupIds = Arrays.copyOf(groupIds, count << 1);
+                        parentIds = Arrays.copyOf(parentIds, count << 1);
+                    }
+                    groupIds[count] = rs.getLong(1);
+                    parentIds[count] = rs.getLong(2); // Zero when null, which indicates a top-level group.
+                    count++;
+                }
+                return GroupHierarchy.of(groupIds, parentIds, count);
+            }
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to load group hierarchy", sqlException);
         }
     }
 
@@ -111,7 +204,7 @@ public class PostgresGroupDao implements GroupDao {
         Objects.requireNonNull(account);
         Objects.requireNonNull(groupId);
 
-        final String sql = "SELECT COUNT(*) FROM groups WHERE account_id = ? AND group_id = ?";
+        final String sql = "SELECT COUNT(*) FROM groups WHERE account_id = ? AND group_id = ? AND NOT deleted";
 
         final DataSource dataSource = this.dataSourceSupplier.get();
         try (final Connection conn = dataSource.getConnection();
@@ -136,7 +229,7 @@ public class PostgresGroupDao implements GroupDao {
         Objects.requireNonNull(account);
         Objects.requireNonNull(groupName);
 
-        final String sql = "SELECT COUNT(*) FROM groups WHERE account_id = ? AND group_name = ?";
+        final String sql = "SELECT COUNT(*) FROM groups WHERE account_id = ? AND group_name = ? AND NOT deleted";
 
         final DataSource dataSource = this.dataSourceSupplier.get();
         try (final Connection conn = dataSource.getConnection();
@@ -156,197 +249,322 @@ public class PostgresGroupDao implements GroupDao {
         }
     }
 
-    private void consumeQuery(
-            @Nonnull final PreparedStatement ps, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer)
-            throws SQLException {
-        try (final ResultSet rs = ps.executeQuery()) {
-            final Group group = new Group();
-            final TagIterator tagIterator = new TagIterator(rs, group);
-            int count = 0;
-            while (tagIterator.hasMoreGroups()) {
-                consumer.accept(group, tagIterator);
-
-                final Optional<SQLException> exception = tagIterator.getException();
-                if (exception.isPresent()) {
-                    throw exception.get();
-                }
-
-                tagIterator.nextGroup();
-
-                if (++count > 5) {
-                    break;
-                }
-            }
-        }
+    @Nonnull
+    private Optional<PageToken> consumeQuery(
+            @Nonnull final PreparedStatement ps, @Nonnull final Account account, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) throws SQLException {
+        return GroupResults.consume(this.resultStreamer, this.tagDictionaryDaoSupplier.get(), ps, account, page,
+                consumer);
     }
 
     @Override
-    public void get(@Nonnull final Account account, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+    @Nonnull
+    public Optional<PageToken> get(
+            @Nonnull final Account account, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
         Objects.requireNonNull(account);
+        Objects.requireNonNull(page);
         Objects.requireNonNull(consumer);
 
-        final String sql =
-                "SELECT parent_id, g.group_id, group_name, tag_label, tag_value FROM groups g LEFT JOIN tags t "
-                        + "ON (g.group_id = t.group_id AND g.account_id = t.account_id) WHERE g.account_id = ? AND "
-                        + "parent_id IS NULL";
+        final String sql = pageQuery("parent_id IS NULL");
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, account.getId().orElse(null));
-            consumeQuery(ps, consumer);
+            ps.setLong(2, after(account, page));
+            ps.setLong(3, limit(page));
+            return consumeQuery(ps, account, page, consumer);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to retrieve group by id", sqlException);
         }
     }
 
     @Override
-    public void getById(
-            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds,
+    @Nonnull
+    public Optional<PageToken> getById(
+            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds, @Nonnull final Page page,
             @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
         Objects.requireNonNull(account);
         Objects.requireNonNull(groupIds);
+        Objects.requireNonNull(page);
         Objects.requireNonNull(consumer);
 
-        final String sql =
-                "SELECT parent_id, g.group_id, group_name, tag_label, tag_value FROM groups g LEFT JOIN tags t "
-                        + "ON (g.group_id = t.group_id AND g.account_id = t.account_id) WHERE g.account_id = ? AND "
-                        + "g.group_id = ANY (?)";
+        final String sql = pageQuery("group_id = ANY (?)");
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, account.getId().orElse(null));
-            ps.setArray(2, conn.createArrayOf("bigint", groupIds.toArray()));
-            consumeQuery(ps, consumer);
+            ps.setLong(2, after(account, page));
+            ps.setArray(3, conn.createArrayOf("bigint", groupIds.toArray()));
+            ps.setLong(4, limit(page));
+            return consumeQuery(ps, account, page, consumer);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to retrieve group by id", sqlException);
         }
     }
 
     @Override
-    public void getByName(
-            @Nonnull final Account account, @Nonnull final Collection<String> groupNames,
+    @Nonnull
+    public Optional<PageToken> getByName(
+            @Nonnull final Account account, @Nonnull final Collection<String> groupNames, @Nonnull final Page page,
             @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
         Objects.requireNonNull(account);
         Objects.requireNonNull(groupNames);
+        Objects.requireNonNull(page);
         Objects.requireNonNull(consumer);
 
-        final String sql =
-                "SELECT parent_id, g.group_id, group_name, tag_label, tag_value FROM groups g LEFT JOIN tags t "
-                        + "ON (g.group_id = t.group_id AND g.account_id = t.account_id) WHERE g.account_id = ? AND "
-                        + "group_name = ANY (?)";
+        final String sql = pageQuery("group_name = ANY (?)");
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, account.getId().orElse(null));
-            ps.setArray(2, conn.createArrayOf("varchar", groupNames.toArray()));
-            consumeQuery(ps, consumer);
+            ps.setLong(2, after(account, page));
+            ps.setArray(3, conn.createArrayOf("varchar", groupNames.toArray()));
+            ps.setLong(4, limit(page));
+            return consumeQuery(ps, account, page, consumer);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to retrieve groups by name", sqlException);
         }
     }
 
     @Override
-    public void find(
+    @Nonnull
+    public Optional<PageToken> find(
             @Nonnull final Account account, @Nonnull final Collection<String> regexes, final boolean caseSensitive,
-            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
         Objects.requireNonNull(account);
         Objects.requireNonNull(regexes);
+        Objects.requireNonNull(page);
         Objects.requireNonNull(consumer);
 
-        final String sql = String.format(
-                "SELECT parent_id, g.group_id, group_name, tag_label, tag_value FROM groups g LEFT JOIN tags t "
-                        + "ON (g.group_id = t.group_id AND g.account_id = t.account_id) WHERE g.account_id = ? AND "
-                        + "group_name %s ANY (?)", caseSensitive ? "~" : "~*");
+        final String filter = String.format("group_name %s ANY (?)", caseSensitive ? "~" : "~*");
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final long accountId = account.getId().orElse(null);
+        final long after = after(account, page);
+
+        // The candidates are found before a connection is held, since loading the index uses a connection of its own.
+        final Optional<long[]> candidates = candidates(accountId, regexes, after);
+        if (candidates.isPresent() && candidates.get().length == 0) {
+            return Optional.empty();
+        }
+
+        final String sql = pageQuery(candidates.isPresent() ? "group_id = ANY (?) AND " + filter : filter);
+
+        // The candidates only narrow the query, which still applies the regexes, so may be newer than the replica.
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, account.getId().orElse(null));
-            ps.setArray(2, conn.createArrayOf("varchar", regexes.toArray()));
-            consumeQuery(ps, consumer);
+            int index = 1;
+            ps.setLong(index++, accountId);
+            ps.setLong(index++, after);
+            if (candidates.isPresent()) {
+                final Object[] groupIds = LongStream.of(candidates.get()).boxed().toArray();
+                ps.setArray(index++, conn.createArrayOf("bigint", groupIds));
+            }
+            ps.setArray(index++, conn.createArrayOf("varchar", regexes.toArray()));
+            ps.setLong(index, limit(page));
+            return consumeQuery(ps, account, page, consumer);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to find groups by regexes", sqlException);
         }
     }
 
+    /**
+     * Narrow down the groups that may be matched by the regular expressions using the in-memory group name index, so
+     * the database only needs to evaluate the expressions against the candidate groups.
+     *
+     * @param accountId the unique id of the account that owns the groups
+     * @param regexes the regular expressions to be matched against the group names
+     * @param after the group id after which the candidate groups are needed
+     *
+     * @return the ids of the candidate groups in ascending order, or empty when the expressions do not require any
+     *     literals that can be used to narrow down the groups, or when there are too many candidate groups
+     */
+    @Nonnull
+    private Optional<long[]> candidates(
+            final long accountId, @Nonnull final Collection<String> regexes, final long after) {
+        final GroupNameIndex index = this.nameIndex.get(accountId, () -> loadNames(accountId));
+        return index.candidates(regexes).map(groups -> groups.toArray(after, MAX_CANDIDATES + 1))
+                .filter(groupIds -> groupIds.length <= MAX_CANDIDATES);
+    }
+
+    @Nonnull
+    private GroupNameIndex loadNames(final long accountId) {
+        final String sql = "SELECT group_id, group_name FROM groups WHERE account_id = ? AND NOT deleted";
+
+        try (final Connection conn = this.dataSourceSupplier.getReadOnlyConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            try (final ResultStream stream = this.resultStreamer.open(ps)) {
+                final ResultSet rs = stream.getResultSet();
+                final GroupNameIndex index = new GroupNameIndex();
+                while (stream.next()) {
+                    index.add(rs.getLong(1), rs.getString(2));
+                }
+                return index;
+            }
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to load group name index", sqlException);
+        }
+    }
+
     @Override
-    public void childrenById(
-            @Nonnull final Account account, @Nonnull final Collection<Long> parentIds,
+    @Nonnull
+    public Optional<PageToken> childrenById(
+            @Nonnull final Account account, @Nonnull final Collection<Long> parentIds, @Nonnull final Page page,
             @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
         Objects.requireNonNull(account);
         Objects.requireNonNull(parentIds);
+        Objects.requireNonNull(page);
         Objects.requireNonNull(consumer);
 
-        final String sql =
-                "SELECT parent_id, g.group_id, group_name, tag_label, tag_value FROM groups g LEFT JOIN tags t "
-                        + "ON (g.group_id = t.group_id AND g.account_id = t.account_id) WHERE g.account_id = ? AND "
-                        + "parent_id = ANY (?)";
+        final String sql = pageQuery("parent_id = ANY (?)");
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, account.getId().orElse(null));
-            ps.setArray(2, conn.createArrayOf("bigint", parentIds.toArray()));
-            consumeQuery(ps, consumer);
+            ps.setLong(2, after(account, page));
+            ps.setArray(3, conn.createArrayOf("bigint", parentIds.toArray()));
+            ps.setLong(4, limit(page));
+            return consumeQuery(ps, account, page, consumer);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to retrieve children for group id", sqlException);
         }
     }
 
     @Override
-    public void childrenByName(
-            @Nonnull final Account account, @Nonnull final Collection<String> parentNames,
+    @Nonnull
+    public Optional<PageToken> childrenByName(
+            @Nonnull final Account account, @Nonnull final Collection<String> parentNames, @Nonnull final Page page,
             @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
         Objects.requireNonNull(account);
         Objects.requireNonNull(parentNames);
+        Objects.requireNonNull(page);
         Objects.requireNonNull(consumer);
 
-        final String sql =
-                "SELECT parent_id, g.group_id, group_name, tag_label, tag_value FROM groups g LEFT JOIN tags t "
-                        + "ON (g.group_id = t.group_id AND g.account_id = t.account_id) WHERE g.account_id = ? AND "
-                        + "parent_id IN (SELECT group_id FROM groups where account_id = ? AND group_name = ANY (?))";
+        final String sql = pageQuery(
+                "parent_id IN (SELECT group_id FROM groups where account_id = ? AND group_name = ANY (?))");
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, account.getId().orElse(null));
-            ps.setLong(2, account.getId().orElse(null));
-            ps.setArray(3, conn.createArrayOf("varchar", parentNames.toArray()));
-            consumeQuery(ps, consumer);
+            ps.setLong(2, after(account, page));
+            ps.setLong(3, account.getId().orElse(null));
+            ps.setArray(4, conn.createArrayOf("varchar", parentNames.toArray()));
+            ps.setLong(5, limit(page));
+            return consumeQuery(ps, account, page, consumer);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to retrieve children for parent group name", sqlException);
         }
     }
 
     @Override
-    public void childrenFind(
+    @Nonnull
+    public Optional<PageToken> childrenFind(
             @Nonnull final Account account, @Nonnull final Collection<String> regexes, final boolean caseSensitive,
-            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
         Objects.requireNonNull(account);
         Objects.requireNonNull(regexes);
+        Objects.requireNonNull(page);
         Objects.requireNonNull(consumer);
 
-        final String sql = String.format(
-                "SELECT parent_id, g.group_id, group_name, tag_label, tag_value FROM groups g LEFT JOIN tags t "
-                        + "ON (g.group_id = t.group_id AND g.account_id = t.account_id) WHERE g.account_id = ? AND "
-                        + "parent_id IN (SELECT group_id FROM groups where account_id = ? AND group_name %s ANY (?))",
-                caseSensitive ? "~" : "~*");
+        final String filter = String.format("group_name %s ANY (?)", caseSensitive ? "~" : "~*");
 
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final long accountId = account.getId().orElse(null);
+        final long after = after(account, page);
+
+        // The candidates are found before a connection is held, since loading the index uses a connection of its own.
+        final Optional<long[]> candidates = candidates(accountId, regexes, 0);
+        if (candidates.isPresent() && candidates.get().length == 0) {
+            return Optional.empty();
+        }
+
+        final String sql = pageQuery(String.format(
+                "parent_id IN (SELECT group_id FROM groups where account_id = ? AND %s)",
+                candidates.isPresent() ? "group_id = ANY (?) AND " + filter : filter));
+
+        // The candidates only narrow the query, which still applies the regexes, so may be newer than the replica.
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, account.getId().orElse(null));
-            ps.setLong(2, account.getId().orElse(null));
-            ps.setArray(3, conn.createArrayOf("varchar", regexes.toArray()));
-            consumeQuery(ps, consumer);
+            int index = 1;
+            ps.setLong(index++, accountId);
+            ps.setLong(index++, after);
+            ps.setLong(index++, accountId);
+            if (candidates.isPresent()) {
+                final Object[] groupIds = LongStream.of(candidates.get()).boxed().toArray();
+                ps.setArray(index++, conn.createArrayOf("bigint", groupIds));
+            }
+            ps.setArray(index++, conn.createArrayOf("varchar", regexes.toArray()));
+            ps.setLong(index, limit(page));
+            return consumeQuery(ps, account, page, consumer);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to retrieve children for parent group name", sqlException);
         }
     }
 
+    @Override
+    @Nonnull
+    public Optional<PageToken> descendants(
+            @Nonnull final Account account, @Nonnull final Collection<Long> rootIds, final int maxDepth,
+            @Nonnull final Page page, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(rootIds);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+
+        final long after = after(account, page);
+        // One more group than requested is walked to determine whether another page is available.
+        final int limit = (int) Math.min(limit(page), Integer.MAX_VALUE);
+
+        // The descendants on the page are found in the hierarchy index before a connection is held. The walk resumes
+        // after the last group of the previous page, so each page only walks its own groups instead of the subtrees.
+        final Optional<long[]> walked = account.getId()
+                .map(accountId -> descendantIds(hierarchy(accountId), rootIds, maxDepth, after, limit));
+        if (walked.isPresent() && walked.get().length == 0) {
+            return Optional.empty();
+        }
+        final long[] groupIds = walked.map(ids -> Arrays.copyOf(ids, Math.min(ids.length, page.getLimit())))
+                .orElse(new long[0]);
+        final Optional<PageToken> next = walked.filter(ids -> ids.length > page.getLimit())
+                .map(ids -> new PageToken(account.getId().orElse(null), groupIds[groupIds.length - 1]));
+
+        // The groups are provided in the order they were walked, rather than by id like the other pages of groups.
+        final String sql = "SELECT parent_id, g.group_id, group_name, " + GroupResults.TAG_COLUMNS + " FROM (SELECT "
+                + "account_id, group_id, parent_id, group_name, position FROM groups JOIN unnest(?::bigint[]) WITH "
+                + "ORDINALITY AS walk (group_id, position) USING (group_id) WHERE account_id = ? AND NOT deleted) g "
+                + GroupResults.TAG_JOINS + " ORDER BY g.position";
+
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setArray(1, conn.createArrayOf("bigint", LongStream.of(groupIds).boxed().toArray()));
+            ps.setLong(2, account.getId().orElse(null));
+            consumeQuery(ps, account, Page.all(), consumer);
+            return next;
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to retrieve descendants for group id", sqlException);
+        }
+    }
+
+    @Nonnull
+    private static long[] descendantIds(
+            @Nonnull final GroupHierarchy hierarchy, @Nonnull final Collection<Long> rootIds, final int maxDepth,
+            final long after, final int limit) {
+        final long[] roots = rootIds.stream().filter(Objects::nonNull).mapToLong(Long::longValue).toArray();
+        try {
+            return hierarchy.descendants(roots, maxDepth, after, limit);
+        } catch (final IllegalArgumentException moved) {
+            throw new BadRequestException(
+                    "The provided continuation token is no longer valid, since its group was removed or moved");
+        }
+    }
+
     @Override
     public void add(
             @Nonnull final Account account, @Nonnull final Iterator<Group> groups,
@@ -362,246 +580,466 @@ public class PostgresGroupDao implements GroupDao {
         Objects.requireNonNull(groups);
         Objects.requireNonNull(consumer);
 
+        if (parentId != null) {
+            // The hierarchy is loaded before a connection is held, since the load uses a connection of its own.
+            account.getId().ifPresent(this::hierarchy);
+        }
+
+        // The new groups are added to the indexes that are already loaded. An index being loaded meanwhile may miss the
+        // groups, so any index other than the updated ones is dropped once the groups are committed.
+        final Optional<GroupHierarchy> hierarchy = account.getId().flatMap(this.hierarchyIndex::getIfPresent);
+        final Optional<GroupNameIndex> names = account.getId().flatMap(this.nameIndex::getIfPresent);
+
+        final TagDao tagDao = this.tagDaoSupplier.get();
         final DataSource dataSource = this.dataSourceSupplier.get();
         try (final Connection conn = dataSource.getConnection()) {
-            add(conn, account, parentId, groups, consumer);
+            final CloseableBiConsumer<Long, Tag> tagAddConsumer = tagDao.getAddConsumer(conn, account);
+            final Optional<AccountUsage> usage =
+                    add(conn, account, parentId, groups, hierarchy, names, tagAddConsumer, consumer);
             conn.commit();
+            usage.ifPresent(this.accountUsageDaoSupplier.get()::committed);
+            account.getId().ifPresent(accountId -> {
+                this.hierarchyIndex.invalidateUnless(accountId, hierarchy);
+                this.nameIndex.invalidateUnless(accountId, names);
+            });
+            tagDao.committed(account, tagAddConsumer);
         } catch (final SQLException sqlException) {
+            account.getId().ifPresent(accountId -> {
+                this.hierarchyIndex.invalidate(accountId);
+                this.nameIndex.invalidate(accountId);
+            });
+            this.tagDaoSupplier.get().invalidate(account);
             throw ErrorTransformer.get("Failed to add groups", sqlException);
+        } catch (final RuntimeException exception) {
+            // The groups were not committed, but may have already been added to the hierarchy, name, and tag indexes.
+            account.getId().ifPresent(accountId -> {
+                this.hierarchyIndex.invalidate(accountId);
+                this.nameIndex.invalidate(accountId);
+            });
+            this.tagDaoSupplier.get().invalidate(account);
+            throw exception;
         }
     }
 
-    private void add(
+    @Nonnull
+    private Optional<AccountUsage> add(
             @Nonnull final Connection conn, @Nonnull final Account account, @Nullable final Long parentId,
-            @Nonnull final Iterator<Group> groups, @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
-        final int batchSize = 1000;
-        final String sql = "INSERT INTO groups (account_id, parent_id, group_name) VALUES (?, ?, ?)";
-
-        if (parentId != null) {
-            final int currentDepth = depth(conn, account, parentId);
-            if (currentDepth + 1 > account.getServiceLevel().getMaxDepth()) {
-                throw new QuotaExceededException(
-                        "Unable to add the requested groups without exceeding the account maximum "
-                                + "group-within-group depth of " + account.getServiceLevel().getMaxDepth() + ".");
-            }
-        }
-
-        final int available = account.getServiceLevel().getMaxGroups() - count(conn, account);
-        int added = 0;
-
-        final TagDao tagDao = this.tagDaoSupplier.get();
-        try (final PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
-             final CloseableBiConsumer<Long, Tag> tagAddConsumer = tagDao.getAddConsumer(conn, account)) {
+            @Nonnull final Iterator<Group> groups, @Nonnull final Optional<GroupHierarchy> hierarchy,
+            @Nonnull final Optional<GroupNameIndex> names, @Nonnull final CloseableBiConsumer<Long, Tag> tagAddConsumer,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        // The group ids are reserved ahead of time, so the inserts do not need to return the generated keys before the
+        // tags of the groups can be added. Each batch is inserted by a single statement, rather than a statement for
+        // each group, so the change feed triggers only fire, and publish an event, once per batch.
+        final String sql = "INSERT INTO groups (group_id, account_id, parent_id, group_name) SELECT group_id, ?, ?, "
+                + "group_name FROM unnest(?::bigint[], ?::text[]) AS batch (group_id, group_name)";
+
+        // The usage is updated after each batch, which verifies the quotas before any more groups are added.
+        AccountUsage usage = null;
+
+        // The tag consumer is closed here, so the last batch of tags is stored before the caller commits.
+        try (final PreparedStatement ps = conn.prepareStatement(sql);
+             final CloseableBiConsumer<Long, Tag> tagAdder = tagAddConsumer) {
+            final int depth = checkDepth(conn, account, parentId);
             final Collection<Group> batch = new LinkedList<>();
 
             ps.setLong(1, account.getId().orElse(null));
+            if (parentId != null) {
+                ps.setLong(2, parentId);
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
             while (groups.hasNext()) {
                 final Group group = groups.next();
-                if (parentId != null) {
-                    ps.setLong(2, parentId);
-                } else {
-                    ps.setNull(2, Types.BIGINT);
-                }
-                ps.setString(3, group.getName());
-                ps.addBatch();
-                batch.add(group.setParentId(parentId));
-
-                if (batch.size() >= batchSize) {
-                    added += consumeBatch(ps, batch, tagAddConsumer, consumer);
-                    if (available - added < 0) {
-                        throw new QuotaExceededException(
-                                "Unable to add the requested groups without exceeding allocated quota. Account has "
-                                        + "a limit of " + account.getServiceLevel().getMaxGroups() + " total groups.");
-                    }
+                batch.add(group.setId(this.idAllocator.next(conn)).setParentId(parentId));
+
+                if (batch.size() >= BATCH_SIZE) {
+                    usage = consumeBatch(conn, ps, account, depth, batch, hierarchy, names, tagAdder, consumer);
                 }
             }
             if (!batch.isEmpty()) {
-                added += consumeBatch(ps, batch, tagAddConsumer, consumer);
-                if (available - added < 0) {
-                    throw new QuotaExceededException(
-                            "Unable to add the requested groups without exceeding allocated quota. Account has "
-                                    + "a limit of " + account.getServiceLevel().getMaxGroups() + " total groups.");
-                }
+                usage = consumeBatch(conn, ps, account, depth, batch, hierarchy, names, tagAdder, consumer);
             }
-            conn.commit();
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to add groups", sqlException);
         }
+        return Optional.ofNullable(usage);
     }
 
-    private int consumeBatch(
-            @Nonnull final PreparedStatement ps, @Nonnull final Collection<Group> batch,
-            final CloseableBiConsumer<Long, Tag> tagAddConsumer,
+    private int checkDepth(
+            @Nonnull final Connection conn, @Nonnull final Account account, @Nullable final Long parentId) {
+        if (parentId == null) {
+            return 1;
+        }
+
+        final int parentDepth = depth(conn, account, parentId);
+        if (parentDepth <= 0) {
+            // The parent may have been removed, and only marked as deleted, so it is not caught by the foreign key.
+            throw new BadRequestException("Failed to add groups - the parent id does not exist in your account");
+        }
+
+        final int depth = parentDepth + 1;
+        if (depth > account.getServiceLevel().getMaxDepth()) {
+            throw new QuotaExceededException(
+                    "Unable to add the requested groups without exceeding the account maximum "
+                            + "group-within-group depth of " + account.getServiceLevel().getMaxDepth() + ".");
+        }
+        return depth;
+    }
+
+    @Nonnull
+    private AccountUsage consumeBatch(
+            @Nonnull final Connection conn, @Nonnull final PreparedStatement ps, @Nonnull final Account account,
+            final int depth, @Nonnull final Collection<Group> batch, @Nonnull final Optional<GroupHierarchy> hierarchy,
+            @Nonnull final Optional<GroupNameIndex> names, final CloseableBiConsumer<Long, Tag> tagAddConsumer,
             @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) throws SQLException {
-        final int added = IntStream.of(ps.executeBatch()).sum();
-        try (final ResultSet rs = ps.getGeneratedKeys()) {
-            final Iterator<Group> iter = batch.iterator();
-            while (rs.next() && iter.hasNext()) {
-                final long groupId = rs.getLong(1);
-                final Group group = iter.next();
-                group.setId(groupId);
-
-                for (final Tag tag : group.getTags()) {
-                    tagAddConsumer.accept(groupId, tag);
-                }
-                consumer.accept(group, group.getTags().iterator());
+        ps.setArray(3, conn.createArrayOf("bigint", batch.stream().map(group -> group.getId().orElse(null)).toArray()));
+        ps.setArray(4, conn.createArrayOf("text", batch.stream().map(Group::getName).toArray()));
+        final int added = ps.executeUpdate();
+        int tags = 0;
+        for (final Group group : batch) {
+            final long groupId = group.getId().orElse(null);
+            if (hierarchy.isPresent() && !hierarchy.get().add(groupId, group.getParentId().orElse(null))) {
+                // The parent is not known to the hierarchy, so it is out of date and needs to be reloaded.
+                this.hierarchyIndex.invalidate(account.getId().orElse(null));
+            }
+            if (names.isPresent()) {
+                names.get().add(groupId, group.getName());
+            }
+
+            // The tags are added after the groups in the batch are stored, since they reference the group rows.
+            for (final Tag tag : group.getTags()) {
+                tagAddConsumer.accept(groupId, tag);
+                tags++;
             }
+            consumer.accept(group, group.getTags().iterator());
         }
         batch.clear();
-        return added;
+        return this.accountUsageDaoSupplier.get().update(conn, account, added, tags, depth);
     }
 
     @Override
-    public int remove(
-            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds) {
+    public void bulkAdd(
+            @Nonnull final Account account, @Nullable final Long parentId, @Nonnull final Iterator<Group> groups,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
         Objects.requireNonNull(account);
-        Objects.requireNonNull(groupIds);
+        Objects.requireNonNull(groups);
+        Objects.requireNonNull(consumer);
 
-        final String sql = "DELETE FROM groups WHERE account_id = ? AND group_id = ANY (?)";
+        // Each group is staged as one row per tag, or a single row without a tag when the group has no tags, so the
+        // groups and tags can be loaded with a single copy operation. The seq column identifies the staged group.
+        final String createStaging = "CREATE TEMPORARY TABLE staged_group_tags (seq BIGINT NOT NULL, "
+                + "group_name VARCHAR(200) NOT NULL, tag_label VARCHAR(200), tag_value VARCHAR(200)) ON COMMIT DROP";
+        final String copy =
+                "COPY staged_group_tags (seq, group_name, tag_label, tag_value) FROM STDIN (FORMAT binary)";
+        final String assignIds = "CREATE TEMPORARY TABLE staged_groups ON COMMIT DROP AS SELECT "
+                + "nextval('groups_group_id_seq') AS group_id, seq, group_name FROM (SELECT DISTINCT ON (seq) seq, "
+                + "group_name FROM staged_group_tags ORDER BY seq) s";
+        // The tag sets of the groups are built from the staged tags, rather than rebuilt from the merged tags.
+        final String mergeGroups = "INSERT INTO groups (group_id, account_id, parent_id, group_name, tag_set) SELECT "
+                + "g.group_id, ?, ?, g.group_name, COALESCE(s.tag_set, '{}') FROM staged_groups g LEFT JOIN "
+                + "(SELECT seq, jsonb_object_agg(tag_label, tag_values) AS tag_set FROM (SELECT seq, tag_label, "
+                + "jsonb_agg(tag_value ORDER BY tag_value) AS tag_values FROM staged_group_tags WHERE tag_label IS NOT "
+                + "NULL GROUP BY seq, tag_label) l GROUP BY seq) s ON (g.seq = s.seq)";
+        // The staged labels and values are added to the dictionary in a consistent order to avoid deadlocks with
+        // other transactions adding some of the same entries.
+        final String mergeLabels = "INSERT INTO tag_labels (tag_label) SELECT DISTINCT tag_label FROM "
+                + "staged_group_tags WHERE tag_label IS NOT NULL ORDER BY tag_label ON CONFLICT (tag_label) DO NOTHING";
+        final String mergeValues = "INSERT INTO tag_values (tag_value) SELECT DISTINCT tag_value FROM "
+                + "staged_group_tags WHERE tag_value IS NOT NULL ORDER BY tag_value ON CONFLICT (tag_value) DO NOTHING";
+        final String mergeTags = "INSERT INTO tags (account_id, group_id, label_id, value_id) SELECT ?, g.group_id, "
+                + "l.label_id, v.value_id FROM staged_group_tags t JOIN staged_groups g ON (t.seq = g.seq) "
+                + "JOIN tag_labels l ON (l.tag_label = t.tag_label) JOIN tag_values v ON (v.tag_value = t.tag_value)";
+        final String added = "SELECT CAST(? AS BIGINT) AS parent_id, g.group_id, g.group_name, l.label_id, "
+                + "v.value_id, t.tag_label, t.tag_value FROM staged_groups g JOIN staged_group_tags t ON "
+                + "(g.seq = t.seq) LEFT JOIN tag_labels l ON (l.tag_label = t.tag_label) LEFT JOIN tag_values v ON "
+                + "(v.tag_value = t.tag_value) ORDER BY g.group_id, t.tag_label, t.tag_value";
 
-        int removed = 0;
+        if (parentId != null) {
+            // The hierarchy is loaded before a connection is held, since the load uses a connection of its own.
+            account.getId().ifPresent(this::hierarchy);
+        }
 
         final DataSource dataSource = this.dataSourceSupplier.get();
-        try (final Connection conn = dataSource.getConnection();
-             final PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, account.getId().orElse(null));
-            ps.setArray(2, conn.createArrayOf("bigint", groupIds.toArray()));
-            removed += IntStream.of(ps.executeUpdate()).sum();
+        try (final Connection conn = dataSource.getConnection()) {
+            final long accountId = account.getId().orElse(null);
+            final int depth = checkDepth(conn, account, parentId);
+
+            try (final Statement stmt = conn.createStatement()) {
+                stmt.execute(createStaging);
+            }
+
+            long groupCount = 0;
+            long tagCount = 0;
+            try (final BinaryCopyWriter writer = new BinaryCopyWriter(conn, copy)) {
+                while (groups.hasNext()) {
+                    final Group group = groups.next();
+                    groupCount++;
+                    if (group.getTags().isEmpty()) {
+                        writer.startRow(4);
+                        writer.writeLong(groupCount);
+                        writer.writeString(group.getName());
+                        writer.writeString(null);
+                        writer.writeString(null);
+                    }
+                    for (final Tag tag : group.getTags()) {
+                        writer.startRow(4);
+                        writer.writeLong(groupCount);
+                        writer.writeString(group.getName());
+                        writer.writeString(tag.getLabel());
+                        writer.writeString(tag.getValue());
+                        tagCount++;
+                    }
+                }
+                writer.finish();
+            }
+
+            try (final Statement stmt = conn.createStatement()) {
+                stmt.execute(assignIds);
+            }
+            try (final PreparedStatement ps = conn.prepareStatement(mergeGroups)) {
+                ps.setLong(1, accountId);
+                ps.setObject(2, parentId, Types.BIGINT);
+                ps.executeUpdate();
+            }
+            try (final Statement stmt = conn.createStatement()) {
+                stmt.execute(mergeLabels);
+                stmt.execute(mergeValues);
+            }
+            try (final PreparedStatement ps = conn.prepareStatement(mergeTags)) {
+                ps.setLong(1, accountId);
+                ps.executeUpdate();
+            }
+
+            // Verify the quotas before any of the merged groups are provided to the consumer.
+            final AccountUsageDao accountUsageDao = this.accountUsageDaoSupplier.get();
+            final AccountUsage usage = accountUsageDao.update(conn, account, groupCount, tagCount, depth);
+
+            try (final PreparedStatement ps = conn.prepareStatement(added)) {
+                ps.setObject(1, parentId, Types.BIGINT);
+                consumeQuery(ps, account, Page.all(), consumer);
+            }
             conn.commit();
+            accountUsageDao.committed(usage);
+
+            // The groups were not added to the indexes as they were stored, so they all need to be reloaded.
+            this.hierarchyIndex.invalidate(accountId);
+            this.nameIndex.invalidate(accountId);
+            this.tagDaoSupplier.get().invalidate(account);
         } catch (final SQLException sqlException) {
-            throw ErrorTransformer.get("Failed to remove groups by id", sqlException);
+            throw ErrorTransformer.get("Failed to bulk add groups", sqlException);
         }
-
-        return removed;
     }
 
-    /**
-     * This class is responsible for providing an iterator over {@link Tag} objects for streaming processing.
-     */
-    private static class TagIterator implements Iterator<Tag> {
-        @Nonnull
-        private final ResultSet rs;
-        private final Group group;
-
-        private boolean moveForward = true;
-        private boolean hasMoreGroups = true;
-        private boolean hasNext = true;
-        private Tag prev = new Tag();
-        private Tag next = new Tag();
-
-        private SQLException exception;
-
-        /**
-         * @param rs the result set from which tags will be read
-         * @param group the group into which the group data will be read
-         */
-        TagIterator(@Nonnull final ResultSet rs, final Group group) {
-            this.rs = rs;
-            this.group = group;
-
-            nextGroup();
-        }
-
-        /**
-         * @return whether more groups are available in the result set
-         */
-        public boolean hasMoreGroups() {
-            return this.hasMoreGroups;
-        }
-
-        /**
-         * Reset this tag iterator for the next group.
-         */
-        public void nextGroup() {
-            try {
-                if (!this.moveForward || this.rs.next()) {
-                    this.moveForward = false;
-
-                    // Process the current row in the result set.
-                    group.setId(this.rs.getLong("group_id"));
-                    final long parentId = this.rs.getLong("parent_id");
-                    group.setParentId(this.rs.wasNull() ? null : parentId);
-                    group.setName(this.rs.getString("group_name"));
-
-                    final String label = this.rs.getString("tag_label");
-                    final String value = this.rs.getString("tag_value");
-                    if (label == null || value == null) {
-                        // No tag available.
-                        this.hasNext = false;
-                        this.moveForward = true;
-                    } else {
-                        this.next.setLabel(label);
-                        this.next.setValue(value);
-                        this.hasNext = true;
+    @Override
+    public int move(
+            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds, @Nullable final Long parentId) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupIds);
+
+        // The height of the moved subtrees, and whether the new parent is within them, are determined with a single
+        // aggregate. The walk stops at other moved groups, since they are measured from their own new position, and at
+        // removed groups, which are only waiting to be purged.
+        final String subtree = "WITH RECURSIVE subtree AS ("
+                + "SELECT group_id, 1 AS depth FROM groups WHERE account_id = ? AND group_id = ANY (?) AND "
+                + "NOT deleted "
+                + "UNION ALL SELECT g.group_id, s.depth + 1 FROM groups g JOIN subtree s ON "
+                + "(g.account_id = ? AND g.parent_id = s.group_id) WHERE NOT g.deleted AND g.group_id <> ALL (?)) "
+                + "SELECT COALESCE(MAX(depth), 0), COALESCE(BOOL_OR(group_id = ?), FALSE) FROM subtree";
+        final String sql =
+                "UPDATE groups SET parent_id = ? WHERE account_id = ? AND group_id = ANY (?) AND NOT deleted";
+
+        if (parentId != null) {
+            // The hierarchy is loaded before a connection is held, since the load uses a connection of its own.
+            account.getId().ifPresent(this::hierarchy);
+        }
+
+        final int moved;
+        final DataSource dataSource = this.dataSourceSupplier.get();
+        try (final Connection conn = dataSource.getConnection()) {
+            final long accountId = account.getId().orElse(null);
+
+            // Hold the usage lock of the account first, so concurrent moves cannot combine to create a cycle.
+            final AccountUsageDao accountUsageDao = this.accountUsageDaoSupplier.get();
+            final AccountUsage locked = accountUsageDao.update(conn, account, 0, 0, 0);
+
+            final int parentDepth = parentId == null ? 0 : depth(conn, account, parentId);
+            // A removed parent is only marked as deleted, so it is not caught by the foreign key.
+            if (parentId != null && parentDepth <= 0) {
+                throw new BadRequestException("Unable to find the new parent group with id " + parentId);
+            }
+
+            final int height;
+            try (final PreparedStatement ps = conn.prepareStatement(subtree)) {
+                final Array ids = conn.createArrayOf("bigint", groupIds.toArray());
+                ps.setLong(1, accountId);
+                ps.setArray(2, ids);
+                ps.setLong(3, accountId);
+                ps.setArray(4, ids);
+                ps.setObject(5, parentId, Types.BIGINT);
+                try (final ResultSet rs = ps.executeQuery()) {
+                    rs.next();
+                    height = rs.getInt(1);
+                    if (rs.getBoolean(2)) {
+                        throw new BadRequestException("Unable to move groups into their own descendants.");
                     }
-                } else {
-                    this.hasMoreGroups = false;
-                    this.hasNext = false;
                 }
-            } catch (final SQLException sqlException) {
-                this.exception = sqlException;
             }
-        }
 
-        /**
-         * @return whether more tags are available for this group
-         */
-        public boolean hasNext() {
-            return this.hasNext;
+            final int depth = parentDepth + height;
+            if (depth > account.getServiceLevel().getMaxDepth()) {
+                throw new QuotaExceededException(
+                        "Unable to move the requested groups without exceeding the account maximum "
+                                + "group-within-group depth of " + account.getServiceLevel().getMaxDepth() + ".");
+            }
+
+            try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setObject(1, parentId, Types.BIGINT);
+                ps.setLong(2, accountId);
+                ps.setArray(3, conn.createArrayOf("bigint", groupIds.toArray()));
+                moved = ps.executeUpdate();
+            }
+            final AccountUsage usage =
+                    depth > locked.getMaxDepth() ? accountUsageDao.update(conn, account, 0, 0, depth) : locked;
+            conn.commit();
+            accountUsageDao.committed(usage);
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to move groups", sqlException);
         }
 
-        /**
-         * @return the next tag that has been pulled from the result set
-         */
-        @Nonnull
-        public Tag next() {
-            if (this.next == null) {
-                throw new NoSuchElementException();
+        final Optional<GroupHierarchy> hierarchy = this.hierarchyIndex.getIfPresent(account.getId().orElse(null));
+        if (hierarchy.isPresent() && moved > 0) {
+            for (final Long groupId : groupIds) {
+                // The depths of the descendants are updated along with each moved group.
+                if (!hierarchy.get().contains(groupId) || !hierarchy.get().add(groupId, parentId)) {
+                    this.hierarchyIndex.invalidate(account.getId().orElse(null));
+                    break;
+                }
             }
-            return fetchNextReturnCurrent();
-        }
-
-        @Nonnull
-        private Tag fetchNextReturnCurrent() {
-            try {
-                if (this.hasNext && this.rs.next()) {
-                    final long nextGroupId = this.rs.getLong("group_id");
-                    if (nextGroupId != this.group.getId().orElse(null)) {
-                        this.hasMoreGroups = true;
-                        this.hasNext = false;
-                        return this.next;
-                    }
+        }
+        if (moved > 0) {
+            // A hierarchy being loaded while the groups were moved may not include the move.
+            this.hierarchyIndex.invalidateUnless(account.getId().orElse(null), hierarchy);
+        }
+        return moved;
+    }
 
-                    final String label = this.rs.getString("tag_label");
-                    final String value = this.rs.getString("tag_value");
-                    if (label == null || value == null) {
-                        // No tag available.
-                        this.hasNext = false;
-                        this.moveForward = true;
-                        return this.prev;
-                    }
+    @Override
+    public int remove(
+            @Nonnull final Account account, @Nonnull final Collection<Long> groupIds) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(groupIds);
+
+        // The groups and their descendants are only marked as deleted, which hides them from all the queries without
+        // waiting for the cascading deletes, and the purger deletes the marked rows later. The marked groups and their
+        // tags are counted to update the usage, and the requested groups that were found are counted as removed. The
+        // groups of removed accounts are already hidden, and are purged along with the account.
+        final String sql = "WITH RECURSIVE subtree AS ("
+                + "    SELECT group_id, TRUE AS root FROM groups WHERE account_id = ? AND group_id = ANY (?) AND"
+                + "        NOT deleted AND account_id IN (SELECT account_id FROM accounts WHERE NOT deleted)"
+                + "    UNION"
+                + "    SELECT g.group_id, FALSE FROM groups g JOIN subtree s ON"
+                + "        (g.account_id = ? AND g.parent_id = s.group_id)"
+                + "), marked AS ("
+                + "    UPDATE groups SET deleted = TRUE WHERE account_id = ? AND group_id IN"
+                + "        (SELECT group_id FROM subtree) AND NOT deleted RETURNING group_id"
+                + ")"
+                + "SELECT (SELECT COUNT(*) FROM subtree WHERE root), (SELECT COUNT(*) FROM marked), "
+                + "(SELECT COUNT(*) FROM tags WHERE account_id = ? AND group_id IN (SELECT group_id FROM marked))";
 
-                    this.prev.setValues(this.next);
-                    this.next.setLabel(label);
-                    this.next.setValue(value);
-                    this.hasNext = true;
-                    return this.prev;
+        int removed = 0;
+
+        final DataSource dataSource = this.dataSourceSupplier.get();
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            final long accountId = account.getId().orElse(null);
+            long groups = 0;
+            long tags = 0;
+            ps.setLong(1, accountId);
+            ps.setArray(2, conn.createArrayOf("bigint", groupIds.toArray()));
+            ps.setLong(3, accountId);
+            ps.setLong(4, accountId);
+            ps.setLong(5, accountId);
+            try (final ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    removed = rs.getInt(1);
+                    groups = rs.getLong(2);
+                    tags = rs.getLong(3);
                 }
-            } catch (final SQLException sqlException) {
-                this.exception = sqlException;
             }
 
-            this.hasMoreGroups = false;
-            this.hasNext = false;
-            return this.next;
+            if (removed > 0) {
+                final AccountUsageDao accountUsageDao = this.accountUsageDaoSupplier.get();
+                final AccountUsage usage = accountUsageDao.update(conn, account, -groups, -tags, 0);
+                conn.commit();
+                accountUsageDao.committed(usage);
+            } else {
+                conn.commit();
+            }
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to remove groups by id", sqlException);
+        }
+
+        final Optional<GroupHierarchy> hierarchy = this.hierarchyIndex.getIfPresent(account.getId().orElse(null));
+        if (hierarchy.isPresent()) {
+            groupIds.forEach(hierarchy.get()::remove);
+        }
+        if (removed > 0) {
+            // A hierarchy being loaded while the groups were removed may not include the removal.
+            this.hierarchyIndex.invalidateUnless(account.getId().orElse(null), hierarchy);
+            // The tags of the removed groups and their descendants are no longer visible.
+            this.tagDaoSupplier.get().invalidate(account);
         }
 
-        /**
-         * @return any exception that was thrown during the tag processing
-         */
-        @Nonnull
-        public Optional<SQLException> getException() {
-            return Optional.ofNullable(this.exception);
+        return removed;
+    }
+
+    @Override
+    public int purge(final int limit) {
+        // The groups of removed accounts are first marked as removed themselves, a limited number at a time, so the
+        // groups to delete are all found through the partial index on the removed groups.
+        final String mark = "UPDATE groups SET deleted = TRUE WHERE (account_id, group_id) IN (SELECT g.account_id, "
+                + "g.group_id FROM accounts a JOIN groups g ON (g.account_id = a.account_id) WHERE a.deleted AND NOT "
+                + "g.deleted LIMIT ?)";
+        // Deleting a group cascades to all of its descendants, so only the groups without any children are deleted to
+        // keep each batch bounded. The tags of the deleted groups are deleted by cascade. The account id is included in
+        // the key so the delete only visits the matching partitions when the table is partitioned.
+        final String delete = "DELETE FROM groups WHERE (account_id, group_id) IN (SELECT account_id, group_id FROM "
+                + "groups g WHERE deleted AND NOT EXISTS (SELECT 1 FROM groups c WHERE c.account_id = g.account_id "
+                + "AND c.parent_id = g.group_id) LIMIT ?)";
+
+        final DataSource dataSource = this.dataSourceSupplier.get();
+        try (final Connection conn = dataSource.getConnection();
+             final PreparedStatement markPs = conn.prepareStatement(mark);
+             final PreparedStatement deletePs = conn.prepareStatement(delete)) {
+            markPs.setInt(1, limit);
+            final int marked = markPs.executeUpdate();
+            deletePs.setInt(1, limit);
+            final int purged = deletePs.executeUpdate();
+            conn.commit();
+            return marked + purged;
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to purge removed groups", sqlException);
         }
     }
+
+    @Override
+    public void changed(@Nonnull final Collection<ChangeEvent> events) {
+        events.stream().filter(event -> event.getEntity() == ChangeEvent.Entity.GROUP)
+                .mapToLong(ChangeEvent::getAccountId).distinct().forEach(accountId -> {
+                    this.hierarchyIndex.invalidate(accountId);
+                    this.nameIndex.invalidate(accountId);
+                });
+    }
+
+    @Override
+    public boolean isLocalChangeListener() {
+        // The changes made through this node already update or drop the indexes as they are committed.
+        return false;
+    }
+
+    @Override
+    public void resync() {
+        this.hierarchyIndex.invalidateAll();
+        this.nameIndex.invalidateAll();
+    }
 }
@@ -1,12 +1,28 @@
 package com.grpctrl.db.dao.impl;
 
+import com.codahale.metrics.MetricRegistry;
 import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
 import com.grpctrl.common.model.Tag;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.common.util.CloseableBiConsumer;
 import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.dao.AccountUsageDao;
 import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.dao.TagDictionaryDao;
+import com.grpctrl.db.dao.supplier.AccountUsageDaoSupplier;
+import com.grpctrl.db.dao.supplier.TagDictionaryDaoSupplier;
 import com.grpctrl.db.error.ErrorTransformer;
-import com.grpctrl.db.error.QuotaExceededException;
+import com.grpctrl.db.feed.ChangeEvent;
+import com.grpctrl.db.feed.ChangeListener;
+import com.grpctrl.db.index.TagIndex;
+import com.grpctrl.db.index.TagIndexCache;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.selector.TagSelector;
+import com.grpctrl.db.stream.ResultStream;
+import com.grpctrl.db.stream.ResultStreamer;
+import com.grpctrl.db.usage.AccountUsage;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -14,62 +30,94 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import javax.annotation.Nonnull;
 import javax.sql.DataSource;
+import javax.ws.rs.BadRequestException;
 
 /**
  * Provides an implementation of a {@link TagDao} using a JDBC {@link DataSourceSupplier} to communicate
- * with a back-end PostgreSQL database.
+ * with a back-end PostgreSQL database. The in-memory tag indexes are kept up to date with the changes made through
+ * this node, and are dropped when the change feed reports that the groups or tags of an account were changed by other
+ * nodes.
  */
 @SuppressFBWarnings(value = "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING")
-public class PostgresTagDao implements TagDao {
+public class PostgresTagDao implements TagDao, ChangeListener {
+    private static final int MAX_SELECTOR_QUERIES = 1000;
+    // Beyond this many groups to exclude, binding them as an array costs more than using the GIN index on the tag sets.
+    private static final int MAX_EXCLUDED_GROUPS = 10_000;
+
     @Nonnull
     private final DataSourceSupplier dataSourceSupplier;
+    @Nonnull
+    private final AccountUsageDaoSupplier accountUsageDaoSupplier;
+    @Nonnull
+    private final TagDictionaryDaoSupplier tagDictionaryDaoSupplier;
+    @Nonnull
+    private final ResultStreamer resultStreamer;
+    @Nonnull
+    private final TagIndexCache indexCache;
+    @Nonnull
+    private final Set<Long> queriedAccounts = ConcurrentHashMap.newKeySet();
+    @Nonnull
+    private final ConcurrentMap<String, String> selectorQueries = new ConcurrentHashMap<>();
 
     /**
      * @param dataSourceSupplier the supplier of the JDBC {@link DataSource} to use when communicating with the
      *     back-end database
+     * @param accountUsageDaoSupplier the {@link AccountUsageDaoSupplier} used to track the tags owned by accounts
+     * @param tagDictionaryDaoSupplier the {@link TagDictionaryDaoSupplier} used to map tag labels and values to ids
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track query streaming metrics and the
+     *     number of accounts with in-memory indexes
      */
-    public PostgresTagDao(@Nonnull final DataSourceSupplier dataSourceSupplier) {
+    public PostgresTagDao(
+            @Nonnull final DataSourceSupplier dataSourceSupplier,
+            @Nonnull final AccountUsageDaoSupplier accountUsageDaoSupplier,
+            @Nonnull final TagDictionaryDaoSupplier tagDictionaryDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
         this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+        this.accountUsageDaoSupplier = Objects.requireNonNull(accountUsageDaoSupplier);
+        this.tagDictionaryDaoSupplier = Objects.requireNonNull(tagDictionaryDaoSupplier);
+        this.resultStreamer = new ResultStreamer(dataSourceSupplier, metricRegistrySupplier, PostgresTagDao.class);
+
+        this.indexCache =
+                new TagIndexCache(dataSourceSupplier.getIndexCacheSize(), dataSourceSupplier.getIndexCacheTtl());
+        this.indexCache.register(Objects.requireNonNull(metricRegistrySupplier).get(),
+                MetricRegistry.name(PostgresTagDao.class, "tag-index"));
     }
 
     @Override
     public int count(@Nonnull final Connection conn, @Nonnull final Account account) {
-        Objects.requireNonNull(conn);
-        Objects.requireNonNull(account);
-
-        final String sql = "SELECT COUNT(*) FROM tags WHERE account_id = ?";
-
-        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setLong(1, account.getId().orElse(null));
-            try (final ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
-                return 0;
-            }
-        } catch (final SQLException sqlException) {
-            throw ErrorTransformer.get("Failed to retrieve tag count", sqlException);
-        }
+        return (int) this.accountUsageDaoSupplier.get().get(conn, account).getTags();
     }
 
     @Override
     public CloseableBiConsumer<Long, Tag> getAddConsumer(@Nonnull Connection conn, @Nonnull Account account) {
-        final int available = account.getServiceLevel().getMaxTags() - count(conn, account);
-        return new AddConsumer(conn, account, available);
+        return new AddConsumer(conn, account, this.tagDictionaryDaoSupplier.get().getResolver(conn),
+                this.indexCache.getIfPresent(account.getId().orElse(null)));
     }
 
     @Override
     public int add(
             @Nonnull final Account account, @Nonnull final Long groupId, @Nonnull final Iterable<Tag> tags) {
-        final String sql = "INSERT INTO tags (account_id, group_id, tag_label, tag_value) VALUES (?, ?, ?, ?)";
+        final String sql = "INSERT INTO tags (account_id, group_id, label_id, value_id) VALUES (?, ?, ?, ?)";
 
         try {
-            return processTags(sql, 1000, account, groupId, tags);
+            return processTags(sql, 1000, account, groupId, tags, 1);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to add tags", sqlException);
         }
@@ -78,10 +126,13 @@ public class PostgresTagDao implements TagDao {
     @Override
     public int remove(
             @Nonnull final Account account, @Nonnull final Long groupId, @Nonnull final Iterable<Tag> tags) {
-        final String sql = "DELETE FROM tags WHERE account_id = ? AND group_id = ? AND tag_label = ? AND tag_value = ?";
+        // Tags that are not in the dictionary cannot exist, so the strings are not added to the dictionary here.
+        final String sql = "DELETE FROM tags WHERE account_id = ? AND group_id = ? AND label_id = "
+                + "(SELECT label_id FROM tag_labels WHERE tag_label = ?) AND value_id = "
+                + "(SELECT value_id FROM tag_values WHERE tag_value = ?)";
 
         try {
-            return processTags(sql, 1000, account, groupId, tags);
+            return processTags(sql, 1000, account, groupId, tags, -1);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to remove tags", sqlException);
         }
@@ -89,24 +140,41 @@ public class PostgresTagDao implements TagDao {
 
     private int processTags(
             @Nonnull final String sql, final int batchSize, @Nonnull final Account account, @Nonnull final Long groupId,
-            @Nonnull final Iterable<Tag> tags) throws SQLException {
+            @Nonnull final Iterable<Tag> tags, final int direction) throws SQLException {
         Objects.requireNonNull(account);
         Objects.requireNonNull(groupId);
         Objects.requireNonNull(tags);
 
         int modified = 0;
+        final List<Tag> processed = new ArrayList<>();
 
         final DataSource dataSource = this.dataSourceSupplier.get();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (!lockGroup(conn, account, groupId)) {
+                if (direction > 0) {
+                    // Removed groups are only marked as deleted until purged, so the foreign key does not catch them.
+                    throw new BadRequestException("Failed to add tags - the group id does not exist in your account");
+                }
+                return 0;
+            }
+            final Optional<TagDictionaryDao.Resolver> resolver = direction > 0
+                    ? Optional.of(this.tagDictionaryDaoSupplier.get().getResolver(conn)) : Optional.empty();
+
             int batches = 0;
             ps.setLong(1, account.getId().orElse(null));
             ps.setLong(2, groupId);
             for (final Tag tag : tags) {
-                ps.setString(3, tag.getLabel());
-                ps.setString(4, tag.getValue());
+                if (resolver.isPresent()) {
+                    ps.setInt(3, resolver.get().getLabelId(tag.getLabel()));
+                    ps.setInt(4, resolver.get().getValueId(tag.getValue()));
+                } else {
+                    ps.setString(3, tag.getLabel());
+                    ps.setString(4, tag.getValue());
+                }
                 ps.addBatch();
                 batches++;
+                processed.add(tag);
 
                 if (batches > batchSize) {
                     batches = 0;
@@ -116,9 +184,23 @@ public class PostgresTagDao implements TagDao {
             if (batches > 0) {
                 modified += IntStream.of(ps.executeBatch()).sum();
             }
-            conn.commit();
+            refreshTagSets(conn, account.getId().orElse(null), Collections.singleton(groupId));
+            commit(conn, account, direction * modified);
         }
 
+        final Optional<TagIndex> index = this.indexCache.getIfPresent(account.getId().orElse(null));
+        if (index.isPresent()) {
+            for (final Tag tag : processed) {
+                if (direction > 0) {
+                    index.get().add(groupId, tag.getLabel(), tag.getValue());
+                } else {
+                    index.get().remove(groupId, tag.getLabel(), tag.getValue());
+                }
+            }
+        }
+        // An index being loaded while the tags were changed may not include the change.
+        this.indexCache.invalidateUnless(account.getId().orElse(null), index);
+
         return modified;
     }
 
@@ -130,12 +212,18 @@ public class PostgresTagDao implements TagDao {
         Objects.requireNonNull(tagLabels);
 
         int removed = 0;
+        final List<String> processed = new ArrayList<>();
         final int batchSize = 1000;
-        final String sql = "DELETE FROM tags WHERE account_id = ? AND group_id = ? AND tag_label = ?";
+        final String sql = "DELETE FROM tags WHERE account_id = ? AND group_id = ? AND label_id = "
+                + "(SELECT label_id FROM tag_labels WHERE tag_label = ?)";
 
         final DataSource dataSource = this.dataSourceSupplier.get();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
+            if (!lockGroup(conn, account, groupId)) {
+                return 0;
+            }
+
             int batches = 0;
             ps.setLong(1, account.getId().orElse(null));
             ps.setLong(2, groupId);
@@ -143,6 +231,7 @@ public class PostgresTagDao implements TagDao {
                 ps.setString(3, tagLabel);
                 ps.addBatch();
                 batches++;
+                processed.add(tagLabel);
 
                 if (batches >= batchSize) {
                     batches = 0;
@@ -152,32 +241,271 @@ public class PostgresTagDao implements TagDao {
             if (batches > 0) {
                 removed += IntStream.of(ps.executeBatch()).sum();
             }
-            conn.commit();
+            refreshTagSets(conn, account.getId().orElse(null), Collections.singleton(groupId));
+            commit(conn, account, -removed);
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to remove tags by label", sqlException);
         }
 
+        final Optional<TagIndex> index = this.indexCache.getIfPresent(account.getId().orElse(null));
+        index.ifPresent(tagIndex -> processed.forEach(tagLabel -> tagIndex.removeLabel(groupId, tagLabel)));
+        // An index being loaded while the tags were removed may not include the removal.
+        this.indexCache.invalidateUnless(account.getId().orElse(null), index);
+
         return removed;
     }
 
+    private boolean lockGroup(
+            @Nonnull final Connection conn, @Nonnull final Account account, @Nonnull final Long groupId)
+            throws SQLException {
+        // The tag set of the group is rebuilt from the tags table, so concurrent changes to the tags of the same group
+        // are serialized to make sure each rebuild sees the tags committed by the others.
+        final String sql =
+                "SELECT group_id FROM groups WHERE account_id = ? AND group_id = ? AND NOT deleted FOR UPDATE";
+
+        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, account.getId().orElse(null));
+            ps.setLong(2, groupId);
+            try (final ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /**
+     * Rebuild the GIN-indexed tag sets of the specified groups from the tags table. This needs to be done in the same
+     * transaction as any change to the tags of the groups.
+     *
+     * @param conn the database connection on which the tags were changed
+     * @param accountId the unique id of the account that owns the groups
+     * @param groupIds the unique ids of the groups with changed tags
+     *
+     * @throws SQLException if there is a problem updating the tag sets
+     */
+    static void refreshTagSets(
+            @Nonnull final Connection conn, final long accountId, @Nonnull final Collection<Long> groupIds)
+            throws SQLException {
+        final String sql = "UPDATE groups g SET tag_set = COALESCE((SELECT jsonb_object_agg(tag_label, tag_values) "
+                + "FROM (SELECT tag_label, jsonb_agg(tag_value ORDER BY tag_value) AS tag_values FROM tags t "
+                + "JOIN tag_labels USING (label_id) JOIN tag_values USING (value_id) WHERE "
+                + "t.account_id = g.account_id AND t.group_id = g.group_id GROUP BY tag_label) l), '{}') WHERE "
+                + "account_id = ? AND group_id = ANY (?)";
+
+        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            ps.setArray(2, conn.createArrayOf("bigint", groupIds.toArray()));
+            ps.executeUpdate();
+        }
+    }
+
+    private void commit(@Nonnull final Connection conn, @Nonnull final Account account, final int tags)
+            throws SQLException {
+        if (tags == 0) {
+            conn.commit();
+            return;
+        }
+
+        final AccountUsageDao accountUsageDao = this.accountUsageDaoSupplier.get();
+        final AccountUsage usage = accountUsageDao.update(conn, account, 0, tags, 0);
+        conn.commit();
+        accountUsageDao.committed(usage);
+    }
+
+    @Override
+    @Nonnull
+    public Optional<PageToken> findGroups(
+            @Nonnull final Account account, @Nonnull final TagSelector selector, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(selector);
+        Objects.requireNonNull(page);
+        Objects.requireNonNull(consumer);
+
+        final long after = GroupResults.after(account, page);
+        final long limit = GroupResults.limit(page);
+
+        // The index is retrieved before a connection is held, since loading the index uses a connection of its own.
+        final Optional<TagIndex> index = account.getId().flatMap(this::queryIndex);
+
+        final DataSource dataSource = this.dataSourceSupplier.get();
+        try (final Connection conn = dataSource.getConnection()) {
+            // A selection matching all but a large number of groups is evaluated by the database instead.
+            final Optional<TagIndex.Selection> selection = index.map(tagIndex -> tagIndex.select(selector)).filter(
+                    selected -> !selected.isComplement() || selected.getGroups().cardinality() <= MAX_EXCLUDED_GROUPS);
+            if (!selection.isPresent()) {
+                return findByTagSet(conn, account, TagSetFilter.compile(selector), after, limit, page, consumer);
+            }
+            return findByIndex(conn, account, selection.get(), after, limit, page, consumer);
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to find groups by tag", sqlException);
+        }
+    }
+
+    @Nonnull
+    private Optional<PageToken> findByTagSet(
+            @Nonnull final Connection conn, @Nonnull final Account account, @Nonnull final TagSetFilter filter,
+            final long after, final long limit, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) throws SQLException {
+        // The same SQL is used for every selector with the same shape, so the driver can reuse prepared statements.
+        String sql = this.selectorQueries.get(filter.getSql());
+        if (sql == null) {
+            sql = GroupResults.pageQuery(filter.getSql());
+            if (this.selectorQueries.size() < MAX_SELECTOR_QUERIES) {
+                this.selectorQueries.put(filter.getSql(), sql);
+            }
+        }
+
+        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            ps.setLong(index++, account.getId().orElse(null));
+            ps.setLong(index++, after);
+            for (final String param : filter.getParams()) {
+                ps.setString(index++, param);
+            }
+            ps.setLong(index, limit);
+            return GroupResults.consume(this.resultStreamer, this.tagDictionaryDaoSupplier.get(), ps, account, page,
+                    consumer);
+        }
+    }
+
+    @Nonnull
+    private Optional<PageToken> findByIndex(
+            @Nonnull final Connection conn, @Nonnull final Account account, @Nonnull final TagIndex.Selection selection,
+            final long after, final long limit, @Nonnull final Page page,
+            @Nonnull final BiConsumer<Group, Iterator<Tag>> consumer) throws SQLException {
+        final long[] groupIds;
+        final String sql;
+        if (selection.isComplement()) {
+            // The index only knows about tagged groups, so the groups that do not match are excluded instead.
+            groupIds = selection.getGroups().toArray(after, Integer.MAX_VALUE);
+            sql = GroupResults.pageQuery("group_id <> ALL (?)");
+        } else {
+            // Only the groups needed to fill the page are retrieved.
+            groupIds = selection.getGroups().toArray(after, (int) Math.min(limit, Integer.MAX_VALUE));
+            if (groupIds.length == 0) {
+                return Optional.empty();
+            }
+            sql = GroupResults.pageQuery("group_id = ANY (?)");
+        }
+
+        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, account.getId().orElse(null));
+            ps.setLong(2, after);
+            ps.setArray(3, conn.createArrayOf("bigint", LongStream.of(groupIds).boxed().toArray()));
+            ps.setLong(4, limit);
+            return GroupResults.consume(this.resultStreamer, this.tagDictionaryDaoSupplier.get(), ps, account, page,
+                    consumer);
+        }
+    }
+
+    @Nonnull
+    private Optional<TagIndex> queryIndex(final long accountId) {
+        // The in-memory index is only loaded for accounts that are queried more than once, the first query is
+        // evaluated by the database against the tag sets of the groups.
+        final Optional<TagIndex> loaded = this.indexCache.getIfPresent(accountId);
+        if (loaded.isPresent() || this.queriedAccounts.add(accountId)) {
+            return loaded;
+        }
+        return Optional.of(index(accountId));
+    }
+
+    @Nonnull
+    private TagIndex index(final long accountId) {
+        return this.indexCache.get(accountId, () -> loadIndex(accountId));
+    }
+
+    @Nonnull
+    private TagIndex loadIndex(final long accountId) {
+        final String sql = "SELECT t.group_id, label_id, value_id, tag_label, tag_value FROM tags t JOIN tag_labels "
+                + "USING (label_id) JOIN tag_values USING (value_id) JOIN groups g ON (g.account_id = t.account_id AND "
+                + "g.group_id = t.group_id) WHERE t.account_id = ? AND NOT g.deleted";
+
+        final TagDictionaryDao dictionary = this.tagDictionaryDaoSupplier.get();
+        try (final Connection conn = this.dataSourceSupplier.getReadOnlyConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            try (final ResultStream stream = this.resultStreamer.open(ps)) {
+                final ResultSet rs = stream.getResultSet();
+                final TagIndex index = new TagIndex();
+                final Tag tag = new Tag();
+                while (stream.next()) {
+                    // The dictionary shares the label and value strings between all the groups using them.
+                    dictionary.readTag(rs, tag);
+                    index.add(rs.getLong(1), tag.getLabel(), tag.getValue());
+                }
+                return index;
+            }
+        } catch (final SQLException sqlException) {
+            throw ErrorTransformer.get("Failed to load tag index", sqlException);
+        }
+    }
+
+    @Override
+    public void invalidate(@Nonnull final Account account) {
+        Objects.requireNonNull(account).getId().ifPresent(this.indexCache::invalidate);
+    }
+
+    @Override
+    public void committed(@Nonnull final Account account, @Nonnull final CloseableBiConsumer<Long, Tag> addConsumer) {
+        Objects.requireNonNull(account);
+        Objects.requireNonNull(addConsumer);
+
+        if (addConsumer instanceof AddConsumer) {
+            // Only the index updated by the consumer is known to include the added tags.
+            final Optional<TagIndex> index = ((AddConsumer) addConsumer).index;
+            account.getId().ifPresent(accountId -> this.indexCache.invalidateUnless(accountId, index));
+        } else {
+            invalidate(account);
+        }
+    }
+
+    @Override
+    public void changed(@Nonnull final Collection<ChangeEvent> events) {
+        // Removing groups also hides their tags, so the group changes invalidate the index as well.
+        events.stream().filter(event -> event.getEntity() == ChangeEvent.Entity.TAG
+                || event.getEntity() == ChangeEvent.Entity.GROUP).mapToLong(ChangeEvent::getAccountId).distinct()
+                .forEach(this.indexCache::invalidate);
+    }
+
+    @Override
+    public boolean isLocalChangeListener() {
+        // The tag changes made through this node update the index as they are committed, and the group removals
+        // made through this node drop it.
+        return false;
+    }
+
+    @Override
+    public void resync() {
+        this.indexCache.invalidateAll();
+    }
+
     private static class AddConsumer implements CloseableBiConsumer<Long, Tag> {
         private static final int BATCH_SIZE = 1000;
         private static final String SQL =
-                "INSERT INTO tags (account_id, group_id, tag_label, tag_value) VALUES (?, ?, ?, ?)";
+                "INSERT INTO tags (account_id, group_id, label_id, value_id) "
+                        + "SELECT ?, group_id, label_id, value_id FROM unnest(?::bigint[], ?::integer[], ?::integer[]) "
+                        + "AS batch (group_id, label_id, value_id)";
 
+        private final Connection conn;
         private final PreparedStatement ps;
         private final Account account;
-
-        private final int available;
-        private int added = 0;
-
-        private int batchCount = 0;
-
-        public AddConsumer(@Nonnull final Connection conn, @Nonnull final Account account, final int available) {
+        private final TagDictionaryDao.Resolver resolver;
+        private final Optional<TagIndex> index;
+        private final Set<Long> batchGroups = new HashSet<>();
+        // Each batch is inserted by a single statement, so the change feed triggers only fire once per batch.
+        private final List<Long> groupIds = new ArrayList<>(BATCH_SIZE);
+        private final List<Integer> labelIds = new ArrayList<>(BATCH_SIZE);
+        private final List<Integer> valueIds = new ArrayList<>(BATCH_SIZE);
+
+        public AddConsumer(
+                @Nonnull final Connection conn, @Nonnull final Account account,
+                @Nonnull final TagDictionaryDao.Resolver resolver, @Nonnull final Optional<TagIndex> index) {
             try {
-                this.ps = Objects.requireNonNull(conn).prepareStatement(SQL);
+                this.conn = Objects.requireNonNull(conn);
+                this.ps = conn.prepareStatement(SQL);
                 this.account = Objects.requireNonNull(account);
-                this.available = available;
+                this.resolver = Objects.requireNonNull(resolver);
+                this.index = Objects.requireNonNull(index);
             } catch (final SQLException sqlException) {
                 throw ErrorTransformer.get("Failed to create tag insert prepared statement", sqlException);
             }
@@ -186,38 +514,43 @@ public class PostgresTagDao implements TagDao {
         @Override
         public void accept(@Nonnull final Long groupId, @Nonnull final Tag tag) {
             try {
-                this.ps.setLong(1, this.account.getId().orElse(null));
-                this.ps.setLong(2, groupId);
-                this.ps.setString(3, tag.getLabel());
-                this.ps.setString(4, tag.getValue());
-                this.ps.addBatch();
-                this.batchCount++;
-
-                if (this.batchCount >= BATCH_SIZE) {
-                    this.ps.executeBatch();
-                    this.batchCount = 0;
-                    this.added += IntStream.of(this.ps.executeBatch()).sum();
-                    if (this.available - this.added < 0) {
-                        throw new QuotaExceededException(
-                                "Unable to add the requested tags without exceeding allocated quota. Account has "
-                                        + "a limit of " + this.account.getServiceLevel().getMaxTags() + " total tags.");
-                    }
+                this.groupIds.add(groupId);
+                this.labelIds.add(this.resolver.getLabelId(tag.getLabel()));
+                this.valueIds.add(this.resolver.getValueId(tag.getValue()));
+                this.batchGroups.add(groupId);
+
+                // Like the group hierarchy, the index is updated before the transaction commits, and the caller drops
+                // the index when the transaction fails.
+                if (this.index.isPresent()) {
+                    this.index.get().add(groupId, tag.getLabel(), tag.getValue());
+                }
+
+                if (this.groupIds.size() >= BATCH_SIZE) {
+                    executeBatch();
                 }
             } catch (final SQLException sqlException) {
                 throw ErrorTransformer.get("Failed to add tag batch", sqlException);
             }
         }
 
+        private void executeBatch() throws SQLException {
+            this.ps.setLong(1, this.account.getId().orElse(null));
+            this.ps.setArray(2, this.conn.createArrayOf("bigint", this.groupIds.toArray()));
+            this.ps.setArray(3, this.conn.createArrayOf("integer", this.labelIds.toArray()));
+            this.ps.setArray(4, this.conn.createArrayOf("integer", this.valueIds.toArray()));
+            this.ps.executeUpdate();
+            refreshTagSets(this.conn, this.account.getId().orElse(null), this.batchGroups);
+            this.groupIds.clear();
+            this.labelIds.clear();
+            this.valueIds.clear();
+            this.batchGroups.clear();
+        }
+
         @Override
         public void close() {
             try {
-                if (this.batchCount > 0) {
-                    this.added += IntStream.of(this.ps.executeBatch()).sum();
-                    if (this.available - this.added < 0) {
-                        throw new QuotaExceededException(
-                                "Unable to add the requested tags without exceeding allocated quota. Account has "
-                                        + "a limit of " + this.account.getServiceLevel().getMaxTags() + " total tags.");
-                    }
+                if (!this.groupIds.isEmpty()) {
+                    executeBatch();
                 }
             } catch (final SQLException sqlException) {
                 throw ErrorTransformer.get("Failed to execute tag insert batch", sqlException);
@@ -0,0 +1,182 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.TagDictionaryDao;
+import com.grpctrl.db.error.ErrorTransformer;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.InternalServerErrorException;
+
+/**
+ * Provides an implementation of a {@link TagDictionaryDao} that communicates with a back-end PostgreSQL database
+ * using the connections provided by the other data access objects.
+ */
+@SuppressFBWarnings(value = "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING")
+public class PostgresTagDictionaryDao implements TagDictionaryDao {
+    // Limits the memory used by each cached dictionary when the tags use a very large number of distinct values.
+    private static final int MAX_CACHED = 100000;
+
+    @Nonnull
+    private final Dictionary labels = new Dictionary("tag_labels", "label_id", "tag_label");
+    @Nonnull
+    private final Dictionary values = new Dictionary("tag_values", "value_id", "tag_value");
+
+    @Override
+    @Nonnull
+    public Resolver getResolver(@Nonnull final Connection conn) {
+        return new PostgresResolver(Objects.requireNonNull(conn));
+    }
+
+    @Override
+    public boolean readTag(@Nonnull final ResultSet rs, @Nonnull final Tag tag) throws SQLException {
+        Objects.requireNonNull(rs);
+        Objects.requireNonNull(tag);
+
+        final int labelId = rs.getInt("label_id");
+        if (rs.wasNull()) {
+            return false;
+        }
+        tag.setLabel(this.labels.read(rs, labelId));
+        tag.setValue(this.values.read(rs, rs.getInt("value_id")));
+        return true;
+    }
+
+    private class PostgresResolver implements Resolver {
+        @Nonnull
+        private final Connection conn;
+        // The entries added by this transaction, which are not shared until they are known to have been committed.
+        @Nonnull
+        private final Map<String, Integer> addedLabels = new HashMap<>();
+        @Nonnull
+        private final Map<String, Integer> addedValues = new HashMap<>();
+
+        PostgresResolver(@Nonnull final Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public int getLabelId(@Nonnull final String label) {
+            return labels.resolve(this.conn, this.addedLabels, Objects.requireNonNull(label));
+        }
+
+        @Override
+        public int getValueId(@Nonnull final String value) {
+            return values.resolve(this.conn, this.addedValues, Objects.requireNonNull(value));
+        }
+    }
+
+    /**
+     * The cached entries of one of the dictionary tables.
+     */
+    private static class Dictionary {
+        @Nonnull
+        private final String table;
+        @Nonnull
+        private final String idColumn;
+        @Nonnull
+        private final String textColumn;
+        @Nonnull
+        private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+        @Nonnull
+        private final ConcurrentMap<Integer, String> texts = new ConcurrentHashMap<>();
+
+        Dictionary(@Nonnull final String table, @Nonnull final String idColumn, @Nonnull final String textColumn) {
+            this.table = table;
+            this.idColumn = idColumn;
+            this.textColumn = textColumn;
+        }
+
+        @Nonnull
+        String read(@Nonnull final ResultSet rs, final int id) throws SQLException {
+            final String cached = this.texts.get(id);
+            if (cached != null) {
+                return cached;
+            }
+            // An id is never reused, even when the transaction that added it was rolled back, so it is always safe to
+            // cache the text for an id.
+            final String text = rs.getString(this.textColumn);
+            if (this.texts.size() < MAX_CACHED) {
+                // Share the text cached by any other thread that read the same id concurrently.
+                final String existing = this.texts.putIfAbsent(id, text);
+                return existing == null ? text : existing;
+            }
+            return text;
+        }
+
+        int resolve(
+                @Nonnull final Connection conn, @Nonnull final Map<String, Integer> added, @Nonnull final String text) {
+            final Integer cached = this.ids.get(text);
+            if (cached != null) {
+                return cached;
+            }
+            final Integer pending = added.get(text);
+            if (pending != null) {
+                return pending;
+            }
+
+            try {
+                // Any entry found here was committed by another transaction, since this transaction only adds them
+                // through the resolver.
+                Optional<Integer> id = find(conn, text);
+                if (!id.isPresent()) {
+                    id = insert(conn, text);
+                    if (id.isPresent()) {
+                        added.put(text, id.get());
+                        return id.get();
+                    }
+                    // Another transaction added the same entry and committed while the insert waited for it.
+                    id = find(conn, text);
+                }
+                final int found = id.orElseThrow(() -> new InternalServerErrorException(
+                        "Failed to find dictionary entry in " + this.table));
+                if (this.ids.size() < MAX_CACHED) {
+                    this.ids.putIfAbsent(text, found);
+                    this.texts.putIfAbsent(found, text);
+                }
+                return found;
+            } catch (final SQLException sqlException) {
+                throw ErrorTransformer.get("Failed to resolve dictionary entry in " + this.table, sqlException);
+            }
+        }
+
+        @Nonnull
+        private Optional<Integer> find(@Nonnull final Connection conn, @Nonnull final String text)
+                throws SQLException {
+            final String sql = String.format("SELECT %s FROM %s WHERE %s = ?", this.idColumn, this.table,
+                    this.textColumn);
+            return query(conn, sql, text);
+        }
+
+        @Nonnull
+        private Optional<Integer> insert(@Nonnull final Connection conn, @Nonnull final String text)
+                throws SQLException {
+            final String sql = String.format("INSERT INTO %s (%s) VALUES (?) ON CONFLICT (%s) DO NOTHING RETURNING %s",
+                    this.table, this.textColumn, this.textColumn, this.idColumn);
+            return query(conn, sql, text);
+        }
+
+        @Nonnull
+        private Optional<Integer> query(@Nonnull final Connection conn, @Nonnull final String sql,
+                @Nonnull final String text) throws SQLException {
+            try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, text);
+                try (final ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? Optional.of(rs.getInt(1)) : Optional.empty();
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.grpctrl.db.dao.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.User;
 import com.grpctrl.common.model.UserAuth;
@@ -7,17 +10,17 @@ import com.grpctrl.common.model.UserEmail;
 import com.grpctrl.common.model.UserRole;
 import com.grpctrl.common.model.UserSource;
 import com.grpctrl.db.DataSourceSupplier;
-import com.grpctrl.db.dao.AccountDao;
 import com.grpctrl.db.dao.UserAuthDao;
 import com.grpctrl.db.dao.UserDao;
 import com.grpctrl.db.dao.UserEmailDao;
 import com.grpctrl.db.dao.UserRoleDao;
-import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
 import com.grpctrl.db.dao.supplier.UserAuthDaoSupplier;
 import com.grpctrl.db.dao.supplier.UserEmailDaoSupplier;
 import com.grpctrl.db.dao.supplier.UserRoleDaoSupplier;
 import com.grpctrl.db.error.ErrorTransformer;
 
+import java.io.IOException;
+import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -25,10 +28,8 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.TreeSet;
@@ -41,6 +42,21 @@ import javax.sql.DataSource;
  * with a back-end PostgreSQL database.
  */
 public class PostgresUserDao implements UserDao {
+    // Shared since it is only used to parse the aggregated collections, which does not change its configuration.
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    // Retrieves each user along with its auth, emails, roles and accounts in a single round trip, with the collections
+    // aggregated into a single row per user. Only the filter on the users is appended.
+    private static final String USERS = "SELECT u.user_id, u.login, u.source, a.hash_alg, a.salt, a.hashed_pass, "
+            + "(SELECT json_agg(json_build_object('email', e.email, 'primary', e.is_primary, 'verified', "
+            + "e.is_verified)) FROM user_emails e WHERE e.user_id = u.user_id) AS emails, "
+            + "(SELECT array_agg(r.role) FROM user_roles r WHERE r.user_id = u.user_id) AS roles, "
+            + "(SELECT json_agg(json_build_object('id', c.account_id, 'name', c.name, 'max_groups', s.max_groups, "
+            + "'max_tags', s.max_tags, 'max_depth', s.max_depth)) FROM user_accounts ua JOIN accounts c ON "
+            + "(c.account_id = ua.account_id) JOIN service_levels s ON (s.account_id = c.account_id) WHERE "
+            + "ua.user_id = u.user_id AND NOT c.deleted) AS accounts "
+            + "FROM users u LEFT JOIN user_auths a ON (a.user_id = u.user_id) WHERE ";
+
     @Nonnull
     private final DataSourceSupplier dataSourceSupplier;
     @Nonnull
@@ -49,8 +65,6 @@ public class PostgresUserDao implements UserDao {
     private final UserEmailDaoSupplier userEmailDaoSupplier;
     @Nonnull
     private final UserRoleDaoSupplier userRoleDaoSupplier;
-    @Nonnull
-    private final AccountDaoSupplier accountDaoSupplier;
 
     /**
      * @param dataSourceSupplier the supplier of the JDBC {@link DataSource} to use when communicating with the
@@ -58,19 +72,16 @@ public class PostgresUserDao implements UserDao {
      * @param userAuthDaoSupplier the {@link UserAuthDaoSupplier} used to manage user authorization objects
      * @param userEmailDaoSupplier the {@link UserEmailDaoSupplier} used to manage user email objects
      * @param userRoleDaoSupplier the {@link UserRoleDaoSupplier} used to manage user role objects
-     * @param accountDaoSupplier the {@link AccountDaoSupplier} used to manage account objects
      */
     public PostgresUserDao(
             @Nonnull final DataSourceSupplier dataSourceSupplier,
             @Nonnull final UserAuthDaoSupplier userAuthDaoSupplier,
             @Nonnull final UserEmailDaoSupplier userEmailDaoSupplier,
-            @Nonnull final UserRoleDaoSupplier userRoleDaoSupplier,
-            @Nonnull final AccountDaoSupplier accountDaoSupplier) {
+            @Nonnull final UserRoleDaoSupplier userRoleDaoSupplier) {
         this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
         this.userAuthDaoSupplier = Objects.requireNonNull(userAuthDaoSupplier);
         this.userEmailDaoSupplier = Objects.requireNonNull(userEmailDaoSupplier);
         this.userRoleDaoSupplier = Objects.requireNonNull(userRoleDaoSupplier);
-        this.accountDaoSupplier = Objects.requireNonNull(accountDaoSupplier);
     }
 
     @Override
@@ -83,32 +94,23 @@ public class PostgresUserDao implements UserDao {
     public Collection<User> get(@Nonnull final Collection<Long> userIds) {
         Objects.requireNonNull(userIds);
 
-        final String sql = "SELECT user_id, login, source FROM users WHERE user_id = ANY (?)";
+        final String sql = USERS + "u.user_id = ANY (?)";
 
-        final Map<Long, User> map = new HashMap<>();
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final Collection<User> users = new TreeSet<>();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setArray(1, conn.createArrayOf("bigint", userIds.toArray()));
 
             try (final ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    final User user = new User();
-
-                    final long userId = rs.getLong("user_id");
-                    user.setId(userId);
-                    user.setLogin(rs.getString("login"));
-                    user.setUserSource(UserSource.valueOf(rs.getString("source")));
-
-                    map.put(userId, user);
+                    users.add(read(rs));
                 }
-
-                enrich(conn, map);
             }
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to get users by id", sqlException);
         }
-        return new TreeSet<>(map.values());
+        return users;
     }
 
     @Override
@@ -122,10 +124,10 @@ public class PostgresUserDao implements UserDao {
         Objects.requireNonNull(source);
         Objects.requireNonNull(logins);
 
-        final String sql = "SELECT user_id, login FROM users WHERE source = ? AND login = ANY (?)";
+        final String sql = USERS + "u.source = ? AND u.login = ANY (?)";
 
-        final Map<Long, User> map = new HashMap<>();
-        final DataSource dataSource = this.dataSourceSupplier.get();
+        final Collection<User> users = new TreeSet<>();
+        final DataSource dataSource = this.dataSourceSupplier.getReadOnly();
         try (final Connection conn = dataSource.getConnection();
              final PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, source.name());
@@ -133,47 +135,68 @@ public class PostgresUserDao implements UserDao {
 
             try (final ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
-                    final User user = new User();
-
-                    final long userId = rs.getLong("user_id");
-                    user.setId(userId);
-                    user.setLogin(rs.getString("login"));
-                    user.setUserSource(source);
-
-                    map.put(userId, user);
+                    users.add(read(rs));
                 }
-
-                enrich(conn, map);
             }
         } catch (final SQLException sqlException) {
             throw ErrorTransformer.get("Failed to get users by login", sqlException);
         }
-        return new TreeSet<>(map.values());
+        return users;
     }
 
-    private void enrich(@Nonnull final Connection conn, @Nonnull final Map<Long, User> users) {
-        final UserAuthDao userAuthDao = this.userAuthDaoSupplier.get();
-        final UserEmailDao userEmailDao = this.userEmailDaoSupplier.get();
-        final UserRoleDao userRoleDao = this.userRoleDaoSupplier.get();
-        final AccountDao accountDao = this.accountDaoSupplier.get();
+    @Nonnull
+    private User read(@Nonnull final ResultSet rs) throws SQLException {
+        final User user = new User();
+        user.setId(rs.getLong("user_id"));
+        user.setLogin(rs.getString("login"));
+        user.setUserSource(UserSource.valueOf(rs.getString("source")));
+
+        // The auth columns are null when the user has no auth, since it is outer joined.
+        final String hashAlgorithm = rs.getString("hash_alg");
+        if (hashAlgorithm != null) {
+            user.setUserAuth(new UserAuth(hashAlgorithm, rs.getString("salt"), rs.getString("hashed_pass")));
+        }
 
-        final Collection<Long> userIds = users.keySet();
-        final Map<Long, UserAuth> userAuths = userAuthDao.get(conn, userIds);
-        final Map<Long, Collection<UserEmail>> userEmails = userEmailDao.get(conn, userIds);
-        final Map<Long, Collection<UserRole>> userRoles = userRoleDao.get(conn, userIds);
-        final Map<Long, Collection<Account>> accounts = accountDao.getForUsers(conn, userIds);
+        // The aggregated collections are null when the user has none.
+        for (final JsonNode email : readJson(rs, "emails")) {
+            user.getEmails().add(new UserEmail(email.get("email").asText(), email.get("primary").asBoolean(),
+                    email.get("verified").asBoolean()));
+        }
 
-        for (final Map.Entry<Long, UserAuth> entry : userAuths.entrySet()) {
-            users.get(entry.getKey()).setUserAuth(entry.getValue());
+        final Array roles = rs.getArray("roles");
+        if (roles != null) {
+            for (final Object role : (Object[]) roles.getArray()) {
+                user.getRoles().add(UserRole.valueOf(String.valueOf(role)));
+            }
+            roles.free();
         }
-        for (final Map.Entry<Long, Collection<UserEmail>> entry : userEmails.entrySet()) {
-            users.get(entry.getKey()).setEmails(entry.getValue());
+
+        for (final JsonNode node : readJson(rs, "accounts")) {
+            final Account account = new Account();
+            account.setId(node.get("id").asLong());
+            account.setName(node.get("name").asText());
+
+            account.getServiceLevel().setMaxGroups(node.get("max_groups").asInt());
+            account.getServiceLevel().setMaxTags(node.get("max_tags").asInt());
+            account.getServiceLevel().setMaxDepth(node.get("max_depth").asInt());
+
+            user.getAccounts().add(account);
         }
-        for (final Map.Entry<Long, Collection<UserRole>> entry : userRoles.entrySet()) {
-            users.get(entry.getKey()).setRoles(entry.getValue());
+
+        return user;
+    }
+
+    @Nonnull
+    private JsonNode readJson(@Nonnull final ResultSet rs, @Nonnull final String column) throws SQLException {
+        final String json = rs.getString(column);
+        if (json == null) {
+            return MissingNode.getInstance();
         }
-        for (final Map.Entry<Long, Collection<Account>> entry : accounts.entrySet()) {
-            users.get(entry.getKey()).setAccounts(entry.getValue());
+        try {
+            return OBJECT_MAPPER.readTree(json);
+        } catch (final IOException ioException) {
+            throw new SQLException(
+                    "Failed to parse the " + column + " of user " + rs.getLong("user_id"), ioException);
         }
     }
 
@@ -0,0 +1,178 @@
+package com.grpctrl.db.dao.impl;
+
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.selector.TagSelector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Compiles a {@link TagSelector} into a SQL filter evaluated against the GIN-indexed {@code tag_set} column of the
+ * groups table, which maps each tag label of a group to the array of values. The values in the selector are always
+ * provided as query parameters, so selectors with the same shape compile to the same SQL.
+ */
+final class TagSetFilter {
+    @Nonnull
+    private final String sql;
+    @Nonnull
+    private final List<String> params;
+
+    private TagSetFilter(@Nonnull final String sql, @Nonnull final List<String> params) {
+        this.sql = sql;
+        this.params = Collections.unmodifiableList(params);
+    }
+
+    /**
+     * @param selector the selector to compile
+     *
+     * @return the compiled filter
+     */
+    @Nonnull
+    static TagSetFilter compile(@Nonnull final TagSelector selector) {
+        final Compiler compiler = new Compiler();
+        final String sql = Objects.requireNonNull(selector).accept(compiler);
+        return new TagSetFilter(sql, compiler.params);
+    }
+
+    /**
+     * @return the SQL filter, which does not depend on the labels and values in the selector
+     */
+    @Nonnull
+    String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * @return the string parameters used in the SQL filter, in order
+     */
+    @Nonnull
+    List<String> getParams() {
+        return this.params;
+    }
+
+    @Nonnull
+    private static String contains(@Nonnull final Map<String, List<String>> tags) {
+        return tags.entrySet().stream().map(entry -> json(entry.getKey()) + ":" + entry.getValue().stream()
+                .map(TagSetFilter::json).collect(Collectors.joining(",", "[", "]")))
+                .collect(Collectors.joining(",", "{", "}"));
+    }
+
+    @Nonnull
+    private static String json(@Nonnull final String value) {
+        final StringBuilder json = new StringBuilder(value.length() + 2).append('"');
+        for (final char ch : value.toCharArray()) {
+            if (ch == '"' || ch == '\\') {
+                json.append('\\').append(ch);
+            } else if (ch < 0x20) {
+                json.append(String.format("\\u%04x", (int) ch));
+            } else {
+                json.append(ch);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static class Compiler implements TagSelector.Visitor<String> {
+        private final List<String> params = new ArrayList<>();
+
+        @Override
+        @Nonnull
+        public String visitEqual(@Nonnull final String label, @Nonnull final String value) {
+            this.params.add(contains(Collections.singletonMap(label, Collections.singletonList(value))));
+            return "tag_set @> CAST(? AS JSONB)";
+        }
+
+        @Override
+        @Nonnull
+        public String visitExists(@Nonnull final String label) {
+            // The ? operator is escaped so the driver does not treat it as a parameter placeholder.
+            this.params.add(label);
+            return "tag_set ?? ?";
+        }
+
+        @Override
+        @Nonnull
+        public String visitAnd(@Nonnull final List<TagSelector> selectors) {
+            // Required tags are combined into a single containment check so they are matched with one index scan.
+            final Map<String, List<String>> required = new TreeMap<>();
+            final List<TagSelector> others = new ArrayList<>();
+            for (final TagSelector selector : selectors) {
+                final Optional<Tag> tag = selector.accept(EqualMatcher.INSTANCE);
+                if (tag.isPresent()) {
+                    required.computeIfAbsent(tag.get().getLabel(), label -> new ArrayList<>())
+                            .add(tag.get().getValue());
+                } else {
+                    others.add(selector);
+                }
+            }
+
+            final List<String> filters = new ArrayList<>();
+            if (!required.isEmpty()) {
+                this.params.add(contains(required));
+                filters.add("tag_set @> CAST(? AS JSONB)");
+            }
+            for (final TagSelector selector : others) {
+                filters.add(selector.accept(this));
+            }
+            if (filters.size() == 1) {
+                return filters.get(0);
+            }
+            return filters.stream().collect(Collectors.joining(" AND ", "(", ")"));
+        }
+
+        @Override
+        @Nonnull
+        public String visitOr(@Nonnull final List<TagSelector> selectors) {
+            return selectors.stream().map(selector -> selector.accept(this))
+                    .collect(Collectors.joining(" OR ", "(", ")"));
+        }
+
+        @Override
+        @Nonnull
+        public String visitNot(@Nonnull final TagSelector selector) {
+            return "NOT (" + selector.accept(this) + ")";
+        }
+    }
+
+    private static class EqualMatcher implements TagSelector.Visitor<Optional<Tag>> {
+        private static final EqualMatcher INSTANCE = new EqualMatcher();
+
+        @Override
+        @Nonnull
+        public Optional<Tag> visitEqual(@Nonnull final String label, @Nonnull final String value) {
+            return Optional.of(new Tag(label, value));
+        }
+
+        @Override
+        @Nonnull
+        public Optional<Tag> visitExists(@Nonnull final String label) {
+            return Optional.empty();
+        }
+
+        @Override
+        @Nonnull
+        public Optional<Tag> visitAnd(@Nonnull final List<TagSelector> selectors) {
+            return Optional.empty();
+        }
+
+        @Override
+        @Nonnull
+        public Optional<Tag> visitOr(@Nonnull final List<TagSelector> selectors) {
+            return Optional.empty();
+        }
+
+        @Override
+        @Nonnull
+        public Optional<Tag> visitNot(@Nonnull final TagSelector selector) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.grpctrl.db.dao.supplier;
 
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.db.DataSourceSupplier;
 import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.impl.BufferedAccountDao;
+import com.grpctrl.db.dao.impl.InstrumentedDao;
 import com.grpctrl.db.dao.impl.PostgresAccountDao;
 
 import org.glassfish.hk2.api.Factory;
@@ -27,6 +30,8 @@ public class AccountDaoSupplier implements Supplier<AccountDao>, Factory<Account
     private final DataSourceSupplier dataSourceSupplier;
     @Nonnull
     private final ServiceLevelDaoSupplier serviceLevelDaoSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
 
     @Nullable
     private volatile AccountDao singleton;
@@ -37,15 +42,18 @@ public class AccountDaoSupplier implements Supplier<AccountDao>, Factory<Account
      * @param dataSourceSupplier the {@link DataSourceSupplier} responsible for providing access to a configured
      *     data source used to communicate with the JDBC database
      * @param serviceLevelDaoSupplier the {@link ServiceLevelDaoSupplier} used to manage the service level objects
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track database metrics
      *
      * @throws NullPointerException if the provided parameter is {@code null}
      */
     @Inject
     public AccountDaoSupplier(
             @Nonnull final DataSourceSupplier dataSourceSupplier,
-            @Nonnull final ServiceLevelDaoSupplier serviceLevelDaoSupplier) {
+            @Nonnull final ServiceLevelDaoSupplier serviceLevelDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
         this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
         this.serviceLevelDaoSupplier = Objects.requireNonNull(serviceLevelDaoSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
     }
 
     @Override
@@ -82,7 +90,13 @@ public class AccountDaoSupplier implements Supplier<AccountDao>, Factory<Account
 
     @Nonnull
     private AccountDao create() {
-        return new PostgresAccountDao(this.dataSourceSupplier, this.serviceLevelDaoSupplier);
+        AccountDao accountDao = new PostgresAccountDao(
+                this.dataSourceSupplier, this.serviceLevelDaoSupplier, this.metricRegistrySupplier);
+        if (this.dataSourceSupplier.isDaoMetricsEnabled()) {
+            accountDao = InstrumentedDao.wrap(AccountDao.class, accountDao, this.metricRegistrySupplier.get());
+        }
+        final int bufferSize = this.dataSourceSupplier.getStreamBufferSize();
+        return bufferSize > 0 ? new BufferedAccountDao(accountDao, bufferSize) : accountDao;
     }
 
     /**
@@ -0,0 +1,102 @@
+package com.grpctrl.db.dao.supplier;
+
+import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.dao.AccountUsageDao;
+import com.grpctrl.db.dao.impl.PostgresAccountUsageDao;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to an {@link AccountUsageDao} used to communicate with the configured JDBC database for
+ * account usage information. The DAO is subscribed to the change feed when it is first retrieved.
+ */
+@Provider
+public class AccountUsageDaoSupplier
+        implements Supplier<AccountUsageDao>, Factory<AccountUsageDao>, ContextResolver<AccountUsageDao> {
+    @Nonnull
+    private final DataSourceSupplier dataSourceSupplier;
+    @Nonnull
+    private final ChangeFeedSupplier changeFeedSupplier;
+
+    @Nullable
+    private volatile AccountUsageDao singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param dataSourceSupplier the {@link DataSourceSupplier} responsible for providing access to a configured
+     *     data source used to communicate with the JDBC database
+     * @param changeFeedSupplier the {@link ChangeFeedSupplier} providing the changes made by other nodes that
+     *     invalidate the cached usage
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public AccountUsageDaoSupplier(
+            @Nonnull final DataSourceSupplier dataSourceSupplier,
+            @Nonnull final ChangeFeedSupplier changeFeedSupplier) {
+        this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+        this.changeFeedSupplier = Objects.requireNonNull(changeFeedSupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public AccountUsageDao get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (AccountUsageDaoSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public AccountUsageDao getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public AccountUsageDao provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final AccountUsageDao accountUsageDao) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private AccountUsageDao create() {
+        final PostgresAccountUsageDao accountUsageDao = new PostgresAccountUsageDao(this.dataSourceSupplier);
+        this.changeFeedSupplier.get().subscribe(accountUsageDao);
+        return accountUsageDao;
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(AccountUsageDaoSupplier.class).to(AccountUsageDaoSupplier.class).in(Singleton.class);
+        }
+    }
+}
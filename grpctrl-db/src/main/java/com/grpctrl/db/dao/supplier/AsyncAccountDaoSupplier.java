@@ -0,0 +1,97 @@
+package com.grpctrl.db.dao.supplier;
+
+import com.grpctrl.db.dao.AsyncAccountDao;
+import com.grpctrl.db.dao.impl.ExecutorAsyncAccountDao;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to an {@link AsyncAccountDao} used to run the account operations on the database executor.
+ */
+@Provider
+public class AsyncAccountDaoSupplier
+        implements Supplier<AsyncAccountDao>, Factory<AsyncAccountDao>, ContextResolver<AsyncAccountDao> {
+    @Nonnull
+    private final AccountDaoSupplier accountDaoSupplier;
+    @Nonnull
+    private final DatabaseExecutorSupplier databaseExecutorSupplier;
+
+    @Nullable
+    private volatile AsyncAccountDao singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param accountDaoSupplier the {@link AccountDaoSupplier} providing the blocking account operations
+     * @param databaseExecutorSupplier the {@link DatabaseExecutorSupplier} providing the executor that runs the
+     *     operations
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public AsyncAccountDaoSupplier(
+            @Nonnull final AccountDaoSupplier accountDaoSupplier,
+            @Nonnull final DatabaseExecutorSupplier databaseExecutorSupplier) {
+        this.accountDaoSupplier = Objects.requireNonNull(accountDaoSupplier);
+        this.databaseExecutorSupplier = Objects.requireNonNull(databaseExecutorSupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public AsyncAccountDao get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (AsyncAccountDaoSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public AsyncAccountDao getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public AsyncAccountDao provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final AsyncAccountDao asyncAccountDao) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private AsyncAccountDao create() {
+        return new ExecutorAsyncAccountDao(this.accountDaoSupplier, this.databaseExecutorSupplier);
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(AsyncAccountDaoSupplier.class).to(AsyncAccountDaoSupplier.class).in(Singleton.class);
+        }
+    }
+}
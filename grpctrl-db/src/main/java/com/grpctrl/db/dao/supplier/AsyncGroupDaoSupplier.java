@@ -0,0 +1,97 @@
+package com.grpctrl.db.dao.supplier;
+
+import com.grpctrl.db.dao.AsyncGroupDao;
+import com.grpctrl.db.dao.impl.ExecutorAsyncGroupDao;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to an {@link AsyncGroupDao} used to run the group operations on the database executor.
+ */
+@Provider
+public class AsyncGroupDaoSupplier
+        implements Supplier<AsyncGroupDao>, Factory<AsyncGroupDao>, ContextResolver<AsyncGroupDao> {
+    @Nonnull
+    private final GroupDaoSupplier groupDaoSupplier;
+    @Nonnull
+    private final DatabaseExecutorSupplier databaseExecutorSupplier;
+
+    @Nullable
+    private volatile AsyncGroupDao singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param groupDaoSupplier the {@link GroupDaoSupplier} providing the blocking group operations
+     * @param databaseExecutorSupplier the {@link DatabaseExecutorSupplier} providing the executor that runs the
+     *     operations
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public AsyncGroupDaoSupplier(
+            @Nonnull final GroupDaoSupplier groupDaoSupplier,
+            @Nonnull final DatabaseExecutorSupplier databaseExecutorSupplier) {
+        this.groupDaoSupplier = Objects.requireNonNull(groupDaoSupplier);
+        this.databaseExecutorSupplier = Objects.requireNonNull(databaseExecutorSupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public AsyncGroupDao get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (AsyncGroupDaoSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public AsyncGroupDao getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public AsyncGroupDao provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final AsyncGroupDao asyncGroupDao) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private AsyncGroupDao create() {
+        return new ExecutorAsyncGroupDao(this.groupDaoSupplier, this.databaseExecutorSupplier);
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(AsyncGroupDaoSupplier.class).to(AsyncGroupDaoSupplier.class).in(Singleton.class);
+        }
+    }
+}
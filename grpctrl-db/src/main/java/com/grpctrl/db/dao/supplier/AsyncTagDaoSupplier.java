@@ -0,0 +1,97 @@
+package com.grpctrl.db.dao.supplier;
+
+import com.grpctrl.db.dao.AsyncTagDao;
+import com.grpctrl.db.dao.impl.ExecutorAsyncTagDao;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to an {@link AsyncTagDao} used to run the tag operations on the database executor.
+ */
+@Provider
+public class AsyncTagDaoSupplier
+        implements Supplier<AsyncTagDao>, Factory<AsyncTagDao>, ContextResolver<AsyncTagDao> {
+    @Nonnull
+    private final TagDaoSupplier tagDaoSupplier;
+    @Nonnull
+    private final DatabaseExecutorSupplier databaseExecutorSupplier;
+
+    @Nullable
+    private volatile AsyncTagDao singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param tagDaoSupplier the {@link TagDaoSupplier} providing the blocking tag operations
+     * @param databaseExecutorSupplier the {@link DatabaseExecutorSupplier} providing the executor that runs the
+     *     operations
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public AsyncTagDaoSupplier(
+            @Nonnull final TagDaoSupplier tagDaoSupplier,
+            @Nonnull final DatabaseExecutorSupplier databaseExecutorSupplier) {
+        this.tagDaoSupplier = Objects.requireNonNull(tagDaoSupplier);
+        this.databaseExecutorSupplier = Objects.requireNonNull(databaseExecutorSupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public AsyncTagDao get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (AsyncTagDaoSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public AsyncTagDao getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public AsyncTagDao provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final AsyncTagDao asyncTagDao) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private AsyncTagDao create() {
+        return new ExecutorAsyncTagDao(this.tagDaoSupplier, this.databaseExecutorSupplier);
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(AsyncTagDaoSupplier.class).to(AsyncTagDaoSupplier.class).in(Singleton.class);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.grpctrl.db.dao.supplier;
+
+import com.grpctrl.db.dao.AsyncUserDao;
+import com.grpctrl.db.dao.impl.ExecutorAsyncUserDao;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to an {@link AsyncUserDao} used to run the user operations on the database executor.
+ */
+@Provider
+public class AsyncUserDaoSupplier
+        implements Supplier<AsyncUserDao>, Factory<AsyncUserDao>, ContextResolver<AsyncUserDao> {
+    @Nonnull
+    private final UserDaoSupplier userDaoSupplier;
+    @Nonnull
+    private final DatabaseExecutorSupplier databaseExecutorSupplier;
+
+    @Nullable
+    private volatile AsyncUserDao singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param userDaoSupplier the {@link UserDaoSupplier} providing the blocking user operations
+     * @param databaseExecutorSupplier the {@link DatabaseExecutorSupplier} providing the executor that runs the
+     *     operations
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public AsyncUserDaoSupplier(
+            @Nonnull final UserDaoSupplier userDaoSupplier,
+            @Nonnull final DatabaseExecutorSupplier databaseExecutorSupplier) {
+        this.userDaoSupplier = Objects.requireNonNull(userDaoSupplier);
+        this.databaseExecutorSupplier = Objects.requireNonNull(databaseExecutorSupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public AsyncUserDao get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (AsyncUserDaoSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public AsyncUserDao getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public AsyncUserDao provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final AsyncUserDao asyncUserDao) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private AsyncUserDao create() {
+        return new ExecutorAsyncUserDao(this.userDaoSupplier, this.databaseExecutorSupplier);
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(AsyncUserDaoSupplier.class).to(AsyncUserDaoSupplier.class).in(Singleton.class);
+        }
+    }
+}
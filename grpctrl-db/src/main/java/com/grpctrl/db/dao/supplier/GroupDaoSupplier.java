@@ -1,8 +1,12 @@
 package com.grpctrl.db.dao.supplier;
 
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.db.DataSourceSupplier;
 import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.dao.impl.BufferedGroupDao;
+import com.grpctrl.db.dao.impl.InstrumentedDao;
 import com.grpctrl.db.dao.impl.PostgresGroupDao;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
 
 import org.glassfish.hk2.api.Factory;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
@@ -27,6 +31,14 @@ public class GroupDaoSupplier
     private final DataSourceSupplier dataSourceSupplier;
     @Nonnull
     private final TagDaoSupplier tagDaoSupplier;
+    @Nonnull
+    private final AccountUsageDaoSupplier accountUsageDaoSupplier;
+    @Nonnull
+    private final TagDictionaryDaoSupplier tagDictionaryDaoSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+    @Nonnull
+    private final ChangeFeedSupplier changeFeedSupplier;
 
     @Nullable
     private volatile GroupDao singleton;
@@ -37,13 +49,27 @@ public class GroupDaoSupplier
      * @param dataSourceSupplier the {@link DataSourceSupplier} responsible for providing access to a configured
      *     data source used to communicate with the JDBC database
      * @param tagDaoSupplier the {@link TagDaoSupplier} used to perform operations on tag data
+     * @param accountUsageDaoSupplier the {@link AccountUsageDaoSupplier} used to track the groups owned by accounts
+     * @param tagDictionaryDaoSupplier the {@link TagDictionaryDaoSupplier} used to map tag labels and values to ids
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track database metrics
+     * @param changeFeedSupplier the {@link ChangeFeedSupplier} providing the changes made by other nodes that
+     *     invalidate the cached group indexes
      *
-     * @throws NullPointerException if the provided parameter is {@code null}
+     * @throws NullPointerException if any of the provided parameters are {@code null}
      */
     @Inject
-    public GroupDaoSupplier(@Nonnull final DataSourceSupplier dataSourceSupplier, @Nonnull final TagDaoSupplier tagDaoSupplier) {
+    public GroupDaoSupplier(
+            @Nonnull final DataSourceSupplier dataSourceSupplier, @Nonnull final TagDaoSupplier tagDaoSupplier,
+            @Nonnull final AccountUsageDaoSupplier accountUsageDaoSupplier,
+            @Nonnull final TagDictionaryDaoSupplier tagDictionaryDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier,
+            @Nonnull final ChangeFeedSupplier changeFeedSupplier) {
         this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
         this.tagDaoSupplier = Objects.requireNonNull(tagDaoSupplier);
+        this.accountUsageDaoSupplier = Objects.requireNonNull(accountUsageDaoSupplier);
+        this.tagDictionaryDaoSupplier = Objects.requireNonNull(tagDictionaryDaoSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+        this.changeFeedSupplier = Objects.requireNonNull(changeFeedSupplier);
     }
 
     @Override
@@ -80,7 +106,16 @@ public class GroupDaoSupplier
 
     @Nonnull
     private GroupDao create() {
-        return new PostgresGroupDao(this.dataSourceSupplier, this.tagDaoSupplier);
+        final PostgresGroupDao postgresGroupDao = new PostgresGroupDao(this.dataSourceSupplier, this.tagDaoSupplier,
+                this.accountUsageDaoSupplier, this.tagDictionaryDaoSupplier, this.metricRegistrySupplier);
+        this.changeFeedSupplier.get().subscribe(postgresGroupDao);
+
+        GroupDao groupDao = postgresGroupDao;
+        if (this.dataSourceSupplier.isDaoMetricsEnabled()) {
+            groupDao = InstrumentedDao.wrap(GroupDao.class, groupDao, this.metricRegistrySupplier.get());
+        }
+        final int bufferSize = this.dataSourceSupplier.getStreamBufferSize();
+        return bufferSize > 0 ? new BufferedGroupDao(groupDao, bufferSize) : groupDao;
     }
 
     /**
@@ -1,8 +1,12 @@
 package com.grpctrl.db.dao.supplier;
 
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.db.DataSourceSupplier;
 import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.dao.impl.BufferedTagDao;
+import com.grpctrl.db.dao.impl.InstrumentedDao;
 import com.grpctrl.db.dao.impl.PostgresTagDao;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
 
 import org.glassfish.hk2.api.Factory;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
@@ -25,6 +29,14 @@ import javax.ws.rs.ext.Provider;
 public class TagDaoSupplier implements Supplier<TagDao>, Factory<TagDao>, ContextResolver<TagDao> {
     @Nonnull
     private final DataSourceSupplier dataSourceSupplier;
+    @Nonnull
+    private final AccountUsageDaoSupplier accountUsageDaoSupplier;
+    @Nonnull
+    private final TagDictionaryDaoSupplier tagDictionaryDaoSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+    @Nonnull
+    private final ChangeFeedSupplier changeFeedSupplier;
 
     @Nullable
     private volatile TagDao singleton;
@@ -34,13 +46,26 @@ public class TagDaoSupplier implements Supplier<TagDao>, Factory<TagDao>, Contex
      *
      * @param dataSourceSupplier the {@link DataSourceSupplier} responsible for providing access to a configured
      *     data source used to communicate with the JDBC database
+     * @param accountUsageDaoSupplier the {@link AccountUsageDaoSupplier} used to track the tags owned by accounts
+     * @param tagDictionaryDaoSupplier the {@link TagDictionaryDaoSupplier} used to map tag labels and values to ids
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track query streaming metrics
+     * @param changeFeedSupplier the {@link ChangeFeedSupplier} providing the changes made by other nodes that
+     *     invalidate the cached tag indexes
      *
-     * @throws NullPointerException if the provided parameter is {@code null}
+     * @throws NullPointerException if any of the provided parameters are {@code null}
      */
     @Inject
     public TagDaoSupplier(
-            @Nonnull final DataSourceSupplier dataSourceSupplier) {
+            @Nonnull final DataSourceSupplier dataSourceSupplier,
+            @Nonnull final AccountUsageDaoSupplier accountUsageDaoSupplier,
+            @Nonnull final TagDictionaryDaoSupplier tagDictionaryDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier,
+            @Nonnull final ChangeFeedSupplier changeFeedSupplier) {
         this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+        this.accountUsageDaoSupplier = Objects.requireNonNull(accountUsageDaoSupplier);
+        this.tagDictionaryDaoSupplier = Objects.requireNonNull(tagDictionaryDaoSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+        this.changeFeedSupplier = Objects.requireNonNull(changeFeedSupplier);
     }
 
     @Override
@@ -77,7 +102,16 @@ public class TagDaoSupplier implements Supplier<TagDao>, Factory<TagDao>, Contex
 
     @Nonnull
     private TagDao create() {
-        return new PostgresTagDao(this.dataSourceSupplier);
+        final PostgresTagDao postgresTagDao = new PostgresTagDao(this.dataSourceSupplier,
+                this.accountUsageDaoSupplier, this.tagDictionaryDaoSupplier, this.metricRegistrySupplier);
+        this.changeFeedSupplier.get().subscribe(postgresTagDao);
+
+        TagDao tagDao = postgresTagDao;
+        if (this.dataSourceSupplier.isDaoMetricsEnabled()) {
+            tagDao = InstrumentedDao.wrap(TagDao.class, tagDao, this.metricRegistrySupplier.get());
+        }
+        final int bufferSize = this.dataSourceSupplier.getStreamBufferSize();
+        return bufferSize > 0 ? new BufferedTagDao(tagDao, bufferSize) : tagDao;
     }
 
     /**
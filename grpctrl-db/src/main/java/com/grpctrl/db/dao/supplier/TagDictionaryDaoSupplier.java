@@ -0,0 +1,73 @@
+package com.grpctrl.db.dao.supplier;
+
+import com.grpctrl.db.dao.TagDictionaryDao;
+import com.grpctrl.db.dao.impl.PostgresTagDictionaryDao;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to a {@link TagDictionaryDao} used to communicate with the configured JDBC database for
+ * tag label and value dictionary information.
+ */
+@Provider
+public class TagDictionaryDaoSupplier
+        implements Supplier<TagDictionaryDao>, Factory<TagDictionaryDao>, ContextResolver<TagDictionaryDao> {
+    @Nullable
+    private volatile TagDictionaryDao singleton;
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public TagDictionaryDao get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (TagDictionaryDaoSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public TagDictionaryDao getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public TagDictionaryDao provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final TagDictionaryDao tagDictionaryDao) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private TagDictionaryDao create() {
+        return new PostgresTagDictionaryDao();
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(TagDictionaryDaoSupplier.class).to(TagDictionaryDaoSupplier.class).in(Singleton.class);
+        }
+    }
+}
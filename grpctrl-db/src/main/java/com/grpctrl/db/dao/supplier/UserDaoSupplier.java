@@ -1,7 +1,9 @@
 package com.grpctrl.db.dao.supplier;
 
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.db.DataSourceSupplier;
 import com.grpctrl.db.dao.UserDao;
+import com.grpctrl.db.dao.impl.InstrumentedDao;
 import com.grpctrl.db.dao.impl.PostgresUserDao;
 
 import org.glassfish.hk2.api.Factory;
@@ -32,7 +34,7 @@ public class UserDaoSupplier implements Supplier<UserDao>, Factory<UserDao>, Con
     @Nonnull
     private final UserRoleDaoSupplier userRoleDaoSupplier;
     @Nonnull
-    private final AccountDaoSupplier accountDaoSupplier;
+    private final MetricRegistrySupplier metricRegistrySupplier;
 
     @Nullable
     private volatile UserDao singleton;
@@ -45,7 +47,7 @@ public class UserDaoSupplier implements Supplier<UserDao>, Factory<UserDao>, Con
      * @param userAuthDaoSupplier the {@link UserAuthDaoSupplier} used to manage the user auth objects
      * @param userEmailDaoSupplier the {@link UserEmailDaoSupplier} used to manage the user email objects
      * @param userRoleDaoSupplier the {@link UserRoleDaoSupplier} used to manage the user role objects
-     * @param accountDaoSupplier the {@link AccountDaoSupplier} used to manage the account objects
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track database metrics
      *
      * @throws NullPointerException if the provided parameter is {@code null}
      */
@@ -55,12 +57,12 @@ public class UserDaoSupplier implements Supplier<UserDao>, Factory<UserDao>, Con
             @Nonnull final UserAuthDaoSupplier userAuthDaoSupplier,
             @Nonnull final UserEmailDaoSupplier userEmailDaoSupplier,
             @Nonnull final UserRoleDaoSupplier userRoleDaoSupplier,
-            @Nonnull final AccountDaoSupplier accountDaoSupplier) {
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
         this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
         this.userAuthDaoSupplier = Objects.requireNonNull(userAuthDaoSupplier);
         this.userEmailDaoSupplier = Objects.requireNonNull(userEmailDaoSupplier);
         this.userRoleDaoSupplier = Objects.requireNonNull(userRoleDaoSupplier);
-        this.accountDaoSupplier = Objects.requireNonNull(accountDaoSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
     }
 
     @Override
@@ -97,8 +99,12 @@ public class UserDaoSupplier implements Supplier<UserDao>, Factory<UserDao>, Con
 
     @Nonnull
     private UserDao create() {
-        return new PostgresUserDao(this.dataSourceSupplier, this.userAuthDaoSupplier, this.userEmailDaoSupplier,
-                this.userRoleDaoSupplier, this.accountDaoSupplier);
+        final UserDao userDao = new PostgresUserDao(this.dataSourceSupplier, this.userAuthDaoSupplier,
+                this.userEmailDaoSupplier, this.userRoleDaoSupplier);
+        if (this.dataSourceSupplier.isDaoMetricsEnabled()) {
+            return InstrumentedDao.wrap(UserDao.class, userDao, this.metricRegistrySupplier.get());
+        }
+        return userDao;
     }
 
     /**
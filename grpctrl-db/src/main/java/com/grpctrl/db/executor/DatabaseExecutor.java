@@ -0,0 +1,138 @@
+package com.grpctrl.db.executor;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.ServiceUnavailableException;
+
+/**
+ * Runs the blocking database operations on behalf of the asynchronous data access objects. The number of threads
+ * matches the size of the database connection pool, so the operations never wait on each other for a connection, and
+ * the operations that arrive while all the threads are busy wait in a bounded queue. Once the queue is full the
+ * operations are rejected rather than piling up behind a database that cannot keep up.
+ */
+public class DatabaseExecutor implements Executor {
+    @Nonnull
+    private final ThreadPoolExecutor executor;
+    @Nonnull
+    private final Timer waits;
+    @Nonnull
+    private final Meter rejections;
+
+    /**
+     * @param threads the number of threads used to run the database operations
+     * @param queueSize the maximum number of operations that can wait for a thread
+     * @param metricRegistry the {@link MetricRegistry} used to track the queue depth and the time spent waiting
+     *
+     * @throws NullPointerException if the metric registry is {@code null}
+     * @throws IllegalArgumentException if the number of threads or the queue size is not positive
+     */
+    public DatabaseExecutor(final int threads, final int queueSize, @Nonnull final MetricRegistry metricRegistry) {
+        Objects.requireNonNull(metricRegistry);
+
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("database-executor-%d").setDaemon(true).build());
+
+        this.waits = metricRegistry.timer(MetricRegistry.name(DatabaseExecutor.class, "wait"));
+        this.rejections = metricRegistry.meter(MetricRegistry.name(DatabaseExecutor.class, "rejected"));
+        register(metricRegistry, "queue-depth", () -> this.executor.getQueue().size());
+        register(metricRegistry, "active", this.executor::getActiveCount);
+    }
+
+    private void register(
+            @Nonnull final MetricRegistry metricRegistry, @Nonnull final String name,
+            @Nonnull final Gauge<Integer> gauge) {
+        // Replace the gauges of any previous executor, which would otherwise prevent these from being registered.
+        final String metric = MetricRegistry.name(DatabaseExecutor.class, name);
+        metricRegistry.remove(metric);
+        metricRegistry.register(metric, gauge);
+    }
+
+    /**
+     * @param command the database operation to run once a thread is available
+     *
+     * @throws NullPointerException if the command is {@code null}
+     * @throws RejectedExecutionException if the queue is full or the executor has been shut down
+     */
+    @Override
+    public void execute(@Nonnull final Runnable command) {
+        Objects.requireNonNull(command);
+
+        final Timer.Context wait = this.waits.time();
+        try {
+            this.executor.execute(() -> {
+                wait.stop();
+                command.run();
+            });
+        } catch (final RejectedExecutionException rejected) {
+            this.rejections.mark();
+            throw rejected;
+        }
+    }
+
+    /**
+     * @param operation the database operation to run
+     * @param <T> the type of value returned by the operation
+     *
+     * @return a future completed with the result of the operation, or exceptionally with the exception thrown by the
+     *     operation, or with a {@link ServiceUnavailableException} when the operation was rejected
+     *
+     * @throws NullPointerException if the operation is {@code null}
+     */
+    @Nonnull
+    public <T> CompletableFuture<T> supply(@Nonnull final Supplier<T> operation) {
+        Objects.requireNonNull(operation);
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            execute(() -> {
+                try {
+                    future.complete(operation.get());
+                } catch (final RuntimeException | Error failure) {
+                    future.completeExceptionally(failure);
+                }
+            });
+        } catch (final RejectedExecutionException rejected) {
+            future.completeExceptionally(
+                    new ServiceUnavailableException("Too many database operations are waiting to run"));
+        }
+        return future;
+    }
+
+    /**
+     * @param operation the database operation to run
+     *
+     * @return a future completed once the operation has finished, in the same way as {@link #supply(Supplier)}
+     *
+     * @throws NullPointerException if the operation is {@code null}
+     */
+    @Nonnull
+    public CompletableFuture<Void> run(@Nonnull final Runnable operation) {
+        Objects.requireNonNull(operation);
+        return supply(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stop accepting new operations, the operations already accepted are still run.
+     */
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+}
@@ -0,0 +1,100 @@
+package com.grpctrl.db.executor;
+
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.typesafe.config.Config;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to the {@link DatabaseExecutor} used to run the asynchronous database operations, with
+ * one thread for each connection in the database connection pool.
+ */
+@Provider
+public class DatabaseExecutorSupplier
+        implements Supplier<DatabaseExecutor>, Factory<DatabaseExecutor>, ContextResolver<DatabaseExecutor> {
+    @Nonnull
+    private final ConfigSupplier configSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+
+    @Nullable
+    private volatile DatabaseExecutor singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param configSupplier the {@link ConfigSupplier} providing the connection pool and queue sizes
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track the executor queue
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public DatabaseExecutorSupplier(
+            @Nonnull final ConfigSupplier configSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
+        this.configSupplier = Objects.requireNonNull(configSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public DatabaseExecutor get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (DatabaseExecutorSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public DatabaseExecutor getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public DatabaseExecutor provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final DatabaseExecutor databaseExecutor) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private DatabaseExecutor create() {
+        final Config config = this.configSupplier.get();
+        return new DatabaseExecutor(config.getInt(ConfigKeys.DB_MAXIMUM_POOL_SIZE.getKey()),
+                config.getInt(ConfigKeys.DB_EXECUTOR_QUEUE_SIZE.getKey()), this.metricRegistrySupplier.get());
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(DatabaseExecutorSupplier.class).to(DatabaseExecutorSupplier.class).in(Singleton.class);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.grpctrl.db.feed;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Describes a change made to the accounts, groups, tags or users stored in the database, as published by the database
+ * triggers in the form {@code entity,account,id,version,origin}. The id is absent when a single statement modified
+ * more than one entity of the account, in which case everything of that type in the account should be considered
+ * changed. The origin is the application name of the connection that made the change, which identifies the node.
+ */
+public class ChangeEvent {
+    /**
+     * The types of entities that publish change events.
+     */
+    public enum Entity {
+        /** An account, its service level, or its api logins changed, the id is the account id. */
+        ACCOUNT,
+        /** A group was added, modified or removed, the id is the group id. */
+        GROUP,
+        /** The tags of a group were added or removed, the id is the group id. */
+        TAG,
+        /** A user, or its auth, emails, roles or accounts changed, the account is zero and the id is the user id. */
+        USER
+    }
+
+    @Nonnull
+    private final Entity entity;
+    private final long accountId;
+    @Nullable
+    private final Long id;
+    private final long version;
+    @Nullable
+    private final String origin;
+
+    /**
+     * @param entity the type of entity that changed
+     * @param accountId the unique identifier of the account that owns the changed entity
+     * @param id the unique identifier of the changed entity, or {@code null} when multiple entities changed
+     * @param version the identifier of the transaction that made the change
+     *
+     * @throws NullPointerException if the entity is {@code null}
+     */
+    public ChangeEvent(
+            @Nonnull final Entity entity, final long accountId, @Nullable final Long id, final long version) {
+        this(entity, accountId, id, version, null);
+    }
+
+    /**
+     * @param entity the type of entity that changed
+     * @param accountId the unique identifier of the account that owns the changed entity
+     * @param id the unique identifier of the changed entity, or {@code null} when multiple entities changed
+     * @param version the identifier of the transaction that made the change
+     * @param origin the application name of the connection that made the change, or {@code null} when unknown
+     *
+     * @throws NullPointerException if the entity is {@code null}
+     */
+    public ChangeEvent(
+            @Nonnull final Entity entity, final long accountId, @Nullable final Long id, final long version,
+            @Nullable final String origin) {
+        this.entity = Objects.requireNonNull(entity);
+        this.accountId = accountId;
+        this.id = id;
+        this.version = version;
+        this.origin = origin;
+    }
+
+    /**
+     * @param payload the notification payload published by the database triggers
+     *
+     * @return the parsed change event
+     *
+     * @throws NullPointerException if the payload is {@code null}
+     * @throws IllegalArgumentException if the payload is not a valid change event
+     */
+    @Nonnull
+    public static ChangeEvent parse(@Nonnull final String payload) {
+        // The origin comes last, since it is the only field that may contain a comma. Events published before the
+        // origin was added to the payload do not have one.
+        final String[] parts = Objects.requireNonNull(payload).split(",", 5);
+        if (parts.length < 4) {
+            throw new IllegalArgumentException("Invalid change event: " + payload);
+        }
+        try {
+            final Entity entity = Entity.valueOf(parts[0].toUpperCase(Locale.ENGLISH));
+            final Long id = parts[2].isEmpty() ? null : Long.parseLong(parts[2]);
+            final String origin = parts.length == 5 && !parts[4].isEmpty() ? parts[4] : null;
+            return new ChangeEvent(entity, Long.parseLong(parts[1]), id, Long.parseLong(parts[3]), origin);
+        } catch (final IllegalArgumentException invalid) {
+            throw new IllegalArgumentException("Invalid change event: " + payload, invalid);
+        }
+    }
+
+    /**
+     * @return the type of entity that changed
+     */
+    @Nonnull
+    public Entity getEntity() {
+        return this.entity;
+    }
+
+    /**
+     * @return the unique identifier of the account that owns the changed entity
+     */
+    public long getAccountId() {
+        return this.accountId;
+    }
+
+    /**
+     * @return the unique identifier of the changed entity, or empty when multiple entities in the account changed
+     */
+    @Nonnull
+    public Optional<Long> getId() {
+        return Optional.ofNullable(this.id);
+    }
+
+    /**
+     * @return the identifier of the transaction that made the change
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return the application name of the connection that made the change, or empty when it is not known
+     */
+    @Nonnull
+    public Optional<String> getOrigin() {
+        return Optional.ofNullable(this.origin);
+    }
+
+    @Override
+    public boolean equals(@CheckForNull final Object other) {
+        if (!(other instanceof ChangeEvent)) {
+            return false;
+        }
+
+        final ChangeEvent event = (ChangeEvent) other;
+        final EqualsBuilder eq = new EqualsBuilder();
+        eq.append(getEntity(), event.getEntity());
+        eq.append(getAccountId(), event.getAccountId());
+        eq.append(getId(), event.getId());
+        eq.append(getVersion(), event.getVersion());
+        eq.append(getOrigin(), event.getOrigin());
+        return eq.isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        final HashCodeBuilder hash = new HashCodeBuilder();
+        hash.append(getEntity());
+        hash.append(getAccountId());
+        hash.append(getId());
+        hash.append(getVersion());
+        hash.append(getOrigin());
+        return hash.toHashCode();
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+        final ToStringBuilder str = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        str.append("entity", getEntity());
+        str.append("accountId", getAccountId());
+        str.append("id", this.id);
+        str.append("version", getVersion());
+        str.append("origin", this.origin);
+        return str.build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.grpctrl.db.feed;
+
+import com.grpctrl.db.DataSourceSupplier;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Listens for the change events published by the database triggers on a dedicated connection, and passes them on to
+ * the subscribed {@link ChangeListener} instances. The feed is polled periodically, and the events received between
+ * polls are coalesced so each changed entity is only reported once per poll. When the connection is lost the events
+ * published in the meantime cannot be recovered, so the listeners are told to resync once the feed reconnects. The
+ * changes made through this node's own connections are only passed on to the listeners that ask for them.
+ */
+public class ChangeFeed implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeFeed.class);
+
+    /** The notification channel the database triggers publish the change events on. */
+    public static final String CHANNEL = "grpctrl_changes";
+
+    @Nonnull
+    private final DataSourceSupplier dataSourceSupplier;
+    @Nonnull
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    // Only used by the polling thread.
+    @Nullable
+    private Connection conn;
+    private boolean failureLogged = false;
+
+    /**
+     * @param dataSourceSupplier the {@link DataSourceSupplier} used to open the dedicated listening connection
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    public ChangeFeed(@Nonnull final DataSourceSupplier dataSourceSupplier) {
+        this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+    }
+
+    /**
+     * @param listener the listener to receive the change events, starting with the next poll of the feed
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    public void subscribe(@Nonnull final ChangeListener listener) {
+        this.listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * @param listener the listener that should no longer receive the change events
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    public void unsubscribe(@Nonnull final ChangeListener listener) {
+        this.listeners.remove(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Poll the feed, delivering the change events received since the previous poll to the listeners, and connecting to
+     * the database first when the feed is not connected.
+     */
+    @Override
+    public synchronized void run() {
+        try {
+            if (this.conn == null) {
+                this.conn = listen();
+                if (this.failureLogged) {
+                    LOG.info("Change feed reconnected to the database");
+                    this.failureLogged = false;
+                }
+                // Any changes made before the feed was listening were missed.
+                this.listeners.forEach(this::resync);
+            }
+            final List<ChangeEvent> events = poll(this.conn);
+            if (!events.isEmpty()) {
+                final Collection<ChangeEvent> coalesced = coalesce(events);
+                final Collection<ChangeEvent> remote = coalesce(remote(events));
+                for (final ChangeListener listener : this.listeners) {
+                    final Collection<ChangeEvent> changes = listener.isLocalChangeListener() ? coalesced : remote;
+                    if (!changes.isEmpty()) {
+                        changed(listener, changes);
+                    }
+                }
+            }
+        } catch (final SQLException sqlException) {
+            if (!this.failureLogged) {
+                LOG.warn("Change feed is not connected to the database, retrying on the next poll", sqlException);
+                this.failureLogged = true;
+            }
+            close();
+        }
+    }
+
+    /**
+     * Close the dedicated listening connection, the feed reconnects on the next poll.
+     */
+    public synchronized void close() {
+        if (this.conn != null) {
+            try {
+                this.conn.close();
+            } catch (final SQLException closeFailed) {
+                LOG.debug("Failed to close the change feed connection", closeFailed);
+            }
+            this.conn = null;
+        }
+    }
+
+    @Nonnull
+    private Connection listen() throws SQLException {
+        final Connection listening = this.dataSourceSupplier.connect();
+        try (final Statement stmt = listening.createStatement()) {
+            listening.setAutoCommit(true);
+            stmt.execute("LISTEN " + CHANNEL);
+        } catch (final SQLException sqlException) {
+            listening.close();
+            throw sqlException;
+        }
+        return listening;
+    }
+
+    @Nonnull
+    private List<ChangeEvent> poll(@Nonnull final Connection listening) throws SQLException {
+        // The driver only reads the pending notifications from the connection when a statement is executed.
+        try (final Statement stmt = listening.createStatement()) {
+            stmt.execute("SELECT 1");
+        }
+        final PGNotification[] notifications = listening.unwrap(PGConnection.class).getNotifications();
+        if (notifications == null) {
+            return Collections.emptyList();
+        }
+
+        final List<ChangeEvent> events = new ArrayList<>(notifications.length);
+        for (final PGNotification notification : notifications) {
+            try {
+                events.add(ChangeEvent.parse(notification.getParameter()));
+            } catch (final IllegalArgumentException invalid) {
+                LOG.warn("Ignoring invalid change event", invalid);
+            }
+        }
+        return events;
+    }
+
+    @Nonnull
+    private List<ChangeEvent> remote(@Nonnull final List<ChangeEvent> events) {
+        final String local = this.dataSourceSupplier.getApplicationName();
+        return events.stream().filter(event -> !event.getOrigin().filter(local::equals).isPresent())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param events the change events to coalesce, in the order they were received
+     *
+     * @return one event for each changed entity, with the latest version, in the order the entities were first
+     *     changed, where the events without an id replace all the events for the same type of entity in the account
+     */
+    @Nonnull
+    static Collection<ChangeEvent> coalesce(@Nonnull final Collection<ChangeEvent> events) {
+        final Map<List<Object>, ChangeEvent> coalesced = new LinkedHashMap<>();
+        for (final ChangeEvent event : events) {
+            coalesced.merge(key(event, event.getId().orElse(null)), event,
+                    (first, second) -> first.getVersion() >= second.getVersion() ? first : second);
+        }
+        coalesced.entrySet().removeIf(entry -> entry.getValue().getId().isPresent()
+                && coalesced.containsKey(key(entry.getValue(), null)));
+        return new ArrayList<>(coalesced.values());
+    }
+
+    @Nonnull
+    private static List<Object> key(@Nonnull final ChangeEvent event, @Nullable final Long id) {
+        return Arrays.asList(event.getEntity(), event.getAccountId(), id);
+    }
+
+    private void resync(@Nonnull final ChangeListener listener) {
+        try {
+            listener.resync();
+        } catch (final RuntimeException exception) {
+            // Do not let one listener prevent the others from receiving the events.
+            LOG.error("Change listener failed to resync", exception);
+        }
+    }
+
+    private void changed(@Nonnull final ChangeListener listener, @Nonnull final Collection<ChangeEvent> events) {
+        try {
+            listener.changed(events);
+        } catch (final RuntimeException exception) {
+            // Do not let one listener prevent the others from receiving the events.
+            LOG.error("Change listener failed to process changes", exception);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.grpctrl.db.feed;
+
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.ScheduledExecutorServiceSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.ext.ContextResolver;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Provides singleton access to the {@link ChangeFeed} publishing the changes made to the database. The feed is
+ * scheduled to poll the database when it is first retrieved.
+ */
+@Provider
+public class ChangeFeedSupplier implements Supplier<ChangeFeed>, Factory<ChangeFeed>, ContextResolver<ChangeFeed> {
+    @Nonnull
+    private final ConfigSupplier configSupplier;
+    @Nonnull
+    private final ScheduledExecutorServiceSupplier executorServiceSupplier;
+    @Nonnull
+    private final DataSourceSupplier dataSourceSupplier;
+
+    @Nullable
+    private volatile ChangeFeed singleton;
+
+    /**
+     * Create the supplier with the necessary dependencies.
+     *
+     * @param configSupplier the {@link ConfigSupplier} providing the feed poll interval
+     * @param executorServiceSupplier the {@link ScheduledExecutorServiceSupplier} used to schedule the feed polling
+     * @param dataSourceSupplier the {@link DataSourceSupplier} responsible for providing access to a configured
+     *     data source used to communicate with the JDBC database
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public ChangeFeedSupplier(
+            @Nonnull final ConfigSupplier configSupplier,
+            @Nonnull final ScheduledExecutorServiceSupplier executorServiceSupplier,
+            @Nonnull final DataSourceSupplier dataSourceSupplier) {
+        this.configSupplier = Objects.requireNonNull(configSupplier);
+        this.executorServiceSupplier = Objects.requireNonNull(executorServiceSupplier);
+        this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+    }
+
+    @Override
+    @Nonnull
+    @SuppressWarnings("all")
+    public ChangeFeed get() {
+        // Use double-check locking (with volatile singleton).
+        if (this.singleton == null) {
+            synchronized (ChangeFeedSupplier.class) {
+                if (this.singleton == null) {
+                    this.singleton = create();
+                }
+            }
+        }
+        return this.singleton;
+    }
+
+    @Override
+    @Nonnull
+    public ChangeFeed getContext(@Nonnull final Class<?> type) {
+        return get();
+    }
+
+    @Override
+    @Nonnull
+    public ChangeFeed provide() {
+        return get();
+    }
+
+    @Override
+    public void dispose(@Nonnull final ChangeFeed changeFeed) {
+        // No need to do anything here.
+    }
+
+    @Nonnull
+    private ChangeFeed create() {
+        final long interval = this.configSupplier.get()
+                .getDuration(ConfigKeys.DB_FEED_POLL_INTERVAL.getKey(), TimeUnit.MILLISECONDS);
+
+        final ChangeFeed changeFeed = new ChangeFeed(this.dataSourceSupplier);
+        this.executorServiceSupplier.get().scheduleWithFixedDelay(changeFeed, 0, interval, TimeUnit.MILLISECONDS);
+        return changeFeed;
+    }
+
+    /**
+     * Used to bind this supplier for dependency injection.
+     */
+    public static class Binder extends AbstractBinder {
+        @Override
+        protected void configure() {
+            bind(ChangeFeedSupplier.class).to(ChangeFeedSupplier.class).in(Singleton.class);
+        }
+    }
+}
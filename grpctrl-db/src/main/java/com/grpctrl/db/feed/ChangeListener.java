@@ -0,0 +1,30 @@
+package com.grpctrl.db.feed;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the changes published through a {@link ChangeFeed}. The listeners are invoked on the thread polling the
+ * feed, so they should only perform quick operations like invalidating cached data.
+ */
+public interface ChangeListener {
+    /**
+     * @param events the coalesced changes received since the previous invocation, in the order they were received
+     */
+    void changed(@Nonnull Collection<ChangeEvent> events);
+
+    /**
+     * @return whether the listener should also receive the changes made through this node's own connections, which
+     *     listeners that already apply their own changes as they make them can skip
+     */
+    default boolean isLocalChangeListener() {
+        return true;
+    }
+
+    /**
+     * Invoked when changes may have been missed, because the feed was not connected to the database, so all the data
+     * derived from the database needs to be refreshed. Also invoked once the feed first connects.
+     */
+    void resync();
+}
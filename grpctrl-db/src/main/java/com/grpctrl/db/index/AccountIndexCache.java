@@ -0,0 +1,177 @@
+package com.grpctrl.db.index;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Maintains an in-memory index for each account. Indexes are populated lazily the first time an account needs one,
+ * and are dropped (to be reloaded on next use) whenever they may no longer match the database.
+ *
+ * <p>Each index is loaded by the first thread that needs it, outside of the map, while any other threads needing the
+ * same index wait for that load to finish. Loads for different accounts never block each other, and dropping an index
+ * while it is being loaded discards the loaded result instead of keeping it. Changes are applied to an index that has
+ * already been loaded, and {@link #invalidateUnless(long, Optional)} drops any index that missed them.</p>
+ *
+ * <p>The number of indexes held is bounded, and the indexes that have not been used for a while are dropped, so the
+ * memory used by the indexes follows the accounts that are active rather than growing with every account served.</p>
+ *
+ * @param <T> the type of index maintained for each account
+ */
+public class AccountIndexCache<T> {
+    @Nonnull
+    private final ConcurrentMap<Long, CompletableFuture<T>> indexes;
+
+    /**
+     * @param size the maximum number of accounts whose indexes are held, beyond which the least recently used are
+     *     dropped
+     * @param ttl how long, in milliseconds, an index is held after it was last used
+     *
+     * @throws IllegalArgumentException if the size or ttl is negative
+     */
+    public AccountIndexCache(final long size, final long ttl) {
+        this.indexes = CacheBuilder.newBuilder().maximumSize(size).expireAfterAccess(ttl, TimeUnit.MILLISECONDS)
+                .<Long, CompletableFuture<T>>build().asMap();
+    }
+
+    /**
+     * @return the number of accounts whose indexes are held, including those being loaded
+     */
+    public long size() {
+        return this.indexes.size();
+    }
+
+    /**
+     * Track the number of indexes held in a gauge, replacing the gauge of any previous cache registered with the same
+     * name.
+     *
+     * @param metricRegistry the {@link MetricRegistry} in which the gauge is registered
+     * @param name the name of the gauge
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    public void register(@Nonnull final MetricRegistry metricRegistry, @Nonnull final String name) {
+        Objects.requireNonNull(metricRegistry);
+        Objects.requireNonNull(name);
+
+        metricRegistry.remove(name);
+        metricRegistry.register(name, (Gauge<Long>) this::size);
+    }
+
+    /**
+     * Retrieve the index for an account, loading it if it is not yet available.
+     *
+     * @param accountId the unique identifier of the account that owns the index
+     * @param loader used to load the index when it has not yet been populated
+     *
+     * @return the index for the account
+     *
+     * @throws NullPointerException if the loader parameter is {@code null}
+     */
+    @Nonnull
+    public T get(final long accountId, @Nonnull final Supplier<T> loader) {
+        Objects.requireNonNull(loader);
+
+        CompletableFuture<T> index = this.indexes.get(accountId);
+        if (index == null) {
+            final CompletableFuture<T> loading = new CompletableFuture<>();
+            index = this.indexes.putIfAbsent(accountId, loading);
+            if (index == null) {
+                return load(accountId, loading, loader);
+            }
+        }
+
+        try {
+            return index.join();
+        } catch (final CompletionException exception) {
+            // The load failed in another thread, and that thread already dropped it, so the failure is not cached.
+            final Throwable cause = exception.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw exception;
+        }
+    }
+
+    @Nonnull
+    private T load(
+            final long accountId, @Nonnull final CompletableFuture<T> loading, @Nonnull final Supplier<T> loader) {
+        try {
+            final T index = Objects.requireNonNull(loader.get());
+            loading.complete(index);
+            return index;
+        } catch (final RuntimeException | Error exception) {
+            // The waiting threads are released with the same failure, and the next retrieval tries to load again.
+            this.indexes.remove(accountId, loading);
+            loading.completeExceptionally(exception);
+            throw exception;
+        }
+    }
+
+    /**
+     * @param accountId the unique identifier of the account that owns the index
+     *
+     * @return the index for the account, only if it has already been loaded
+     */
+    @Nonnull
+    public Optional<T> getIfPresent(final long accountId) {
+        final CompletableFuture<T> index = this.indexes.get(accountId);
+        if (index == null || !index.isDone() || index.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of(index.join());
+    }
+
+    /**
+     * Drop the index for an account so that it will be reloaded the next time it is needed. An index that is being
+     * loaded is dropped as well, and the threads already waiting for it still receive the loaded index.
+     *
+     * @param accountId the unique identifier of the account whose index should be dropped
+     */
+    public void invalidate(final long accountId) {
+        this.indexes.remove(accountId);
+    }
+
+    /**
+     * Drop the index for an account unless it is the index that was updated along with a change to the database. Any
+     * other index, including one that was being loaded while the change was made, may not include the change.
+     *
+     * @param accountId the unique identifier of the account whose index may be dropped
+     * @param updated the index that was updated along with the change, if any
+     *
+     * @throws NullPointerException if the updated parameter is {@code null}
+     */
+    public void invalidateUnless(final long accountId, @Nonnull final Optional<T> updated) {
+        Objects.requireNonNull(updated);
+
+        final CompletableFuture<T> index = this.indexes.get(accountId);
+        if (index != null && !(updated.isPresent() && isLoaded(index, updated.get()))) {
+            // Only the index that was found is dropped, since any index replacing it was loaded after the change.
+            this.indexes.remove(accountId, index);
+        }
+    }
+
+    private boolean isLoaded(@Nonnull final CompletableFuture<T> index, @Nonnull final T expected) {
+        return index.isDone() && !index.isCompletedExceptionally() && index.join() == expected;
+    }
+
+    /**
+     * Drop the indexes for all accounts, including those being loaded, so that they will be reloaded the next time
+     * they are needed.
+     */
+    public void invalidateAll() {
+        this.indexes.clear();
+    }
+}
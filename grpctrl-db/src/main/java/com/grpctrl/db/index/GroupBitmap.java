@@ -0,0 +1,552 @@
+package com.grpctrl.db.index;
+
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A compressed set of group identifiers, organized in the same way as a Roaring bitmap. The identifiers are divided
+ * into chunks of 65536 consecutive values, and each chunk stores the low 16 bits of its identifiers either as a sorted
+ * array, while the chunk is sparse, or as a fixed 8KB bitmap once it holds more than 4096 identifiers. Since group
+ * identifiers are allocated from a sequence, the groups of an account tend to fall into a small number of chunks,
+ * which keeps the memory use low and allows intersections and unions to be performed a chunk at a time. Identifiers
+ * must not be negative. This class is not thread-safe.
+ */
+public class GroupBitmap {
+    // The maximum number of identifiers stored in an array chunk, beyond which a bitmap chunk uses less memory.
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+
+    private long[] keys;
+    private Chunk[] chunks;
+    private int size = 0;
+
+    /**
+     * Create an empty bitmap.
+     */
+    public GroupBitmap() {
+        this(4);
+    }
+
+    private GroupBitmap(final int capacity) {
+        this.keys = new long[Math.max(4, capacity)];
+        this.chunks = new Chunk[this.keys.length];
+    }
+
+    /**
+     * @param groupIds the unique identifiers of the groups to include in the bitmap
+     *
+     * @return a bitmap containing the provided group identifiers
+     *
+     * @throws IllegalArgumentException if any of the identifiers are negative
+     */
+    @Nonnull
+    public static GroupBitmap of(@Nonnull final long... groupIds) {
+        final GroupBitmap bitmap = new GroupBitmap();
+        for (final long groupId : groupIds) {
+            bitmap.add(groupId);
+        }
+        return bitmap;
+    }
+
+    /**
+     * @param groupId the unique identifier of the group to add
+     *
+     * @return whether the group was added, {@code false} when it was already present
+     *
+     * @throws IllegalArgumentException if the identifier is negative
+     */
+    public boolean add(final long groupId) {
+        if (groupId < 0) {
+            throw new IllegalArgumentException("Negative group ids are not supported: " + groupId);
+        }
+
+        final long key = groupId >>> 16;
+        int index = find(key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new ArrayChunk(4));
+        }
+        if (!this.chunks[index].add((int) groupId & 0xFFFF)) {
+            return false;
+        }
+        if (this.chunks[index] instanceof ArrayChunk && this.chunks[index].cardinality() > ARRAY_MAX) {
+            this.chunks[index] = new BitmapChunk(this.chunks[index].words(), this.chunks[index].cardinality());
+        }
+        return true;
+    }
+
+    /**
+     * @param groupId the unique identifier of the group to remove
+     *
+     * @return whether the group was removed, {@code false} when it was not present
+     */
+    public boolean remove(final long groupId) {
+        final int index = find(groupId >>> 16);
+        if (index < 0 || !this.chunks[index].remove((int) groupId & 0xFFFF)) {
+            return false;
+        }
+
+        final int cardinality = this.chunks[index].cardinality();
+        if (cardinality == 0) {
+            System.arraycopy(this.keys, index + 1, this.keys, index, this.size - index - 1);
+            System.arraycopy(this.chunks, index + 1, this.chunks, index, this.size - index - 1);
+            this.size--;
+            this.chunks[this.size] = null;
+        } else if (this.chunks[index] instanceof BitmapChunk && cardinality <= ARRAY_MAX) {
+            this.chunks[index] = compact(this.chunks[index].words(), cardinality);
+        }
+        return true;
+    }
+
+    /**
+     * @param groupId the unique identifier of the group to find
+     *
+     * @return whether the group is present in this bitmap
+     */
+    public boolean contains(final long groupId) {
+        final int index = find(groupId >>> 16);
+        return index >= 0 && this.chunks[index].contains((int) groupId & 0xFFFF);
+    }
+
+    /**
+     * @return whether this bitmap contains no groups
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @return the number of groups in this bitmap
+     */
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < this.size; i++) {
+            cardinality += this.chunks[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    /**
+     * @return an independent copy of this bitmap
+     */
+    @Nonnull
+    public GroupBitmap copy() {
+        final GroupBitmap copy = new GroupBitmap(this.size);
+        for (int i = 0; i < this.size; i++) {
+            copy.append(this.keys[i], this.chunks[i].copy());
+        }
+        return copy;
+    }
+
+    /**
+     * @return all of the group identifiers in this bitmap, in ascending order
+     */
+    @Nonnull
+    public long[] toArray() {
+        return toArray(-1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param after only the group identifiers greater than this value are included
+     * @param limit the maximum number of group identifiers to include
+     *
+     * @return the group identifiers in this bitmap greater than the {@code after} value, in ascending order
+     */
+    @Nonnull
+    public long[] toArray(final long after, final int limit) {
+        final long[] groupIds = new long[(int) Math.min(limit, cardinality())];
+        final long start = Math.max(0, after + 1);
+        int index = find(start >>> 16);
+        if (index < 0) {
+            index = -index - 1;
+        }
+
+        int count = 0;
+        for (; index < this.size && count < groupIds.length; index++) {
+            final int from = this.keys[index] == start >>> 16 ? (int) start & 0xFFFF : 0;
+            count = this.chunks[index].fill(this.keys[index] << 16, from, groupIds, count);
+        }
+        return count == groupIds.length ? groupIds : Arrays.copyOf(groupIds, count);
+    }
+
+    /**
+     * @param first the first bitmap
+     * @param second the second bitmap
+     *
+     * @return a new bitmap containing the groups present in both of the provided bitmaps
+     */
+    @Nonnull
+    public static GroupBitmap and(@Nonnull final GroupBitmap first, @Nonnull final GroupBitmap second) {
+        final GroupBitmap result = new GroupBitmap(Math.min(first.size, second.size));
+        int left = 0;
+        int right = 0;
+        while (left < first.size && right < second.size) {
+            if (first.keys[left] < second.keys[right]) {
+                left++;
+            } else if (first.keys[left] > second.keys[right]) {
+                right++;
+            } else {
+                result.append(first.keys[left], andChunks(first.chunks[left], second.chunks[right]));
+                left++;
+                right++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param first the first bitmap
+     * @param second the second bitmap
+     *
+     * @return a new bitmap containing the groups present in either of the provided bitmaps
+     */
+    @Nonnull
+    public static GroupBitmap or(@Nonnull final GroupBitmap first, @Nonnull final GroupBitmap second) {
+        final GroupBitmap result = new GroupBitmap(first.size + second.size);
+        int left = 0;
+        int right = 0;
+        while (left < first.size || right < second.size) {
+            if (right == second.size || left < first.size && first.keys[left] < second.keys[right]) {
+                result.append(first.keys[left], first.chunks[left].copy());
+                left++;
+            } else if (left == first.size || first.keys[left] > second.keys[right]) {
+                result.append(second.keys[right], second.chunks[right].copy());
+                right++;
+            } else {
+                result.append(first.keys[left], orChunks(first.chunks[left], second.chunks[right]));
+                left++;
+                right++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param first the bitmap whose groups are to be included
+     * @param second the bitmap whose groups are to be excluded
+     *
+     * @return a new bitmap containing the groups present in the first bitmap but not in the second
+     */
+    @Nonnull
+    public static GroupBitmap andNot(@Nonnull final GroupBitmap first, @Nonnull final GroupBitmap second) {
+        final GroupBitmap result = new GroupBitmap(first.size);
+        int right = 0;
+        for (int left = 0; left < first.size; left++) {
+            while (right < second.size && second.keys[right] < first.keys[left]) {
+                right++;
+            }
+            if (right < second.size && second.keys[right] == first.keys[left]) {
+                result.append(first.keys[left], andNotChunks(first.chunks[left], second.chunks[right]));
+            } else {
+                result.append(first.keys[left], first.chunks[left].copy());
+            }
+        }
+        return result;
+    }
+
+    private int find(final long key) {
+        return Arrays.binarySearch(this.keys, 0, this.size, key);
+    }
+
+    private void insert(final int index, final long key, @Nonnull final Chunk chunk) {
+        if (this.size == this.keys.length) {
+            this.keys = Arrays.copyOf(this.keys, this.size << 1);
+            this.chunks = Arrays.copyOf(this.chunks, this.size << 1);
+        }
+        System.arraycopy(this.keys, index, this.keys, index + 1, this.size - index);
+        System.arraycopy(this.chunks, index, this.chunks, index + 1, this.size - index);
+        this.keys[index] = key;
+        this.chunks[index] = chunk;
+        this.size++;
+    }
+
+    private void append(final long key, @Nullable final Chunk chunk) {
+        // Empty chunks are not stored.
+        if (chunk != null) {
+            insert(this.size, key, chunk);
+        }
+    }
+
+    @Nullable
+    private static Chunk compact(@Nonnull final long[] words, final int cardinality) {
+        if (cardinality == 0) {
+            return null;
+        }
+        if (cardinality > ARRAY_MAX) {
+            return new BitmapChunk(words, cardinality);
+        }
+
+        final ArrayChunk chunk = new ArrayChunk(cardinality);
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            while (word != 0) {
+                chunk.values[chunk.cardinality++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+        return chunk;
+    }
+
+    private static int countBits(@Nonnull final long[] words) {
+        int cardinality = 0;
+        for (final long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    @Nullable
+    private static Chunk andChunks(@Nonnull final Chunk first, @Nonnull final Chunk second) {
+        if (first instanceof ArrayChunk || second instanceof ArrayChunk) {
+            // Probe the other chunk with each value of the (smaller) array chunk.
+            final ArrayChunk array = (ArrayChunk) (first instanceof ArrayChunk ? first : second);
+            final Chunk other = array == first ? second : first;
+            final ArrayChunk result = new ArrayChunk(array.cardinality);
+            for (int i = 0; i < array.cardinality; i++) {
+                if (other.contains(array.values[i])) {
+                    result.values[result.cardinality++] = array.values[i];
+                }
+            }
+            return result.cardinality == 0 ? null : result;
+        }
+
+        final long[] words = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            words[i] = ((BitmapChunk) first).words[i] & ((BitmapChunk) second).words[i];
+        }
+        return compact(words, countBits(words));
+    }
+
+    @Nonnull
+    private static Chunk orChunks(@Nonnull final Chunk first, @Nonnull final Chunk second) {
+        final long[] words = new long[WORDS];
+        first.orInto(words);
+        second.orInto(words);
+        final Chunk result = compact(words, countBits(words));
+        return result == null ? new ArrayChunk(4) : result;
+    }
+
+    @Nullable
+    private static Chunk andNotChunks(@Nonnull final Chunk first, @Nonnull final Chunk second) {
+        if (first instanceof ArrayChunk) {
+            final ArrayChunk array = (ArrayChunk) first;
+            final ArrayChunk result = new ArrayChunk(array.cardinality);
+            for (int i = 0; i < array.cardinality; i++) {
+                if (!second.contains(array.values[i])) {
+                    result.values[result.cardinality++] = array.values[i];
+                }
+            }
+            return result.cardinality == 0 ? null : result;
+        }
+
+        final long[] words = Arrays.copyOf(((BitmapChunk) first).words, WORDS);
+        second.clearFrom(words);
+        return compact(words, countBits(words));
+    }
+
+    /**
+     * The low 16 bits of the identifiers within a single chunk of the bitmap.
+     */
+    private abstract static class Chunk {
+        abstract boolean add(int value);
+
+        abstract boolean remove(int value);
+
+        abstract boolean contains(int value);
+
+        abstract int cardinality();
+
+        @Nonnull
+        abstract Chunk copy();
+
+        // Provides the values of this chunk as bitmap words, which must not be modified.
+        @Nonnull
+        abstract long[] words();
+
+        abstract void orInto(@Nonnull long[] words);
+
+        abstract void clearFrom(@Nonnull long[] words);
+
+        // Copies the values from the provided starting value into the array, returning the updated count.
+        abstract int fill(long high, int from, @Nonnull long[] groupIds, int count);
+    }
+
+    private static class ArrayChunk extends Chunk {
+        private char[] values;
+        private int cardinality = 0;
+
+        ArrayChunk(final int capacity) {
+            this.values = new char[capacity];
+        }
+
+        @Override
+        boolean add(final int value) {
+            final int index = Arrays.binarySearch(this.values, 0, this.cardinality, (char) value);
+            if (index >= 0) {
+                return false;
+            }
+            final int insert = -index - 1;
+            if (this.cardinality == this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.min(this.cardinality << 1, ARRAY_MAX + 1));
+            }
+            System.arraycopy(this.values, insert, this.values, insert + 1, this.cardinality - insert);
+            this.values[insert] = (char) value;
+            this.cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(final int value) {
+            final int index = Arrays.binarySearch(this.values, 0, this.cardinality, (char) value);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(this.values, index + 1, this.values, index, this.cardinality - index - 1);
+            this.cardinality--;
+            return true;
+        }
+
+        @Override
+        boolean contains(final int value) {
+            return Arrays.binarySearch(this.values, 0, this.cardinality, (char) value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        @Nonnull
+        Chunk copy() {
+            final ArrayChunk copy = new ArrayChunk(Math.max(4, this.cardinality));
+            System.arraycopy(this.values, 0, copy.values, 0, this.cardinality);
+            copy.cardinality = this.cardinality;
+            return copy;
+        }
+
+        @Override
+        @Nonnull
+        long[] words() {
+            final long[] words = new long[WORDS];
+            orInto(words);
+            return words;
+        }
+
+        @Override
+        void orInto(@Nonnull final long[] words) {
+            for (int i = 0; i < this.cardinality; i++) {
+                words[this.values[i] >>> 6] |= 1L << this.values[i];
+            }
+        }
+
+        @Override
+        void clearFrom(@Nonnull final long[] words) {
+            for (int i = 0; i < this.cardinality; i++) {
+                words[this.values[i] >>> 6] &= ~(1L << this.values[i]);
+            }
+        }
+
+        @Override
+        int fill(final long high, final int from, @Nonnull final long[] groupIds, final int count) {
+            int index = Arrays.binarySearch(this.values, 0, this.cardinality, (char) from);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            int filled = count;
+            for (; index < this.cardinality && filled < groupIds.length; index++) {
+                groupIds[filled++] = high | this.values[index];
+            }
+            return filled;
+        }
+    }
+
+    private static class BitmapChunk extends Chunk {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapChunk(@Nonnull final long[] words, final int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean add(final int value) {
+            final long bit = 1L << value;
+            if ((this.words[value >>> 6] & bit) != 0) {
+                return false;
+            }
+            this.words[value >>> 6] |= bit;
+            this.cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean remove(final int value) {
+            final long bit = 1L << value;
+            if ((this.words[value >>> 6] & bit) == 0) {
+                return false;
+            }
+            this.words[value >>> 6] &= ~bit;
+            this.cardinality--;
+            return true;
+        }
+
+        @Override
+        boolean contains(final int value) {
+            return (this.words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        @Nonnull
+        Chunk copy() {
+            return new BitmapChunk(Arrays.copyOf(this.words, WORDS), this.cardinality);
+        }
+
+        @Override
+        @Nonnull
+        long[] words() {
+            return this.words;
+        }
+
+        @Override
+        void orInto(@Nonnull final long[] words) {
+            for (int i = 0; i < WORDS; i++) {
+                words[i] |= this.words[i];
+            }
+        }
+
+        @Override
+        void clearFrom(@Nonnull final long[] words) {
+            for (int i = 0; i < WORDS; i++) {
+                words[i] &= ~this.words[i];
+            }
+        }
+
+        @Override
+        int fill(final long high, final int from, @Nonnull final long[] groupIds, final int count) {
+            int filled = count;
+            int index = from >>> 6;
+            // Skip the values below the starting value within the first word.
+            long word = this.words[index] & (-1L << from);
+            while (filled < groupIds.length) {
+                while (word == 0) {
+                    if (++index == WORDS) {
+                        return filled;
+                    }
+                    word = this.words[index];
+                }
+                groupIds[filled++] = high | ((index << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+            return filled;
+        }
+    }
+}
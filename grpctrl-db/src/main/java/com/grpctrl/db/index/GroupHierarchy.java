@@ -0,0 +1,507 @@
+package com.grpctrl.db.index;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An in-memory index of the parent/child relationships between the groups owned by a single account. The adjacency
+ * information is kept in primitive arrays (a parent pointer plus a doubly-linked list of children for each group)
+ * along with the cached depth of each group, so depth checks, ancestor lookups and subtree walks are memory operations
+ * proportional to the depth or size of the result instead of database round trips. Top-level groups have a depth of 1.
+ * The children of each group are walked in the order they were added to the hierarchy.
+ */
+public class GroupHierarchy {
+    private static final int NONE = -1;
+
+    @Nonnull
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    @Nonnull
+    private final LongIntHashMap slots;
+
+    private long[] ids;
+    private int[] parents;
+    private int[] depths;
+    private int[] firstChild;
+    private int[] lastChild;
+    private int[] nextSibling;
+    private int[] prevSibling;
+
+    // The high-water mark of allocated slots, and the head of the list of slots released by removals.
+    private int allocated = 0;
+    private int free = NONE;
+
+    /**
+     * Create an empty hierarchy.
+     */
+    public GroupHierarchy() {
+        this(16);
+    }
+
+    /**
+     * @param expected the expected number of groups to be stored in the hierarchy
+     */
+    public GroupHierarchy(final int expected) {
+        final int capacity = Math.max(16, expected);
+        this.slots = new LongIntHashMap(capacity);
+        this.ids = new long[capacity];
+        this.parents = new int[capacity];
+        this.depths = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.lastChild = new int[capacity];
+        this.nextSibling = new int[capacity];
+        this.prevSibling = new int[capacity];
+    }
+
+    /**
+     * Build a hierarchy from a complete set of group relationships, typically loaded from the database, where the
+     * groups may be provided in any order.
+     *
+     * @param groupIds the unique identifiers of the groups
+     * @param parentIds the parent identifiers of the groups, aligned with {@code groupIds}, where zero indicates a
+     *     top-level group
+     * @param count the number of valid entries in the provided arrays
+     *
+     * @return the populated hierarchy
+     *
+     * @throws IllegalArgumentException if a parent is not included in the provided groups
+     */
+    @Nonnull
+    public static GroupHierarchy of(@Nonnull final long[] groupIds, @Nonnull final long[] parentIds, final int count) {
+        final GroupHierarchy hierarchy = new GroupHierarchy(count);
+        for (int i = 0; i < count; i++) {
+            hierarchy.allocate(groupIds[i]);
+        }
+        for (int i = 0; i < count; i++) {
+            if (parentIds[i] != 0) {
+                final int parent = hierarchy.slots.get(parentIds[i], NONE);
+                if (parent == NONE) {
+                    throw new IllegalArgumentException("Parent group " + parentIds[i] + " is not in the hierarchy");
+                }
+                hierarchy.link(hierarchy.slots.get(groupIds[i], NONE), parent);
+            }
+        }
+        for (int slot = 0; slot < hierarchy.allocated; slot++) {
+            if (hierarchy.parents[slot] == NONE) {
+                hierarchy.depths[slot] = 1;
+                hierarchy.walk(slot, hierarchy::updateDepth);
+            }
+        }
+        return hierarchy;
+    }
+
+    /**
+     * @return the number of groups in this hierarchy
+     */
+    public int size() {
+        this.lock.readLock().lock();
+        try {
+            return this.slots.size();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param groupId the unique identifier of the group to check
+     *
+     * @return whether the group exists in this hierarchy
+     */
+    public boolean contains(final long groupId) {
+        this.lock.readLock().lock();
+        try {
+            return this.slots.get(groupId, NONE) != NONE;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param groupId the unique identifier of the group for which the depth should be determined
+     *
+     * @return the depth of the group, where top-level groups have depth 1, or -1 if the group is not in the hierarchy
+     */
+    public int depth(final long groupId) {
+        this.lock.readLock().lock();
+        try {
+            final int slot = this.slots.get(groupId, NONE);
+            return slot == NONE ? -1 : this.depths[slot];
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param groupId the unique identifier of the group for which ancestors should be retrieved
+     *
+     * @return the identifiers of the ancestors of the group ordered from the direct parent up to the top-level group,
+     *     empty if the group is a top-level group or is not in the hierarchy
+     */
+    @Nonnull
+    public long[] ancestors(final long groupId) {
+        this.lock.readLock().lock();
+        try {
+            final int slot = this.slots.get(groupId, NONE);
+            if (slot == NONE) {
+                return new long[0];
+            }
+            final long[] ancestors = new long[this.depths[slot] - 1];
+            int parent = this.parents[slot];
+            for (int i = 0; parent != NONE; i++) {
+                ancestors[i] = this.ids[parent];
+                parent = this.parents[parent];
+            }
+            return ancestors;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walk the subtree rooted at the specified group in depth-first order, passing each descendant group identifier
+     * to the provided consumer. The root group itself is not included.
+     *
+     * @param groupId the unique identifier of the group at the root of the subtree to walk
+     * @param consumer the consumer to receive the identifiers of the descendant groups
+     *
+     * @return the number of descendant groups passed to the consumer
+     */
+    public int descendants(final long groupId, @Nonnull final LongConsumer consumer) {
+        this.lock.readLock().lock();
+        try {
+            final int slot = this.slots.get(groupId, NONE);
+            if (slot == NONE) {
+                return 0;
+            }
+            return walk(slot, child -> consumer.accept(this.ids[child]));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walk the subtree rooted at the specified group in depth-first order, down to a maximum number of levels below
+     * the group, passing each descendant group identifier to the provided consumer. The root group itself is not
+     * included.
+     *
+     * @param groupId the unique identifier of the group at the root of the subtree to walk
+     * @param levels the maximum number of levels below the root group to walk, or less than 1 to walk them all
+     * @param consumer the consumer to receive the identifiers of the descendant groups
+     *
+     * @return the number of descendant groups passed to the consumer
+     */
+    public int descendants(final long groupId, final int levels, @Nonnull final LongConsumer consumer) {
+        this.lock.readLock().lock();
+        try {
+            final int slot = this.slots.get(groupId, NONE);
+            if (slot == NONE) {
+                return 0;
+            }
+            return walk(slot, levels < 1 ? Integer.MAX_VALUE : levels, child -> consumer.accept(this.ids[child]));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Walk the subtrees rooted at the specified groups in turn, each in depth-first order and down to a maximum number
+     * of levels below its root, collecting the identifiers of up to a limited number of descendant groups. A walk can
+     * resume after any group returned by a previous walk of the same roots, so paging through a large subtree only
+     * visits the groups on each page. Groups below more than one of the roots are only returned once, with the first
+     * of those roots.
+     *
+     * @param rootIds the unique identifiers of the groups at the roots of the subtrees, in the order they are walked
+     * @param levels the maximum number of levels below the root groups to walk, or less than 1 to walk them all
+     * @param after the unique identifier of the group, returned by a previous walk, after which to resume the walk, or
+     *     zero to start with the first root
+     * @param limit the maximum number of group identifiers to return
+     *
+     * @return the identifiers of the descendant groups in the order they were walked
+     *
+     * @throws NullPointerException if the root identifiers are {@code null}
+     * @throws IllegalArgumentException if the group after which to resume is no longer below any of the roots
+     */
+    @Nonnull
+    public long[] descendants(@Nonnull final long[] rootIds, final int levels, final long after, final int limit) {
+        Objects.requireNonNull(rootIds);
+
+        final int walked = levels < 1 ? Integer.MAX_VALUE : levels;
+        this.lock.readLock().lock();
+        try {
+            // The position of each root in the walk, ignoring the roots that are repeated or not in the hierarchy.
+            final LongIntHashMap roots = new LongIntHashMap(rootIds.length);
+            final int[] rootSlots = new int[rootIds.length];
+            int count = 0;
+            for (final long rootId : rootIds) {
+                final int slot = this.slots.get(rootId, NONE);
+                if (slot != NONE && roots.get(rootId, NONE) == NONE) {
+                    roots.put(rootId, count);
+                    rootSlots[count++] = slot;
+                }
+            }
+
+            // A group was returned with the first of the roots it is below, so the walk resumes within that root.
+            int root = 0;
+            int current = NONE;
+            if (after != 0) {
+                current = this.slots.get(after, NONE);
+                root = current == NONE ? count : covering(current, roots, walked, count);
+                if (root == count) {
+                    throw new IllegalArgumentException("Group " + after + " is no longer below any of the roots");
+                }
+            }
+
+            long[] ids = new long[Math.min(limit, 16)];
+            int found = 0;
+            for (; root < count && found < limit; root++) {
+                current = current == NONE ? this.firstChild[rootSlots[root]]
+                        : next(rootSlots[root], current, walked, descend(current, roots, walked, root));
+                while (current != NONE && found < limit) {
+                    if (count == 1 || covering(current, roots, walked, count) == root) {
+                        if (found == ids.length) {
+                            ids = Arrays.copyOf(ids, (int) Math.min((long) ids.length << 1, limit));
+                        }
+                        ids[found++] = this.ids[current];
+                    }
+                    current = next(rootSlots[root], current, walked, descend(current, roots, walked, root));
+                }
+                current = NONE;
+            }
+            return found == ids.length ? ids : Arrays.copyOf(ids, found);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private boolean descend(final int slot, @Nonnull final LongIntHashMap roots, final int levels, final int root) {
+        // Every group below an earlier root was already returned with that root, unless the levels are limited.
+        final int index = roots.get(this.ids[slot], NONE);
+        return levels != Integer.MAX_VALUE || index == NONE || index >= root;
+    }
+
+    /**
+     * Add a new group to the hierarchy.
+     *
+     * @param groupId the unique identifier of the group to add
+     * @param parentId the unique identifier of the parent group, or {@code null} for a top-level group
+     *
+     * @return whether the group was added, which will be {@code false} only when the parent group is not in the
+     *     hierarchy
+     */
+    public boolean add(final long groupId, @Nullable final Long parentId) {
+        this.lock.writeLock().lock();
+        try {
+            int parent = NONE;
+            if (parentId != null) {
+                parent = this.slots.get(parentId, NONE);
+                if (parent == NONE) {
+                    return false;
+                }
+            }
+            final int existing = this.slots.get(groupId, NONE);
+            if (existing == NONE) {
+                final int slot = allocate(groupId);
+                if (parent != NONE) {
+                    link(slot, parent);
+                }
+                updateDepth(slot);
+            } else if (this.parents[existing] != parent) {
+                // Already known (possibly loaded after the insert), so just make sure the parent is correct.
+                unlink(existing);
+                if (parent != NONE) {
+                    link(existing, parent);
+                }
+                updateDepth(existing);
+                walk(existing, this::updateDepth);
+            }
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a group and all of its descendants from the hierarchy.
+     *
+     * @param groupId the unique identifier of the group to remove
+     *
+     * @return the total number of groups removed from the hierarchy
+     */
+    public int remove(final long groupId) {
+        this.lock.writeLock().lock();
+        try {
+            final int slot = this.slots.get(groupId, NONE);
+            if (slot == NONE) {
+                return 0;
+            }
+            unlink(slot);
+            // Release in post-order so the parent and sibling links stay valid until the children have been visited.
+            return releaseSubtree(slot);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    private int walk(final int root, @Nonnull final SlotConsumer consumer) {
+        return walk(root, Integer.MAX_VALUE, consumer);
+    }
+
+    private int walk(final int root, final int levels, @Nonnull final SlotConsumer consumer) {
+        // Iterative pre-order traversal using the sibling links, so deep trees do not exhaust the call stack. Parents
+        // are always visited before their children. The children of the groups at the last level are not visited.
+        int visited = 0;
+        int current = this.firstChild[root];
+        while (current != NONE) {
+            consumer.accept(current);
+            visited++;
+            current = next(root, current, levels, true);
+        }
+        return visited;
+    }
+
+    private int next(final int root, final int current, final int levels, final boolean descend) {
+        // The next group in pre-order within the subtree of the root, optionally skipping the children of the current.
+        int next = descend && this.depths[current] - this.depths[root] < levels ? this.firstChild[current] : NONE;
+        if (next == NONE) {
+            int climb = current;
+            while (climb != root && this.nextSibling[climb] == NONE) {
+                climb = this.parents[climb];
+            }
+            next = climb == root ? NONE : this.nextSibling[climb];
+        }
+        return next;
+    }
+
+    private int covering(final int slot, @Nonnull final LongIntHashMap roots, final int levels, final int missing) {
+        // The first of the roots that the group is below, within the levels walked below the roots.
+        int first = missing;
+        int ancestor = this.parents[slot];
+        for (int distance = 1; ancestor != NONE && distance <= levels; distance++) {
+            first = Math.min(first, roots.get(this.ids[ancestor], missing));
+            ancestor = this.parents[ancestor];
+        }
+        return first;
+    }
+
+    private int releaseSubtree(final int root) {
+        int released = 0;
+        int current = root;
+        while (true) {
+            while (this.firstChild[current] != NONE) {
+                current = this.firstChild[current];
+            }
+            final int parent = this.parents[current];
+            final int sibling = this.nextSibling[current];
+            final boolean done = current == root;
+            if (parent != NONE) {
+                this.firstChild[parent] = sibling;
+                if (sibling != NONE) {
+                    this.prevSibling[sibling] = NONE;
+                } else {
+                    this.lastChild[parent] = NONE;
+                }
+            }
+            release(current);
+            released++;
+            if (done) {
+                return released;
+            }
+            current = sibling != NONE ? sibling : parent;
+        }
+    }
+
+    private void updateDepth(final int slot) {
+        final int parent = this.parents[slot];
+        this.depths[slot] = parent == NONE ? 1 : this.depths[parent] + 1;
+    }
+
+    private int allocate(final long groupId) {
+        final int slot;
+        if (this.free != NONE) {
+            slot = this.free;
+            this.free = this.nextSibling[slot];
+        } else {
+            if (this.allocated == this.ids.length) {
+                grow();
+            }
+            slot = this.allocated++;
+        }
+        this.ids[slot] = groupId;
+        this.parents[slot] = NONE;
+        this.depths[slot] = 1;
+        this.firstChild[slot] = NONE;
+        this.lastChild[slot] = NONE;
+        this.nextSibling[slot] = NONE;
+        this.prevSibling[slot] = NONE;
+        this.slots.put(groupId, slot);
+        return slot;
+    }
+
+    private void release(final int slot) {
+        this.slots.remove(this.ids[slot]);
+        this.ids[slot] = 0;
+        this.parents[slot] = NONE;
+        this.firstChild[slot] = NONE;
+        this.lastChild[slot] = NONE;
+        this.prevSibling[slot] = NONE;
+        this.nextSibling[slot] = this.free;
+        this.free = slot;
+    }
+
+    private void link(final int slot, final int parent) {
+        // Appended, so the children are walked in the order they were added.
+        this.parents[slot] = parent;
+        this.prevSibling[slot] = this.lastChild[parent];
+        this.nextSibling[slot] = NONE;
+        if (this.lastChild[parent] != NONE) {
+            this.nextSibling[this.lastChild[parent]] = slot;
+        } else {
+            this.firstChild[parent] = slot;
+        }
+        this.lastChild[parent] = slot;
+    }
+
+    private void unlink(final int slot) {
+        final int parent = this.parents[slot];
+        if (parent == NONE) {
+            return;
+        }
+        if (this.prevSibling[slot] != NONE) {
+            this.nextSibling[this.prevSibling[slot]] = this.nextSibling[slot];
+        } else {
+            this.firstChild[parent] = this.nextSibling[slot];
+        }
+        if (this.nextSibling[slot] != NONE) {
+            this.prevSibling[this.nextSibling[slot]] = this.prevSibling[slot];
+        } else {
+            this.lastChild[parent] = this.prevSibling[slot];
+        }
+        this.parents[slot] = NONE;
+        this.nextSibling[slot] = NONE;
+        this.prevSibling[slot] = NONE;
+    }
+
+    private void grow() {
+        final int capacity = this.ids.length << 1;
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.parents = Arrays.copyOf(this.parents, capacity);
+        this.depths = Arrays.copyOf(this.depths, capacity);
+        this.firstChild = Arrays.copyOf(this.firstChild, capacity);
+        this.lastChild = Arrays.copyOf(this.lastChild, capacity);
+        this.nextSibling = Arrays.copyOf(this.nextSibling, capacity);
+        this.prevSibling = Arrays.copyOf(this.prevSibling, capacity);
+    }
+
+    /**
+     * Receives the internal slot of a group during a walk of the hierarchy.
+     */
+    @FunctionalInterface
+    private interface SlotConsumer {
+        void accept(int slot);
+    }
+}
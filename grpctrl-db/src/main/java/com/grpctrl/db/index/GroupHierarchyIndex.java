@@ -0,0 +1,15 @@
+package com.grpctrl.db.index;
+
+/**
+ * Maintains the {@link GroupHierarchy} objects for each account. Hierarchies are populated lazily the first time an
+ * account needs one, and are dropped (to be reloaded on next use) whenever they may no longer match the database.
+ */
+public class GroupHierarchyIndex extends AccountIndexCache<GroupHierarchy> {
+    /**
+     * @param size the maximum number of accounts whose hierarchies are held
+     * @param ttl how long, in milliseconds, a hierarchy is held after it was last used
+     */
+    public GroupHierarchyIndex(final long size, final long ttl) {
+        super(size, ttl);
+    }
+}
@@ -0,0 +1,104 @@
+package com.grpctrl.db.index;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nonnull;
+
+/**
+ * An in-memory trigram index of the names of the groups owned by a single account. Each sequence of three characters
+ * in the lower-cased group names maps to a {@link GroupBitmap} of the groups having that sequence in their name, so
+ * the groups that might match a regular expression can be found from the literals the expression requires, before
+ * the expression itself is evaluated by the database.
+ *
+ * <p>The index only needs to hold a superset of the groups, so groups that are removed, or that were added in a
+ * transaction that failed, may be left in the index without affecting the results.</p>
+ */
+public class GroupNameIndex {
+    private static final int TRIGRAM = 3;
+
+    @Nonnull
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    @Nonnull
+    private final Map<Long, GroupBitmap> trigrams = new HashMap<>();
+
+    /**
+     * @param groupId the unique identifier of the group
+     * @param name the name of the group
+     *
+     * @throws NullPointerException if the name parameter is {@code null}
+     * @throws IllegalArgumentException if the group identifier is negative
+     */
+    public void add(final long groupId, @Nonnull final String name) {
+        final String lower = Objects.requireNonNull(name).toLowerCase(Locale.ENGLISH);
+
+        this.lock.writeLock().lock();
+        try {
+            for (int i = 0; i + TRIGRAM <= lower.length(); i++) {
+                this.trigrams.computeIfAbsent(trigram(lower, i), key -> new GroupBitmap()).add(groupId);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Determine the groups whose names may match any of the provided regular expressions.
+     *
+     * @param regexes the regular expressions to be matched against the group names
+     *
+     * @return the groups that may match any of the expressions, which are then to be evaluated by the database, or
+     *     empty when the groups cannot be narrowed down because one of the expressions does not require a literal of
+     *     at least three characters
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    public Optional<GroupBitmap> candidates(@Nonnull final Collection<String> regexes) {
+        Objects.requireNonNull(regexes);
+        if (regexes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        this.lock.readLock().lock();
+        try {
+            GroupBitmap candidates = new GroupBitmap();
+            for (final String regex : regexes) {
+                final Optional<GroupBitmap> matched = candidates(RegexLiterals.required(regex));
+                if (!matched.isPresent()) {
+                    return Optional.empty();
+                }
+                candidates = GroupBitmap.or(candidates, matched.get());
+            }
+            return Optional.of(candidates);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Nonnull
+    private Optional<GroupBitmap> candidates(@Nonnull final List<String> literals) {
+        GroupBitmap matched = null;
+        for (final String literal : literals) {
+            for (int i = 0; i + TRIGRAM <= literal.length(); i++) {
+                final GroupBitmap groups = this.trigrams.get(trigram(literal, i));
+                if (groups == null) {
+                    return Optional.of(new GroupBitmap());
+                }
+                matched = matched == null ? groups.copy() : GroupBitmap.and(matched, groups);
+            }
+        }
+        return Optional.ofNullable(matched);
+    }
+
+    private static long trigram(@Nonnull final String text, final int start) {
+        return (long) text.charAt(start) << 32 | (long) text.charAt(start + 1) << 16 | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,15 @@
+package com.grpctrl.db.index;
+
+/**
+ * Maintains the {@link GroupNameIndex} objects for each account. Indexes are populated lazily the first time an account
+ * needs one, and are dropped (to be reloaded on next use) whenever they may no longer match the database.
+ */
+public class GroupNameIndexCache extends AccountIndexCache<GroupNameIndex> {
+    /**
+     * @param size the maximum number of accounts whose indexes are held
+     * @param ttl how long, in milliseconds, an index is held after it was last used
+     */
+    public GroupNameIndexCache(final long size, final long ttl) {
+        super(size, ttl);
+    }
+}
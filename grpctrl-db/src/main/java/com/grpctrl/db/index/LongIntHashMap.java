@@ -0,0 +1,152 @@
+package com.grpctrl.db.index;
+
+import java.util.Arrays;
+
+/**
+ * A minimal open-addressing hash map from primitive {@code long} keys to primitive {@code int} values, used by the
+ * in-memory indexes to avoid boxing group identifiers. Keys must be non-zero since zero marks an empty slot. This
+ * class is not thread-safe.
+ */
+class LongIntHashMap {
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size = 0;
+    private int threshold;
+
+    /**
+     * @param expected the expected number of entries to be stored in the map
+     */
+    LongIntHashMap(final int expected) {
+        allocate(capacityFor(expected));
+    }
+
+    /**
+     * @return the number of entries stored in the map
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @param key the key to find
+     * @param missing the value to return when the key is not present in the map
+     *
+     * @return the value associated with the key, or the {@code missing} value if the key is not in the map
+     */
+    int get(final long key, final int missing) {
+        int slot = slot(key);
+        while (this.keys[slot] != 0) {
+            if (this.keys[slot] == key) {
+                return this.values[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return missing;
+    }
+
+    /**
+     * @param key the non-zero key to store
+     * @param value the value to associate with the key
+     *
+     * @throws IllegalArgumentException if the key is zero
+     */
+    void put(final long key, final int value) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Zero is not a supported key");
+        }
+        int slot = slot(key);
+        while (this.keys[slot] != 0) {
+            if (this.keys[slot] == key) {
+                this.values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        if (++this.size > this.threshold) {
+            rehash(this.keys.length << 1);
+        }
+    }
+
+    /**
+     * @param key the key to remove from the map
+     *
+     * @return whether the key was found and removed
+     */
+    boolean remove(final long key) {
+        int slot = slot(key);
+        while (this.keys[slot] != 0) {
+            if (this.keys[slot] == key) {
+                shiftBack(slot);
+                this.size--;
+                return true;
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return false;
+    }
+
+    /**
+     * Remove all entries from the map.
+     */
+    void clear() {
+        Arrays.fill(this.keys, 0);
+        this.size = 0;
+    }
+
+    private void shiftBack(final int removed) {
+        // Backward-shift deletion keeps linear probe chains intact without tombstones.
+        int gap = removed;
+        int slot = removed;
+        while (true) {
+            slot = (slot + 1) & this.mask;
+            final long key = this.keys[slot];
+            if (key == 0) {
+                break;
+            }
+            final int home = slot(key);
+            if (((slot - home) & this.mask) >= ((slot - gap) & this.mask)) {
+                this.keys[gap] = key;
+                this.values[gap] = this.values[slot];
+                gap = slot;
+            }
+        }
+        this.keys[gap] = 0;
+    }
+
+    private int slot(final long key) {
+        final long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & this.mask;
+    }
+
+    private void rehash(final int capacity) {
+        final long[] oldKeys = this.keys;
+        final int[] oldValues = this.values;
+        allocate(capacity);
+        this.size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(final int expected) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR <= expected) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
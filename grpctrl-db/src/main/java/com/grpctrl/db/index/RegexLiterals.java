@@ -0,0 +1,186 @@
+package com.grpctrl.db.index;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Extracts the literal text that must appear in any string matched by a PostgreSQL regular expression. The extraction
+ * is conservative: it only needs to find text that is guaranteed to be present, so any construct it does not fully
+ * understand simply ends the current literal, and expressions using alternation or embedded options at the top level
+ * produce no literals at all. The literals are lower case, so they can be checked against lower-cased names for both
+ * case sensitive and case insensitive searches.
+ */
+public final class RegexLiterals {
+    private RegexLiterals() {
+    }
+
+    /**
+     * @param regex the regular expression from which literals are to be extracted
+     *
+     * @return the lower-case literals that must all be present in any string matched by the expression, possibly
+     *     empty when no literals could be determined
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    public static List<String> required(@Nonnull final String regex) {
+        Objects.requireNonNull(regex);
+        if (regex.startsWith("***") || regex.contains("(?")) {
+            // Directors and embedded options can change how the rest of the expression is interpreted.
+            return Collections.emptyList();
+        }
+
+        final List<String> literals = new ArrayList<>();
+        final StringBuilder current = new StringBuilder();
+        boolean lastLiteral = false;
+        int pos = 0;
+        while (pos < regex.length()) {
+            final char ch = regex.charAt(pos);
+            if (ch == '|') {
+                // One of the alternatives may match without any of the literals.
+                return Collections.emptyList();
+            } else if (ch == '*' || ch == '?' || ch == '{') {
+                if (lastLiteral && (ch != '{' || isZeroBound(regex, pos + 1))) {
+                    // The preceding literal character is optional.
+                    current.setLength(current.length() - 1);
+                }
+                end(literals, current);
+                lastLiteral = false;
+                pos = ch == '{' ? skipBound(regex, pos) : pos + 1;
+            } else if (ch == '(') {
+                end(literals, current);
+                lastLiteral = false;
+                pos = skipGroup(regex, pos);
+            } else if (ch == '[') {
+                end(literals, current);
+                lastLiteral = false;
+                pos = skipBracket(regex, pos);
+            } else if (ch == '\\' && pos + 1 < regex.length()) {
+                final char escaped = regex.charAt(pos + 1);
+                if (isLiteral(escaped) && !Character.isLetterOrDigit(escaped)) {
+                    current.append(escaped);
+                    lastLiteral = true;
+                    pos += 2;
+                } else {
+                    // Class shorthands, back references, anchors and character entry escapes, whose operands must not
+                    // be mistaken for literal text.
+                    end(literals, current);
+                    lastLiteral = false;
+                    pos = skipEscape(regex, pos);
+                }
+            } else if (isLiteral(ch) && ".^$+})]".indexOf(ch) < 0) {
+                current.append(ch);
+                lastLiteral = true;
+                pos++;
+            } else {
+                end(literals, current);
+                lastLiteral = false;
+                pos++;
+            }
+        }
+        end(literals, current);
+        return literals;
+    }
+
+    private static boolean isLiteral(final char ch) {
+        // Only printable ASCII is considered, so lower-casing is consistent with the database.
+        return ch >= ' ' && ch < 0x7f;
+    }
+
+    private static int skipEscape(@Nonnull final String regex, final int start) {
+        final char escaped = regex.charAt(start + 1);
+        final int pos = start + 2;
+        if (escaped == 'x') {
+            // Any number of hexadecimal digits.
+            return skipDigits(regex, pos, Integer.MAX_VALUE, 16);
+        } else if (escaped == 'u') {
+            return skipDigits(regex, pos, 4, 16);
+        } else if (escaped == 'U') {
+            return skipDigits(regex, pos, 8, 16);
+        } else if (escaped == 'c') {
+            // The control character is named by the following character.
+            return Math.min(pos + 1, regex.length());
+        } else if (Character.isDigit(escaped)) {
+            // Octal escapes and back references, where the number of digits depends on the preceding groups.
+            return skipDigits(regex, pos, Integer.MAX_VALUE, 10);
+        }
+        return pos;
+    }
+
+    private static int skipDigits(@Nonnull final String regex, final int start, final int max, final int radix) {
+        int pos = start;
+        while (pos < regex.length() && pos - start < max && Character.digit(regex.charAt(pos), radix) >= 0) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isZeroBound(@Nonnull final String regex, final int pos) {
+        return pos < regex.length() && regex.charAt(pos) == '0'
+                && (pos + 1 == regex.length() || !Character.isDigit(regex.charAt(pos + 1)));
+    }
+
+    private static int skipBound(@Nonnull final String regex, final int start) {
+        final int close = regex.indexOf('}', start);
+        return close < 0 ? regex.length() : close + 1;
+    }
+
+    private static int skipGroup(@Nonnull final String regex, final int start) {
+        int depth = 0;
+        int pos = start;
+        while (pos < regex.length()) {
+            final char ch = regex.charAt(pos);
+            if (ch == '\\') {
+                pos = pos + 1 < regex.length() ? skipEscape(regex, pos) : regex.length();
+                continue;
+            } else if (ch == '[') {
+                pos = skipBracket(regex, pos);
+                continue;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')' && --depth == 0) {
+                return pos + 1;
+            }
+            pos++;
+        }
+        return pos;
+    }
+
+    private static int skipBracket(@Nonnull final String regex, final int start) {
+        int pos = start + 1;
+        if (pos < regex.length() && regex.charAt(pos) == '^') {
+            pos++;
+        }
+        if (pos < regex.length() && regex.charAt(pos) == ']') {
+            // A leading closing bracket is part of the bracket expression.
+            pos++;
+        }
+        while (pos < regex.length()) {
+            final char ch = regex.charAt(pos);
+            if (ch == '\\') {
+                pos = pos + 1 < regex.length() ? skipEscape(regex, pos) : regex.length();
+            } else if (ch == '[' && pos + 1 < regex.length() && ":.=".indexOf(regex.charAt(pos + 1)) >= 0) {
+                // Character classes, collating elements and equivalence classes end with the same delimiter.
+                final int close = regex.indexOf(regex.charAt(pos + 1) + "]", pos + 2);
+                pos = close < 0 ? regex.length() : close + 2;
+            } else if (ch == ']') {
+                return pos + 1;
+            } else {
+                pos++;
+            }
+        }
+        return pos;
+    }
+
+    private static void end(@Nonnull final List<String> literals, @Nonnull final StringBuilder current) {
+        if (current.length() > 0) {
+            literals.add(current.toString().toLowerCase(Locale.ENGLISH));
+            current.setLength(0);
+        }
+    }
+}
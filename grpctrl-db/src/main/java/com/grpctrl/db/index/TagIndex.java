@@ -0,0 +1,243 @@
+package com.grpctrl.db.index;
+
+import com.grpctrl.db.selector.TagSelector;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.Nonnull;
+
+/**
+ * An in-memory inverted index of the tags assigned to the groups owned by a single account. Each tag label maps to
+ * the values it has been assigned, and each value maps to a {@link GroupBitmap} of the groups having that tag, so a
+ * {@link TagSelector} can be evaluated with bitmap operations instead of database queries.
+ */
+public class TagIndex {
+    @Nonnull
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    @Nonnull
+    private final Map<String, Map<String, GroupBitmap>> labels = new HashMap<>();
+
+    /**
+     * @param groupId the unique identifier of the group to which the tag is assigned
+     * @param label the label of the tag
+     * @param value the value of the tag
+     *
+     * @throws NullPointerException if the label or value parameters are {@code null}
+     * @throws IllegalArgumentException if the group identifier is negative
+     */
+    public void add(final long groupId, @Nonnull final String label, @Nonnull final String value) {
+        Objects.requireNonNull(label);
+        Objects.requireNonNull(value);
+
+        this.lock.writeLock().lock();
+        try {
+            this.labels.computeIfAbsent(label, l -> new HashMap<>()).computeIfAbsent(value, v -> new GroupBitmap())
+                    .add(groupId);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param groupId the unique identifier of the group from which the tag is removed
+     * @param label the label of the tag
+     * @param value the value of the tag
+     *
+     * @throws NullPointerException if the label or value parameters are {@code null}
+     */
+    public void remove(final long groupId, @Nonnull final String label, @Nonnull final String value) {
+        Objects.requireNonNull(label);
+        Objects.requireNonNull(value);
+
+        this.lock.writeLock().lock();
+        try {
+            final Map<String, GroupBitmap> values = this.labels.get(label);
+            if (values != null) {
+                final GroupBitmap groups = values.get(value);
+                if (groups != null && groups.remove(groupId) && groups.isEmpty()) {
+                    values.remove(value);
+                    if (values.isEmpty()) {
+                        this.labels.remove(label);
+                    }
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param groupId the unique identifier of the group from which the tags are removed
+     * @param label the label of the tags to remove from the group, regardless of their values
+     *
+     * @throws NullPointerException if the label parameter is {@code null}
+     */
+    public void removeLabel(final long groupId, @Nonnull final String label) {
+        Objects.requireNonNull(label);
+
+        this.lock.writeLock().lock();
+        try {
+            final Map<String, GroupBitmap> values = this.labels.get(label);
+            if (values != null) {
+                final Iterator<GroupBitmap> iter = values.values().iterator();
+                while (iter.hasNext()) {
+                    final GroupBitmap groups = iter.next();
+                    if (groups.remove(groupId) && groups.isEmpty()) {
+                        iter.remove();
+                    }
+                }
+                if (values.isEmpty()) {
+                    this.labels.remove(label);
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Determine the groups matched by a selector.
+     *
+     * @param selector the selector to evaluate
+     *
+     * @return the groups matched by the selector
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    public Selection select(@Nonnull final TagSelector selector) {
+        Objects.requireNonNull(selector);
+
+        this.lock.readLock().lock();
+        try {
+            return selector.accept(new Evaluator());
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The groups matched by a selector. Since the index only knows about groups that have tags, a selector that
+     * negates its tags (such as {@code NOT env = prod}) cannot list the groups it matches. Instead, the selection
+     * holds the groups that are not matched, and is marked as a complement: the matched groups are then all of the
+     * groups owned by the account except for those in the bitmap.
+     */
+    public static final class Selection {
+        @Nonnull
+        private final GroupBitmap groups;
+        private final boolean complement;
+
+        /**
+         * @param groups the groups matched by the selector, or not matched when this is a complement
+         * @param complement whether the bitmap holds the groups that are not matched by the selector
+         *
+         * @throws NullPointerException if the groups parameter is {@code null}
+         */
+        public Selection(@Nonnull final GroupBitmap groups, final boolean complement) {
+            this.groups = Objects.requireNonNull(groups);
+            this.complement = complement;
+        }
+
+        /**
+         * @return the groups matched by the selector, or the groups not matched when this is a complement
+         */
+        @Nonnull
+        public GroupBitmap getGroups() {
+            return this.groups;
+        }
+
+        /**
+         * @return whether the bitmap holds the groups that are not matched by the selector
+         */
+        public boolean isComplement() {
+            return this.complement;
+        }
+
+        @Nonnull
+        private Selection not() {
+            return new Selection(this.groups, !this.complement);
+        }
+
+        @Nonnull
+        private Selection and(@Nonnull final Selection other) {
+            if (!this.complement && !other.complement) {
+                return new Selection(GroupBitmap.and(this.groups, other.groups), false);
+            } else if (!this.complement) {
+                return new Selection(GroupBitmap.andNot(this.groups, other.groups), false);
+            } else if (!other.complement) {
+                return new Selection(GroupBitmap.andNot(other.groups, this.groups), false);
+            }
+            // Neither A nor B is the same as not (A or B).
+            return new Selection(GroupBitmap.or(this.groups, other.groups), true);
+        }
+
+        @Nonnull
+        private Selection or(@Nonnull final Selection other) {
+            if (!this.complement && !other.complement) {
+                return new Selection(GroupBitmap.or(this.groups, other.groups), false);
+            } else if (!this.complement) {
+                // A or not B is the same as not (B and not A).
+                return new Selection(GroupBitmap.andNot(other.groups, this.groups), true);
+            } else if (!other.complement) {
+                return new Selection(GroupBitmap.andNot(this.groups, other.groups), true);
+            }
+            // Not A or not B is the same as not (A and B).
+            return new Selection(GroupBitmap.and(this.groups, other.groups), true);
+        }
+    }
+
+    /**
+     * Evaluates selectors against the index, producing new bitmaps so the results remain valid after the read lock is
+     * released.
+     */
+    private class Evaluator implements TagSelector.Visitor<Selection> {
+        @Override
+        @Nonnull
+        public Selection visitEqual(@Nonnull final String label, @Nonnull final String value) {
+            final GroupBitmap groups = TagIndex.this.labels.getOrDefault(label, new HashMap<>()).get(value);
+            return new Selection(groups == null ? new GroupBitmap() : groups.copy(), false);
+        }
+
+        @Override
+        @Nonnull
+        public Selection visitExists(@Nonnull final String label) {
+            GroupBitmap groups = new GroupBitmap();
+            for (final GroupBitmap valueGroups : TagIndex.this.labels.getOrDefault(label, new HashMap<>()).values()) {
+                groups = GroupBitmap.or(groups, valueGroups);
+            }
+            return new Selection(groups, false);
+        }
+
+        @Override
+        @Nonnull
+        public Selection visitAnd(@Nonnull final List<TagSelector> selectors) {
+            Selection selection = selectors.get(0).accept(this);
+            for (int i = 1; i < selectors.size(); i++) {
+                selection = selection.and(selectors.get(i).accept(this));
+            }
+            return selection;
+        }
+
+        @Override
+        @Nonnull
+        public Selection visitOr(@Nonnull final List<TagSelector> selectors) {
+            Selection selection = selectors.get(0).accept(this);
+            for (int i = 1; i < selectors.size(); i++) {
+                selection = selection.or(selectors.get(i).accept(this));
+            }
+            return selection;
+        }
+
+        @Override
+        @Nonnull
+        public Selection visitNot(@Nonnull final TagSelector selector) {
+            return selector.accept(this).not();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.grpctrl.db.index;
+
+/**
+ * Maintains the {@link TagIndex} objects for each account. Indexes are populated lazily the first time an account
+ * needs one, and are dropped (to be reloaded on next use) whenever they may no longer match the database.
+ */
+public class TagIndexCache extends AccountIndexCache<TagIndex> {
+    /**
+     * @param size the maximum number of accounts whose indexes are held
+     * @param ttl how long, in milliseconds, an index is held after it was last used
+     */
+    public TagIndexCache(final long size, final long ttl) {
+        super(size, ttl);
+    }
+}
@@ -0,0 +1,82 @@
+package com.grpctrl.db.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.grpctrl.common.model.Account;
+
+import java.io.IOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Writes account rows from a {@link ResultSet} straight to a {@link JsonGenerator}, producing the same JSON as
+ * serializing an {@link Account} with the object mapper without creating any model objects for the rows.
+ */
+public final class AccountJsonWriter {
+    /**
+     * The columns read by {@link #write(ResultSet, JsonGenerator)}, which must be the first columns selected by the
+     * query, from the {@code accounts} table with the alias {@code a} and the {@code service_levels} table with the
+     * alias {@code s}.
+     */
+    public static final String COLUMNS = "a.account_id, a.name, s.max_groups, s.max_tags, s.max_depth";
+
+    private static final int ACCOUNT_ID = 1;
+    private static final int NAME = 2;
+    private static final int MAX_GROUPS = 3;
+    private static final int MAX_TAGS = 4;
+    private static final int MAX_DEPTH = 5;
+
+    private static final SerializableString ID_FIELD = new SerializedString("id");
+    private static final SerializableString NAME_FIELD = new SerializedString("name");
+    private static final SerializableString SERVICE_LEVEL_FIELD = new SerializedString("serviceLevel");
+    private static final SerializableString MAX_GROUPS_FIELD = new SerializedString("maxGroups");
+    private static final SerializableString MAX_TAGS_FIELD = new SerializedString("maxTags");
+    private static final SerializableString MAX_DEPTH_FIELD = new SerializedString("maxDepth");
+
+    private AccountJsonWriter() {
+    }
+
+    /**
+     * @param rs the result set positioned on the account row to write, selected with the {@link #COLUMNS}
+     *
+     * @return the unique identifier of the account in the current row
+     *
+     * @throws SQLException if there is a problem reading the row
+     */
+    public static long getAccountId(@Nonnull final ResultSet rs) throws SQLException {
+        return rs.getLong(ACCOUNT_ID);
+    }
+
+    /**
+     * Write the account in the current row of the result set as a JSON object.
+     *
+     * @param rs the result set positioned on the account row to write, selected with the {@link #COLUMNS}
+     * @param generator the generator to which the account is written
+     *
+     * @throws SQLException if there is a problem reading the row
+     * @throws IOException if there is a problem writing the JSON data
+     */
+    public static void write(@Nonnull final ResultSet rs, @Nonnull final JsonGenerator generator)
+            throws SQLException, IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID_FIELD);
+        generator.writeNumber(rs.getLong(ACCOUNT_ID));
+        generator.writeFieldName(NAME_FIELD);
+        generator.writeString(rs.getString(NAME));
+
+        generator.writeFieldName(SERVICE_LEVEL_FIELD);
+        generator.writeStartObject();
+        generator.writeFieldName(MAX_GROUPS_FIELD);
+        generator.writeNumber(rs.getInt(MAX_GROUPS));
+        generator.writeFieldName(MAX_TAGS_FIELD);
+        generator.writeNumber(rs.getInt(MAX_TAGS));
+        generator.writeFieldName(MAX_DEPTH_FIELD);
+        generator.writeNumber(rs.getInt(MAX_DEPTH));
+        generator.writeEndObject();
+
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,74 @@
+package com.grpctrl.db.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Writes the groups streamed by the group DAOs straight to a {@link JsonGenerator}, producing the same JSON as
+ * serializing a {@link Group} with the object mapper without copying the group or its tags.
+ */
+public final class GroupJsonWriter {
+    private static final SerializableString ID_FIELD = new SerializedString("id");
+    private static final SerializableString PARENT_ID_FIELD = new SerializedString("parentId");
+    private static final SerializableString NAME_FIELD = new SerializedString("name");
+    private static final SerializableString TAGS_FIELD = new SerializedString("tags");
+    private static final SerializableString LABEL_FIELD = new SerializedString("label");
+    private static final SerializableString VALUE_FIELD = new SerializedString("value");
+
+    private GroupJsonWriter() {
+    }
+
+    /**
+     * Write the group, along with its tags, as a JSON object.
+     *
+     * @param group the group to write
+     * @param tagIterator the iterator providing the tags of the group, which are written as they are retrieved
+     * @param generator the generator to which the group is written
+     *
+     * @throws IOException if there is a problem writing the JSON data
+     */
+    public static void write(
+            @Nonnull final Group group, @Nonnull final Iterator<Tag> tagIterator,
+            @Nonnull final JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID_FIELD);
+        writeId(group.getId(), generator);
+        generator.writeFieldName(PARENT_ID_FIELD);
+        writeId(group.getParentId(), generator);
+        generator.writeFieldName(NAME_FIELD);
+        generator.writeString(group.getName());
+
+        generator.writeFieldName(TAGS_FIELD);
+        generator.writeStartArray();
+        while (tagIterator.hasNext()) {
+            final Tag tag = tagIterator.next();
+            generator.writeStartObject();
+            generator.writeFieldName(LABEL_FIELD);
+            generator.writeString(tag.getLabel());
+            generator.writeFieldName(VALUE_FIELD);
+            generator.writeString(tag.getValue());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+    private static void writeId(@Nonnull final Optional<Long> id, @Nonnull final JsonGenerator generator)
+            throws IOException {
+        if (id.isPresent()) {
+            generator.writeNumber(id.get());
+        } else {
+            generator.writeNull();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.grpctrl.db.page;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Describes a single page of results to be retrieved: the maximum number of results to include, and the continuation
+ * token from the previous page, if any, indicating where this page begins.
+ */
+public class Page {
+    @Nullable
+    private final PageToken after;
+    private final int limit;
+
+    /**
+     * @param limit the maximum number of results to include in the first page
+     *
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public Page(final int limit) {
+        this(limit, null);
+    }
+
+    /**
+     * @param limit the maximum number of results to include in the page
+     * @param after the continuation token returned with the previous page, possibly {@code null} to retrieve the first
+     *     page
+     *
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public Page(final int limit, @Nullable final PageToken after) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Invalid page limit, it must be positive: " + limit);
+        }
+        this.limit = limit;
+        this.after = after;
+    }
+
+    /**
+     * @return a page that includes all of the available results
+     */
+    @Nonnull
+    public static Page all() {
+        return new Page(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the maximum number of results to include in the page
+     */
+    public int getLimit() {
+        return this.limit;
+    }
+
+    /**
+     * @return the continuation token returned with the previous page, if any
+     */
+    @Nonnull
+    public Optional<PageToken> getAfter() {
+        return Optional.ofNullable(this.after);
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+        final ToStringBuilder str = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        str.append("limit", getLimit());
+        str.append("after", this.after);
+        return str.build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.grpctrl.db.page;
+
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.Objects;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * A continuation token identifying the position after which the next page of results begins. Results are ordered by
+ * their primary key, so the token records the account that owns the results along with the last identifier that was
+ * returned, and the next page is retrieved with a keyset predicate instead of an offset. Tokens are shared with
+ * clients in an opaque encoded form.
+ */
+public class PageToken {
+    private static final int ENCODED_BYTES = Long.BYTES * 2;
+
+    private final long accountId;
+    private final long id;
+
+    /**
+     * @param accountId the unique identifier of the account that owns the paged results, or the last account returned
+     *     when paging through accounts
+     * @param id the unique identifier of the last group returned in the previous page, or zero when paging through
+     *     accounts
+     */
+    public PageToken(final long accountId, final long id) {
+        this.accountId = accountId;
+        this.id = id;
+    }
+
+    /**
+     * @return the unique identifier of the account that owns the paged results
+     */
+    public long getAccountId() {
+        return this.accountId;
+    }
+
+    /**
+     * @return the unique identifier of the last result returned in the previous page
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * @return the opaque encoded form of this token to be shared with clients
+     */
+    @Nonnull
+    public String encode() {
+        final ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES);
+        buffer.putLong(this.accountId);
+        buffer.putLong(this.id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * @param encoded the opaque encoded form of a token, as produced by {@link #encode()}
+     *
+     * @return the decoded token
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     * @throws IllegalArgumentException if the parameter is not a valid encoded token
+     */
+    @Nonnull
+    public static PageToken decode(@Nonnull final String encoded) {
+        final byte[] bytes = Base64.getUrlDecoder().decode(Objects.requireNonNull(encoded));
+        if (bytes.length != ENCODED_BYTES) {
+            throw new IllegalArgumentException("Invalid continuation token: " + encoded);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new PageToken(buffer.getLong(), buffer.getLong());
+    }
+
+    @Override
+    public boolean equals(@CheckForNull final Object other) {
+        if (!(other instanceof PageToken)) {
+            return false;
+        }
+
+        final EqualsBuilder eq = new EqualsBuilder();
+        eq.append(getAccountId(), ((PageToken) other).getAccountId());
+        eq.append(getId(), ((PageToken) other).getId());
+        return eq.isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        final HashCodeBuilder hash = new HashCodeBuilder();
+        hash.append(getAccountId());
+        hash.append(getId());
+        return hash.toHashCode();
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+        final ToStringBuilder str = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        str.append("accountId", getAccountId());
+        str.append("id", getId());
+        return str.build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.grpctrl.db.pool;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.metrics.MetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.dropwizard.CodahaleMetricsTrackerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Tracks the activity of a connection pool. The pool wait times, connection usage, timeouts, and connection counts are
+ * published to the {@link MetricRegistry} by the Dropwizard metrics tracker provided with the pool, and the same
+ * activity is accumulated here so it can be summarized for each interval of a {@link PoolSizer}.
+ */
+public class PoolMonitor implements MetricsTrackerFactory {
+    @Nonnull
+    private final MetricRegistry metricRegistry;
+
+    @Nonnull
+    private final LongAdder acquisitions = new LongAdder();
+    @Nonnull
+    private final LongAdder waitNanos = new LongAdder();
+    @Nonnull
+    private final LongAdder usages = new LongAdder();
+    @Nonnull
+    private final LongAdder usageMillis = new LongAdder();
+    @Nonnull
+    private final LongAdder timeouts = new LongAdder();
+
+    @Nullable
+    private volatile PoolStats poolStats;
+
+    /**
+     * @param metricRegistry the {@link MetricRegistry} to which the pool metrics are published
+     *
+     * @throws NullPointerException if the metric registry is {@code null}
+     */
+    public PoolMonitor(@Nonnull final MetricRegistry metricRegistry) {
+        this.metricRegistry = Objects.requireNonNull(metricRegistry);
+    }
+
+    @Override
+    @Nonnull
+    public MetricsTracker create(@Nonnull final String poolName, @Nonnull final PoolStats poolStats) {
+        this.poolStats = Objects.requireNonNull(poolStats);
+
+        // Replace the metrics of any previous pool with the same name, which would otherwise prevent these from being
+        // registered.
+        final String prefix = MetricRegistry.name(Objects.requireNonNull(poolName), "pool");
+        this.metricRegistry.removeMatching((name, metric) -> name.startsWith(prefix + "."));
+
+        return new Tracker(new CodahaleMetricsTrackerFactory(this.metricRegistry).create(poolName, poolStats));
+    }
+
+    /**
+     * Summarize the pool activity since the previous sample, and reset the accumulated activity so the next sample
+     * covers only the following interval.
+     *
+     * @return the pool activity since the previous sample
+     */
+    @Nonnull
+    public PoolSample sample() {
+        final long acquired = this.acquisitions.sumThenReset();
+        final long waited = this.waitNanos.sumThenReset();
+        final long used = this.usages.sumThenReset();
+        final long usedMillis = this.usageMillis.sumThenReset();
+        final long timedOut = this.timeouts.sumThenReset();
+
+        final double meanWaitMillis = acquired == 0 ? 0 : (double) waited / acquired / TimeUnit.MILLISECONDS.toNanos(1);
+        final double meanUsageMillis = used == 0 ? 0 : (double) usedMillis / used;
+
+        final PoolStats stats = this.poolStats;
+        if (stats == null) {
+            // The pool has not been started.
+            return new PoolSample(acquired, meanWaitMillis, used, meanUsageMillis, timedOut, 0, 0, 0);
+        }
+        return new PoolSample(acquired, meanWaitMillis, used, meanUsageMillis, timedOut, stats.getActiveConnections(),
+                stats.getTotalConnections(), stats.getPendingThreads());
+    }
+
+    private class Tracker extends MetricsTracker {
+        @Nonnull
+        private final MetricsTracker delegate;
+
+        Tracker(@Nonnull final MetricsTracker delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(final long elapsedAcquiredNanos) {
+            acquisitions.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            this.delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(final long elapsedBorrowedMillis) {
+            usages.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+            this.delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+            this.delegate.recordConnectionTimeout();
+        }
+
+        @Override
+        public void close() {
+            this.delegate.close();
+        }
+    }
+}
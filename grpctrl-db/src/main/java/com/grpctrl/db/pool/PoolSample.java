@@ -0,0 +1,113 @@
+package com.grpctrl.db.pool;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * An immutable summary of the connection pool activity observed by a {@link PoolMonitor} over a single sampling
+ * interval, along with the state of the pool at the end of the interval.
+ */
+public class PoolSample {
+    private final long acquisitions;
+    private final double meanWaitMillis;
+    private final long usages;
+    private final double meanUsageMillis;
+    private final long timeouts;
+    private final int activeConnections;
+    private final int totalConnections;
+    private final int pendingThreads;
+
+    /**
+     * @param acquisitions the number of connections acquired from the pool during the interval
+     * @param meanWaitMillis the average number of milliseconds spent waiting to acquire a connection
+     * @param usages the number of connections returned to the pool during the interval
+     * @param meanUsageMillis the average number of milliseconds the returned connections were held
+     * @param timeouts the number of requests for a connection that timed out during the interval
+     * @param activeConnections the number of connections in use at the end of the interval
+     * @param totalConnections the number of connections in the pool at the end of the interval
+     * @param pendingThreads the number of threads waiting for a connection at the end of the interval
+     */
+    public PoolSample(
+            final long acquisitions, final double meanWaitMillis, final long usages, final double meanUsageMillis,
+            final long timeouts, final int activeConnections, final int totalConnections, final int pendingThreads) {
+        this.acquisitions = acquisitions;
+        this.meanWaitMillis = meanWaitMillis;
+        this.usages = usages;
+        this.meanUsageMillis = meanUsageMillis;
+        this.timeouts = timeouts;
+        this.activeConnections = activeConnections;
+        this.totalConnections = totalConnections;
+        this.pendingThreads = pendingThreads;
+    }
+
+    /**
+     * @return the number of connections acquired from the pool during the interval
+     */
+    public long getAcquisitions() {
+        return this.acquisitions;
+    }
+
+    /**
+     * @return the average number of milliseconds spent waiting to acquire a connection during the interval
+     */
+    public double getMeanWaitMillis() {
+        return this.meanWaitMillis;
+    }
+
+    /**
+     * @return the number of connections returned to the pool during the interval
+     */
+    public long getUsages() {
+        return this.usages;
+    }
+
+    /**
+     * @return the average number of milliseconds the connections returned during the interval were held, which
+     *     tracks the latency of the database operations performed with them
+     */
+    public double getMeanUsageMillis() {
+        return this.meanUsageMillis;
+    }
+
+    /**
+     * @return the number of requests for a connection that timed out during the interval
+     */
+    public long getTimeouts() {
+        return this.timeouts;
+    }
+
+    /**
+     * @return the number of connections in use at the end of the interval
+     */
+    public int getActiveConnections() {
+        return this.activeConnections;
+    }
+
+    /**
+     * @return the number of connections in the pool at the end of the interval
+     */
+    public int getTotalConnections() {
+        return this.totalConnections;
+    }
+
+    /**
+     * @return the number of threads waiting for a connection at the end of the interval
+     */
+    public int getPendingThreads() {
+        return this.pendingThreads;
+    }
+
+    @Override
+    public String toString() {
+        final ToStringBuilder str = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        str.append("acquisitions", getAcquisitions());
+        str.append("meanWaitMillis", getMeanWaitMillis());
+        str.append("usages", getUsages());
+        str.append("meanUsageMillis", getMeanUsageMillis());
+        str.append("timeouts", getTimeouts());
+        str.append("activeConnections", getActiveConnections());
+        str.append("totalConnections", getTotalConnections());
+        str.append("pendingThreads", getPendingThreads());
+        return str.build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.grpctrl.db.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Periodically resizes a running connection pool based on the pool activity observed by a {@link PoolMonitor}. The
+ * pool is grown while requests spend too long waiting for a connection, unless the connections are already being held
+ * longer than the latency limit, which indicates the database itself is the bottleneck and more connections would only
+ * add to its load, so the pool is shrunk instead. A pool with most of its connections idle is shrunk gradually. The
+ * pool is never sized outside of the configured bounds.
+ */
+public class PoolSizer implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(PoolSizer.class);
+
+    @Nonnull
+    private final HikariConfigMXBean pool;
+    @Nonnull
+    private final PoolMonitor poolMonitor;
+    private final int minimum;
+    private final int maximum;
+    private final double waitTarget;
+    private final double latencyLimit;
+    private final int minimumIdle;
+
+    /**
+     * @param pool the {@link HikariConfigMXBean} through which the running pool is resized
+     * @param poolMonitor the {@link PoolMonitor} tracking the activity of the pool
+     * @param minimum the smallest maximum pool size the pool can be shrunk to
+     * @param maximum the largest maximum pool size the pool can be grown to
+     * @param waitTarget the average number of milliseconds spent waiting for a connection above which the pool is
+     *     grown
+     * @param latencyLimit the average number of milliseconds connections are held above which the pool is shrunk
+     *
+     * @throws NullPointerException if the pool or pool monitor is {@code null}
+     * @throws IllegalArgumentException if the minimum is not positive or the maximum is less than the minimum
+     */
+    public PoolSizer(
+            @Nonnull final HikariConfigMXBean pool, @Nonnull final PoolMonitor poolMonitor, final int minimum,
+            final int maximum, final double waitTarget, final double latencyLimit) {
+        this.pool = Objects.requireNonNull(pool);
+        this.poolMonitor = Objects.requireNonNull(poolMonitor);
+        if (minimum < 1) {
+            throw new IllegalArgumentException("Invalid minimum pool size: " + minimum);
+        }
+        if (maximum < minimum) {
+            throw new IllegalArgumentException("Invalid maximum pool size: " + maximum);
+        }
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.waitTarget = waitTarget;
+        this.latencyLimit = latencyLimit;
+        // The configured number of idle connections is kept unless the pool is shrunk below it.
+        this.minimumIdle = pool.getMinimumIdle();
+    }
+
+    @Override
+    public void run() {
+        try {
+            final PoolSample sample = this.poolMonitor.sample();
+            final int current = this.pool.getMaximumPoolSize();
+            final int size = size(current, sample);
+            if (size == current) {
+                return;
+            }
+
+            LOG.info("Resizing connection pool {} from {} to {} connections: {}", this.pool.getPoolName(), current,
+                    size, sample);
+            // The pool retires the connections above the new size as they become idle.
+            if (size < current) {
+                this.pool.setMinimumIdle(Math.min(this.minimumIdle, size));
+                this.pool.setMaximumPoolSize(size);
+            } else {
+                this.pool.setMaximumPoolSize(size);
+                this.pool.setMinimumIdle(Math.min(this.minimumIdle, size));
+            }
+        } catch (final RuntimeException exception) {
+            // Do not let the exception cancel future runs of the sizer.
+            LOG.error("Failed to resize connection pool", exception);
+        }
+    }
+
+    int size(final int current, @Nonnull final PoolSample sample) {
+        final int size;
+        if (sample.getUsages() > 0 && sample.getMeanUsageMillis() > this.latencyLimit) {
+            size = current - step(current);
+        } else if (sample.getTimeouts() > 0
+                || sample.getAcquisitions() > 0 && sample.getMeanWaitMillis() > this.waitTarget) {
+            size = current + step(current);
+        } else if (sample.getPendingThreads() == 0 && sample.getActiveConnections() * 2 < current) {
+            size = current - 1;
+        } else {
+            size = current;
+        }
+        return Math.max(this.minimum, Math.min(this.maximum, size));
+    }
+
+    private static int step(final int current) {
+        return Math.max(1, current / 4);
+    }
+}
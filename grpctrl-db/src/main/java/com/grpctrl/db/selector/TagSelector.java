@@ -0,0 +1,329 @@
+package com.grpctrl.db.selector;
+
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Describes the tags a group must have in order to be selected. The simplest selectors match groups having a tag
+ * with a specific label and value, or groups having a tag with a specific label and any value, and these can be
+ * combined using AND, OR and NOT. Selectors are immutable, and are evaluated by {@link Visitor} implementations.
+ */
+public abstract class TagSelector {
+    // Only the selectors defined here are supported by the visitors.
+    private TagSelector() {
+    }
+
+    /**
+     * @param label the tag label that must be present on the selected groups
+     * @param value the value the tag label must have on the selected groups
+     *
+     * @return a selector matching the groups having a tag with the specified label and value
+     *
+     * @throws NullPointerException if either of the parameters are {@code null}
+     */
+    @Nonnull
+    public static TagSelector equal(@Nonnull final String label, @Nonnull final String value) {
+        return new Equal(Objects.requireNonNull(label), Objects.requireNonNull(value));
+    }
+
+    /**
+     * @param label the tag label that must be present on the selected groups
+     *
+     * @return a selector matching the groups having a tag with the specified label, with any value
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    public static TagSelector exists(@Nonnull final String label) {
+        return new Exists(Objects.requireNonNull(label));
+    }
+
+    /**
+     * @param selectors the selectors that must all match the selected groups
+     *
+     * @return a selector matching the groups matched by all of the provided selectors
+     *
+     * @throws NullPointerException if the parameter or any of the selectors are {@code null}
+     * @throws IllegalArgumentException if no selectors are provided
+     */
+    @Nonnull
+    public static TagSelector and(@Nonnull final TagSelector... selectors) {
+        return and(Arrays.asList(selectors));
+    }
+
+    /**
+     * @param selectors the selectors that must all match the selected groups
+     *
+     * @return a selector matching the groups matched by all of the provided selectors
+     *
+     * @throws NullPointerException if the parameter or any of the selectors are {@code null}
+     * @throws IllegalArgumentException if no selectors are provided
+     */
+    @Nonnull
+    public static TagSelector and(@Nonnull final Collection<TagSelector> selectors) {
+        return new And(operands(selectors));
+    }
+
+    /**
+     * @param selectors the selectors of which at least one must match the selected groups
+     *
+     * @return a selector matching the groups matched by any of the provided selectors
+     *
+     * @throws NullPointerException if the parameter or any of the selectors are {@code null}
+     * @throws IllegalArgumentException if no selectors are provided
+     */
+    @Nonnull
+    public static TagSelector or(@Nonnull final TagSelector... selectors) {
+        return or(Arrays.asList(selectors));
+    }
+
+    /**
+     * @param selectors the selectors of which at least one must match the selected groups
+     *
+     * @return a selector matching the groups matched by any of the provided selectors
+     *
+     * @throws NullPointerException if the parameter or any of the selectors are {@code null}
+     * @throws IllegalArgumentException if no selectors are provided
+     */
+    @Nonnull
+    public static TagSelector or(@Nonnull final Collection<TagSelector> selectors) {
+        return new Or(operands(selectors));
+    }
+
+    /**
+     * @param selector the selector that must not match the selected groups
+     *
+     * @return a selector matching the groups that are not matched by the provided selector
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    @Nonnull
+    public static TagSelector not(@Nonnull final TagSelector selector) {
+        return new Not(Objects.requireNonNull(selector));
+    }
+
+    @Nonnull
+    private static List<TagSelector> operands(@Nonnull final Collection<TagSelector> selectors) {
+        final List<TagSelector> operands = new ArrayList<>(Objects.requireNonNull(selectors));
+        if (operands.isEmpty()) {
+            throw new IllegalArgumentException("At least one selector must be provided");
+        }
+        operands.forEach(Objects::requireNonNull);
+        return Collections.unmodifiableList(operands);
+    }
+
+    /**
+     * @param visitor the visitor used to evaluate this selector
+     * @param <T> the type of result produced by the visitor
+     *
+     * @return the result produced by the visitor for this selector
+     */
+    public abstract <T> T accept(@Nonnull Visitor<T> visitor);
+
+    /**
+     * Implemented by the classes responsible for evaluating selectors, with one method for each kind of selector.
+     *
+     * @param <T> the type of result produced when evaluating a selector
+     */
+    public interface Visitor<T> {
+        /**
+         * @param label the tag label that must be present on the selected groups
+         * @param value the value the tag label must have on the selected groups
+         *
+         * @return the result of evaluating the selector
+         */
+        T visitEqual(@Nonnull String label, @Nonnull String value);
+
+        /**
+         * @param label the tag label that must be present on the selected groups
+         *
+         * @return the result of evaluating the selector
+         */
+        T visitExists(@Nonnull String label);
+
+        /**
+         * @param selectors the selectors that must all match the selected groups, never empty
+         *
+         * @return the result of evaluating the selector
+         */
+        T visitAnd(@Nonnull List<TagSelector> selectors);
+
+        /**
+         * @param selectors the selectors of which at least one must match the selected groups, never empty
+         *
+         * @return the result of evaluating the selector
+         */
+        T visitOr(@Nonnull List<TagSelector> selectors);
+
+        /**
+         * @param selector the selector that must not match the selected groups
+         *
+         * @return the result of evaluating the selector
+         */
+        T visitNot(@Nonnull TagSelector selector);
+    }
+
+    private static final class Equal extends TagSelector {
+        @Nonnull
+        private final String label;
+        @Nonnull
+        private final String value;
+
+        private Equal(@Nonnull final String label, @Nonnull final String value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull final Visitor<T> visitor) {
+            return visitor.visitEqual(this.label, this.value);
+        }
+
+        @Override
+        public boolean equals(@CheckForNull final Object other) {
+            return other instanceof Equal && this.label.equals(((Equal) other).label)
+                    && this.value.equals(((Equal) other).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder().append(this.label).append(this.value).toHashCode();
+        }
+
+        @Override
+        @Nonnull
+        public String toString() {
+            return this.label + " = " + this.value;
+        }
+    }
+
+    private static final class Exists extends TagSelector {
+        @Nonnull
+        private final String label;
+
+        private Exists(@Nonnull final String label) {
+            this.label = label;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull final Visitor<T> visitor) {
+            return visitor.visitExists(this.label);
+        }
+
+        @Override
+        public boolean equals(@CheckForNull final Object other) {
+            return other instanceof Exists && this.label.equals(((Exists) other).label);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.label.hashCode();
+        }
+
+        @Override
+        @Nonnull
+        public String toString() {
+            return this.label;
+        }
+    }
+
+    private static final class And extends TagSelector {
+        @Nonnull
+        private final List<TagSelector> selectors;
+
+        private And(@Nonnull final List<TagSelector> selectors) {
+            this.selectors = selectors;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull final Visitor<T> visitor) {
+            return visitor.visitAnd(this.selectors);
+        }
+
+        @Override
+        public boolean equals(@CheckForNull final Object other) {
+            return other instanceof And && this.selectors.equals(((And) other).selectors);
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder().append("and").append(this.selectors).toHashCode();
+        }
+
+        @Override
+        @Nonnull
+        public String toString() {
+            return this.selectors.stream().map(String::valueOf).collect(Collectors.joining(" AND ", "(", ")"));
+        }
+    }
+
+    private static final class Or extends TagSelector {
+        @Nonnull
+        private final List<TagSelector> selectors;
+
+        private Or(@Nonnull final List<TagSelector> selectors) {
+            this.selectors = selectors;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull final Visitor<T> visitor) {
+            return visitor.visitOr(this.selectors);
+        }
+
+        @Override
+        public boolean equals(@CheckForNull final Object other) {
+            return other instanceof Or && this.selectors.equals(((Or) other).selectors);
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder().append("or").append(this.selectors).toHashCode();
+        }
+
+        @Override
+        @Nonnull
+        public String toString() {
+            return this.selectors.stream().map(String::valueOf).collect(Collectors.joining(" OR ", "(", ")"));
+        }
+    }
+
+    private static final class Not extends TagSelector {
+        @Nonnull
+        private final TagSelector selector;
+
+        private Not(@Nonnull final TagSelector selector) {
+            this.selector = selector;
+        }
+
+        @Override
+        public <T> T accept(@Nonnull final Visitor<T> visitor) {
+            return visitor.visitNot(this.selector);
+        }
+
+        @Override
+        public boolean equals(@CheckForNull final Object other) {
+            return other instanceof Not && this.selector.equals(((Not) other).selector);
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder().append("not").append(this.selector).toHashCode();
+        }
+
+        @Override
+        @Nonnull
+        public String toString() {
+            return "NOT " + this.selector;
+        }
+    }
+}
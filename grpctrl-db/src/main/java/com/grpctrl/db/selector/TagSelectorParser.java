@@ -0,0 +1,155 @@
+package com.grpctrl.db.selector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Parses the text form of a {@link TagSelector}. A selector is a comma-separated list of requirements, all of which
+ * must match a group for it to be selected:
+ *
+ * <ul>
+ *     <li>{@code label} selects groups having a tag with the label, with any value</li>
+ *     <li>{@code !label} selects groups without a tag having the label</li>
+ *     <li>{@code label=value} (or {@code label==value}) selects groups having the tag</li>
+ *     <li>{@code label!=value} selects groups without the tag</li>
+ *     <li>{@code label in (value1,value2)} selects groups having the label with any of the values</li>
+ *     <li>{@code label notin (value1,value2)} selects groups without the label having any of the values</li>
+ * </ul>
+ *
+ * <p>For example, {@code env=prod,tier in (web,api),!deprecated}. Labels and values containing whitespace or any of
+ * the characters {@code ,()=!"} must be enclosed in double quotes, within which a backslash escapes the next
+ * character.</p>
+ */
+public class TagSelectorParser {
+    @Nonnull
+    private final String text;
+    private int position = 0;
+
+    private TagSelectorParser(@Nonnull final String text) {
+        this.text = text;
+    }
+
+    /**
+     * @param text the text form of the selector
+     *
+     * @return the parsed selector
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     * @throws IllegalArgumentException if the text is not a valid selector
+     */
+    @Nonnull
+    public static TagSelector parse(@Nonnull final String text) {
+        return new TagSelectorParser(Objects.requireNonNull(text)).selector();
+    }
+
+    @Nonnull
+    private TagSelector selector() {
+        final List<TagSelector> requirements = new ArrayList<>();
+        requirements.add(requirement());
+        while (consume(",")) {
+            requirements.add(requirement());
+        }
+        skipWhitespace();
+        if (this.position < this.text.length()) {
+            throw error("Unexpected character");
+        }
+        return requirements.size() == 1 ? requirements.get(0) : TagSelector.and(requirements);
+    }
+
+    @Nonnull
+    private TagSelector requirement() {
+        if (consume("!")) {
+            return TagSelector.not(TagSelector.exists(word("label")));
+        }
+
+        final String label = word("label");
+        skipWhitespace();
+        if (this.position == this.text.length() || this.text.charAt(this.position) == ',') {
+            return TagSelector.exists(label);
+        }
+        if (consume("!=")) {
+            return TagSelector.not(TagSelector.equal(label, word("value")));
+        }
+        if (consume("==") || consume("=")) {
+            return TagSelector.equal(label, word("value"));
+        }
+
+        final String operator = word("operator");
+        if ("in".equalsIgnoreCase(operator)) {
+            return TagSelector.or(values(label));
+        } else if ("notin".equalsIgnoreCase(operator)) {
+            return TagSelector.not(TagSelector.or(values(label)));
+        }
+        throw error("Unsupported operator '" + operator + "'");
+    }
+
+    @Nonnull
+    private List<TagSelector> values(@Nonnull final String label) {
+        if (!consume("(")) {
+            throw error("Expected '('");
+        }
+        final List<TagSelector> values = new ArrayList<>();
+        do {
+            values.add(TagSelector.equal(label, word("value")));
+        } while (consume(","));
+        if (!consume(")")) {
+            throw error("Expected ')'");
+        }
+        return values;
+    }
+
+    private boolean consume(@Nonnull final String token) {
+        skipWhitespace();
+        if (this.text.startsWith(token, this.position)) {
+            this.position += token.length();
+            return true;
+        }
+        return false;
+    }
+
+    @Nonnull
+    private String word(@Nonnull final String description) {
+        skipWhitespace();
+        final StringBuilder word = new StringBuilder();
+        if (this.position < this.text.length() && this.text.charAt(this.position) == '"') {
+            this.position++;
+            while (this.position < this.text.length() && this.text.charAt(this.position) != '"') {
+                if (this.text.charAt(this.position) == '\\' && this.position + 1 < this.text.length()) {
+                    this.position++;
+                }
+                word.append(this.text.charAt(this.position++));
+            }
+            if (this.position == this.text.length()) {
+                throw error("Unterminated quoted " + description);
+            }
+            this.position++;
+        } else {
+            while (this.position < this.text.length() && !isSpecial(this.text.charAt(this.position))) {
+                word.append(this.text.charAt(this.position++));
+            }
+        }
+        if (word.length() == 0) {
+            throw error("Expected a " + description);
+        }
+        return word.toString();
+    }
+
+    private static boolean isSpecial(final char ch) {
+        return Character.isWhitespace(ch) || ",()=!\"".indexOf(ch) >= 0;
+    }
+
+    private void skipWhitespace() {
+        while (this.position < this.text.length() && Character.isWhitespace(this.text.charAt(this.position))) {
+            this.position++;
+        }
+    }
+
+    @Nonnull
+    private IllegalArgumentException error(@Nonnull final String message) {
+        return new IllegalArgumentException(
+                message + " at position " + this.position + " in tag selector: " + this.text);
+    }
+}
@@ -0,0 +1,81 @@
+package com.grpctrl.db.slow;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Array;
+import java.sql.JDBCType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A parameter bound to a prepared statement, kept so the same parameter can be bound again when the plan of a slow
+ * statement is captured.
+ */
+class BoundParameter {
+    @Nonnull
+    private final Method setter;
+    @Nonnull
+    private final Object[] args;
+
+    /**
+     * @param setter the {@link PreparedStatement} method used to bind the parameter
+     * @param args the arguments passed to the setter, starting with the parameter index
+     */
+    BoundParameter(@Nonnull final Method setter, @Nonnull final Object[] args) {
+        this.setter = Objects.requireNonNull(setter);
+        this.args = Objects.requireNonNull(args);
+    }
+
+    /**
+     * @return the type of the parameter, along with its size for strings, binary data, and arrays
+     */
+    @Nonnull
+    String describe() {
+        final String type = this.setter.getName().substring("set".length());
+        final Object value = this.args[1];
+        if (value instanceof String) {
+            return type + "(" + ((String) value).length() + ")";
+        } else if (value instanceof byte[]) {
+            return type + "(" + ((byte[]) value).length + ")";
+        } else if (value instanceof Array) {
+            try {
+                return type + "(" + java.lang.reflect.Array.getLength(((Array) value).getArray()) + ")";
+            } catch (final SQLException | RuntimeException unknownSize) {
+                return type;
+            }
+        } else if ("setNull".equals(this.setter.getName()) && value instanceof Integer) {
+            try {
+                return type + "(" + JDBCType.valueOf((Integer) value).getName() + ")";
+            } catch (final IllegalArgumentException vendorType) {
+                return type;
+            }
+        } else if ("setObject".equals(this.setter.getName()) && value != null) {
+            return type + "(" + value.getClass().getSimpleName() + ")";
+        }
+        return type;
+    }
+
+    /**
+     * Bind the same parameter to another statement.
+     *
+     * @param statement the statement to which the parameter is bound
+     *
+     * @throws SQLException if there is a problem binding the parameter
+     */
+    void bind(@Nonnull final PreparedStatement statement) throws SQLException {
+        try {
+            this.setter.invoke(statement, this.args);
+        } catch (final InvocationTargetException invocationTargetException) {
+            final Throwable cause = invocationTargetException.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Failed to bind parameter", cause);
+        } catch (final IllegalAccessException illegalAccess) {
+            throw new SQLException("Failed to bind parameter", illegalAccess);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.grpctrl.db.slow;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A statement recorded by the {@link SlowQueryLog} because it took longer than the configured threshold. Only the
+ * types and sizes of the bound parameters are kept, never their values. The execution plan is captured after the
+ * statement is recorded, so it is not available until the capture completes.
+ */
+public class SlowQuery {
+    private final long timestamp;
+    private final long durationMillis;
+    @Nonnull
+    private final String sql;
+    @Nonnull
+    private final List<String> parameters;
+    @Nullable
+    private volatile String plan;
+
+    /**
+     * @param timestamp the time at which the statement completed, in milliseconds since the epoch
+     * @param durationMillis the number of milliseconds the statement took to execute
+     * @param sql the SQL of the statement, with the whitespace collapsed
+     * @param parameters the types and sizes of the parameters bound to the statement, in parameter order
+     *
+     * @throws NullPointerException if the sql or parameters are {@code null}
+     */
+    public SlowQuery(
+            final long timestamp, final long durationMillis, @Nonnull final String sql,
+            @Nonnull final List<String> parameters) {
+        this.timestamp = timestamp;
+        this.durationMillis = durationMillis;
+        this.sql = Objects.requireNonNull(sql);
+        this.parameters = Collections.unmodifiableList(new ArrayList<>(Objects.requireNonNull(parameters)));
+    }
+
+    /**
+     * @return the time at which the statement completed, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * @return the number of milliseconds the statement took to execute
+     */
+    public long getDurationMillis() {
+        return this.durationMillis;
+    }
+
+    /**
+     * @return the SQL of the statement, with the whitespace collapsed
+     */
+    @Nonnull
+    public String getSql() {
+        return this.sql;
+    }
+
+    /**
+     * @return the types and sizes of the parameters bound to the statement, in parameter order
+     */
+    @Nonnull
+    public List<String> getParameters() {
+        return this.parameters;
+    }
+
+    /**
+     * @return the execution plan of the statement, or the reason it could not be captured, {@code null} while the
+     *     plan has not been captured
+     */
+    @Nullable
+    public String getPlan() {
+        return this.plan;
+    }
+
+    void setPlan(@Nonnull final String plan) {
+        this.plan = Objects.requireNonNull(plan);
+    }
+
+    @Override
+    public String toString() {
+        final ToStringBuilder str = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        str.append("timestamp", getTimestamp());
+        str.append("durationMillis", getDurationMillis());
+        str.append("sql", getSql());
+        str.append("parameters", getParameters());
+        return str.build();
+    }
+}
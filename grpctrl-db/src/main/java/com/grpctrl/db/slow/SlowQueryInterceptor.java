@@ -0,0 +1,154 @@
+package com.grpctrl.db.slow;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+
+/**
+ * Intercepts the JDBC calls made through a {@link DataSource}, timing every statement executed on its connections and
+ * recording the statements that take longer than the threshold in a {@link SlowQueryLog}. The parameters bound to
+ * prepared statements are remembered until the statement is executed, so the plan of a slow statement can be captured
+ * with the same parameters. For statements streaming their results, only the time to execute the statement and fetch
+ * the first rows is measured.
+ */
+public final class SlowQueryInterceptor {
+    private SlowQueryInterceptor() {
+    }
+
+    /**
+     * Wrap the data source so the statements executed on its connections are timed.
+     *
+     * @param dataSource the {@link DataSource} providing the connections, also used to capture the plans of the slow
+     *     statements
+     * @param slowQueryLog the {@link SlowQueryLog} in which the slow statements are recorded
+     *
+     * @return the intercepted data source
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Nonnull
+    public static DataSource wrap(@Nonnull final DataSource dataSource, @Nonnull final SlowQueryLog slowQueryLog) {
+        Objects.requireNonNull(dataSource);
+        Objects.requireNonNull(slowQueryLog);
+
+        return proxy(DataSource.class, (proxy, method, args) -> {
+            final Object result = call(dataSource, method, args);
+            if (result instanceof Connection) {
+                return wrap(dataSource, slowQueryLog, (Connection) result);
+            }
+            return result;
+        });
+    }
+
+    @Nonnull
+    private static Connection wrap(
+            @Nonnull final DataSource dataSource, @Nonnull final SlowQueryLog slowQueryLog,
+            @Nonnull final Connection conn) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            final Object result = call(conn, method, args);
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class,
+                        new StatementHandler(dataSource, slowQueryLog, (Statement) result, (String) args[0]));
+            } else if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class,
+                        new StatementHandler(dataSource, slowQueryLog, (Statement) result, (String) args[0]));
+            } else if (result instanceof Statement) {
+                return proxy(Statement.class,
+                        new StatementHandler(dataSource, slowQueryLog, (Statement) result, null));
+            }
+            return result;
+        });
+    }
+
+    @Nonnull
+    private static <T> T proxy(@Nonnull final Class<T> type, @Nonnull final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    @Nullable
+    private static Object call(
+            @Nonnull final Object delegate, @Nonnull final Method method, @Nullable final Object[] args)
+            throws Throwable {
+        try {
+            return method.invoke(delegate, args);
+        } catch (final InvocationTargetException invocationTargetException) {
+            throw invocationTargetException.getCause();
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        @Nonnull
+        private final DataSource dataSource;
+        @Nonnull
+        private final SlowQueryLog slowQueryLog;
+        @Nonnull
+        private final Statement statement;
+        @Nullable
+        private final String sql;
+
+        // Statements are only used by one thread at a time, so the parameters do not need to be synchronized.
+        @Nonnull
+        private final Map<Integer, BoundParameter> parameters = new TreeMap<>();
+
+        StatementHandler(
+                @Nonnull final DataSource dataSource, @Nonnull final SlowQueryLog slowQueryLog,
+                @Nonnull final Statement statement, @Nullable final String sql) {
+            this.dataSource = dataSource;
+            this.slowQueryLog = slowQueryLog;
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        @Nullable
+        public Object invoke(@Nonnull final Object proxy, @Nonnull final Method method, @Nullable final Object[] args)
+                throws Throwable {
+            final String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+
+            final Object result = call(this.statement, method, args);
+            if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer
+                    && method.getParameterTypes()[0] == int.class) {
+                this.parameters.put((Integer) args[0], new BoundParameter(method, args));
+            } else if ("clearParameters".equals(name)) {
+                this.parameters.clear();
+            }
+            return result;
+        }
+
+        @Nullable
+        private Object execute(@Nonnull final Method method, @Nullable final Object[] args) throws Throwable {
+            final long start = System.nanoTime();
+            try {
+                return call(this.statement, method, args);
+            } finally {
+                final long elapsed = System.nanoTime() - start;
+                if (this.slowQueryLog.isSlow(elapsed)) {
+                    final boolean batch = method.getName().endsWith("Batch");
+                    final String executed = args != null && args.length > 0 && args[0] instanceof String
+                            ? (String) args[0] : this.sql;
+                    if (executed != null) {
+                        this.slowQueryLog.record(this.dataSource, executed,
+                                batch ? new ArrayList<>() : new ArrayList<>(this.parameters.values()), !batch,
+                                elapsed);
+                    }
+                }
+            }
+        }
+    }
+}
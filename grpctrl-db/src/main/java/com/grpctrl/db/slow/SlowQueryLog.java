@@ -0,0 +1,180 @@
+package com.grpctrl.db.slow;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.RateLimiter;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nonnull;
+import javax.sql.DataSource;
+
+/**
+ * Keeps a record of the most recent statements that took longer than the configured threshold, along with their
+ * execution plans. The plans are captured in the background, on a separate connection, so the slow statement is not
+ * delayed any further. The number of statements recorded is rate limited, so a database that is slow for everyone does
+ * not flood the log or the database with more work, although every slow statement is still counted in the metrics.
+ */
+public class SlowQueryLog {
+    private static final Logger LOG = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Analyzing a statement runs it, so only the statements that only read are analyzed.
+    private static final Pattern READS = Pattern.compile("^\\s*(SELECT|WITH)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WRITES =
+            Pattern.compile("\\b(INSERT|UPDATE|DELETE|TRUNCATE|NEXTVAL|SETVAL)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final int explainTimeout;
+    @Nonnull
+    private final RateLimiter rateLimiter;
+    @Nonnull
+    private final Executor explainExecutor;
+    @Nonnull
+    private final Meter slowQueries;
+
+    @Nonnull
+    private final Deque<SlowQuery> entries = new ArrayDeque<>();
+
+    /**
+     * @param threshold the number of milliseconds after which a statement is considered slow
+     * @param capacity the maximum number of slow statements to keep, the oldest are discarded first
+     * @param perMinute the maximum number of slow statements recorded per minute
+     * @param explainTimeout the number of seconds the plan of a slow statement is allowed to take to capture
+     * @param explainExecutor the {@link Executor} used to capture the plans in the background
+     * @param metricRegistry the {@link MetricRegistry} used to count the slow statements
+     *
+     * @throws NullPointerException if the executor or metric registry is {@code null}
+     * @throws IllegalArgumentException if the capacity or rate is not positive
+     */
+    public SlowQueryLog(
+            final long threshold, final int capacity, final int perMinute, final int explainTimeout,
+            @Nonnull final Executor explainExecutor, @Nonnull final MetricRegistry metricRegistry) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Invalid slow query log capacity: " + capacity);
+        }
+        if (perMinute < 1) {
+            throw new IllegalArgumentException("Invalid slow query rate limit: " + perMinute);
+        }
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(threshold);
+        this.capacity = capacity;
+        this.explainTimeout = explainTimeout;
+        this.rateLimiter = RateLimiter.create(perMinute / 60d);
+        this.explainExecutor = Objects.requireNonNull(explainExecutor);
+        this.slowQueries = Objects.requireNonNull(metricRegistry)
+                .meter(MetricRegistry.name(SlowQueryLog.class, "slow-queries"));
+    }
+
+    /**
+     * @param elapsedNanos the number of nanoseconds a statement took to execute
+     *
+     * @return whether the statement should be recorded as a slow statement
+     */
+    public boolean isSlow(final long elapsedNanos) {
+        return elapsedNanos >= this.thresholdNanos;
+    }
+
+    /**
+     * @return the most recently recorded slow statements, the most recent first
+     */
+    @Nonnull
+    public synchronized List<SlowQuery> getSlowQueries() {
+        return new ArrayList<>(this.entries);
+    }
+
+    /**
+     * Record a slow statement, and capture its plan in the background.
+     *
+     * @param explainSource the {@link DataSource} providing the connection used to capture the plan
+     * @param sql the SQL of the statement
+     * @param parameters the parameters bound to the statement, in parameter order
+     * @param explain whether the plan of the statement should be captured, which is not possible for batches
+     * @param elapsedNanos the number of nanoseconds the statement took to execute
+     */
+    void record(
+            @Nonnull final DataSource explainSource, @Nonnull final String sql,
+            @Nonnull final List<BoundParameter> parameters, final boolean explain, final long elapsedNanos) {
+        this.slowQueries.mark();
+        if (!this.rateLimiter.tryAcquire()) {
+            return;
+        }
+
+        final String shape = WHITESPACE.matcher(sql).replaceAll(" ").trim();
+        final List<String> types = parameters.stream().map(BoundParameter::describe).collect(Collectors.toList());
+        final SlowQuery slowQuery =
+                new SlowQuery(System.currentTimeMillis(), TimeUnit.NANOSECONDS.toMillis(elapsedNanos), shape, types);
+        add(slowQuery);
+        LOG.warn("Slow query took {} ms: {} parameters {}", slowQuery.getDurationMillis(), shape, types);
+
+        if (!explain) {
+            slowQuery.setPlan("Plans are not captured for batches");
+            return;
+        }
+        try {
+            this.explainExecutor.execute(() -> explain(explainSource, sql, parameters, slowQuery));
+        } catch (final RejectedExecutionException rejected) {
+            slowQuery.setPlan("Too many plans are already being captured");
+        }
+    }
+
+    private synchronized void add(@Nonnull final SlowQuery slowQuery) {
+        if (this.entries.size() == this.capacity) {
+            this.entries.removeLast();
+        }
+        this.entries.addFirst(slowQuery);
+    }
+
+    @SuppressFBWarnings(value = "SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING",
+            justification = "the statement being explained was already executed by the application")
+    private void explain(
+            @Nonnull final DataSource explainSource, @Nonnull final String sql,
+            @Nonnull final List<BoundParameter> parameters, @Nonnull final SlowQuery slowQuery) {
+        final boolean analyze = READS.matcher(sql).find() && !WRITES.matcher(sql).find();
+        final String explain = (analyze ? "EXPLAIN (ANALYZE, BUFFERS) " : "EXPLAIN ") + sql;
+
+        try (final Connection conn = explainSource.getConnection()) {
+            try (final PreparedStatement ps = conn.prepareStatement(explain)) {
+                ps.setQueryTimeout(this.explainTimeout);
+                for (final BoundParameter parameter : parameters) {
+                    parameter.bind(ps);
+                }
+
+                final StringBuilder plan = new StringBuilder();
+                try (final ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        plan.append(plan.length() == 0 ? "" : "\n").append(rs.getString(1));
+                    }
+                }
+                slowQuery.setPlan(plan.toString());
+                LOG.warn("Plan of slow query {}:\n{}", slowQuery.getSql(), plan);
+            } finally {
+                // Nothing the statement did is kept.
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                }
+            }
+        } catch (final SQLException sqlException) {
+            slowQuery.setPlan("Failed to capture plan: " + sqlException.getMessage());
+            LOG.warn("Failed to capture plan of slow query {}", slowQuery.getSql(), sqlException);
+        }
+    }
+}
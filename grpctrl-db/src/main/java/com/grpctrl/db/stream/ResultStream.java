@@ -0,0 +1,79 @@
+package com.grpctrl.db.stream;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Timer;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A forward-only stream of rows from an executed query, created by a {@link ResultStreamer}. Rows are advanced with
+ * {@link #next()} so the number of streamed rows and the time until the first row was available can be tracked, and
+ * column values are read from the underlying {@link ResultSet}.
+ */
+public class ResultStream implements AutoCloseable {
+    @Nonnull
+    private final ResultSet resultSet;
+    private final long start;
+    @Nonnull
+    private final Meter rowsMeter;
+    @Nonnull
+    private final Timer firstRowTimer;
+
+    private long rows = 0;
+
+    /**
+     * @param resultSet the result set from which rows are streamed
+     * @param start the {@link System#nanoTime()} value when the query was executed
+     * @param rowsMeter the meter used to track the number of rows streamed
+     * @param firstRowTimer the timer used to track how long it took for the first row to be available
+     */
+    ResultStream(
+            @Nonnull final ResultSet resultSet, final long start, @Nonnull final Meter rowsMeter,
+            @Nonnull final Timer firstRowTimer) {
+        this.resultSet = Objects.requireNonNull(resultSet);
+        this.start = start;
+        this.rowsMeter = Objects.requireNonNull(rowsMeter);
+        this.firstRowTimer = Objects.requireNonNull(firstRowTimer);
+    }
+
+    /**
+     * @return the result set from which the column values of the current row can be read
+     */
+    @Nonnull
+    public ResultSet getResultSet() {
+        return this.resultSet;
+    }
+
+    /**
+     * Move to the next row in the stream.
+     *
+     * @return whether another row was available
+     *
+     * @throws SQLException if there is a problem retrieving the next row
+     */
+    public boolean next() throws SQLException {
+        final boolean hasNext = this.resultSet.next();
+        if (hasNext && this.rows++ == 0) {
+            this.firstRowTimer.update(System.nanoTime() - this.start, TimeUnit.NANOSECONDS);
+        }
+        return hasNext;
+    }
+
+    /**
+     * @return the number of rows that have been streamed so far
+     */
+    public long getRows() {
+        return this.rows;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        this.rowsMeter.mark(this.rows);
+        this.resultSet.close();
+    }
+}
@@ -0,0 +1,71 @@
+package com.grpctrl.db.stream;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.db.DataSourceSupplier;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Executes queries whose results are to be streamed to a consumer. When a fetch size is configured, the PostgreSQL
+ * driver reads the rows through a server-side cursor in batches of that size instead of materializing the entire
+ * result set in memory before the first row is available. This requires a forward-only result set on a connection
+ * that is not in auto-commit mode, which is how the pooled connections are configured.
+ */
+public class ResultStreamer {
+    @Nonnull
+    private final DataSourceSupplier dataSourceSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+    @Nonnull
+    private final String rowsMetric;
+    @Nonnull
+    private final String firstRowMetric;
+
+    /**
+     * @param dataSourceSupplier the {@link DataSourceSupplier} that provides the configured fetch size
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track the streaming metrics
+     * @param owner the class performing the streaming queries, used to name the metrics
+     *
+     * @throws NullPointerException if any of the parameters are {@code null}
+     */
+    public ResultStreamer(
+            @Nonnull final DataSourceSupplier dataSourceSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier, @Nonnull final Class<?> owner) {
+        this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+        this.rowsMetric = MetricRegistry.name(Objects.requireNonNull(owner), "rows-streamed");
+        this.firstRowMetric = MetricRegistry.name(owner, "time-to-first-row");
+    }
+
+    /**
+     * Execute the provided query and begin streaming the results.
+     *
+     * @param ps the prepared statement to execute, with all parameters already set
+     *
+     * @return the stream of rows produced by the query
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     * @throws SQLException if there is a problem executing the query
+     */
+    @Nonnull
+    public ResultStream open(@Nonnull final PreparedStatement ps) throws SQLException {
+        Objects.requireNonNull(ps);
+
+        final int fetchSize = this.dataSourceSupplier.getFetchSize();
+        if (fetchSize > 0) {
+            ps.setFetchDirection(ResultSet.FETCH_FORWARD);
+            ps.setFetchSize(fetchSize);
+        }
+
+        final MetricRegistry metricRegistry = this.metricRegistrySupplier.get();
+        final long start = System.nanoTime();
+        return new ResultStream(ps.executeQuery(), start, metricRegistry.meter(this.rowsMetric),
+                metricRegistry.timer(this.firstRowMetric));
+    }
+}
@@ -0,0 +1,64 @@
+package com.grpctrl.db.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Buffers the rows streamed by a query so they can be passed on to a downstream consumer once the query has finished
+ * and its connection has been returned to the pool, which keeps slow consumers, like clients reading a response, from
+ * holding on to a connection. Only a bounded number of rows are buffered, after which the buffered rows and all the
+ * rows that follow are passed straight to the downstream consumer, so large results are streamed at the pace of the
+ * consumer rather than being held in memory.
+ *
+ * @param <T> the type of rows being buffered, which must not be reused by the query for later rows
+ */
+public class RowBuffer<T> implements Consumer<T> {
+    private final int capacity;
+    @Nonnull
+    private final Consumer<T> downstream;
+    @Nonnull
+    private final List<T> rows = new ArrayList<>();
+
+    private boolean overflowed = false;
+
+    /**
+     * @param capacity the maximum number of rows to buffer
+     * @param downstream the consumer to receive the rows
+     *
+     * @throws NullPointerException if the downstream consumer is {@code null}
+     */
+    public RowBuffer(final int capacity, @Nonnull final Consumer<T> downstream) {
+        this.capacity = capacity;
+        this.downstream = Objects.requireNonNull(downstream);
+    }
+
+    @Override
+    public void accept(@Nonnull final T row) {
+        if (!this.overflowed && this.rows.size() < this.capacity) {
+            this.rows.add(row);
+        } else {
+            flush();
+            this.downstream.accept(row);
+        }
+    }
+
+    /**
+     * @return whether the rows exceeded the capacity of the buffer, and were passed straight to the downstream consumer
+     */
+    public boolean isOverflowed() {
+        return this.overflowed;
+    }
+
+    /**
+     * Pass the buffered rows to the downstream consumer, after which all rows are passed straight through.
+     */
+    public void flush() {
+        this.overflowed = true;
+        this.rows.forEach(this.downstream);
+        this.rows.clear();
+    }
+}
@@ -0,0 +1,125 @@
+package com.grpctrl.db.usage;
+
+import org.apache.commons.lang3.builder.CompareToBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * An immutable snapshot of the resources used by an account, as stored in the {@code account_usage} table.
+ */
+public class AccountUsage implements Comparable<AccountUsage> {
+    private final long accountId;
+    private final long groups;
+    private final long tags;
+    private final int maxDepth;
+    private final long version;
+
+    /**
+     * @param accountId the unique identifier of the account that owns the resources
+     * @param groups the number of groups owned by the account
+     * @param tags the number of tags owned by the account
+     * @param maxDepth the deepest group-within-group depth used by the account
+     * @param version the version of the stored usage, which increases every time the usage changes
+     */
+    public AccountUsage(final long accountId, final long groups, final long tags, final int maxDepth,
+            final long version) {
+        this.accountId = accountId;
+        this.groups = groups;
+        this.tags = tags;
+        this.maxDepth = maxDepth;
+        this.version = version;
+    }
+
+    /**
+     * @return the unique identifier of the account that owns the resources
+     */
+    public long getAccountId() {
+        return this.accountId;
+    }
+
+    /**
+     * @return the number of groups owned by the account
+     */
+    public long getGroups() {
+        return this.groups;
+    }
+
+    /**
+     * @return the number of tags owned by the account
+     */
+    public long getTags() {
+        return this.tags;
+    }
+
+    /**
+     * @return the deepest group-within-group depth used by the account, which may be higher than the current depth
+     *     when groups have been removed since the usage was last reconciled
+     */
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * @return the version of the stored usage, which increases every time the usage changes
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @param other the usage to compare against
+     *
+     * @return whether the group and tag counts of this usage match the other usage
+     */
+    public boolean countsMatch(@Nonnull final AccountUsage other) {
+        return getGroups() == other.getGroups() && getTags() == other.getTags();
+    }
+
+    @Override
+    public int compareTo(@Nullable final AccountUsage other) {
+        if (other == null) {
+            return 1;
+        }
+
+        final CompareToBuilder cmp = new CompareToBuilder();
+        cmp.append(getAccountId(), other.getAccountId());
+        cmp.append(getGroups(), other.getGroups());
+        cmp.append(getTags(), other.getTags());
+        cmp.append(getMaxDepth(), other.getMaxDepth());
+        cmp.append(getVersion(), other.getVersion());
+        return cmp.toComparison();
+    }
+
+    @Override
+    public boolean equals(@CheckForNull final Object other) {
+        return other instanceof AccountUsage && compareTo((AccountUsage) other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        final HashCodeBuilder hash = new HashCodeBuilder();
+        hash.append(getAccountId());
+        hash.append(getGroups());
+        hash.append(getTags());
+        hash.append(getMaxDepth());
+        hash.append(getVersion());
+        return hash.toHashCode();
+    }
+
+    @Override
+    @Nonnull
+    public String toString() {
+        final ToStringBuilder str = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        str.append("accountId", getAccountId());
+        str.append("groups", getGroups());
+        str.append("tags", getTags());
+        str.append("maxDepth", getMaxDepth());
+        str.append("version", getVersion());
+        return str.build();
+    }
+}
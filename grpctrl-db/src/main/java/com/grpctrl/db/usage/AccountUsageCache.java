@@ -0,0 +1,131 @@
+package com.grpctrl.db.usage;
+
+import com.google.common.base.Preconditions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Caches the most recently committed {@link AccountUsage} of each account. The cache is split into stripes by account
+ * id, each a bounded map in least-recently-used order guarded by its own lock, so updates for different accounts
+ * rarely contend with each other. Usage is only replaced by a newer version, so usage published out of order by
+ * concurrent transactions never overwrites a more recent value.
+ */
+public class AccountUsageCache {
+    private static final int DEFAULT_STRIPES = 16;
+    private static final int DEFAULT_STRIPE_SIZE = 1024;
+
+    @Nonnull
+    private final Stripe[] stripes;
+
+    /**
+     * Create a cache with the default number and size of stripes.
+     */
+    public AccountUsageCache() {
+        this(DEFAULT_STRIPES, DEFAULT_STRIPE_SIZE);
+    }
+
+    /**
+     * @param stripes the number of stripes into which the cache is split, which must be a power of two
+     * @param stripeSize the maximum number of accounts to keep in each stripe
+     *
+     * @throws IllegalArgumentException if either of the parameters are invalid
+     */
+    public AccountUsageCache(final int stripes, final int stripeSize) {
+        Preconditions.checkArgument(stripes > 0 && Integer.bitCount(stripes) == 1, "Stripes must be a power of two");
+        Preconditions.checkArgument(stripeSize > 0, "Stripe size must be positive");
+
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(stripeSize);
+        }
+    }
+
+    @Nonnull
+    private Stripe stripe(final long accountId) {
+        final int hash = Long.hashCode(accountId);
+        return this.stripes[(hash ^ (hash >>> 16)) & (this.stripes.length - 1)];
+    }
+
+    /**
+     * @param accountId the unique identifier of the account whose usage should be retrieved
+     *
+     * @return the cached usage for the account, if available
+     */
+    @Nonnull
+    public Optional<AccountUsage> get(final long accountId) {
+        final Stripe stripe = stripe(accountId);
+        synchronized (stripe) {
+            return Optional.ofNullable(stripe.get(accountId));
+        }
+    }
+
+    /**
+     * Store the usage of an account, unless a newer version of the usage is already cached.
+     *
+     * @param usage the committed usage of the account
+     *
+     * @return whether the provided usage was stored
+     *
+     * @throws NullPointerException if the parameter is {@code null}
+     */
+    public boolean put(@Nonnull final AccountUsage usage) {
+        Objects.requireNonNull(usage);
+
+        final Stripe stripe = stripe(usage.getAccountId());
+        synchronized (stripe) {
+            final AccountUsage existing = stripe.get(usage.getAccountId());
+            if (existing != null && existing.getVersion() >= usage.getVersion()) {
+                return false;
+            }
+            stripe.put(usage.getAccountId(), usage);
+            return true;
+        }
+    }
+
+    /**
+     * Drop the usage for an account so that it will be reloaded the next time it is needed.
+     *
+     * @param accountId the unique identifier of the account whose usage should be dropped
+     */
+    public void invalidate(final long accountId) {
+        final Stripe stripe = stripe(accountId);
+        synchronized (stripe) {
+            stripe.remove(accountId);
+        }
+    }
+
+    /**
+     * Drop the usage for all accounts so that it will be reloaded the next time it is needed.
+     */
+    public void invalidateAll() {
+        for (final Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * A bounded map of account usage, evicting the least-recently-used account when full.
+     */
+    private static class Stripe extends LinkedHashMap<Long, AccountUsage> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        Stripe(final int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(@Nonnull final Map.Entry<Long, AccountUsage> eldest) {
+            return size() > this.maxSize;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+
+-- The cached accounts include the service level, and are found through the api logins, so changes to either of them
+-- are published as account changes on the change feed.
+CREATE TRIGGER service_levels_notify_insert AFTER INSERT ON service_levels REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
+CREATE TRIGGER service_levels_notify_update AFTER UPDATE ON service_levels REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
+CREATE TRIGGER service_levels_notify_delete AFTER DELETE ON service_levels REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
+
+CREATE TRIGGER api_logins_notify_insert AFTER INSERT ON api_logins REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
+CREATE TRIGGER api_logins_notify_update AFTER UPDATE ON api_logins REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
+CREATE TRIGGER api_logins_notify_delete AFTER DELETE ON api_logins REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
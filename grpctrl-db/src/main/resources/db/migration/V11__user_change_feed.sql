@@ -0,0 +1,51 @@
+
+-- Publishes changes to the users, and the auths, emails, roles and accounts that make up each user, as user events on
+-- the change feed. Users are not owned by an account, so the account in these events is always zero, and the id is the
+-- user id, or empty when the statement modified more than one user.
+CREATE FUNCTION notify_user_changes() RETURNS TRIGGER AS $$
+DECLARE
+    change RECORD;
+BEGIN
+    SELECT CASE WHEN COUNT(DISTINCT user_id) = 1 THEN MIN(user_id) END AS id, COUNT(*) AS count
+        INTO change FROM changed_rows;
+    IF change.count > 0 THEN
+        PERFORM pg_notify('grpctrl_changes', format('user,0,%s,%s', change.id, txid_current()));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER users_notify_insert AFTER INSERT ON users REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER users_notify_update AFTER UPDATE ON users REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER users_notify_delete AFTER DELETE ON users REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+
+CREATE TRIGGER user_auths_notify_insert AFTER INSERT ON user_auths REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER user_auths_notify_update AFTER UPDATE ON user_auths REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER user_auths_notify_delete AFTER DELETE ON user_auths REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+
+CREATE TRIGGER user_emails_notify_insert AFTER INSERT ON user_emails REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER user_emails_notify_update AFTER UPDATE ON user_emails REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER user_emails_notify_delete AFTER DELETE ON user_emails REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+
+CREATE TRIGGER user_roles_notify_insert AFTER INSERT ON user_roles REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER user_roles_notify_update AFTER UPDATE ON user_roles REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER user_roles_notify_delete AFTER DELETE ON user_roles REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+
+CREATE TRIGGER user_accounts_notify_insert AFTER INSERT ON user_accounts REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER user_accounts_notify_update AFTER UPDATE ON user_accounts REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
+CREATE TRIGGER user_accounts_notify_delete AFTER DELETE ON user_accounts REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_user_changes();
@@ -0,0 +1,36 @@
+
+-- Adds the origin to the change events, as a fifth field holding the application name of the connection that made the
+-- change. Each node connects with an application name of its own, so it can skip the events for its own writes, which
+-- it has already applied to its in-memory caches. The origin comes last since it is the only field that may contain a
+-- comma. The triggers are unchanged, only the functions they execute are replaced.
+--
+-- The triggers fire once per statement, and publish an event for each account modified by the statement, so a JDBC
+-- batch of single-row inserts still fires the triggers, and publishes an event with its own id, for every row. The
+-- groups and tags are therefore added with a single statement for each batch of rows, which inserts from unnested
+-- arrays, and only one event is published for each account in a batch.
+CREATE OR REPLACE FUNCTION notify_changes() RETURNS TRIGGER AS $$
+DECLARE
+    change RECORD;
+BEGIN
+    FOR change IN EXECUTE format('SELECT account_id, CASE WHEN COUNT(DISTINCT %1$I) = 1 THEN MIN(%1$I) END AS id '
+            || 'FROM changed_rows GROUP BY account_id', TG_ARGV[1]) LOOP
+        PERFORM pg_notify('grpctrl_changes', format('%s,%s,%s,%s,%s', TG_ARGV[0], change.account_id, change.id,
+            txid_current(), current_setting('application_name')));
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION notify_user_changes() RETURNS TRIGGER AS $$
+DECLARE
+    change RECORD;
+BEGIN
+    SELECT CASE WHEN COUNT(DISTINCT user_id) = 1 THEN MIN(user_id) END AS id, COUNT(*) AS count
+        INTO change FROM changed_rows;
+    IF change.count > 0 THEN
+        PERFORM pg_notify('grpctrl_changes',
+            format('user,0,%s,%s,%s', change.id, txid_current(), current_setting('application_name')));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,3 @@
+
+-- Supports the keyset pagination of child groups, which are retrieved in group id order within a parent.
+CREATE INDEX groups_idx_parent ON groups (account_id, parent_id, group_id);
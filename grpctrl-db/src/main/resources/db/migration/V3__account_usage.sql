@@ -0,0 +1,29 @@
+
+-- Tracks the resources used by each account so quota checks do not need to count the groups and tags on every add.
+-- The counts are maintained by the data access layer in the same transaction as the changes to the groups and tags,
+-- and the max_depth column is the deepest group-within-group depth used, which is only ever raised by adds and is
+-- lowered again when the usage is reconciled. The version is incremented on every change to order cached copies.
+CREATE TABLE account_usage (
+    account_id       BIGINT        NOT NULL,
+
+    group_count      BIGINT        NOT NULL DEFAULT 0,
+    tag_count        BIGINT        NOT NULL DEFAULT 0,
+    max_depth        INTEGER       NOT NULL DEFAULT 0,
+    version          BIGINT        NOT NULL DEFAULT 0,
+
+    CONSTRAINT account_usage_pk PRIMARY KEY (account_id),
+    CONSTRAINT account_usage_fk_accounts FOREIGN KEY (account_id) REFERENCES accounts (account_id) ON DELETE CASCADE
+);
+
+INSERT INTO account_usage (account_id, group_count, tag_count, max_depth)
+    WITH RECURSIVE depths AS (
+        SELECT account_id, group_id, 1 AS depth FROM groups WHERE parent_id IS NULL
+        UNION ALL
+        SELECT g.account_id, g.group_id, d.depth + 1 FROM groups g JOIN depths d ON
+            (g.account_id = d.account_id AND g.parent_id = d.group_id)
+    )
+    SELECT a.account_id,
+        (SELECT COUNT(*) FROM groups g WHERE g.account_id = a.account_id),
+        (SELECT COUNT(*) FROM tags t WHERE t.account_id = a.account_id),
+        COALESCE((SELECT MAX(depth) FROM depths d WHERE d.account_id = a.account_id), 0)
+    FROM accounts a;
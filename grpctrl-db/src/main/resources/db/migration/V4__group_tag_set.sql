@@ -0,0 +1,15 @@
+
+-- Holds a copy of the tags of each group as a JSON object mapping each tag label to the array of values, so tag
+-- selectors can be evaluated against a single GIN-indexed column instead of one join against the tags table for each
+-- requirement. The tag set is maintained by the data access layer in the same transaction as the changes to the tags.
+ALTER TABLE groups ADD COLUMN tag_set JSONB NOT NULL DEFAULT '{}';
+
+UPDATE groups g SET tag_set = s.tag_set FROM (
+    SELECT account_id, group_id, jsonb_object_agg(tag_label, tag_values) AS tag_set FROM (
+        SELECT account_id, group_id, tag_label, jsonb_agg(tag_value ORDER BY tag_value) AS tag_values
+        FROM tags GROUP BY account_id, group_id, tag_label
+    ) l GROUP BY account_id, group_id
+) s WHERE g.account_id = s.account_id AND g.group_id = s.group_id;
+
+-- The default jsonb operator class supports both the containment (@>) and the key existence (?) operators.
+CREATE INDEX groups_idx_tag_set ON groups USING GIN (tag_set);
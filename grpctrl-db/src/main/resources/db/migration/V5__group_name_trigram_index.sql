@@ -0,0 +1,18 @@
+
+-- Supports the regular expression searches on group names with a trigram index, so the database can narrow the
+-- groups to those containing the literal text in each expression instead of scanning all the groups of an account.
+-- The pg_trgm extension is not available on every server, in which case the searches rely on the in-memory group
+-- name index maintained by the data access layer.
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_available_extensions WHERE name = 'pg_trgm') THEN
+        CREATE EXTENSION IF NOT EXISTS pg_trgm;
+        CREATE INDEX groups_idx_group_name_trgm ON groups USING GIN (group_name gin_trgm_ops);
+    ELSE
+        RAISE NOTICE 'The pg_trgm extension is not available, group names will not be trigram indexed';
+    END IF;
+EXCEPTION
+    WHEN insufficient_privilege THEN
+        RAISE NOTICE 'Unable to create the pg_trgm extension, group names will not be trigram indexed';
+END
+$$;
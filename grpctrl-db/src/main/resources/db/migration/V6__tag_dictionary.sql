@@ -0,0 +1,48 @@
+
+-- Stores each distinct tag label and value once, with the tags table referring to them by integer id, since the same
+-- few labels and values are repeated across many groups. Entries are never removed, so the ids can be cached.
+CREATE TABLE tag_labels (
+    label_id         SERIAL        NOT NULL,
+    tag_label        VARCHAR(200)  NOT NULL,
+
+    CONSTRAINT tag_labels_pk PRIMARY KEY (label_id),
+    CONSTRAINT tag_labels_uniq_tag_label UNIQUE (tag_label)
+);
+
+CREATE TABLE tag_values (
+    value_id         SERIAL        NOT NULL,
+    tag_value        VARCHAR(200)  NOT NULL,
+
+    CONSTRAINT tag_values_pk PRIMARY KEY (value_id),
+    CONSTRAINT tag_values_uniq_tag_value UNIQUE (tag_value)
+);
+
+INSERT INTO tag_labels (tag_label) SELECT DISTINCT tag_label FROM tags ORDER BY tag_label;
+INSERT INTO tag_values (tag_value) SELECT DISTINCT tag_value FROM tags ORDER BY tag_value;
+
+-- The tags are copied into a new table, which is smaller than rewriting the existing one in place.
+CREATE TABLE tags_encoded (
+    account_id       BIGINT        NOT NULL,
+    group_id         BIGINT        NOT NULL,
+
+    label_id         INTEGER       NOT NULL,
+    value_id         INTEGER       NOT NULL
+);
+
+INSERT INTO tags_encoded (account_id, group_id, label_id, value_id)
+    SELECT t.account_id, t.group_id, l.label_id, v.value_id FROM tags t
+    JOIN tag_labels l ON (l.tag_label = t.tag_label)
+    JOIN tag_values v ON (v.tag_value = t.tag_value);
+
+DROP TABLE tags;
+ALTER TABLE tags_encoded RENAME TO tags;
+
+ALTER TABLE tags ADD CONSTRAINT tags_pk PRIMARY KEY (group_id, label_id, value_id);
+ALTER TABLE tags ADD CONSTRAINT tags_fk_accounts
+    FOREIGN KEY (account_id) REFERENCES accounts (account_id) ON DELETE CASCADE;
+ALTER TABLE tags ADD CONSTRAINT tags_fk_groups
+    FOREIGN KEY (group_id) REFERENCES groups (group_id) ON DELETE CASCADE;
+ALTER TABLE tags ADD CONSTRAINT tags_fk_tag_labels FOREIGN KEY (label_id) REFERENCES tag_labels (label_id);
+ALTER TABLE tags ADD CONSTRAINT tags_fk_tag_values FOREIGN KEY (value_id) REFERENCES tag_values (value_id);
+
+CREATE INDEX tags_idx_label ON tags (label_id);
@@ -0,0 +1,17 @@
+
+-- Removed accounts and groups are marked as deleted, and hidden from all queries, so removals do not need to wait for
+-- the cascading deletes of large subtrees. The marked rows are deleted later by a background purger in small batches.
+ALTER TABLE accounts ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE groups ADD COLUMN deleted BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Used by the purger to find the marked rows.
+CREATE INDEX accounts_idx_deleted ON accounts (account_id) WHERE deleted;
+CREATE INDEX groups_idx_deleted ON groups (group_id) WHERE deleted;
+
+-- A removed group keeps its name until it is purged, so the names only need to be unique among the remaining groups.
+DROP INDEX groups_uniq_name_with_parent;
+DROP INDEX groups_uniq_name_without_parent;
+CREATE UNIQUE INDEX groups_uniq_name_with_parent ON groups (account_id, parent_id, group_name)
+    WHERE parent_id IS NOT NULL AND NOT deleted;
+CREATE UNIQUE INDEX groups_uniq_name_without_parent ON groups (account_id, group_name)
+    WHERE parent_id IS NULL AND NOT deleted;
@@ -0,0 +1,87 @@
+
+-- Hash partitions the groups and tags tables on the account id, so the indexes and vacuum work of each partition only
+-- grow with the accounts hashed into it, and every query for a single account is pruned to a single partition. Every
+-- query run by the data access layer includes the account id for this reason.
+--
+-- The primary and foreign keys of partitioned tables need to include the partition key, so the account id is added to
+-- them. A group id remains unique on its own since it is assigned from the same sequence. Foreign keys that reference a
+-- partitioned table, which the parent groups and the tags both need, are only supported from PostgreSQL 12, so the
+-- tables are left as they are on older servers.
+--
+-- The statements are executed dynamically so the partitioning syntax is not parsed on servers that do not support it.
+DO $$
+DECLARE
+    partitions CONSTANT INTEGER := 16;
+BEGIN
+    IF current_setting('server_version_num')::INTEGER < 120000 THEN
+        RAISE NOTICE 'Partitioned foreign keys require PostgreSQL 12, the groups and tags tables are not partitioned';
+        RETURN;
+    END IF;
+
+    -- The group id sequence is kept, along with the ids already assigned from it, when the old table is dropped.
+    EXECUTE 'ALTER SEQUENCE groups_group_id_seq OWNED BY NONE';
+
+    EXECUTE 'CREATE TABLE groups_partitioned ('
+        || '    group_id BIGINT NOT NULL DEFAULT nextval(''groups_group_id_seq''),'
+        || '    account_id BIGINT NOT NULL,'
+        || '    parent_id BIGINT,'
+        || '    group_name VARCHAR(200) NOT NULL,'
+        || '    tag_set JSONB NOT NULL DEFAULT ''{}'','
+        || '    deleted BOOLEAN NOT NULL DEFAULT FALSE'
+        || ') PARTITION BY HASH (account_id)';
+    EXECUTE 'CREATE TABLE tags_partitioned ('
+        || '    account_id BIGINT NOT NULL,'
+        || '    group_id BIGINT NOT NULL,'
+        || '    label_id INTEGER NOT NULL,'
+        || '    value_id INTEGER NOT NULL'
+        || ') PARTITION BY HASH (account_id)';
+
+    FOR remainder IN 0 .. partitions - 1 LOOP
+        EXECUTE format('CREATE TABLE groups_p%s PARTITION OF groups_partitioned '
+            || 'FOR VALUES WITH (MODULUS %s, REMAINDER %s)', remainder, partitions, remainder);
+        EXECUTE format('CREATE TABLE tags_p%s PARTITION OF tags_partitioned '
+            || 'FOR VALUES WITH (MODULUS %s, REMAINDER %s)', remainder, partitions, remainder);
+    END LOOP;
+
+    -- The rows are copied before the keys and indexes are created, which is faster than maintaining them row by row.
+    EXECUTE 'INSERT INTO groups_partitioned (group_id, account_id, parent_id, group_name, tag_set, deleted) '
+        || 'SELECT group_id, account_id, parent_id, group_name, tag_set, deleted FROM groups';
+    EXECUTE 'INSERT INTO tags_partitioned (account_id, group_id, label_id, value_id) '
+        || 'SELECT account_id, group_id, label_id, value_id FROM tags';
+
+    EXECUTE 'DROP TABLE tags';
+    EXECUTE 'DROP TABLE groups';
+    EXECUTE 'ALTER TABLE groups_partitioned RENAME TO groups';
+    EXECUTE 'ALTER TABLE tags_partitioned RENAME TO tags';
+    EXECUTE 'ALTER SEQUENCE groups_group_id_seq OWNED BY groups.group_id';
+
+    EXECUTE 'ALTER TABLE groups ADD CONSTRAINT groups_pk PRIMARY KEY (account_id, group_id)';
+    EXECUTE 'ALTER TABLE groups ADD CONSTRAINT groups_fk_accounts '
+        || 'FOREIGN KEY (account_id) REFERENCES accounts (account_id) ON DELETE CASCADE';
+    EXECUTE 'ALTER TABLE groups ADD CONSTRAINT groups_fk_parent '
+        || 'FOREIGN KEY (account_id, parent_id) REFERENCES groups (account_id, group_id) ON DELETE CASCADE';
+    EXECUTE 'CREATE INDEX groups_idx_group_name ON groups (group_name)';
+    EXECUTE 'CREATE INDEX groups_idx_parent ON groups (account_id, parent_id, group_id)';
+    EXECUTE 'CREATE INDEX groups_idx_tag_set ON groups USING GIN (tag_set)';
+    EXECUTE 'CREATE INDEX groups_idx_deleted ON groups (group_id) WHERE deleted';
+    EXECUTE 'CREATE UNIQUE INDEX groups_uniq_name_with_parent ON groups (account_id, parent_id, group_name) '
+        || 'WHERE parent_id IS NOT NULL AND NOT deleted';
+    EXECUTE 'CREATE UNIQUE INDEX groups_uniq_name_without_parent ON groups (account_id, group_name) '
+        || 'WHERE parent_id IS NULL AND NOT deleted';
+    IF EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm') THEN
+        EXECUTE 'CREATE INDEX groups_idx_group_name_trgm ON groups USING GIN (group_name gin_trgm_ops)';
+    END IF;
+
+    EXECUTE 'ALTER TABLE tags ADD CONSTRAINT tags_pk PRIMARY KEY (account_id, group_id, label_id, value_id)';
+    EXECUTE 'ALTER TABLE tags ADD CONSTRAINT tags_fk_accounts '
+        || 'FOREIGN KEY (account_id) REFERENCES accounts (account_id) ON DELETE CASCADE';
+    EXECUTE 'ALTER TABLE tags ADD CONSTRAINT tags_fk_groups '
+        || 'FOREIGN KEY (account_id, group_id) REFERENCES groups (account_id, group_id) ON DELETE CASCADE';
+    EXECUTE 'ALTER TABLE tags ADD CONSTRAINT tags_fk_tag_labels FOREIGN KEY (label_id) REFERENCES tag_labels (label_id)';
+    EXECUTE 'ALTER TABLE tags ADD CONSTRAINT tags_fk_tag_values FOREIGN KEY (value_id) REFERENCES tag_values (value_id)';
+    EXECUTE 'CREATE INDEX tags_idx_label ON tags (label_id)';
+
+    EXECUTE 'ANALYZE groups';
+    EXECUTE 'ANALYZE tags';
+END
+$$;
@@ -0,0 +1,40 @@
+
+-- Publishes compact change events on the grpctrl_changes channel whenever accounts, groups or tags are modified, so
+-- the in-memory caches of every node can be invalidated. Each event is formatted as "entity,account,id,version" where
+-- the version is the id of the modifying transaction. The tag events identify the group whose tags changed.
+--
+-- The triggers fire once per statement and publish one event for each account modified by the statement, so large
+-- batches do not flood the notification queue. The id is left empty when the statement modified more than one row of
+-- the account, which tells the listeners to refresh everything of that type for the account.
+CREATE FUNCTION notify_changes() RETURNS TRIGGER AS $$
+DECLARE
+    change RECORD;
+BEGIN
+    FOR change IN EXECUTE format('SELECT account_id, CASE WHEN COUNT(DISTINCT %1$I) = 1 THEN MIN(%1$I) END AS id '
+            || 'FROM changed_rows GROUP BY account_id', TG_ARGV[1]) LOOP
+        PERFORM pg_notify('grpctrl_changes',
+            format('%s,%s,%s,%s', TG_ARGV[0], change.account_id, change.id, txid_current()));
+    END LOOP;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- A trigger with transition tables can only handle a single event, so each table has one trigger per event.
+CREATE TRIGGER accounts_notify_insert AFTER INSERT ON accounts REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
+CREATE TRIGGER accounts_notify_update AFTER UPDATE ON accounts REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
+CREATE TRIGGER accounts_notify_delete AFTER DELETE ON accounts REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('account', 'account_id');
+
+CREATE TRIGGER groups_notify_insert AFTER INSERT ON groups REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('group', 'group_id');
+CREATE TRIGGER groups_notify_update AFTER UPDATE ON groups REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('group', 'group_id');
+CREATE TRIGGER groups_notify_delete AFTER DELETE ON groups REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('group', 'group_id');
+
+CREATE TRIGGER tags_notify_insert AFTER INSERT ON tags REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('tag', 'group_id');
+CREATE TRIGGER tags_notify_delete AFTER DELETE ON tags REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE PROCEDURE notify_changes('tag', 'group_id');
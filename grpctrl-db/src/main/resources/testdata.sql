@@ -130,7 +130,11 @@ INSERT INTO groups (group_id, account_id, parent_id, group_name) VALUES
 (34, 2, 31, 'M.3');
 
 
-INSERT INTO tags (account_id, group_id, tag_label, tag_value) VALUES
+-- Tags reference their labels and values in the dictionary tables, so they are staged with strings first.
+CREATE TEMPORARY TABLE testdata_tags (account_id INTEGER, group_id INTEGER, tag_label VARCHAR(200),
+    tag_value VARCHAR(200));
+
+INSERT INTO testdata_tags (account_id, group_id, tag_label, tag_value) VALUES
 (1, 1,  'path', 'A'),
 (1, 2,  'path', 'B'),
 (1, 3,  'path', 'A  A.1'),
@@ -166,4 +170,19 @@ INSERT INTO tags (account_id, group_id, tag_label, tag_value) VALUES
 (2, 33, 'path', 'A  A.1  A.1.1  M  M.2'),
 (2, 34, 'path', 'A  A.1  A.1.1  M  M.3');
 
+INSERT INTO tag_labels (tag_label) SELECT DISTINCT tag_label FROM testdata_tags ON CONFLICT DO NOTHING;
+INSERT INTO tag_values (tag_value) SELECT DISTINCT tag_value FROM testdata_tags ON CONFLICT DO NOTHING;
+
+INSERT INTO tags (account_id, group_id, label_id, value_id)
+    SELECT t.account_id, t.group_id, l.label_id, v.value_id FROM testdata_tags t
+    JOIN tag_labels l ON (l.tag_label = t.tag_label) JOIN tag_values v ON (v.tag_value = t.tag_value);
+
+DROP TABLE testdata_tags;
+
+-- The tag sets used to search the groups by tag are built from the tags.
+UPDATE groups g SET tag_set = COALESCE((SELECT jsonb_object_agg(tag_label, tag_values) FROM (SELECT tag_label,
+    jsonb_agg(tag_value ORDER BY tag_value) AS tag_values FROM tags t JOIN tag_labels USING (label_id)
+    JOIN tag_values USING (value_id) WHERE t.account_id = g.account_id AND t.group_id = g.group_id
+    GROUP BY tag_label) l), '{}');
+
 
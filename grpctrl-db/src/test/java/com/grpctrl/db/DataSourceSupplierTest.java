@@ -1,10 +1,20 @@
 package com.grpctrl.db;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
 import com.grpctrl.common.config.ConfigKeys;
 import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
+import com.grpctrl.db.pool.PoolSample;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValue;
@@ -15,6 +25,10 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -22,11 +36,24 @@ import java.util.Map;
  * Perform testing on the {@link DataSourceSupplier}.
  */
 public class DataSourceSupplierTest {
+    private static MetricRegistry metricRegistry;
+    private static HealthCheckRegistry healthCheckRegistry;
     private static DataSourceSupplier supplier;
 
     @BeforeClass
     public static void beforeClass() {
-        final Map<String, ConfigValue> map = new HashMap<>();
+        metricRegistry = new MetricRegistry();
+        healthCheckRegistry = new HealthCheckRegistry();
+        supplier = create(new HashMap<>(), metricRegistry, healthCheckRegistry);
+    }
+
+    private static DataSourceSupplier create(final Map<String, ConfigValue> map) {
+        return create(map, new MetricRegistry(), new HealthCheckRegistry());
+    }
+
+    private static DataSourceSupplier create(
+            final Map<String, ConfigValue> map, final MetricRegistry metricRegistry,
+            final HealthCheckRegistry healthCheckRegistry) {
         map.put(ConfigKeys.DB_URL.getKey(), ConfigValueFactory.fromAnyRef("jdbc:hsqldb:mem:grpctrl"));
         map.put(ConfigKeys.DB_USERNAME.getKey(), ConfigValueFactory.fromAnyRef("SA"));
         map.put(ConfigKeys.DB_PASSWORD.getKey(), ConfigValueFactory.fromAnyRef(""));
@@ -36,6 +63,7 @@ public class DataSourceSupplierTest {
         map.put(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
         map.put(ConfigKeys.DB_CLEAN.getKey(), ConfigValueFactory.fromAnyRef("true"));
         map.put(ConfigKeys.DB_MIGRATE.getKey(), ConfigValueFactory.fromAnyRef("false"));
+        map.put(ConfigKeys.DB_FETCH_SIZE.getKey(), ConfigValueFactory.fromAnyRef(100));
 
         map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
         map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
@@ -45,7 +73,13 @@ public class DataSourceSupplierTest {
         final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
         Mockito.when(configSupplier.get()).thenReturn(config);
 
-        supplier = new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier));
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(metricRegistry);
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(healthCheckRegistry);
+
+        return new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier),
+                metricRegistrySupplier, healthCheckRegistrySupplier);
     }
 
     @Test
@@ -53,6 +87,115 @@ public class DataSourceSupplierTest {
         assertNotNull(supplier.get());
     }
 
+    @Test
+    public void testGetReadOnlyWithoutReplica() {
+        assertSame(supplier.get(), supplier.getReadOnly());
+    }
+
+    @Test
+    public void testCheckReplicaWithoutReplica() {
+        supplier.checkReplica();
+        assertSame(supplier.get(), supplier.getReadOnly());
+    }
+
+    @Test
+    public void testGetReadOnlyWithUnavailableReplica() {
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_REPLICA_URL.getKey(), ConfigValueFactory.fromAnyRef("jdbc:hsqldb:mem:grpctrl-replica"));
+        map.put(ConfigKeys.DB_REPLICA_MAXIMUM_POOL_SIZE.getKey(), ConfigValueFactory.fromAnyRef(2));
+        map.put(ConfigKeys.DB_REPLICA_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("1 second"));
+        map.put(ConfigKeys.DB_REPLICA_MAX_LAG.getKey(), ConfigValueFactory.fromAnyRef("5 seconds"));
+        final DataSourceSupplier withReplica = create(map);
+
+        // The replica is not used before its replication lag has first been sampled.
+        assertSame(withReplica.get(), withReplica.getReadOnly());
+
+        // The replication lag cannot be determined, so the primary database is still used for the reads.
+        withReplica.checkReplica();
+        assertSame(withReplica.get(), withReplica.getReadOnly());
+    }
+
+    @Test
+    public void testConnect() throws SQLException {
+        try (final Connection conn = supplier.connect()) {
+            assertTrue(conn.isValid(1));
+            assertTrue(conn.getAutoCommit());
+        }
+    }
+
+    @Test
+    public void testGetFetchSize() {
+        assertEquals(100, supplier.getFetchSize());
+    }
+
+    @Test
+    public void testGetStreamBufferSize() {
+        // Without the configuration, the rows are streamed straight from the connection.
+        assertEquals(0, supplier.getStreamBufferSize());
+
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_STREAM_BUFFER_SIZE.getKey(), ConfigValueFactory.fromAnyRef(50));
+        assertEquals(50, create(map).getStreamBufferSize());
+    }
+
+    @Test
+    public void testIsDaoMetricsEnabled() {
+        assertFalse(supplier.isDaoMetricsEnabled());
+
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_DAO_METRICS_ENABLED.getKey(), ConfigValueFactory.fromAnyRef(true));
+        assertTrue(create(map).isDaoMetricsEnabled());
+    }
+
+    @Test
+    public void testPoolMetrics() throws SQLException {
+        final String poolName = supplier.getPoolConfig().getPoolName();
+        assertEquals(MetricRegistry.name(DataSourceSupplier.class, "primary"), poolName);
+
+        supplier.getPoolMonitor().sample();
+        try (final Connection conn = supplier.get().getConnection()) {
+            assertTrue(conn.isValid(1));
+        }
+
+        final PoolSample sample = supplier.getPoolMonitor().sample();
+        assertEquals(1, sample.getAcquisitions());
+        assertEquals(1, sample.getUsages());
+
+        assertTrue(metricRegistry.getTimers().get(MetricRegistry.name(poolName, "pool", "Wait")).getCount() > 0);
+        assertTrue(metricRegistry.getGauges().containsKey(MetricRegistry.name(poolName, "pool", "ActiveConnections")));
+        assertTrue(healthCheckRegistry.runHealthCheck(MetricRegistry.name(poolName, "pool", "ConnectivityCheck"))
+                .isHealthy());
+    }
+
+    @Test
+    public void testGetPoolConfig() {
+        assertEquals(10, supplier.getPoolConfig().getMaximumPoolSize());
+        assertSame(supplier.get(), supplier.getPoolConfig());
+    }
+
+    @Test
+    public void testGetSlowQueryLog() throws SQLException {
+        // Without the configuration, the statements are not intercepted.
+        assertFalse(supplier.getSlowQueryLog().isPresent());
+
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_SLOW_QUERY_ENABLED.getKey(), ConfigValueFactory.fromAnyRef(true));
+        map.put(ConfigKeys.DB_SLOW_QUERY_THRESHOLD.getKey(), ConfigValueFactory.fromAnyRef("0 seconds"));
+        map.put(ConfigKeys.DB_SLOW_QUERY_RATE_LIMIT.getKey(), ConfigValueFactory.fromAnyRef(30));
+        map.put(ConfigKeys.DB_SLOW_QUERY_LOG_SIZE.getKey(), ConfigValueFactory.fromAnyRef(10));
+        map.put(ConfigKeys.DB_SLOW_QUERY_EXPLAIN_TIMEOUT.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
+        final DataSourceSupplier withSlowQueries = create(map);
+
+        assertTrue(withSlowQueries.getSlowQueryLog().isPresent());
+        assertNotSame(withSlowQueries.get(), withSlowQueries.getPoolConfig());
+        try (final Connection conn = withSlowQueries.get().getConnection();
+             final PreparedStatement ps = conn.prepareStatement("VALUES (1)");
+             final ResultSet rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+        }
+        assertEquals("VALUES (1)", withSlowQueries.getSlowQueryLog().get().getSlowQueries().get(0).getSql());
+    }
+
     @Test
     public void testGetContext() {
         assertNotNull(supplier.getContext(getClass()));
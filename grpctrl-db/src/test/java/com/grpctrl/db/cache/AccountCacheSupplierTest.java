@@ -0,0 +1,82 @@
+package com.grpctrl.db.cache;
+
+import static org.junit.Assert.assertNotNull;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.feed.ChangeFeed;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.glassfish.hk2.api.DynamicConfiguration;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Perform testing on the {@link AccountCacheSupplier}.
+ */
+public class AccountCacheSupplierTest {
+    private static ChangeFeed changeFeed;
+    private static AccountCacheSupplier supplier;
+
+    @BeforeClass
+    public static void beforeClass() {
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_ACCOUNT_CACHE_SIZE.getKey(), ConfigValueFactory.fromAnyRef(100));
+        map.put(ConfigKeys.DB_ACCOUNT_CACHE_TTL.getKey(), ConfigValueFactory.fromAnyRef("5 minutes"));
+        map.put(ConfigKeys.DB_ACCOUNT_CACHE_NEGATIVE_TTL.getKey(), ConfigValueFactory.fromAnyRef("30 seconds"));
+
+        final Config config = ConfigFactory.parseMap(map);
+
+        final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
+        Mockito.when(configSupplier.get()).thenReturn(config);
+
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+
+        changeFeed = Mockito.mock(ChangeFeed.class);
+        final ChangeFeedSupplier changeFeedSupplier = Mockito.mock(ChangeFeedSupplier.class);
+        Mockito.when(changeFeedSupplier.get()).thenReturn(changeFeed);
+
+        supplier = new AccountCacheSupplier(configSupplier, Mockito.mock(AccountDaoSupplier.class),
+                metricRegistrySupplier, changeFeedSupplier);
+    }
+
+    @Test
+    public void testGet() {
+        assertNotNull(supplier.get());
+        Mockito.verify(changeFeed).subscribe(supplier.get());
+    }
+
+    @Test
+    public void testGetContext() {
+        assertNotNull(supplier.getContext(getClass()));
+    }
+
+    @Test
+    public void testProvide() {
+        assertNotNull(supplier.provide());
+    }
+
+    @Test
+    public void testDispose() {
+        // Nothing to really test here.
+        supplier.dispose(supplier.get());
+    }
+
+    @Test
+    public void testBinder() {
+        // Nothing to really test here.
+        new AccountCacheSupplier.Binder().bind(Mockito.mock(DynamicConfiguration.class));
+    }
+}
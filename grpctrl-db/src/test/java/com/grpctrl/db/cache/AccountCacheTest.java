@@ -0,0 +1,134 @@
+package com.grpctrl.db.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ApiLogin;
+import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.feed.ChangeEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Perform testing on the {@link AccountCache} class.
+ */
+public class AccountCacheTest {
+    private final ApiLogin known = new ApiLogin("key", "secret");
+    private final ApiLogin unknown = new ApiLogin("key", "wrong");
+
+    private AccountDao accountDao;
+    private MetricRegistry metricRegistry;
+    private AccountCache accountCache;
+
+    @Before
+    public void before() {
+        accountDao = Mockito.mock(AccountDao.class);
+        Mockito.when(accountDao.get(known)).thenReturn(Optional.of(new Account(1L, "account", new ServiceLevel())));
+        Mockito.when(accountDao.get(unknown)).thenReturn(Optional.empty());
+
+        final AccountDaoSupplier accountDaoSupplier = Mockito.mock(AccountDaoSupplier.class);
+        Mockito.when(accountDaoSupplier.get()).thenReturn(accountDao);
+
+        metricRegistry = new MetricRegistry();
+        accountCache = new AccountCache(accountDaoSupplier, metricRegistry, 100, 60000, 60000);
+    }
+
+    private long count(final String name) {
+        return metricRegistry.counter(MetricRegistry.name(AccountCache.class, name)).getCount();
+    }
+
+    @Test
+    public void testGetCachesAccount() {
+        final Optional<Account> first = accountCache.get(known);
+        final Optional<Account> second = accountCache.get(known);
+        assertTrue(first.isPresent());
+        assertEquals(first, second);
+        // Each caller receives a copy it is free to modify.
+        assertNotSame(first.get(), second.get());
+
+        Mockito.verify(accountDao, Mockito.times(1)).get(known);
+        assertEquals(1, count("hits"));
+        assertEquals(1, count("misses"));
+        assertEquals(1, metricRegistry.timer(MetricRegistry.name(AccountCache.class, "load")).getCount());
+    }
+
+    @Test
+    public void testGetCachesMissingAccount() {
+        assertFalse(accountCache.get(unknown).isPresent());
+        assertFalse(accountCache.get(unknown).isPresent());
+
+        Mockito.verify(accountDao, Mockito.times(1)).get(unknown);
+        assertEquals(1, count("hits"));
+        assertEquals(1, count("misses"));
+    }
+
+    @Test
+    public void testChangedAccount() {
+        accountCache.get(known);
+        accountCache.get(unknown);
+
+        // Changes to other accounts do not affect the cached account, but the missing logins may now exist.
+        accountCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.ACCOUNT, 2, 2L, 10)));
+        accountCache.get(known);
+        accountCache.get(unknown);
+        Mockito.verify(accountDao, Mockito.times(1)).get(known);
+        Mockito.verify(accountDao, Mockito.times(2)).get(unknown);
+
+        // Group changes do not affect the accounts.
+        accountCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.GROUP, 1, 5L, 11)));
+        accountCache.get(known);
+        Mockito.verify(accountDao, Mockito.times(1)).get(known);
+
+        accountCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.ACCOUNT, 1, 1L, 12)));
+        accountCache.get(known);
+        Mockito.verify(accountDao, Mockito.times(2)).get(known);
+    }
+
+    @Test
+    public void testResync() {
+        accountCache.get(known);
+        accountCache.get(unknown);
+        accountCache.resync();
+        accountCache.get(known);
+        accountCache.get(unknown);
+
+        Mockito.verify(accountDao, Mockito.times(2)).get(known);
+        Mockito.verify(accountDao, Mockito.times(2)).get(unknown);
+    }
+
+    @Test
+    public void testInvalidatedDuringLoad() {
+        Mockito.when(accountDao.get(known)).thenAnswer(invocation -> {
+            // The account changes while it is being loaded, so the loaded account may already be stale.
+            accountCache.invalidate(1L);
+            return Optional.of(new Account(1L, "account", new ServiceLevel()));
+        });
+
+        assertTrue(accountCache.get(known).isPresent());
+        assertTrue(accountCache.get(known).isPresent());
+        Mockito.verify(accountDao, Mockito.times(2)).get(known);
+    }
+
+    @Test
+    public void testExpiration() throws InterruptedException {
+        final AccountDaoSupplier accountDaoSupplier = Mockito.mock(AccountDaoSupplier.class);
+        Mockito.when(accountDaoSupplier.get()).thenReturn(accountDao);
+        final AccountCache expiring = new AccountCache(accountDaoSupplier, metricRegistry, 100, 60000, 1);
+
+        expiring.get(unknown);
+        Thread.sleep(10);
+        expiring.get(unknown);
+        Mockito.verify(accountDao, Mockito.times(2)).get(unknown);
+    }
+}
@@ -0,0 +1,126 @@
+package com.grpctrl.db.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.common.model.User;
+import com.grpctrl.db.feed.ChangeEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Perform testing on the {@link UserCache} class.
+ */
+public class UserCacheTest {
+    private final AtomicInteger validations = new AtomicInteger();
+    private final Supplier<User> validator = () -> {
+        validations.incrementAndGet();
+        final User user = new User("user");
+        user.setId(5L);
+        user.getAccounts().add(new Account(7L, "account", new ServiceLevel()));
+        return user;
+    };
+
+    private MetricRegistry metricRegistry;
+    private UserCache userCache;
+
+    @Before
+    public void before() {
+        validations.set(0);
+        metricRegistry = new MetricRegistry();
+        userCache = new UserCache(metricRegistry, 100, 60000);
+    }
+
+    private long count(final String name) {
+        return metricRegistry.counter(MetricRegistry.name(UserCache.class, name)).getCount();
+    }
+
+    @Test
+    public void testGetCachesValidatedCredentials() {
+        final User first = userCache.get("user", "password", validator);
+        final User second = userCache.get("user", "password", validator);
+        assertEquals(first, second);
+        // Each caller receives a copy it is free to modify.
+        assertNotSame(first, second);
+
+        assertEquals(1, validations.get());
+        assertEquals(1, count("hits"));
+        assertEquals(1, count("misses"));
+        assertEquals(1, metricRegistry.timer(MetricRegistry.name(UserCache.class, "load")).getCount());
+    }
+
+    @Test
+    public void testDifferentPassword() {
+        userCache.get("user", "password", validator);
+        userCache.get("user", "other", validator);
+        assertEquals(2, validations.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFailedValidationNotCached() {
+        try {
+            userCache.get("user", "password", () -> {
+                throw new IllegalStateException("Invalid");
+            });
+        } catch (final IllegalStateException invalid) {
+            userCache.get("user", "password", validator);
+            assertEquals(1, validations.get());
+            throw invalid;
+        }
+    }
+
+    @Test
+    public void testChangedUser() {
+        userCache.get("user", "password", validator);
+
+        // Changes to other users and accounts do not affect the cached user.
+        userCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.USER, 0, 6L, 10)));
+        userCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.ACCOUNT, 8, 8L, 10)));
+        userCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.GROUP, 7, 1L, 10)));
+        userCache.get("user", "password", validator);
+        assertEquals(1, validations.get());
+
+        userCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.USER, 0, 5L, 11)));
+        userCache.get("user", "password", validator);
+        assertEquals(2, validations.get());
+
+        userCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.USER, 0, null, 12)));
+        userCache.get("user", "password", validator);
+        assertEquals(3, validations.get());
+    }
+
+    @Test
+    public void testChangedAccount() {
+        userCache.get("user", "password", validator);
+        userCache.changed(Collections.singleton(new ChangeEvent(ChangeEvent.Entity.ACCOUNT, 7, 7L, 10)));
+        userCache.get("user", "password", validator);
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    public void testResync() {
+        userCache.get("user", "password", validator);
+        userCache.resync();
+        userCache.get("user", "password", validator);
+        assertEquals(2, validations.get());
+    }
+
+    @Test
+    public void testInvalidatedDuringLoad() {
+        userCache.get("user", "password", () -> {
+            // The user changes while it is being validated, so the validated user may already be stale.
+            userCache.invalidate(5L);
+            return validator.get();
+        });
+        userCache.get("user", "password", validator);
+        assertEquals(2, validations.get());
+    }
+}
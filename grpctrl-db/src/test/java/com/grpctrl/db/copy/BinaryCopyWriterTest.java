@@ -0,0 +1,98 @@
+package com.grpctrl.db.copy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.postgresql.copy.CopyIn;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Perform testing on the {@link BinaryCopyWriter} class.
+ */
+public class BinaryCopyWriterTest {
+    private static CopyIn copyIn(final ByteArrayOutputStream output) throws SQLException {
+        final CopyIn copyIn = Mockito.mock(CopyIn.class);
+        Mockito.doAnswer(invocation -> {
+            final Object[] args = invocation.getArguments();
+            output.write((byte[]) args[0], (Integer) args[1], (Integer) args[2]);
+            return null;
+        }).when(copyIn).writeToCopy(Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt());
+        return copyIn;
+    }
+
+    @Test
+    public void testWriteRows() throws SQLException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final CopyIn copyIn = copyIn(output);
+        Mockito.when(copyIn.endCopy()).thenReturn(2L);
+
+        try (final BinaryCopyWriter writer = new BinaryCopyWriter(copyIn)) {
+            writer.startRow(3);
+            writer.writeLong(5);
+            writer.writeInt(7);
+            writer.writeString("abc");
+            writer.startRow(3);
+            writer.writeLong(-1);
+            writer.writeInt(0);
+            writer.writeString(null);
+            assertEquals(2, writer.getRows());
+            assertEquals(2, writer.finish());
+        }
+
+        final ByteBuffer expected = ByteBuffer.allocate(19 + 29 + 26 + 2);
+        expected.put("PGCOPY\n".getBytes(StandardCharsets.US_ASCII)).put((byte) 0xff).put((byte) '\r');
+        expected.put((byte) '\n').put((byte) 0).putInt(0).putInt(0);
+        expected.putShort((short) 3).putInt(8).putLong(5).putInt(4).putInt(7).putInt(3);
+        expected.put("abc".getBytes(StandardCharsets.UTF_8));
+        expected.putShort((short) 3).putInt(8).putLong(-1).putInt(4).putInt(0).putInt(-1);
+        expected.putShort((short) -1);
+
+        assertArrayEquals(expected.array(), output.toByteArray());
+        // The copy was finished, so it is not cancelled when closed.
+        Mockito.verify(copyIn, Mockito.never()).cancelCopy();
+    }
+
+    @Test
+    public void testLargeRowsAreFlushed() throws SQLException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final CopyIn copyIn = copyIn(output);
+
+        final char[] chars = new char[100 * 1024];
+        Arrays.fill(chars, 'x');
+        final String large = new String(chars);
+
+        try (final BinaryCopyWriter writer = new BinaryCopyWriter(copyIn)) {
+            for (int i = 0; i < 3; i++) {
+                writer.startRow(1);
+                writer.writeString(large);
+            }
+            writer.finish();
+        }
+
+        // Each of the large rows was sent separately, the last along with the trailer.
+        Mockito.verify(copyIn, Mockito.times(3))
+                .writeToCopy(Mockito.any(byte[].class), Mockito.anyInt(), Mockito.anyInt());
+        assertEquals(19 + 3 * (2 + 4 + chars.length) + 2, output.size());
+    }
+
+    @Test
+    public void testCloseWithoutFinishCancels() throws SQLException {
+        final CopyIn copyIn = Mockito.mock(CopyIn.class);
+        Mockito.when(copyIn.isActive()).thenReturn(true);
+
+        try (final BinaryCopyWriter writer = new BinaryCopyWriter(copyIn)) {
+            writer.startRow(1);
+            writer.writeInt(1);
+        }
+
+        Mockito.verify(copyIn).cancelCopy();
+        Mockito.verify(copyIn, Mockito.never()).endCopy();
+    }
+}
@@ -1,19 +1,29 @@
 package com.grpctrl.db.dao.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.common.supplier.ObjectMapperSupplier;
 import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
 
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import javax.annotation.Nonnull;
@@ -39,7 +49,7 @@ public abstract class BaseAccountDaoTest {
     public abstract AccountDao getAccountDaoWithDataSourceException();
 
     @Test
-    public void testAccountManagement() throws WebApplicationException {
+    public void testAccountManagement() throws WebApplicationException, IOException {
         final AccountDao dao = getAccountDao();
 
         final Account account1 = new Account("account-management-test-1");
@@ -95,13 +105,38 @@ public abstract class BaseAccountDaoTest {
 
         // Retrieving all accounts consumes all of them.
         final Collection<Account> all = new ArrayList<>(1);
-        dao.getAll(new AddTo(all));
+        dao.getAll(Page.all(), new AddTo(all));
         assertEquals(4, all.size());
         assertTrue(all.contains(account1));
         assertTrue(all.contains(account2));
         assertTrue(all.contains(account3));
         assertTrue(all.contains(account4));
 
+        // Paging through the accounts two at a time returns each of them exactly once, in order.
+        final List<Account> paged = new ArrayList<>(4);
+        Optional<PageToken> next = dao.getAll(new Page(2), new AddTo(paged));
+        assertTrue(next.isPresent());
+        assertEquals(2, paged.size());
+        next = dao.getAll(new Page(2, next.get()), new AddTo(paged));
+        // No continuation token is provided with the last page.
+        assertFalse(next.isPresent());
+        assertEquals(asList(account1, account2, account3, account4), paged);
+
+        // Writing the accounts as JSON produces the same output, and continuation tokens, as serializing the accounts.
+        final ObjectMapper objectMapper = new ObjectMapperSupplier().get();
+        final StringWriter expected = new StringWriter();
+        final StringWriter written = new StringWriter();
+        try (final JsonGenerator expectedGenerator = objectMapper.getFactory().createGenerator(expected);
+             final JsonGenerator writtenGenerator = objectMapper.getFactory().createGenerator(written)) {
+            for (final Account account : paged) {
+                expectedGenerator.writeObject(account);
+            }
+            final Optional<PageToken> firstPage = dao.writeAll(new Page(2), writtenGenerator);
+            assertEquals(dao.getAll(new Page(2), IGNORED), firstPage);
+            assertFalse(dao.writeAll(new Page(2, firstPage.get()), writtenGenerator).isPresent());
+        }
+        assertEquals(expected.toString(), written.toString());
+
         // Removing an account that does not exist returns a count of 0.
         assertEquals(0, dao.remove(singleton(1111L)));
         // Removing a single id that exists returns a count of 1.
@@ -110,6 +145,46 @@ public abstract class BaseAccountDaoTest {
         assertEquals(0, dao.remove(singleton(account1id)));
         // Removing a mixture of existing and missing ids returns the correct count.
         assertEquals(3, dao.remove(asList(account2id, 2222L, 3333L, account3id, account4id)));
+
+        // The removed accounts are no longer retrieved, even though they have not yet been purged.
+        final Collection<Account> removed = new ArrayList<>();
+        dao.get(asList(account1id, account2id, account3id, account4id), new AddTo(removed));
+        assertTrue(removed.isEmpty());
+
+        // The removed accounts own no groups, so they are all purged in batches.
+        int purged = dao.purge(2);
+        while (purged > 0) {
+            purged = dao.purge(2);
+        }
+        assertEquals(0, dao.purge(2));
+    }
+
+    @Test
+    public void testBulkAdd() throws WebApplicationException {
+        final AccountDao dao = getAccountDao();
+
+        final Account account1 = new Account("bulk-add-test-1");
+        final Account account2 = new Account("bulk-add-test-2", new ServiceLevel(21, 22, 23));
+
+        // The bulk add passes the stored accounts, with their new ids, to the consumer.
+        final List<Account> added = new ArrayList<>(2);
+        dao.bulkAdd(asList(account1, account2).iterator(), new AddTo(added));
+        assertEquals(2, added.size());
+        assertEquals("bulk-add-test-1", added.get(0).getName());
+        assertEquals("bulk-add-test-2", added.get(1).getName());
+        assertEquals(new ServiceLevel(21, 22, 23), added.get(1).getServiceLevel());
+
+        final Long account1id = added.get(0).getId().orElse(null);
+        final Long account2id = added.get(1).getId().orElse(null);
+        assertTrue(account1id < account2id);
+
+        // The accounts and their service levels are available once added.
+        final List<Account> found = new ArrayList<>(2);
+        dao.get(asList(account1id, account2id), new AddTo(found));
+        assertEquals(2, found.size());
+        assertTrue(found.containsAll(added));
+
+        assertEquals(2, dao.remove(asList(account1id, account2id)));
     }
 
     @Test(expected = InternalServerErrorException.class)
@@ -119,7 +194,15 @@ public abstract class BaseAccountDaoTest {
 
     @Test(expected = InternalServerErrorException.class)
     public void testGetAllAccountException() throws WebApplicationException {
-        getAccountDaoWithDataSourceException().getAll(IGNORED);
+        getAccountDaoWithDataSourceException().getAll(Page.all(), IGNORED);
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testWriteAllAccountException() throws WebApplicationException, IOException {
+        try (final JsonGenerator generator = new ObjectMapperSupplier().get().getFactory()
+                .createGenerator(new StringWriter())) {
+            getAccountDaoWithDataSourceException().writeAll(Page.all(), generator);
+        }
     }
 
     @Test(expected = InternalServerErrorException.class)
@@ -127,11 +210,22 @@ public abstract class BaseAccountDaoTest {
         getAccountDaoWithDataSourceException().add(singleton(new Account("add-account-exception")).iterator(), IGNORED);
     }
 
+    @Test(expected = InternalServerErrorException.class)
+    public void testBulkAddAccountException() throws WebApplicationException {
+        getAccountDaoWithDataSourceException()
+                .bulkAdd(singleton(new Account("bulk-add-account-exception")).iterator(), IGNORED);
+    }
+
     @Test(expected = InternalServerErrorException.class)
     public void testRemoveAccountException() throws WebApplicationException {
         getAccountDaoWithDataSourceException().remove(singleton(1111L));
     }
 
+    @Test(expected = InternalServerErrorException.class)
+    public void testPurgeAccountException() throws WebApplicationException {
+        getAccountDaoWithDataSourceException().purge(10);
+    }
+
     // A consumer that adds accounts to a collection.
     private static class AddTo implements Consumer<Account> {
         @Nonnull
@@ -0,0 +1,317 @@
+package com.grpctrl.db.dao.impl;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.AccountUsageDao;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.error.QuotaExceededException;
+import com.grpctrl.db.usage.AccountUsage;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+
+import javax.sql.DataSource;
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.WebApplicationException;
+
+/**
+ * Provides a base unit test class responsible for testing {@link AccountUsageDao} implementations.
+ */
+public abstract class BaseAccountUsageDaoTest {
+    // A consumer that ignores the drifted usage passed into it.
+    private static final BiConsumer<AccountUsage, AccountUsage> IGNORED = (stored, actual) -> {
+    };
+
+    /**
+     * @return the {@link DataSource} used to modify the stored usage directly
+     */
+    public abstract DataSource getDataSource();
+
+    /**
+     * @return the {@link AccountDao} implementation used to create accounts
+     */
+    public abstract AccountDao getAccountDao();
+
+    /**
+     * @return the {@link GroupDao} implementation used to add groups, sharing usage with the tag and usage DAOs
+     */
+    public abstract GroupDao getGroupDao();
+
+    /**
+     * @return the {@link TagDao} implementation used to add tags, sharing usage with the group and usage DAOs
+     */
+    public abstract TagDao getTagDao();
+
+    /**
+     * @return the {@link AccountUsageDao} implementation to be tested
+     */
+    public abstract AccountUsageDao getAccountUsageDao();
+
+    /**
+     * @return the {@link AccountUsageDao} implementation to be tested
+     */
+    public abstract AccountUsageDao getAccountUsageDaoWithDataSourceException();
+
+    private Account addAccount(final String name, final ServiceLevel serviceLevel) {
+        final Account account = new Account(name, serviceLevel);
+        getAccountDao().add(singleton(account).iterator(), added -> {
+        });
+        return account;
+    }
+
+    private AccountUsage usage(final Account account) throws SQLException {
+        try (final Connection conn = getDataSource().getConnection()) {
+            final AccountUsage usage = getAccountUsageDao().get(conn, account);
+            conn.commit();
+            return usage;
+        }
+    }
+
+    private void execute(final String sql, final long accountId) throws SQLException {
+        try (final Connection conn = getDataSource().getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            ps.executeUpdate();
+            conn.commit();
+        }
+    }
+
+    private long count(final String sql, final long accountId) throws SQLException {
+        try (final Connection conn = getDataSource().getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, accountId);
+            try (final ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                final long count = rs.getLong(1);
+                conn.commit();
+                return count;
+            }
+        }
+    }
+
+    private void purge() {
+        // Each batch only purges the groups without children, so continue until nothing more is purged.
+        int purged = getGroupDao().purge(2);
+        while (purged > 0) {
+            purged = getGroupDao().purge(2);
+        }
+        purged = getAccountDao().purge(2);
+        while (purged > 0) {
+            purged = getAccountDao().purge(2);
+        }
+    }
+
+    private List<AccountUsage> reconcile() {
+        final List<AccountUsage> drifted = new ArrayList<>();
+        Optional<Long> after = Optional.of(0L);
+        while (after.isPresent()) {
+            after = getAccountUsageDao().reconcile(after.get(), 2, (stored, actual) -> drifted.add(actual));
+        }
+        return drifted;
+    }
+
+    @Test
+    public void testUsageTracksChanges() throws SQLException {
+        final Account account = addAccount("usage-changes-account", new ServiceLevel(10, 10, 3));
+        final long accountId = account.getId().orElse(null);
+
+        // New accounts start without any usage.
+        assertEquals(new AccountUsage(accountId, 0, 0, 0, 0), usage(account));
+
+        final GroupDao groupDao = getGroupDao();
+        final Group parent = new Group("parent").setTags(new Tag("a", "1"), new Tag("b", "2"));
+        final Group other = new Group("other").setTags(new Tag("c", "3"));
+        groupDao.add(account, asList(parent, other).iterator(), (group, tags) -> {
+        });
+
+        AccountUsage usage = usage(account);
+        assertEquals(2, usage.getGroups());
+        assertEquals(3, usage.getTags());
+        assertEquals(1, usage.getMaxDepth());
+
+        final Group child = new Group("child").setTags(new Tag("d", "4"));
+        groupDao.add(account, parent.getId().orElse(null), singleton(child).iterator(), (group, tags) -> {
+        });
+
+        usage = usage(account);
+        assertEquals(3, usage.getGroups());
+        assertEquals(4, usage.getTags());
+        assertEquals(2, usage.getMaxDepth());
+
+        final TagDao tagDao = getTagDao();
+        assertEquals(2, tagDao.add(account, other.getId().orElse(null), asList(new Tag("e", "5"), new Tag("f", "6"))));
+        assertEquals(1, tagDao.remove(account, other.getId().orElse(null), singleton(new Tag("e", "5"))));
+        assertEquals(1, tagDao.removeLabels(account, other.getId().orElse(null), singleton("f")));
+        assertEquals(4, usage(account).getTags());
+
+        // Removing the parent also removes the child group and the tags of both groups.
+        assertEquals(1, groupDao.remove(account, singleton(parent.getId().orElse(null))));
+        usage = usage(account);
+        assertEquals(1, usage.getGroups());
+        assertEquals(1, usage.getTags());
+        try (final Connection conn = getDataSource().getConnection()) {
+            assertEquals(1, groupDao.count(conn, account));
+        }
+
+        // The counts were all maintained correctly, only the maximum depth used is lowered.
+        assertTrue(reconcile().isEmpty());
+        assertEquals(1, usage(account).getMaxDepth());
+    }
+
+    @Test
+    public void testConcurrentAddsRespectQuota() throws Exception {
+        final Account account = addAccount("usage-concurrent-account", new ServiceLevel(5, 10, 3));
+
+        final GroupDao groupDao = getGroupDao();
+        final ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            final Collection<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                final Group group = new Group("concurrent-" + i);
+                final Callable<Boolean> add = () -> {
+                    try {
+                        groupDao.add(account, singleton(group).iterator(), (added, tags) -> {
+                        });
+                        return true;
+                    } catch (final QuotaExceededException quotaExceeded) {
+                        return false;
+                    }
+                };
+                futures.add(executor.submit(add));
+            }
+
+            int added = 0;
+            for (final Future<Boolean> future : futures) {
+                if (future.get()) {
+                    added++;
+                }
+            }
+            assertEquals(5, added);
+        } catch (final ExecutionException executionException) {
+            throw new RuntimeException(executionException.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(5, usage(account).getGroups());
+        assertTrue(reconcile().isEmpty());
+    }
+
+    @Test
+    public void testReconcileCorrectsDrift() throws SQLException {
+        final Account account = addAccount("usage-drift-account", new ServiceLevel(10, 10, 3));
+        final long accountId = account.getId().orElse(null);
+
+        getGroupDao().add(account, singleton(new Group("group").setTags(new Tag("a", "1"))).iterator(),
+                (group, tags) -> {
+                });
+        execute("UPDATE account_usage SET group_count = 7, tag_count = 8 WHERE account_id = ?", accountId);
+
+        final List<AccountUsage> drifted = reconcile();
+        assertEquals(1, drifted.size());
+        assertEquals(accountId, drifted.get(0).getAccountId());
+        assertEquals(1, drifted.get(0).getGroups());
+        assertEquals(1, drifted.get(0).getTags());
+
+        assertEquals(drifted.get(0), usage(account));
+        assertTrue(reconcile().isEmpty());
+    }
+
+    @Test
+    public void testMissingUsageIsCreated() throws SQLException {
+        final Account account = addAccount("usage-missing-account", new ServiceLevel(10, 10, 3));
+        final long accountId = account.getId().orElse(null);
+
+        final GroupDao groupDao = getGroupDao();
+        groupDao.add(account, singleton(new Group("first").setTags(new Tag("a", "1"))).iterator(),
+                (group, tags) -> {
+                });
+        execute("DELETE FROM account_usage WHERE account_id = ?", accountId);
+
+        // The usage is recreated from the committed groups and tags before the new group and tag are applied.
+        groupDao.add(account, singleton(new Group("second").setTags(new Tag("b", "2"))).iterator(),
+                (group, tags) -> {
+                });
+        final AccountUsage usage = usage(account);
+        assertEquals(2, usage.getGroups());
+        assertEquals(2, usage.getTags());
+        assertTrue(reconcile().isEmpty());
+    }
+
+    @Test
+    public void testRemovedAccountIsNotReconciled() {
+        final Account account = addAccount("usage-removed-account", new ServiceLevel(10, 10, 3));
+        assertEquals(1, getAccountDao().remove(account.getId().orElse(null)));
+
+        // The removed account is skipped until its usage is purged along with it.
+        assertTrue(reconcile().isEmpty());
+    }
+
+    @Test
+    public void testRemovedGroupsAndAccountsArePurged() throws SQLException {
+        final Account account = addAccount("usage-purged-account", new ServiceLevel(10, 10, 3));
+        final long accountId = account.getId().orElse(null);
+
+        final GroupDao groupDao = getGroupDao();
+        final Group parent = new Group("parent").setTags(new Tag("a", "1"));
+        groupDao.add(account, asList(parent, new Group("other")).iterator(), (group, tags) -> {
+        });
+        final Group child = new Group("child").setTags(new Tag("b", "2"));
+        groupDao.add(account, parent.getId().orElse(null), singleton(child).iterator(), (group, tags) -> {
+        });
+        groupDao.add(account, child.getId().orElse(null), singleton(new Group("grandchild")).iterator(),
+                (group, tags) -> {
+                });
+
+        // The removed groups are hidden immediately, and their names can be reused before they are purged.
+        assertEquals(1, groupDao.remove(account, singleton(parent.getId().orElse(null))));
+        groupDao.add(account, singleton(new Group("parent")).iterator(), (group, tags) -> {
+        });
+        final AccountUsage usage = usage(account);
+        assertEquals(2, usage.getGroups());
+        assertEquals(0, usage.getTags());
+        assertEquals(5, count("SELECT COUNT(*) FROM groups WHERE account_id = ?", accountId));
+        assertTrue(reconcile().isEmpty());
+
+        purge();
+        assertEquals(2, count("SELECT COUNT(*) FROM groups WHERE account_id = ?", accountId));
+        assertEquals(0, count("SELECT COUNT(*) FROM tags WHERE account_id = ?", accountId));
+        assertEquals(2, usage(account).getGroups());
+
+        // The groups of a removed account are purged before the account itself.
+        assertEquals(1, getAccountDao().remove(accountId));
+        assertEquals(1, count("SELECT COUNT(*) FROM accounts WHERE account_id = ?", accountId));
+        purge();
+        assertEquals(0, count("SELECT COUNT(*) FROM groups WHERE account_id = ?", accountId));
+        assertEquals(0, count("SELECT COUNT(*) FROM accounts WHERE account_id = ?", accountId));
+        assertEquals(0, count("SELECT COUNT(*) FROM account_usage WHERE account_id = ?", accountId));
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testReconcileException() throws WebApplicationException {
+        getAccountUsageDaoWithDataSourceException().reconcile(0, 10, IGNORED);
+    }
+}
@@ -4,8 +4,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
 
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.Group;
@@ -13,13 +15,18 @@ import com.grpctrl.common.model.Tag;
 import com.grpctrl.db.dao.AccountDao;
 import com.grpctrl.db.dao.GroupDao;
 import com.grpctrl.db.error.QuotaExceededException;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
 
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -100,7 +107,7 @@ public abstract class BaseGroupDaoTest {
 
         // Get should find all the top-level groups for the account.
         final Collection<Group> get = new ArrayList<>();
-        dao.get(account1, new AddTo(get));
+        dao.get(account1, Page.all(), new AddTo(get));
         assertEquals(3, get.size());
         assertTrue(get.contains(a));
         assertTrue(get.contains(b));
@@ -108,61 +115,61 @@ public abstract class BaseGroupDaoTest {
 
         // Get should not find any top-level groups for the wrong account.
         final Collection<Group> wrongAccount = new ArrayList<>();
-        dao.get(account2, new AddTo(wrongAccount));
+        dao.get(account2, Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find top-level groups by id.
         final Collection<Group> byId = new ArrayList<>();
-        dao.getById(account1, singleton(aid), new AddTo(byId));
+        dao.getById(account1, singleton(aid), Page.all(), new AddTo(byId));
         assertEquals(1, byId.size());
         assertTrue(byId.contains(a));
 
         // Should NOT be able to find top-level groups by id for the wrong account.
-        dao.getById(account2, singleton(aid), new AddTo(wrongAccount));
+        dao.getById(account2, singleton(aid), Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find top-level groups by name.
         final Collection<Group> byName = new ArrayList<>();
-        dao.getByName(account1, singleton(a.getName()), new AddTo(byName));
+        dao.getByName(account1, singleton(a.getName()), Page.all(), new AddTo(byName));
         assertEquals(1, byName.size());
         assertTrue(byName.contains(a));
 
         // Should NOT be able to find top-level groups by name for the wrong account.
-        dao.getByName(account2, singleton(a.getName()), new AddTo(wrongAccount));
+        dao.getByName(account2, singleton(a.getName()), Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find top-level groups by regular expression, case sensitive.
         final Collection<Group> byRegexSensitive = new ArrayList<>();
-        dao.find(account1, singleton("^sim"), true, new AddTo(byRegexSensitive));
+        dao.find(account1, singleton("^sim"), true, Page.all(), new AddTo(byRegexSensitive));
         assertEquals(3, byRegexSensitive.size());
         assertTrue(byRegexSensitive.containsAll(asList(a, b, c)));
 
         // Should be able to find top-level groups by regular expression, case insensitive.
         final Collection<Group> byRegexInsensitive = new ArrayList<>();
-        dao.find(account1, singleton("PLE-*"), false, new AddTo(byRegexInsensitive));
+        dao.find(account1, singleton("PLE-*"), false, Page.all(), new AddTo(byRegexInsensitive));
         assertEquals(3, byRegexInsensitive.size());
         assertTrue(byRegexInsensitive.containsAll(asList(a, b, c)));
 
         // Should NOT be able to find top-level groups by regex for the wrong account.
-        dao.find(account2, singleton(".*"), false, new AddTo(wrongAccount));
+        dao.find(account2, singleton(".*"), false, Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // None of these groups have any children, so looking for children won't find any.
         final Collection<Group> children = new ArrayList<>();
         final AddTo childAdder = new AddTo(children);
-        dao.childrenById(account1, singleton(aid), childAdder);
-        dao.childrenById(account1, singleton(bid), childAdder);
-        dao.childrenById(account1, singleton(cid), childAdder);
-        dao.childrenById(account2, singleton(aid), childAdder);
-        dao.childrenById(account2, singleton(bid), childAdder);
-        dao.childrenById(account2, singleton(cid), childAdder);
-        dao.childrenByName(account1, singleton(a.getName()), childAdder);
-        dao.childrenByName(account1, singleton(b.getName()), childAdder);
-        dao.childrenByName(account1, singleton(c.getName()), childAdder);
-        dao.childrenByName(account2, singleton(a.getName()), childAdder);
-        dao.childrenByName(account2, singleton(b.getName()), childAdder);
-        dao.childrenByName(account2, singleton(c.getName()), childAdder);
-        dao.childrenFind(account2, singleton(".*"), false, childAdder);
+        dao.childrenById(account1, singleton(aid), Page.all(), childAdder);
+        dao.childrenById(account1, singleton(bid), Page.all(), childAdder);
+        dao.childrenById(account1, singleton(cid), Page.all(), childAdder);
+        dao.childrenById(account2, singleton(aid), Page.all(), childAdder);
+        dao.childrenById(account2, singleton(bid), Page.all(), childAdder);
+        dao.childrenById(account2, singleton(cid), Page.all(), childAdder);
+        dao.childrenByName(account1, singleton(a.getName()), Page.all(), childAdder);
+        dao.childrenByName(account1, singleton(b.getName()), Page.all(), childAdder);
+        dao.childrenByName(account1, singleton(c.getName()), Page.all(), childAdder);
+        dao.childrenByName(account2, singleton(a.getName()), Page.all(), childAdder);
+        dao.childrenByName(account2, singleton(b.getName()), Page.all(), childAdder);
+        dao.childrenByName(account2, singleton(c.getName()), Page.all(), childAdder);
+        dao.childrenFind(account2, singleton(".*"), false, Page.all(), childAdder);
         assertTrue(children.isEmpty());
 
         // Removing a single account returns the correct count.
@@ -287,116 +294,116 @@ public abstract class BaseGroupDaoTest {
 
         // Get should find all the top-level groups for the account.
         final Collection<Group> topLevel = new ArrayList<>();
-        dao.get(account1, new AddTo(topLevel));
+        dao.get(account1, Page.all(), new AddTo(topLevel));
         assertEquals(2, topLevel.size());
         assertTrue(topLevel.containsAll(asList(p1, p2)));
 
         // Get should not find any top-level groups for the wrong account.
         final Collection<Group> wrongAccount = new ArrayList<>();
-        dao.get(account2, new AddTo(wrongAccount));
+        dao.get(account2, Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find mid-level groups by id.
         final Collection<Group> midById = new ArrayList<>();
-        dao.getById(account1, singleton(a1id), new AddTo(midById));
+        dao.getById(account1, singleton(a1id), Page.all(), new AddTo(midById));
         assertEquals(1, midById.size());
         assertTrue(midById.contains(a1));
 
         // Should NOT be able to find mid-level groups by id for the wrong account.
-        dao.getById(account2, singleton(a1id), new AddTo(wrongAccount));
+        dao.getById(account2, singleton(a1id), Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find low-level groups by id.
         final Collection<Group> lowById = new ArrayList<>();
-        dao.getById(account1, singleton(a1aid), new AddTo(lowById));
+        dao.getById(account1, singleton(a1aid), Page.all(), new AddTo(lowById));
         assertEquals(1, lowById.size());
         assertTrue(lowById.contains(a1a));
 
         // Should NOT be able to find low-level groups by id for the wrong account.
-        dao.getById(account2, singleton(a1aid), new AddTo(wrongAccount));
+        dao.getById(account2, singleton(a1aid), Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find mid-level groups by name.
         final Collection<Group> midByName = new ArrayList<>();
-        dao.getByName(account1, singleton(a1.getName()), new AddTo(midByName));
+        dao.getByName(account1, singleton(a1.getName()), Page.all(), new AddTo(midByName));
         assertEquals(2, midByName.size());
         assertTrue(midByName.containsAll(asList(a1, a2)));
 
         // Should NOT be able to find mid-level groups by name for the wrong account.
-        dao.getByName(account2, singleton(a1.getName()), new AddTo(wrongAccount));
+        dao.getByName(account2, singleton(a1.getName()), Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find low-level groups by name.
         final Collection<Group> lowByName = new ArrayList<>();
-        dao.getByName(account1, singleton(a1a.getName()), new AddTo(lowByName));
+        dao.getByName(account1, singleton(a1a.getName()), Page.all(), new AddTo(lowByName));
         assertEquals(1, lowByName.size());
         assertTrue(lowByName.containsAll(singleton(a1a)));
 
         // Should NOT be able to find low-level groups by name for the wrong account.
-        dao.getByName(account2, singleton(a1a.getName()), new AddTo(wrongAccount));
+        dao.getByName(account2, singleton(a1a.getName()), Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find mid-level groups by regular expression, case sensitive.
         final Collection<Group> midByRegexSensitive = new ArrayList<>();
-        dao.find(account1, singleton("^sim"), true, new AddTo(midByRegexSensitive));
+        dao.find(account1, singleton("^sim"), true, Page.all(), new AddTo(midByRegexSensitive));
         assertEquals(6, midByRegexSensitive.size());
         assertTrue(midByRegexSensitive.containsAll(asList(a1, b1, c1, a2, b2, c2)));
 
         // Should be able to find mid-level groups by regular expression, case insensitive.
         final Collection<Group> midByRegexInsensitive = new ArrayList<>();
-        dao.find(account1, singleton("PLE-*"), false, new AddTo(midByRegexInsensitive));
+        dao.find(account1, singleton("PLE-*"), false, Page.all(), new AddTo(midByRegexInsensitive));
         assertEquals(6, midByRegexInsensitive.size());
         assertTrue(midByRegexInsensitive.containsAll(asList(a1, b1, c1, a2, b2, c2)));
 
         // Should be able to find low-level groups by regular expression, case sensitive.
         final Collection<Group> lowByRegexSensitive = new ArrayList<>();
-        dao.find(account1, singleton("^chi"), true, new AddTo(lowByRegexSensitive));
+        dao.find(account1, singleton("^chi"), true, Page.all(), new AddTo(lowByRegexSensitive));
         assertEquals(4, lowByRegexSensitive.size());
         assertTrue(lowByRegexSensitive.containsAll(asList(a1a, a1b, a2a, a2b)));
 
         // Should be able to find low-level groups by regular expression, case insensitive.
         final Collection<Group> lowByRegexInsensitive = new ArrayList<>();
-        dao.find(account1, singleton("ILD-*"), false, new AddTo(lowByRegexInsensitive));
+        dao.find(account1, singleton("ILD-*"), false, Page.all(), new AddTo(lowByRegexInsensitive));
         assertEquals(4, lowByRegexInsensitive.size());
         assertTrue(lowByRegexSensitive.containsAll(asList(a1a, a1b, a2a, a2b)));
 
         // Should NOT be able to find mid- or low-level groups by regex for the wrong account.
-        dao.find(account2, singleton(".*"), false, new AddTo(wrongAccount));
+        dao.find(account2, singleton(".*"), false, Page.all(), new AddTo(wrongAccount));
         assertTrue(wrongAccount.isEmpty());
 
         // Should be able to find the children for the top-level groups by id.
         final Collection<Group> topChildrenById = new ArrayList<>();
-        dao.childrenById(account1, singleton(p1id), new AddTo(topChildrenById));
+        dao.childrenById(account1, singleton(p1id), Page.all(), new AddTo(topChildrenById));
         assertEquals(3, topChildrenById.size());
         assertTrue(topChildrenById.containsAll(asList(a1, b1, c1)));
 
         // Should be able to find the children for the mid-level groups by id.
         final Collection<Group> midChildrenById = new ArrayList<>();
-        dao.childrenById(account1, asList(a1id, b1id, c1id), new AddTo(midChildrenById));
+        dao.childrenById(account1, asList(a1id, b1id, c1id), Page.all(), new AddTo(midChildrenById));
         assertEquals(2, midChildrenById.size());
         assertTrue(midChildrenById.containsAll(asList(a1a, a1b)));
 
         // Should be able to find the children of top-level groups by name.
         final Collection<Group> topChildrenByName = new ArrayList<>();
-        dao.childrenByName(account1, singleton(p1.getName()), new AddTo(topChildrenByName));
+        dao.childrenByName(account1, singleton(p1.getName()), Page.all(), new AddTo(topChildrenByName));
         assertEquals(3, topChildrenByName.size());
         assertTrue(topChildrenByName.containsAll(asList(a1, b1, c1)));
 
         // Should be able to find the children of mid-level groups by name.
         final Collection<Group> midChildrenByName = new ArrayList<>();
-        dao.childrenByName(account1, singleton(a1.getName()), new AddTo(midChildrenByName));
+        dao.childrenByName(account1, singleton(a1.getName()), Page.all(), new AddTo(midChildrenByName));
         assertEquals(4, midChildrenByName.size());
         assertTrue(midChildrenByName.containsAll(asList(a1a, a1b, a2a, a2b)));
 
         // Should be able to find the children for the top-level groups by regex, case insensitive.
         final Collection<Group> topChildrenByRegex = new ArrayList<>();
-        dao.childrenFind(account1, singleton("^parent"), false, new AddTo(topChildrenByRegex));
+        dao.childrenFind(account1, singleton("^parent"), false, Page.all(), new AddTo(topChildrenByRegex));
         assertEquals(6, topChildrenByRegex.size());
         assertTrue(topChildrenByRegex.containsAll(asList(a1, b1, c1, a2, b2, c2)));
 
         // Should be able to find the children for the mid-level groups by regex, case insensitive.
         final Collection<Group> midChildrenByRegex = new ArrayList<>();
-        dao.childrenFind(account1, singleton("^simp"), false, new AddTo(midChildrenByRegex));
+        dao.childrenFind(account1, singleton("^simp"), false, Page.all(), new AddTo(midChildrenByRegex));
         assertEquals(4, midChildrenByRegex.size());
         assertTrue(midChildrenByRegex.containsAll(asList(a1a, a1b, a2a, a2b)));
 
@@ -409,7 +416,7 @@ public abstract class BaseGroupDaoTest {
         assertEquals(1, dao.remove(account1, singleton(a2id)));
         assertEquals(0, dao.remove(account1, asList(a2aid, a2bid)));
 
-        // Deleting an account also deletes the groups in the account.
+        // Removing an account also removes the groups in the account.
         assertEquals(1, getAccountDao().remove(singleton(account1.getId().orElse(null))));
         assertEquals(0, dao.remove(account1, singleton(p2id)));
     }
@@ -557,8 +564,8 @@ public abstract class BaseGroupDaoTest {
 
         assertNotEquals(aid, bid);
 
-        dao.getByName(account1, singleton(a.getName()), (group, tagIter) -> assertEquals(a, group));
-        dao.getByName(account2, singleton(b.getName()), (group, tagIter) -> assertEquals(b, group));
+        dao.getByName(account1, singleton(a.getName()), Page.all(), (group, tagIter) -> assertEquals(a, group));
+        dao.getByName(account2, singleton(b.getName()), Page.all(), (group, tagIter) -> assertEquals(b, group));
     }
 
     @Test
@@ -581,7 +588,7 @@ public abstract class BaseGroupDaoTest {
         assertEquals(new Long(pid), child.getParentId().orElse(null));
 
         final Collection<Group> both = new ArrayList<>();
-        dao.getByName(account, singleton(parent.getName()), new AddTo(both));
+        dao.getByName(account, singleton(parent.getName()), Page.all(), new AddTo(both));
         assertEquals(2, both.size());
         assertTrue(both.containsAll(asList(parent, child)));
     }
@@ -602,6 +609,474 @@ public abstract class BaseGroupDaoTest {
         dao.add(account2, parent.getId().orElse(null), singleton(child).iterator(), IGNORED);
     }
 
+    @Test
+    public void testDescendants() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account1 = new Account("descendants-account-1");
+        final Account account2 = new Account("descendants-account-2");
+        account1.getServiceLevel().setMaxDepth(4);
+        getAccountDao().add(asList(account1, account2).iterator(), ACCOUNT_IGNORED);
+
+        final Group p1 = new Group("parent-1");
+        final Group p2 = new Group("parent-2");
+        dao.add(account1, asList(p1, p2).iterator(), IGNORED);
+        final Long p1id = p1.getId().orElse(null);
+        final Long p2id = p2.getId().orElse(null);
+
+        final Group a = new Group("child-a").addTags(new Tag("a", "a1"), new Tag("a", "a2"));
+        final Group b = new Group("child-b");
+        final Group c = new Group("child-c").addTags(new Tag("c", "c1"));
+        dao.add(account1, p1id, asList(a, b).iterator(), IGNORED);
+        dao.add(account1, p2id, singleton(c).iterator(), IGNORED);
+
+        final Group aa = new Group("grandchild-a").addTags(new Tag("aa", "aa1"));
+        dao.add(account1, a.getId().orElse(null), singleton(aa).iterator(), IGNORED);
+
+        final Group aaa = new Group("great-grandchild-a");
+        dao.add(account1, aa.getId().orElse(null), singleton(aaa).iterator(), IGNORED);
+
+        // The full subtree is returned with tags, not including the root.
+        final Collection<Group> all = new ArrayList<>();
+        dao.descendants(account1, singleton(p1id), 0, Page.all(), new AddTo(all));
+        assertEquals(4, all.size());
+        assertTrue(all.containsAll(asList(a, b, aa, aaa)));
+
+        // Limiting the depth only returns the closer levels.
+        final Collection<Group> limited = new ArrayList<>();
+        dao.descendants(account1, singleton(p1id), 2, Page.all(), new AddTo(limited));
+        assertEquals(3, limited.size());
+        assertTrue(limited.containsAll(asList(a, b, aa)));
+
+        // Multiple roots can be requested together.
+        final Collection<Group> multiple = new ArrayList<>();
+        dao.descendants(account1, asList(a.getId().orElse(null), p2id), -1, Page.all(), new AddTo(multiple));
+        assertEquals(3, multiple.size());
+        assertTrue(multiple.containsAll(asList(aa, aaa, c)));
+
+        // Nested roots only return each descendant once, so the pages are not cut short by duplicates.
+        final List<Long> nestedRoots = asList(p1id, a.getId().orElse(null));
+        final List<Group> nested = new ArrayList<>();
+        Optional<PageToken> next = dao.descendants(account1, nestedRoots, 0, new Page(1), new AddTo(nested));
+        while (next.isPresent()) {
+            next = dao.descendants(account1, nestedRoots, 0, new Page(1, next.get()), new AddTo(nested));
+        }
+        assertEquals(4, nested.size());
+        assertTrue(nested.containsAll(asList(a, b, aa, aaa)));
+
+        // Leaf groups and other accounts have no descendants.
+        final Collection<Group> none = new ArrayList<>();
+        dao.descendants(account1, singleton(aaa.getId().orElse(null)), 0, Page.all(), new AddTo(none));
+        dao.descendants(account2, singleton(p1id), 0, Page.all(), new AddTo(none));
+        assertTrue(none.isEmpty());
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testDescendantsTokenForRemovedGroup() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("descendants-removed-account");
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group parent = new Group("parent");
+        dao.add(account, singleton(parent).iterator(), IGNORED);
+        final Long parentId = parent.getId().orElse(null);
+        final Group a = new Group("a");
+        final Group b = new Group("b");
+        dao.add(account, parentId, asList(a, b).iterator(), IGNORED);
+
+        // The walk cannot resume after a group that is no longer below the roots.
+        final Optional<PageToken> next = dao.descendants(account, singleton(parentId), 0, new Page(1), IGNORED);
+        assertTrue(next.isPresent());
+        assertEquals(1, dao.remove(account, singleton(a.getId().orElse(null))));
+        dao.descendants(account, singleton(parentId), 0, new Page(1, next.get()), IGNORED);
+    }
+
+    @Test
+    public void testMove() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("move-account");
+        account.getServiceLevel().setMaxDepth(4);
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group p1 = new Group("parent-1");
+        final Group p2 = new Group("parent-2");
+        dao.add(account, asList(p1, p2).iterator(), IGNORED);
+        final Long p1id = p1.getId().orElse(null);
+        final Long p2id = p2.getId().orElse(null);
+
+        final Group a = new Group("child-a").addTags(new Tag("a", "a1"));
+        final Group b = new Group("child-b");
+        final Group c = new Group("child-c");
+        dao.add(account, p1id, asList(a, b).iterator(), IGNORED);
+        dao.add(account, p2id, singleton(c).iterator(), IGNORED);
+        final Group aa = new Group("grandchild-a");
+        dao.add(account, a.getId().orElse(null), singleton(aa).iterator(), IGNORED);
+        final Group aaa = new Group("great-grandchild-a");
+        dao.add(account, aa.getId().orElse(null), singleton(aaa).iterator(), IGNORED);
+
+        // Moving the whole subtree of a below c would place aaa at a depth of 5.
+        try {
+            dao.move(account, singleton(a.getId().orElse(null)), c.getId().orElse(null));
+            fail("Expected the move to exceed the depth quota");
+        } catch (final QuotaExceededException expected) {
+            // Expected.
+        }
+
+        // Moving the smaller subtree of aa below p2 is allowed, and the descendants move with it.
+        assertEquals(1, dao.move(account, singleton(aa.getId().orElse(null)), p2id));
+        final Collection<Group> moved = new ArrayList<>();
+        dao.descendants(account, singleton(p2id), 0, Page.all(), new AddTo(moved));
+        assertEquals(3, moved.size());
+        assertTrue(moved.containsAll(asList(c, aa.setParentId(p2id), aaa)));
+        final Collection<Group> remaining = new ArrayList<>();
+        dao.descendants(account, singleton(p1id), 0, Page.all(), new AddTo(remaining));
+        assertEquals(2, remaining.size());
+        assertTrue(remaining.containsAll(asList(a, b)));
+
+        // Groups cannot be moved into their own subtrees.
+        try {
+            dao.move(account, singleton(p2id), aaa.getId().orElse(null));
+            fail("Expected the move to be rejected as a cycle");
+        } catch (final BadRequestException expected) {
+            // Expected.
+        }
+        try {
+            dao.move(account, singleton(p2id), p2id);
+            fail("Expected the move to be rejected as a cycle");
+        } catch (final BadRequestException expected) {
+            // Expected.
+        }
+
+        // The new parent must exist in the account.
+        try {
+            dao.move(account, singleton(p2id), 999999L);
+            fail("Expected the move to be rejected for a missing parent");
+        } catch (final BadRequestException expected) {
+            // Expected.
+        }
+
+        // Multiple groups can be moved to the top level together, and unknown ids are ignored.
+        assertEquals(2, dao.move(account, asList(a.getId().orElse(null), aa.getId().orElse(null), 999999L), null));
+        final Collection<Group> children = new ArrayList<>();
+        dao.descendants(account, asList(p1id, p2id), 0, Page.all(), new AddTo(children));
+        assertEquals(2, children.size());
+        assertTrue(children.containsAll(asList(b, c)));
+        final Collection<Group> topLevel = new ArrayList<>();
+        dao.get(account, Page.all(), new AddTo(topLevel));
+        assertEquals(4, topLevel.size());
+        assertTrue(topLevel.containsAll(asList(p1, p2, a.setParentId(null), aa.setParentId(null))));
+    }
+
+    @Test
+    public void testMoveUnderRemovedParent() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("move-removed-account");
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group removed = new Group("removed");
+        final Group kept = new Group("kept");
+        dao.add(account, asList(removed, kept).iterator(), IGNORED);
+        final Group child = new Group("child");
+        dao.add(account, kept.getId().orElse(null), singleton(child).iterator(), IGNORED);
+        assertEquals(1, dao.remove(account, singleton(removed.getId().orElse(null))));
+
+        // The removed group is still stored until it is purged, but it cannot become a parent again.
+        try {
+            dao.move(account, singleton(child.getId().orElse(null)), removed.getId().orElse(null));
+            fail("Expected the move to be rejected for a removed parent");
+        } catch (final BadRequestException expected) {
+            // Expected.
+        }
+
+        final Collection<Group> children = new ArrayList<>();
+        dao.descendants(account, singleton(kept.getId().orElse(null)), 0, Page.all(), new AddTo(children));
+        assertEquals(singletonList(child), new ArrayList<>(children));
+    }
+
+    @Test
+    public void testMoveWithRemovedDescendants() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("move-removed-descendants-account");
+        account.getServiceLevel().setMaxDepth(3);
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group parent = new Group("parent");
+        final Group moving = new Group("moving");
+        dao.add(account, asList(parent, moving).iterator(), IGNORED);
+        final Group child = new Group("child");
+        dao.add(account, moving.getId().orElse(null), singleton(child).iterator(), IGNORED);
+        final Group removed = new Group("removed");
+        dao.add(account, child.getId().orElse(null), singleton(removed).iterator(), IGNORED);
+        assertEquals(1, dao.remove(account, singleton(removed.getId().orElse(null))));
+
+        // The removed group would be at a depth of 4, but it is only waiting to be purged so it does not count.
+        assertEquals(1, dao.move(account, singleton(moving.getId().orElse(null)), parent.getId().orElse(null)));
+        final Collection<Group> moved = new ArrayList<>();
+        dao.descendants(account, singleton(parent.getId().orElse(null)), 0, Page.all(), new AddTo(moved));
+        assertEquals(2, moved.size());
+        assertTrue(moved.containsAll(asList(moving.setParentId(parent.getId().orElse(null)), child)));
+    }
+
+    @Test
+    public void testPaging() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("paging-account");
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group parent = new Group("parent");
+        dao.add(account, singleton(parent).iterator(), IGNORED);
+        final Long parentId = parent.getId().orElse(null);
+
+        final Group a = new Group("a").addTags(new Tag("a", "a1"), new Tag("a", "a2"), new Tag("a", "a3"));
+        final Group b = new Group("b");
+        final Group c = new Group("c").addTags(new Tag("c", "c1"));
+        final Group d = new Group("d").addTags(new Tag("d", "d1"), new Tag("d", "d2"));
+        final Group e = new Group("e");
+        dao.add(account, parentId, asList(a, b, c, d, e).iterator(), IGNORED);
+
+        // Paging through the children two at a time returns each of them exactly once with all of their tags.
+        final List<Group> paged = new ArrayList<>();
+        Optional<PageToken> next = dao.childrenById(account, singleton(parentId), new Page(2), new AddTo(paged));
+        assertEquals(asList(a, b), paged);
+        assertTrue(next.isPresent());
+        next = dao.childrenById(account, singleton(parentId), new Page(2, next.get()), new AddTo(paged));
+        assertEquals(asList(a, b, c, d), paged);
+        assertTrue(next.isPresent());
+        next = dao.childrenById(account, singleton(parentId), new Page(2, next.get()), new AddTo(paged));
+        assertEquals(asList(a, b, c, d, e), paged);
+        // No continuation token is provided with the last page.
+        assertFalse(next.isPresent());
+        assertEquals(3, paged.get(0).getTags().size());
+        assertEquals(2, paged.get(3).getTags().size());
+
+        // The descendants are paged the same way.
+        final List<Group> descendants = new ArrayList<>();
+        next = dao.descendants(account, singleton(parentId), 0, new Page(3), new AddTo(descendants));
+        assertEquals(asList(a, b, c), descendants);
+        assertTrue(next.isPresent());
+        next = dao.descendants(account, singleton(parentId), 0, new Page(3, next.get()), new AddTo(descendants));
+        assertEquals(asList(a, b, c, d, e), descendants);
+        assertFalse(next.isPresent());
+
+        // Consumers that do not read the tags still see every group.
+        final List<String> names = new ArrayList<>();
+        next = dao.childrenById(account, singleton(parentId), new Page(4), (group, tagIter) -> names.add(group.getName()));
+        assertEquals(asList("a", "b", "c", "d"), names);
+        assertTrue(next.isPresent());
+    }
+
+    private TreeSet<String> find(final Account account, final boolean caseSensitive, final String... regexes) {
+        final TreeSet<String> names = new TreeSet<>();
+        getGroupDao().find(account, asList(regexes), caseSensitive, Page.all(),
+                (group, tagIter) -> names.add(group.getName()));
+        return names;
+    }
+
+    private TreeSet<String> childrenFind(final Account account, final boolean caseSensitive, final String... regexes) {
+        final TreeSet<String> names = new TreeSet<>();
+        getGroupDao().childrenFind(account, asList(regexes), caseSensitive, Page.all(),
+                (group, tagIter) -> names.add(group.getName()));
+        return names;
+    }
+
+    private TreeSet<String> names(final String... names) {
+        return new TreeSet<>(asList(names));
+    }
+
+    @Test
+    public void testFindByRegex() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("find-regex-account");
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group web = new Group("Web-Servers");
+        dao.add(account, asList(web, new Group("web.proxy"), new Group("database")).iterator(), IGNORED);
+
+        // Expressions requiring literals are narrowed down by the group name index before being evaluated.
+        assertEquals(names("Web-Servers"), find(account, true, "^Web"));
+        assertEquals(names("Web-Servers", "web.proxy"), find(account, false, "^WEB"));
+        assertEquals(names("web.proxy"), find(account, true, "web\\.pro(x|y)y?"));
+        assertEquals(names("database", "web.proxy"), find(account, false, "data", "proxy$"));
+        assertEquals(names(), find(account, false, "missing"));
+        assertEquals(names(), find(account, true, "^web-serv"));
+
+        // Expressions without usable literals are evaluated against all the groups.
+        assertEquals(names("Web-Servers", "database", "web.proxy"), find(account, false, "e"));
+        assertEquals(names("Web-Servers", "database"), find(account, false, "servers|base"));
+        assertEquals(names("Web-Servers"), find(account, false, "s[e]rv"));
+        assertEquals(names("Web-Servers"), find(account, true, "\\x2dServers"));
+        assertEquals(names("database"), find(account, true, "\\u0064atabase"));
+
+        // Groups added after the index is loaded are included, whether added individually or in bulk.
+        dao.add(account, web.getId().orElse(null), singleton(new Group("web-01")).iterator(), IGNORED);
+        dao.bulkAdd(account, web.getId().orElse(null), singleton(new Group("web-02")).iterator(), IGNORED);
+        assertEquals(names("web-01", "web-02"), find(account, true, "^web-0[0-9]"));
+        assertEquals(names("web-01", "web-02"), childrenFind(account, false, "servers"));
+        assertEquals(names(), childrenFind(account, false, "proxy"));
+
+        // Removed groups are no longer found.
+        dao.remove(account, singleton(web.getId().orElse(null)));
+        assertEquals(names(), find(account, true, "^web-0"));
+    }
+
+    @Test
+    public void testFindByRegexManyCandidates() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("find-regex-many-account");
+        account.getServiceLevel().setMaxGroups(20_000);
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final int count = 10_050;
+        final List<Group> hosts = new ArrayList<>(count + 1);
+        for (int i = 0; i < count; i++) {
+            hosts.add(new Group(String.format("host-%05d", i)));
+        }
+        hosts.add(new Group("database"));
+        dao.bulkAdd(account, null, hosts.iterator(), IGNORED);
+
+        // Too many candidates are matched by the database instead, until the remaining pages have few enough.
+        final TreeSet<String> found = new TreeSet<>();
+        final BiConsumer<Group, Iterator<Tag>> consumer = (group, tagIter) -> assertTrue(found.add(group.getName()));
+        Optional<PageToken> next = dao.find(account, singleton("^host"), true, new Page(5000), consumer);
+        while (next.isPresent()) {
+            next = dao.find(account, singleton("^host"), true, new Page(5000, next.get()), consumer);
+        }
+        assertEquals(count, found.size());
+        assertFalse(found.contains("database"));
+
+        assertEquals(names("host-10000", "host-10001"), find(account, true, "^host-1000[01]"));
+    }
+
+    @Test
+    public void testBulkAdd() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("bulk-add-account");
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group parent = new Group("parent");
+        dao.add(account, singleton(parent).iterator(), IGNORED);
+        final Long parentId = parent.getId().orElse(null);
+
+        final Group a = new Group("a").addTags(new Tag("a", "a1"), new Tag("a", "a2"));
+        final Group b = new Group("b");
+        final Group c = new Group("c").addTags(new Tag("c", "c1"));
+
+        // The bulk add passes the stored groups, with their new ids and tags, to the consumer in input order.
+        final List<Group> added = new ArrayList<>();
+        dao.bulkAdd(account, parentId, asList(a, b, c).iterator(), new AddTo(added));
+        assertEquals(3, added.size());
+        assertEquals("a", added.get(0).getName());
+        assertEquals("b", added.get(1).getName());
+        assertEquals("c", added.get(2).getName());
+        assertEquals(2, added.get(0).getTags().size());
+        assertTrue(added.get(1).getTags().isEmpty());
+        assertEquals(1, added.get(2).getTags().size());
+        for (final Group group : added) {
+            assertTrue(group.getId().isPresent());
+            assertEquals(parentId, group.getParentId().orElse(null));
+        }
+
+        // The groups and tags are available once added, as are top-level groups.
+        final List<Group> children = new ArrayList<>();
+        dao.childrenById(account, singleton(parentId), Page.all(), new AddTo(children));
+        assertEquals(added.size(), children.size());
+        for (int i = 0; i < added.size(); i++) {
+            assertEquals(added.get(i).getId(), children.get(i).getId());
+            assertEquals(new TreeSet<>(added.get(i).getTags()), new TreeSet<>(children.get(i).getTags()));
+        }
+
+        final List<Group> top = new ArrayList<>();
+        dao.bulkAdd(account, null, singleton(new Group("top")).iterator(), new AddTo(top));
+        assertEquals(1, top.size());
+        assertFalse(top.get(0).getParentId().isPresent());
+        assertTrue(dao.exists(account, "top"));
+
+        // Groups added in bulk are part of the depth checks, the account allows a maximum depth of 3.
+        final Group aa = new Group("aa");
+        dao.add(account, added.get(0).getId().orElse(null), singleton(aa).iterator(), IGNORED);
+        try {
+            dao.add(account, aa.getId().orElse(null), singleton(new Group("aaa")).iterator(), IGNORED);
+            fail("Expected the depth quota to be exceeded");
+        } catch (final QuotaExceededException expected) {
+            assertFalse(dao.exists(account, "aaa"));
+        }
+    }
+
+    @Test(expected = QuotaExceededException.class)
+    public void testBulkAddGroupQuotaExceeded() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("bulk-group-quota-account");
+        account.getServiceLevel().setMaxGroups(2);
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        dao.bulkAdd(account, null, asList(new Group("a"), new Group("b"), new Group("c")).iterator(), IGNORED);
+    }
+
+    @Test
+    public void testBulkAddTagQuotaExceeded() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("bulk-tag-quota-account");
+        account.getServiceLevel().setMaxTags(2);
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group a = new Group("a").addTags(new Tag("a", "a1"), new Tag("a", "a2"), new Tag("a", "a3"));
+        try {
+            dao.bulkAdd(account, null, singleton(a).iterator(), IGNORED);
+            fail("Expected the tag quota to be exceeded");
+        } catch (final QuotaExceededException expected) {
+            // Nothing from the failed bulk add is stored.
+            assertFalse(dao.exists(account, "a"));
+        }
+    }
+
+    @Test(expected = QuotaExceededException.class)
+    public void testBulkAddDepthQuotaExceeded() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("bulk-depth-quota-account");
+        account.getServiceLevel().setMaxDepth(1);
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        final Group parent = new Group("parent");
+        dao.add(account, singleton(parent).iterator(), IGNORED);
+        dao.bulkAdd(account, parent.getId().orElse(null), singleton(new Group("child")).iterator(), IGNORED);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testBulkAddSameNameNotAllowed() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account = new Account("bulk-same-name");
+        getAccountDao().add(singleton(account).iterator(), ACCOUNT_IGNORED);
+
+        dao.bulkAdd(account, null, asList(new Group("same-name"), new Group("same-name")).iterator(), IGNORED);
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testPagingWithTokenFromOtherAccount() throws WebApplicationException {
+        final GroupDao dao = getGroupDao();
+
+        final Account account1 = new Account("paging-token-account-1");
+        final Account account2 = new Account("paging-token-account-2");
+        getAccountDao().add(asList(account1, account2).iterator(), ACCOUNT_IGNORED);
+
+        dao.add(account1, asList(new Group("a"), new Group("b")).iterator(), IGNORED);
+
+        final Optional<PageToken> next = dao.get(account1, new Page(1), IGNORED);
+        assertTrue(next.isPresent());
+        dao.get(account2, new Page(1, next.get()), IGNORED);
+    }
+
     @Test(expected = InternalServerErrorException.class)
     public void testExistsByIdException() throws WebApplicationException {
         getGroupDaoWithDataSourceException().exists(new Account("exception-account"), 1L);
@@ -614,28 +1089,37 @@ public abstract class BaseGroupDaoTest {
 
     @Test(expected = InternalServerErrorException.class)
     public void testGetException() throws WebApplicationException {
-        getGroupDaoWithDataSourceException().get(new Account("exception-account"), IGNORED);
+        getGroupDaoWithDataSourceException().get(new Account("exception-account"), Page.all(), IGNORED);
     }
 
     @Test(expected = InternalServerErrorException.class)
     public void testGetByIdException() throws WebApplicationException {
-        getGroupDaoWithDataSourceException().getById(new Account("exception-account"), singleton(1L), IGNORED);
+        getGroupDaoWithDataSourceException().getById(new Account("exception-account"), singleton(1L),
+                Page.all(), IGNORED);
     }
 
     @Test(expected = InternalServerErrorException.class)
     public void testGetByNameException() throws WebApplicationException {
-        getGroupDaoWithDataSourceException().getByName(new Account("exception-account"), singleton("name"), IGNORED);
+        getGroupDaoWithDataSourceException().getByName(new Account("exception-account"), singleton("name"),
+                Page.all(), IGNORED);
     }
 
     @Test(expected = InternalServerErrorException.class)
     public void testChildrenByIdException() throws WebApplicationException {
-        getGroupDaoWithDataSourceException().childrenById(new Account("exception-account"), singleton(1L), IGNORED);
+        getGroupDaoWithDataSourceException().childrenById(new Account("exception-account"), singleton(1L),
+                Page.all(), IGNORED);
     }
 
     @Test(expected = InternalServerErrorException.class)
     public void testChildrenByNameException() throws WebApplicationException {
         getGroupDaoWithDataSourceException()
-                .childrenByName(new Account("exception-account"), singleton("name"), IGNORED);
+                .childrenByName(new Account("exception-account"), singleton("name"), Page.all(), IGNORED);
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testDescendantsException() throws WebApplicationException {
+        getGroupDaoWithDataSourceException().descendants(new Account("exception-account"), singleton(1L), 0,
+                Page.all(), IGNORED);
     }
 
     @Test(expected = InternalServerErrorException.class)
@@ -650,11 +1134,27 @@ public abstract class BaseGroupDaoTest {
                 .add(new Account("exception-account"), 1L, singleton(new Group("group")).iterator(), IGNORED);
     }
 
+    @Test(expected = InternalServerErrorException.class)
+    public void testBulkAddException() throws WebApplicationException {
+        getGroupDaoWithDataSourceException()
+                .bulkAdd(new Account("exception-account"), null, singleton(new Group("group")).iterator(), IGNORED);
+    }
+
     @Test(expected = InternalServerErrorException.class)
     public void testRemoveException() throws WebApplicationException {
         getGroupDaoWithDataSourceException().remove(new Account("exception-account"), singleton(1111L));
     }
 
+    @Test(expected = InternalServerErrorException.class)
+    public void testMoveException() throws WebApplicationException {
+        getGroupDaoWithDataSourceException().move(new Account("exception-account"), singleton(1111L), null);
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testPurgeException() throws WebApplicationException {
+        getGroupDaoWithDataSourceException().purge(10);
+    }
+
     // A consumer that adds groups to a collection.
     private static class AddTo implements BiConsumer<Group, Iterator<Tag>> {
         @Nonnull
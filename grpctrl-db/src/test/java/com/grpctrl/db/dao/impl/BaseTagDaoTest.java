@@ -0,0 +1,322 @@
+package com.grpctrl.db.dao.impl;
+
+import static com.grpctrl.db.selector.TagSelector.and;
+import static com.grpctrl.db.selector.TagSelector.equal;
+import static com.grpctrl.db.selector.TagSelector.exists;
+import static com.grpctrl.db.selector.TagSelector.not;
+import static com.grpctrl.db.selector.TagSelector.or;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.error.QuotaExceededException;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.selector.TagSelector;
+import com.grpctrl.db.selector.TagSelectorParser;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.InternalServerErrorException;
+
+/**
+ * Provides a base unit test class responsible for testing {@link TagDao} implementations.
+ */
+public abstract class BaseTagDaoTest {
+    /**
+     * @return the {@link AccountDao} implementation used to create accounts
+     */
+    public abstract AccountDao getAccountDao();
+
+    /**
+     * @return the {@link GroupDao} implementation used to manage groups, sharing the tag DAO being tested
+     */
+    public abstract GroupDao getGroupDao();
+
+    /**
+     * @return the {@link TagDao} implementation to be tested
+     */
+    public abstract TagDao getTagDao();
+
+    /**
+     * @return a new instance of the {@link TagDao} implementation to be tested, which has not yet evaluated any
+     *     selectors
+     */
+    public abstract TagDao getNewTagDao();
+
+    /**
+     * @return the {@link TagDao} implementation to be tested
+     */
+    public abstract TagDao getTagDaoWithDataSourceException();
+
+    private Account addAccount(final String name) {
+        final Account account = new Account(name, new ServiceLevel(100, 100, 3));
+        getAccountDao().add(singleton(account).iterator(), added -> {
+        });
+        return account;
+    }
+
+    private Group addGroup(final Account account, final String name, final Tag... tags) {
+        final Group group = new Group(name).setTags(tags);
+        getGroupDao().add(account, singleton(group).iterator(), (added, tagIter) -> {
+        });
+        return group;
+    }
+
+    private TreeSet<String> find(final Account account, final TagSelector selector) {
+        return find(getTagDao(), account, selector);
+    }
+
+    private TreeSet<String> find(final TagDao tagDao, final Account account, final TagSelector selector) {
+        final TreeSet<String> names = new TreeSet<>();
+        tagDao.findGroups(account, selector, Page.all(), (group, tags) -> names.add(group.getName()));
+        return names;
+    }
+
+    private void assertFound(final TreeSet<String> expected, final Account account, final String selector) {
+        // The first selector evaluated for the account is evaluated by the database, the second uses the index.
+        final TagDao tagDao = getNewTagDao();
+        assertEquals(selector, expected, find(tagDao, account, TagSelectorParser.parse(selector)));
+        assertEquals(selector, expected, find(tagDao, account, TagSelectorParser.parse(selector)));
+    }
+
+    private TreeSet<String> names(final String... names) {
+        return new TreeSet<>(asList(names));
+    }
+
+    @Test
+    public void testFindGroups() {
+        final Account account = addAccount("tag-find-account");
+        addGroup(account, "a", new Tag("env", "prod"), new Tag("region", "eu"));
+        addGroup(account, "b", new Tag("env", "prod"), new Tag("region", "us"));
+        addGroup(account, "c", new Tag("env", "dev"), new Tag("region", "eu"));
+        addGroup(account, "d");
+
+        assertEquals(names("a", "b"), find(account, equal("env", "prod")));
+        assertEquals(names("a", "b", "c"), find(account, exists("region")));
+        assertEquals(names("a"), find(account, and(equal("env", "prod"), equal("region", "eu"))));
+        assertEquals(names("a", "c"), find(account, or(equal("env", "dev"), equal("region", "eu"))));
+        assertEquals(names("c", "d"), find(account, not(equal("env", "prod"))));
+        assertEquals(names("c"), find(account, and(exists("env"), not(equal("env", "prod")))));
+        assertEquals(names(), find(account, equal("env", "missing")));
+
+        // The matching groups are provided with all of their tags.
+        final List<Group> found = new ArrayList<>();
+        getTagDao().findGroups(account, equal("env", "dev"), Page.all(),
+                (group, tags) -> found.add(new Group(group, tags)));
+        assertEquals(1, found.size());
+        assertEquals(new TreeSet<>(asList(new Tag("env", "dev"), new Tag("region", "eu"))),
+                new TreeSet<>(found.get(0).getTags()));
+    }
+
+    @Test
+    public void testFindGroupsBySelector() {
+        final Account account = addAccount("tag-find-selector-account");
+        addGroup(account, "a", new Tag("env", "prod"), new Tag("tier", "web"), new Tag("tier", "api"));
+        addGroup(account, "b", new Tag("env", "prod"), new Tag("tier", "db"), new Tag("deprecated", "true"));
+        addGroup(account, "c", new Tag("env", "dev"), new Tag("tier", "web"));
+        addGroup(account, "d", new Tag("quoted \"label\"", "a, b"));
+        addGroup(account, "e");
+
+        assertFound(names("a", "b"), account, "env=prod");
+        assertFound(names("a", "b"), account, "env==prod");
+        assertFound(names("c", "d", "e"), account, "env!=prod");
+        assertFound(names("a", "b", "c"), account, "tier");
+        assertFound(names("a", "c", "d", "e"), account, "!deprecated");
+        assertFound(names("a", "c"), account, "tier in (web, api)");
+        assertFound(names("b", "d", "e"), account, "tier notin (web)");
+        assertFound(names("a"), account, "env=prod,tier in (web,api),!deprecated");
+        assertFound(names("a"), account, "env=prod,tier=web,tier=api");
+        assertFound(names(), account, "env=prod,env=dev");
+        assertFound(names("d"), account, "\"quoted \\\"label\\\"\" = \"a, b\"");
+        assertFound(names(), account, "env=missing");
+    }
+
+    @Test
+    public void testTagSetTracksChanges() {
+        final Account account = addAccount("tag-set-changes-account");
+        final Group group = addGroup(account, "group", new Tag("env", "prod"));
+        final long groupId = group.getId().orElse(null);
+        assertFound(names("group"), account, "env=prod");
+
+        final TagDao tagDao = getTagDao();
+        tagDao.add(account, groupId, asList(new Tag("env", "dev"), new Tag("region", "eu")));
+        assertFound(names("group"), account, "env=prod,env=dev,region=eu");
+
+        tagDao.remove(account, groupId, singleton(new Tag("env", "prod")));
+        assertFound(names(), account, "env=prod");
+        assertFound(names("group"), account, "env=dev");
+
+        tagDao.removeLabels(account, groupId, singleton("region"));
+        assertFound(names(), account, "region");
+
+        getGroupDao().bulkAdd(account, groupId,
+                asList(new Group("bulk").setTags(new Tag("env", "prod"), new Tag("env", "dev")), new Group("empty"))
+                        .iterator(), (added, tags) -> {
+                });
+        assertFound(names("bulk"), account, "env=prod");
+        assertFound(names("bulk", "group"), account, "env=dev");
+        assertFound(names("empty"), account, "!env");
+    }
+
+    @Test
+    public void testFindGroupsOtherAccount() {
+        final Account account = addAccount("tag-find-owner-account");
+        final Account other = addAccount("tag-find-other-account");
+        addGroup(account, "owned", new Tag("env", "prod"));
+        addGroup(other, "other", new Tag("env", "prod"));
+
+        assertEquals(names("owned"), find(account, equal("env", "prod")));
+        assertEquals(names("other"), find(other, equal("env", "prod")));
+        assertEquals(names(), find(other, not(exists("env"))));
+    }
+
+    @Test
+    public void testFindGroupsPaging() {
+        final Account account = addAccount("tag-find-paging-account");
+        for (int i = 0; i < 5; i++) {
+            addGroup(account, "prod-" + i, new Tag("env", "prod"));
+            addGroup(account, "dev-" + i, new Tag("env", "dev"));
+        }
+
+        for (final TagSelector selector : asList(equal("env", "prod"), not(equal("env", "dev")))) {
+            final List<String> names = new ArrayList<>();
+            Optional<PageToken> after = Optional.empty();
+            int pages = 0;
+            do {
+                after = getTagDao().findGroups(account, selector, new Page(2, after.orElse(null)),
+                        (group, tags) -> names.add(group.getName()));
+                pages++;
+            } while (after.isPresent());
+
+            assertEquals(3, pages);
+            assertEquals(asList("prod-0", "prod-1", "prod-2", "prod-3", "prod-4"), names);
+        }
+    }
+
+    @Test
+    public void testFindGroupsManyExcluded() {
+        final Account account = new Account("tag-find-many-excluded-account", new ServiceLevel(20_000, 20_000, 3));
+        getAccountDao().add(singleton(account).iterator(), added -> {
+        });
+
+        final List<Group> groups = new ArrayList<>();
+        for (int i = 0; i < 10_050; i++) {
+            groups.add(new Group(String.format("prod-%05d", i)).setTags(new Tag("env", "prod")));
+        }
+        groups.add(new Group("dev").setTags(new Tag("env", "dev")));
+        groups.add(new Group("untagged"));
+        getGroupDao().bulkAdd(account, null, groups.iterator(), (group, tags) -> {
+        });
+
+        // Too many groups to exclude are evaluated by the database, even when the index is loaded.
+        assertFound(names("dev", "untagged"), account, "env!=prod");
+        assertFound(names("dev"), account, "env,env!=prod");
+    }
+
+    @Test
+    public void testIndexTracksChanges() {
+        final Account account = addAccount("tag-index-changes-account");
+        final Group parent = addGroup(account, "parent", new Tag("env", "prod"));
+        final Group untagged = addGroup(account, "untagged");
+        final long untaggedId = untagged.getId().orElse(null);
+
+        // Load the index before making changes.
+        assertEquals(names("parent"), find(account, equal("env", "prod")));
+
+        final TagDao tagDao = getTagDao();
+        tagDao.add(account, untaggedId, asList(new Tag("env", "prod"), new Tag("region", "eu")));
+        assertEquals(names("parent", "untagged"), find(account, equal("env", "prod")));
+
+        tagDao.remove(account, untaggedId, singleton(new Tag("env", "prod")));
+        assertEquals(names("parent"), find(account, equal("env", "prod")));
+
+        tagDao.removeLabels(account, untaggedId, singleton("region"));
+        assertEquals(names(), find(account, exists("region")));
+
+        final GroupDao groupDao = getGroupDao();
+        groupDao.add(account, parent.getId().orElse(null),
+                singleton(new Group("child").setTags(new Tag("env", "prod"))).iterator(), (group, tags) -> {
+                });
+        assertEquals(names("child", "parent"), find(account, equal("env", "prod")));
+
+        groupDao.bulkAdd(account, null, singleton(new Group("bulk").setTags(new Tag("env", "prod"))).iterator(),
+                (group, tags) -> {
+                });
+        assertEquals(names("bulk", "child", "parent"), find(account, equal("env", "prod")));
+
+        // Removing the parent also removes the tags of the child group.
+        groupDao.remove(account, singleton(parent.getId().orElse(null)));
+        assertEquals(names("bulk"), find(account, equal("env", "prod")));
+        assertEquals(names("untagged"), find(account, not(exists("env"))));
+    }
+
+    @Test
+    public void testFailedAddNotIndexed() {
+        final Account account = new Account("tag-index-failed-account", new ServiceLevel(100, 2, 3));
+        getAccountDao().add(singleton(account).iterator(), added -> {
+        });
+        addGroup(account, "existing", new Tag("env", "prod"));
+        assertEquals(names("existing"), find(account, equal("env", "prod")));
+
+        // The tags of the new group are consumed before the tag quota is found to be exceeded.
+        try {
+            addGroup(account, "new", new Tag("env", "prod"), new Tag("region", "eu"));
+            fail("Expected the tag quota to be exceeded");
+        } catch (final QuotaExceededException expected) {
+            // Expected.
+        }
+        assertEquals(names("existing"), find(account, equal("env", "prod")));
+        assertEquals(names(), find(account, exists("region")));
+    }
+
+    @Test
+    public void testRemovedGroupTags() {
+        final Account account = addAccount("tag-removed-group-account");
+        final Group group = addGroup(account, "removed", new Tag("env", "prod"));
+        final Long groupId = group.getId().orElse(null);
+        assertEquals(1, getGroupDao().remove(account, singleton(groupId)));
+
+        // The removed group remains in the database until purged, but its tags can no longer be changed.
+        final TagDao tagDao = getTagDao();
+        assertEquals(0, tagDao.remove(account, groupId, singleton(new Tag("env", "prod"))));
+        assertEquals(0, tagDao.removeLabels(account, groupId, singleton("env")));
+        try {
+            tagDao.add(account, groupId, singleton(new Tag("env", "test")));
+            fail("Expected the removed group to be missing");
+        } catch (final BadRequestException expected) {
+            // Expected.
+        }
+        assertEquals(names(), find(account, exists("env")));
+        assertEquals(names(), find(getNewTagDao(), account, exists("env")));
+    }
+
+    @Test(expected = BadRequestException.class)
+    public void testFindGroupsWithTokenFromOtherAccount() {
+        final Account account = addAccount("tag-find-token-account");
+        getTagDao().findGroups(account, exists("env"), new Page(1, new PageToken(account.getId().orElse(null) + 1, 1)),
+                (group, tags) -> {
+                });
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testFindGroupsException() {
+        getTagDaoWithDataSourceException().findGroups(new Account("exception-account"), exists("env"), Page.all(),
+                (group, tags) -> {
+                });
+    }
+}
@@ -0,0 +1,116 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.TagDictionaryDao;
+
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+/**
+ * Provides a base unit test class responsible for testing {@link TagDictionaryDao} implementations.
+ */
+public abstract class BaseTagDictionaryDaoTest {
+    /**
+     * @return the {@link DataSource} providing the connections used with the dictionary
+     */
+    public abstract DataSource getDataSource();
+
+    /**
+     * @return the {@link TagDictionaryDao} implementation to be tested
+     */
+    public abstract TagDictionaryDao getTagDictionaryDao();
+
+    private Tag read(final Connection conn, final int labelId, final int valueId) throws SQLException {
+        final String sql = "SELECT CAST(? AS INTEGER) AS label_id, CAST(? AS INTEGER) AS value_id, tag_label, "
+                + "tag_value FROM tag_labels, tag_values WHERE label_id = ? AND value_id = ?";
+        try (final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, labelId);
+            ps.setInt(2, valueId);
+            ps.setInt(3, labelId);
+            ps.setInt(4, valueId);
+            try (final ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                final Tag tag = new Tag();
+                assertTrue(getTagDictionaryDao().readTag(rs, tag));
+                return tag;
+            }
+        }
+    }
+
+    @Test
+    public void testResolveAndRead() throws SQLException {
+        final TagDictionaryDao dictionary = getTagDictionaryDao();
+        final int labelId;
+        final int valueId;
+        try (final Connection conn = getDataSource().getConnection()) {
+            final TagDictionaryDao.Resolver resolver = dictionary.getResolver(conn);
+            labelId = resolver.getLabelId("dictionary-label");
+            valueId = resolver.getValueId("dictionary-value");
+            assertEquals(labelId, resolver.getLabelId("dictionary-label"));
+            assertNotEquals(labelId, resolver.getLabelId("dictionary-other"));
+            conn.commit();
+        }
+
+        try (final Connection conn = getDataSource().getConnection()) {
+            final TagDictionaryDao.Resolver resolver = dictionary.getResolver(conn);
+            assertEquals(labelId, resolver.getLabelId("dictionary-label"));
+            assertEquals(valueId, resolver.getValueId("dictionary-value"));
+
+            final Tag first = read(conn, labelId, valueId);
+            assertEquals(new Tag("dictionary-label", "dictionary-value"), first);
+
+            // The strings are shared between the tags using the same ids.
+            final Tag second = read(conn, labelId, valueId);
+            assertSame(first.getLabel(), second.getLabel());
+            assertSame(first.getValue(), second.getValue());
+            conn.commit();
+        }
+    }
+
+    @Test
+    public void testResolveRolledBack() throws SQLException {
+        final TagDictionaryDao dictionary = getTagDictionaryDao();
+        final int rolledBack;
+        try (final Connection conn = getDataSource().getConnection()) {
+            rolledBack = dictionary.getResolver(conn).getLabelId("dictionary-rolled-back");
+            conn.rollback();
+        }
+
+        // The entry added by the rolled back transaction must not be provided to other transactions.
+        try (final Connection conn = getDataSource().getConnection()) {
+            final int labelId = dictionary.getResolver(conn).getLabelId("dictionary-rolled-back");
+            assertNotEquals(rolledBack, labelId);
+            conn.commit();
+        }
+
+        try (final Connection conn = getDataSource().getConnection()) {
+            assertNotEquals(rolledBack, dictionary.getResolver(conn).getLabelId("dictionary-rolled-back"));
+            conn.rollback();
+        }
+    }
+
+    @Test
+    public void testReadWithoutTag() throws SQLException {
+        final String sql = "SELECT CAST(NULL AS INTEGER) AS label_id, CAST(NULL AS INTEGER) AS value_id, "
+                + "CAST(NULL AS VARCHAR) AS tag_label, CAST(NULL AS VARCHAR) AS tag_value";
+        try (final Connection conn = getDataSource().getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql);
+             final ResultSet rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+            assertFalse(getTagDictionaryDao().readTag(rs, new Tag()));
+            conn.rollback();
+        }
+    }
+}
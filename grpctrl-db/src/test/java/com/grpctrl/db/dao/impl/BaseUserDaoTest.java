@@ -0,0 +1,108 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+
+import com.grpctrl.common.model.User;
+import com.grpctrl.common.model.UserAuth;
+import com.grpctrl.common.model.UserEmail;
+import com.grpctrl.common.model.UserRole;
+import com.grpctrl.common.model.UserSource;
+import com.grpctrl.db.dao.UserDao;
+
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.WebApplicationException;
+
+/**
+ * Provides a base unit test class responsible for testing {@link UserDao} implementations.
+ */
+public abstract class BaseUserDaoTest {
+    /**
+     * @return the {@link UserDao} implementation to be tested
+     */
+    public abstract UserDao getUserDao();
+
+    /**
+     * @return the {@link UserDao} implementation to be tested
+     */
+    public abstract UserDao getUserDaoWithDataSourceException();
+
+    @Test
+    public void testUserManagement() throws WebApplicationException {
+        final UserDao dao = getUserDao();
+
+        final User user1 = new User("user-management-test-1", UserSource.LOCAL);
+        user1.setUserAuth(new UserAuth("SHA-256", "salt", "hashed"));
+        user1.getEmails().add(new UserEmail("user-management-test-1@grpctrl.com", true, false));
+        user1.getRoles().add(UserRole.ADMIN);
+        user1.getRoles().add(UserRole.USER);
+        final User user2 = new User("user-management-test-2", UserSource.GITHUB);
+
+        dao.add(asList(user1, user2));
+
+        // The add call will set the new id in each of the provided users.
+        assertTrue(user1.getId().isPresent());
+        assertTrue(user2.getId().isPresent());
+        final Long user1id = user1.getId().orElse(null);
+        final Long user2id = user2.getId().orElse(null);
+
+        // Retrieving a non-existent user returns nothing.
+        assertFalse(dao.get(1111L).isPresent());
+
+        // The user is retrieved along with its auth, emails and roles.
+        final Optional<User> found1 = dao.get(user1id);
+        assertTrue(found1.isPresent());
+        assertEquals("user-management-test-1", found1.get().getLogin());
+        assertEquals(UserSource.LOCAL, found1.get().getUserSource());
+        assertEquals(user1.getUserAuth(), found1.get().getUserAuth());
+        assertEquals(user1.getEmails(), found1.get().getEmails());
+        assertEquals(user1.getRoles(), found1.get().getRoles());
+        assertTrue(found1.get().getAccounts().isEmpty());
+
+        // A user without an auth, emails or roles is retrieved with none of them.
+        final Optional<User> found2 = dao.get(UserSource.GITHUB, "user-management-test-2");
+        assertTrue(found2.isPresent());
+        assertEquals(user2id, found2.get().getId().orElse(null));
+        assertFalse(found2.get().getUserAuth().isPresent());
+        assertTrue(found2.get().getEmails().isEmpty());
+        assertTrue(found2.get().getRoles().isEmpty());
+
+        // The login only matches users from the same source.
+        assertFalse(dao.get(UserSource.LOCAL, "user-management-test-2").isPresent());
+
+        // Looking for a mixture of missing and available user ids returns only the ones that are available.
+        final Collection<User> mixture = dao.get(asList(user1id, user2id, 2222L));
+        assertEquals(2, mixture.size());
+
+        dao.remove(asList(user1id, user2id));
+        assertTrue(dao.get(asList(user1id, user2id)).isEmpty());
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testGetUserException() throws WebApplicationException {
+        getUserDaoWithDataSourceException().get(singleton(1111L));
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testGetUserByLoginException() throws WebApplicationException {
+        getUserDaoWithDataSourceException().get(UserSource.LOCAL, singleton("get-user-exception"));
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testAddUserException() throws WebApplicationException {
+        getUserDaoWithDataSourceException().add(new User("add-user-exception"));
+    }
+
+    @Test(expected = InternalServerErrorException.class)
+    public void testRemoveUserException() throws WebApplicationException {
+        getUserDaoWithDataSourceException().remove(1111L);
+    }
+}
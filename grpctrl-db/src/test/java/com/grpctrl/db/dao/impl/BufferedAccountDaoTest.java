@@ -0,0 +1,122 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.supplier.ObjectMapperSupplier;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Perform testing on the {@link BufferedAccountDao} class.
+ */
+public class BufferedAccountDaoTest {
+    @SuppressWarnings("unchecked")
+    private static AccountDao delegate(
+            final List<?> received, final List<Integer> duringQuery, final String... names) {
+        final AccountDao accountDao = Mockito.mock(AccountDao.class);
+        Mockito.when(accountDao.getAll(Matchers.any(Page.class), Matchers.any(Consumer.class))).then(invocation -> {
+            final Consumer<Account> consumer = (Consumer<Account>) invocation.getArguments()[1];
+
+            // Reuse the same account for every row, as the database implementation does.
+            final Account account = new Account();
+            long id = 1;
+            for (final String name : names) {
+                account.setId(id++);
+                account.setName(name);
+                consumer.accept(account);
+            }
+
+            duringQuery.add(received.size());
+            return Optional.of(new PageToken(id - 1, 0));
+        });
+        return accountDao;
+    }
+
+    @Test
+    public void testGetAllBuffered() {
+        final List<Account> received = new ArrayList<>();
+        final List<Integer> duringQuery = new ArrayList<>();
+        final AccountDao accountDao = new BufferedAccountDao(delegate(received, duringQuery, "a", "b"), 2);
+
+        final Optional<PageToken> pageToken = accountDao.getAll(Page.all(), received::add);
+        assertEquals(Optional.of(new PageToken(2, 0)), pageToken);
+
+        // No accounts are passed to the consumer until the query has finished.
+        assertEquals(Collections.singletonList(0), duringQuery);
+        assertEquals(2, received.size());
+        assertEquals("a", received.get(0).getName());
+        assertEquals("b", received.get(1).getName());
+    }
+
+    @Test
+    public void testGetAllOverflow() {
+        final List<String> received = new ArrayList<>();
+        final List<Integer> duringQuery = new ArrayList<>();
+        final AccountDao accountDao = new BufferedAccountDao(delegate(received, duringQuery, "a", "b", "c"), 2);
+
+        accountDao.getAll(Page.all(), account -> received.add(account.getName()));
+
+        // Once the buffer is full, the accounts are passed to the consumer while the query is running.
+        assertEquals(Collections.singletonList(3), duringQuery);
+        assertEquals(Arrays.asList("a", "b", "c"), received);
+    }
+
+    @Test
+    public void testWriteAll() throws IOException {
+        final List<Integer> duringQuery = new ArrayList<>();
+        final StringWriter written = new StringWriter();
+
+        final AccountDao delegate = Mockito.mock(AccountDao.class);
+        Mockito.when(delegate.writeAll(Matchers.any(Page.class), Matchers.any(JsonGenerator.class)))
+                .then(invocation -> {
+                    final JsonGenerator generator = (JsonGenerator) invocation.getArguments()[1];
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", 1L);
+                    generator.writeEndObject();
+                    generator.flush();
+                    duringQuery.add(written.getBuffer().length());
+                    return Optional.empty();
+                });
+
+        final AccountDao accountDao = new BufferedAccountDao(delegate, 2);
+        try (final JsonGenerator generator = new ObjectMapperSupplier().get().getFactory().createGenerator(written)) {
+            // A page that fits in the buffer is not written until the query has finished.
+            accountDao.writeAll(new Page(2), generator);
+            generator.flush();
+            assertEquals("{\"id\":1}", written.toString());
+
+            // A page larger than the buffer is written while the query is running.
+            accountDao.writeAll(new Page(3), generator);
+        }
+        assertEquals(Arrays.asList(0, 17), duringQuery);
+        assertEquals("{\"id\":1} {\"id\":1}", written.toString());
+    }
+
+    @Test
+    public void testRemove() {
+        final AccountDao delegate = Mockito.mock(AccountDao.class);
+        Mockito.when(delegate.remove(1L)).thenReturn(1);
+        assertEquals(1, new BufferedAccountDao(delegate, 2).remove(1L));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullDelegate() {
+        new BufferedAccountDao(null, 2);
+    }
+}
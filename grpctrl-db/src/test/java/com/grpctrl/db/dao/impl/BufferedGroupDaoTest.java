@@ -0,0 +1,95 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.page.Page;
+
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Perform testing on the {@link BufferedGroupDao} class.
+ */
+public class BufferedGroupDaoTest {
+    @SuppressWarnings("unchecked")
+    private static GroupDao delegate(
+            final List<?> received, final List<Integer> duringQuery, final String... names) {
+        final GroupDao groupDao = Mockito.mock(GroupDao.class);
+        Mockito.when(groupDao.getById(Matchers.any(Account.class), Matchers.any(Collection.class),
+                Matchers.any(Page.class), Matchers.any(BiConsumer.class))).then(invocation -> {
+                    final BiConsumer<Group, Iterator<Tag>> consumer =
+                            (BiConsumer<Group, Iterator<Tag>>) invocation.getArguments()[3];
+
+                    // Reuse the same group and tags for every row, as the database implementation does.
+                    final Group group = new Group();
+                    final List<Tag> tags = new ArrayList<>();
+                    long id = 1;
+                    for (final String name : names) {
+                        group.setId(id++);
+                        group.setName(name);
+                        tags.clear();
+                        tags.add(new Tag("name", name));
+                        consumer.accept(group, tags.iterator());
+                    }
+
+                    duringQuery.add(received.size());
+                    return Optional.empty();
+                });
+        return groupDao;
+    }
+
+    private static BiConsumer<Group, Iterator<Tag>> collect(final List<String> received) {
+        return (group, tags) -> received.add(group.getId().orElse(null) + ":" + group.getName() + ":"
+                + tags.next().getValue());
+    }
+
+    @Test
+    public void testGetByIdBuffered() {
+        final List<String> received = new ArrayList<>();
+        final List<Integer> duringQuery = new ArrayList<>();
+        final GroupDao groupDao = new BufferedGroupDao(delegate(received, duringQuery, "a", "b"), 2);
+
+        groupDao.getById(new Account("account"), Arrays.asList(1L, 2L), Page.all(), collect(received));
+        assertEquals(Collections.singletonList(0), duringQuery);
+        assertEquals(Arrays.asList("1:a:a", "2:b:b"), received);
+    }
+
+    @Test
+    public void testGetByIdOverflow() {
+        final List<String> received = new ArrayList<>();
+        final List<Integer> duringQuery = new ArrayList<>();
+        final GroupDao groupDao = new BufferedGroupDao(delegate(received, duringQuery, "a", "b", "c"), 2);
+
+        groupDao.getById(new Account("account"), Arrays.asList(1L, 2L, 3L), Page.all(), collect(received));
+        assertEquals(Collections.singletonList(3), duringQuery);
+        assertEquals(Arrays.asList("1:a:a", "2:b:b", "3:c:c"), received);
+    }
+
+    @Test
+    public void testExists() {
+        final Account account = new Account("account");
+        final GroupDao delegate = Mockito.mock(GroupDao.class);
+        Mockito.when(delegate.exists(account, 1L)).thenReturn(true);
+        assertTrue(new BufferedGroupDao(delegate, 2).exists(account, 1L));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullConsumer() {
+        new BufferedGroupDao(Mockito.mock(GroupDao.class), 2).get(new Account("account"), Page.all(), null);
+    }
+}
@@ -0,0 +1,67 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+import com.grpctrl.db.selector.TagSelector;
+
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Perform testing on the {@link BufferedTagDao} class.
+ */
+public class BufferedTagDaoTest {
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindGroups() {
+        final List<String> received = new ArrayList<>();
+        final List<Integer> duringQuery = new ArrayList<>();
+
+        final TagDao delegate = Mockito.mock(TagDao.class);
+        Mockito.when(delegate.findGroups(Matchers.any(Account.class), Matchers.any(TagSelector.class),
+                Matchers.any(Page.class), Matchers.any(BiConsumer.class))).then(invocation -> {
+                    final BiConsumer<Group, Iterator<Tag>> consumer =
+                            (BiConsumer<Group, Iterator<Tag>>) invocation.getArguments()[3];
+                    final Group group = new Group();
+                    group.setId(1L);
+                    group.setName("a");
+                    consumer.accept(group, Collections.singleton(new Tag("x", "1")).iterator());
+                    group.setId(2L);
+                    group.setName("b");
+                    consumer.accept(group, Collections.singleton(new Tag("x", "2")).iterator());
+                    duringQuery.add(received.size());
+                    return Optional.of(new PageToken(1, 2));
+                });
+
+        final TagDao tagDao = new BufferedTagDao(delegate, 10);
+        final Optional<PageToken> pageToken = tagDao.findGroups(new Account("account"), TagSelector.exists("x"),
+                Page.all(), (group, tags) -> received.add(group.getName() + ":" + tags.next().getValue()));
+
+        assertEquals(Optional.of(new PageToken(1, 2)), pageToken);
+        assertEquals(Collections.singletonList(0), duringQuery);
+        assertEquals(Arrays.asList("a:1", "b:2"), received);
+    }
+
+    @Test
+    public void testInvalidate() {
+        final Account account = new Account("account");
+        final TagDao delegate = Mockito.mock(TagDao.class);
+        new BufferedTagDao(delegate, 10).invalidate(account);
+        Mockito.verify(delegate).invalidate(account);
+    }
+}
@@ -0,0 +1,99 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ApiLogin;
+import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.AsyncAccountDao;
+import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.executor.DatabaseExecutor;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.ws.rs.InternalServerErrorException;
+
+/**
+ * Perform testing on the {@link ExecutorAsyncAccountDao} class.
+ */
+public class ExecutorAsyncAccountDaoTest {
+    private static DatabaseExecutor executor;
+    private static DatabaseExecutorSupplier executorSupplier;
+
+    private AccountDao accountDao;
+    private AsyncAccountDao asyncAccountDao;
+
+    @BeforeClass
+    public static void beforeClass() {
+        executor = new DatabaseExecutor(2, 10, new MetricRegistry());
+        executorSupplier = Mockito.mock(DatabaseExecutorSupplier.class);
+        Mockito.when(executorSupplier.get()).thenReturn(executor);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        executor.shutdown();
+    }
+
+    @Before
+    public void setup() {
+        this.accountDao = Mockito.mock(AccountDao.class);
+        final AccountDaoSupplier accountDaoSupplier = Mockito.mock(AccountDaoSupplier.class);
+        Mockito.when(accountDaoSupplier.get()).thenReturn(this.accountDao);
+        this.asyncAccountDao = new ExecutorAsyncAccountDao(accountDaoSupplier, executorSupplier);
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        final ApiLogin apiLogin = new ApiLogin("key", "secret");
+        final Account account = new Account(1L, "account", new ServiceLevel());
+        Mockito.when(this.accountDao.get(apiLogin)).thenReturn(Optional.of(account));
+
+        assertEquals(Optional.of(account), this.asyncAccountDao.get(apiLogin).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGetAll() throws Exception {
+        final Page page = new Page(2);
+        final Consumer<Account> consumer = Mockito.mock(Consumer.class);
+        Mockito.when(this.accountDao.getAll(page, consumer)).thenReturn(Optional.of(new PageToken(2L, 0L)));
+
+        assertEquals(Optional.of(new PageToken(2L, 0L)),
+                this.asyncAccountDao.getAll(page, consumer).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRemoveFailure() throws Exception {
+        Mockito.when(this.accountDao.remove(Collections.singleton(1L)))
+                .thenThrow(new InternalServerErrorException("Fake"));
+        try {
+            this.asyncAccountDao.remove(Collections.singleton(1L)).get(10, TimeUnit.SECONDS);
+            fail("Expected the operation to fail");
+        } catch (final ExecutionException failure) {
+            assertTrue(failure.getCause() instanceof InternalServerErrorException);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testRemoveNull() {
+        this.asyncAccountDao.remove((Long) null);
+    }
+}
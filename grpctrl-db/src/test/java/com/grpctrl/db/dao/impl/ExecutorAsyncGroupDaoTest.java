@@ -0,0 +1,104 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.AsyncGroupDao;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.dao.supplier.GroupDaoSupplier;
+import com.grpctrl.db.error.QuotaExceededException;
+import com.grpctrl.db.executor.DatabaseExecutor;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+import com.grpctrl.db.page.Page;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Perform testing on the {@link ExecutorAsyncGroupDao} class.
+ */
+public class ExecutorAsyncGroupDaoTest {
+    private static DatabaseExecutor executor;
+    private static DatabaseExecutorSupplier executorSupplier;
+
+    private GroupDao groupDao;
+    private AsyncGroupDao asyncGroupDao;
+
+    @BeforeClass
+    public static void beforeClass() {
+        executor = new DatabaseExecutor(2, 10, new MetricRegistry());
+        executorSupplier = Mockito.mock(DatabaseExecutorSupplier.class);
+        Mockito.when(executorSupplier.get()).thenReturn(executor);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        executor.shutdown();
+    }
+
+    @Before
+    public void setup() {
+        this.groupDao = Mockito.mock(GroupDao.class);
+        final GroupDaoSupplier groupDaoSupplier = Mockito.mock(GroupDaoSupplier.class);
+        Mockito.when(groupDaoSupplier.get()).thenReturn(this.groupDao);
+        this.asyncGroupDao = new ExecutorAsyncGroupDao(groupDaoSupplier, executorSupplier);
+    }
+
+    @Test
+    public void testConcurrentExists() throws Exception {
+        final Account account = new Account("account");
+        Mockito.when(this.groupDao.exists(account, 1L)).thenReturn(true);
+        Mockito.when(this.groupDao.exists(account, "missing")).thenReturn(false);
+
+        // Independent lookups can be composed while both run concurrently.
+        final CompletableFuture<Boolean> byId = this.asyncGroupDao.exists(account, 1L);
+        final CompletableFuture<Boolean> byName = this.asyncGroupDao.exists(account, "missing");
+        assertEquals("true,false", byId.thenCombine(byName, (id, name) -> id + "," + name).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testGet() throws Exception {
+        final Account account = new Account("account");
+        final Page page = Page.all();
+        final BiConsumer<Group, Iterator<Tag>> consumer = Mockito.mock(BiConsumer.class);
+        Mockito.when(this.groupDao.get(account, page, consumer)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), this.asyncGroupDao.get(account, page, consumer).get(10, TimeUnit.SECONDS));
+        Mockito.verify(this.groupDao).get(account, page, consumer);
+    }
+
+    @Test
+    public void testMoveFailure() throws Exception {
+        final Account account = new Account("account");
+        Mockito.when(this.groupDao.move(account, Collections.singleton(1L), 2L))
+                .thenThrow(new QuotaExceededException("Fake"));
+        try {
+            this.asyncGroupDao.move(account, Collections.singleton(1L), 2L).get(10, TimeUnit.SECONDS);
+            fail("Expected the operation to fail");
+        } catch (final ExecutionException failure) {
+            assertTrue(failure.getCause() instanceof QuotaExceededException);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testRemoveNull() {
+        this.asyncGroupDao.remove(new Account("account"), null);
+    }
+}
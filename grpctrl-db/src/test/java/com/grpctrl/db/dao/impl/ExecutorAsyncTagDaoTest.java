@@ -0,0 +1,103 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.AsyncTagDao;
+import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.dao.supplier.TagDaoSupplier;
+import com.grpctrl.db.executor.DatabaseExecutor;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.selector.TagSelector;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import javax.ws.rs.InternalServerErrorException;
+
+/**
+ * Perform testing on the {@link ExecutorAsyncTagDao} class.
+ */
+public class ExecutorAsyncTagDaoTest {
+    private static DatabaseExecutor executor;
+    private static DatabaseExecutorSupplier executorSupplier;
+
+    private TagDao tagDao;
+    private AsyncTagDao asyncTagDao;
+
+    @BeforeClass
+    public static void beforeClass() {
+        executor = new DatabaseExecutor(2, 10, new MetricRegistry());
+        executorSupplier = Mockito.mock(DatabaseExecutorSupplier.class);
+        Mockito.when(executorSupplier.get()).thenReturn(executor);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        executor.shutdown();
+    }
+
+    @Before
+    public void setup() {
+        this.tagDao = Mockito.mock(TagDao.class);
+        final TagDaoSupplier tagDaoSupplier = Mockito.mock(TagDaoSupplier.class);
+        Mockito.when(tagDaoSupplier.get()).thenReturn(this.tagDao);
+        this.asyncTagDao = new ExecutorAsyncTagDao(tagDaoSupplier, executorSupplier);
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        final Account account = new Account("account");
+        final Iterable<Tag> tags = Collections.singleton(new Tag("a", "1"));
+        Mockito.when(this.tagDao.add(account, 1L, tags)).thenReturn(1);
+
+        assertEquals(Integer.valueOf(1), this.asyncTagDao.add(account, 1L, tags).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindGroups() throws Exception {
+        final Account account = new Account("account");
+        final TagSelector selector = TagSelector.exists("a");
+        final Page page = Page.all();
+        final BiConsumer<Group, Iterator<Tag>> consumer = Mockito.mock(BiConsumer.class);
+        Mockito.when(this.tagDao.findGroups(account, selector, page, consumer)).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(),
+                this.asyncTagDao.findGroups(account, selector, page, consumer).get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRemoveLabelsFailure() throws Exception {
+        final Account account = new Account("account");
+        final Iterable<String> labels = Collections.singleton("a");
+        Mockito.when(this.tagDao.removeLabels(account, 1L, labels)).thenThrow(new InternalServerErrorException("Fake"));
+        try {
+            this.asyncTagDao.removeLabels(account, 1L, labels).get(10, TimeUnit.SECONDS);
+            fail("Expected the operation to fail");
+        } catch (final ExecutionException failure) {
+            assertTrue(failure.getCause() instanceof InternalServerErrorException);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testRemoveNull() {
+        this.asyncTagDao.remove(new Account("account"), 1L, null);
+    }
+}
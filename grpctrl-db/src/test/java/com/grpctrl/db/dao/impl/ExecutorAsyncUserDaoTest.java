@@ -0,0 +1,88 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.model.User;
+import com.grpctrl.common.model.UserSource;
+import com.grpctrl.db.dao.AsyncUserDao;
+import com.grpctrl.db.dao.UserDao;
+import com.grpctrl.db.dao.supplier.UserDaoSupplier;
+import com.grpctrl.db.executor.DatabaseExecutor;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.InternalServerErrorException;
+
+/**
+ * Perform testing on the {@link ExecutorAsyncUserDao} class.
+ */
+public class ExecutorAsyncUserDaoTest {
+    private static DatabaseExecutor executor;
+    private static DatabaseExecutorSupplier executorSupplier;
+
+    private UserDao userDao;
+    private AsyncUserDao asyncUserDao;
+
+    @BeforeClass
+    public static void beforeClass() {
+        executor = new DatabaseExecutor(2, 10, new MetricRegistry());
+        executorSupplier = Mockito.mock(DatabaseExecutorSupplier.class);
+        Mockito.when(executorSupplier.get()).thenReturn(executor);
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        executor.shutdown();
+    }
+
+    @Before
+    public void setup() {
+        this.userDao = Mockito.mock(UserDao.class);
+        final UserDaoSupplier userDaoSupplier = Mockito.mock(UserDaoSupplier.class);
+        Mockito.when(userDaoSupplier.get()).thenReturn(this.userDao);
+        this.asyncUserDao = new ExecutorAsyncUserDao(userDaoSupplier, executorSupplier);
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        final User user = new User("login", UserSource.LOCAL);
+        Mockito.when(this.userDao.get(UserSource.LOCAL, "login")).thenReturn(Optional.of(user));
+
+        assertEquals(Optional.of(user), this.asyncUserDao.get(UserSource.LOCAL, "login").get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        final User user = new User("login", UserSource.LOCAL);
+        this.asyncUserDao.add(user).get(10, TimeUnit.SECONDS);
+        Mockito.verify(this.userDao).add(user);
+    }
+
+    @Test
+    public void testRemoveFailure() throws Exception {
+        Mockito.doThrow(new InternalServerErrorException("Fake")).when(this.userDao).remove(1L);
+        try {
+            this.asyncUserDao.remove(1L).get(10, TimeUnit.SECONDS);
+            fail("Expected the operation to fail");
+        } catch (final ExecutionException failure) {
+            assertTrue(failure.getCause() instanceof InternalServerErrorException);
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testGetNull() {
+        this.asyncUserDao.get((Long) null);
+    }
+}
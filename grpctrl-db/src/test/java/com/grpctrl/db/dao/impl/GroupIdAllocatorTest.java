@@ -0,0 +1,59 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Perform testing on the {@link GroupIdAllocator} class.
+ */
+public class GroupIdAllocatorTest {
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBlockSize() {
+        new GroupIdAllocator(0);
+    }
+
+    @Test
+    public void testNextReservesBlocks() throws SQLException {
+        final ResultSet first = Mockito.mock(ResultSet.class);
+        Mockito.when(first.next()).thenReturn(true, true, false);
+        Mockito.when(first.getLong(1)).thenReturn(5L, 7L);
+        final ResultSet second = Mockito.mock(ResultSet.class);
+        Mockito.when(second.next()).thenReturn(true, true, false);
+        Mockito.when(second.getLong(1)).thenReturn(20L, 21L);
+
+        final PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        Mockito.when(ps.executeQuery()).thenReturn(first, second);
+        final Connection conn = Mockito.mock(Connection.class);
+        Mockito.when(conn.prepareStatement(Mockito.anyString())).thenReturn(ps);
+
+        final GroupIdAllocator allocator = new GroupIdAllocator(2);
+        assertEquals(5L, allocator.next(conn));
+        assertEquals(7L, allocator.next(conn));
+        assertEquals(20L, allocator.next(conn));
+        assertEquals(21L, allocator.next(conn));
+
+        Mockito.verify(ps, Mockito.times(2)).executeQuery();
+        Mockito.verify(ps, Mockito.times(2)).setInt(1, 2);
+    }
+
+    @Test(expected = SQLException.class)
+    public void testNextWithShortBlock() throws SQLException {
+        final ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.when(rs.next()).thenReturn(true, false);
+        Mockito.when(rs.getLong(1)).thenReturn(5L);
+
+        final PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        Mockito.when(ps.executeQuery()).thenReturn(rs);
+        final Connection conn = Mockito.mock(Connection.class);
+        Mockito.when(conn.prepareStatement(Mockito.anyString())).thenReturn(ps);
+
+        new GroupIdAllocator(2).next(conn);
+    }
+}
@@ -0,0 +1,148 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.ws.rs.InternalServerErrorException;
+
+/**
+ * Perform testing on the {@link InstrumentedDao} class.
+ */
+public class InstrumentedDaoTest {
+    private static final String GET_ALL = "com.grpctrl.db.dao.AccountDao.getAll";
+    private static final String REMOVE = "com.grpctrl.db.dao.AccountDao.remove";
+
+    @SuppressWarnings("unchecked")
+    private static AccountDao delegate() {
+        final AccountDao accountDao = Mockito.mock(AccountDao.class);
+        Mockito.when(accountDao.getAll(Matchers.any(Page.class), Matchers.any(Consumer.class))).then(invocation -> {
+            final Consumer<Account> consumer = (Consumer<Account>) invocation.getArguments()[1];
+            consumer.accept(new Account("a"));
+            consumer.accept(new Account("b"));
+            consumer.accept(new Account("c"));
+            return Optional.of(new PageToken(3, 0));
+        });
+        Mockito.when(accountDao.remove(Matchers.anyLong())).thenReturn(1);
+        Mockito.when(accountDao.remove(Matchers.anyCollectionOf(Long.class))).thenReturn(2);
+        Mockito.when(accountDao.getForUser(Matchers.anyLong())).thenReturn(Collections.singletonList(new Account()));
+        Mockito.when(accountDao.purge(Matchers.anyInt()))
+                .thenThrow(new InternalServerErrorException("Fake"));
+        return accountDao;
+    }
+
+    @Test
+    public void testConsumerRows() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final AccountDao accountDao = InstrumentedDao.wrap(AccountDao.class, delegate(), metricRegistry);
+
+        final List<Account> received = new ArrayList<>();
+        assertEquals(Optional.of(new PageToken(3, 0)), accountDao.getAll(Page.all(), received::add));
+
+        assertEquals(3, received.size());
+        assertEquals(1, metricRegistry.timer(GET_ALL).getCount());
+        final Snapshot rows = metricRegistry.histogram(GET_ALL + ".rows").getSnapshot();
+        assertEquals(1, rows.size());
+        assertEquals(3, rows.getMax());
+        assertEquals(0, metricRegistry.counter(GET_ALL + ".errors").getCount());
+    }
+
+    @Test
+    public void testReturnedRows() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final AccountDao accountDao = InstrumentedDao.wrap(AccountDao.class, delegate(), metricRegistry);
+
+        assertEquals(1, accountDao.remove(5L));
+        assertEquals(2, accountDao.remove(Arrays.asList(5L, 6L)));
+        assertEquals(1, accountDao.getForUser(1L).size());
+
+        // The overloaded methods share their metrics.
+        assertEquals(2, metricRegistry.timer(REMOVE).getCount());
+        assertEquals(2, metricRegistry.histogram(REMOVE + ".rows").getSnapshot().getMax());
+        assertEquals(1, metricRegistry.histogram("com.grpctrl.db.dao.AccountDao.getForUser.rows").getCount());
+    }
+
+    @Test
+    public void testErrors() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final AccountDao accountDao = InstrumentedDao.wrap(AccountDao.class, delegate(), metricRegistry);
+
+        try {
+            accountDao.purge(10);
+            fail("Expected the exception thrown by the delegate");
+        } catch (final InternalServerErrorException expected) {
+            assertEquals("Fake", expected.getMessage());
+        }
+
+        assertEquals(1, metricRegistry.timer("com.grpctrl.db.dao.AccountDao.purge").getCount());
+        assertEquals(1, metricRegistry.counter("com.grpctrl.db.dao.AccountDao.purge.errors").getCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBiConsumerRows() {
+        final GroupDao delegate = Mockito.mock(GroupDao.class);
+        Mockito.when(delegate.getById(Matchers.any(Account.class), Matchers.anyCollectionOf(Long.class),
+                Matchers.any(Page.class), Matchers.any(BiConsumer.class))).then(invocation -> {
+                    final BiConsumer<Group, Iterator<Tag>> consumer =
+                            (BiConsumer<Group, Iterator<Tag>>) invocation.getArguments()[3];
+                    consumer.accept(new Group("a"), Collections.emptyIterator());
+                    consumer.accept(new Group("b"), Collections.emptyIterator());
+                    return Optional.empty();
+                });
+
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final GroupDao groupDao = InstrumentedDao.wrap(GroupDao.class, delegate, metricRegistry);
+
+        final List<Group> received = new ArrayList<>();
+        groupDao.getById(new Account(), Collections.singleton(1L), Page.all(), (group, tags) -> received.add(group));
+
+        assertEquals(2, received.size());
+        assertEquals(2, metricRegistry.histogram("com.grpctrl.db.dao.GroupDao.getById.rows").getSnapshot().getMax());
+    }
+
+    @Test
+    public void testObjectMethodsNotTracked() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final AccountDao accountDao = InstrumentedDao.wrap(AccountDao.class, delegate(), metricRegistry);
+
+        accountDao.toString();
+        assertTrue(metricRegistry.getTimers().keySet().stream().allMatch(name -> name.startsWith(GET_ALL.substring(
+                0, GET_ALL.lastIndexOf('.')))));
+        assertEquals(0, metricRegistry.getTimers().values().stream().mapToLong(Timer::getCount).sum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrapClass() {
+        InstrumentedDao.wrap(Object.class, new Object(), new MetricRegistry());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testWrapNullDelegate() {
+        InstrumentedDao.wrap(AccountDao.class, null, new MetricRegistry());
+    }
+}
@@ -1,7 +1,11 @@
 package com.grpctrl.db.dao.impl;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
 import com.grpctrl.common.config.ConfigKeys;
 import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
 import com.grpctrl.db.DataSourceSupplier;
 import com.grpctrl.db.dao.AccountDao;
@@ -26,6 +30,7 @@ import javax.sql.DataSource;
  */
 public class PostgresAccountDaoIT extends BaseAccountDaoTest {
     private static DataSourceSupplier dataSourceSupplier;
+    private static MetricRegistrySupplier metricRegistrySupplier;
 
     @BeforeClass
     public static void setup() {
@@ -40,6 +45,14 @@ public class PostgresAccountDaoIT extends BaseAccountDaoTest {
         map.put(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
         map.put(ConfigKeys.DB_CLEAN.getKey(), ConfigValueFactory.fromAnyRef("true"));
         map.put(ConfigKeys.DB_MIGRATE.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        // Use a small fetch size so streamed results span multiple cursor fetches.
+        map.put(ConfigKeys.DB_FETCH_SIZE.getKey(), ConfigValueFactory.fromAnyRef(2));
+        // The primary database also serves as the replica, so the read-only queries use the replica pool.
+        map.put(ConfigKeys.DB_REPLICA_URL.getKey(),
+                ConfigValueFactory.fromAnyRef("jdbc:postgresql://localhost:5432/grpctrl"));
+        map.put(ConfigKeys.DB_REPLICA_MAXIMUM_POOL_SIZE.getKey(), ConfigValueFactory.fromAnyRef(5));
+        map.put(ConfigKeys.DB_REPLICA_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("1 second"));
+        map.put(ConfigKeys.DB_REPLICA_MAX_LAG.getKey(), ConfigValueFactory.fromAnyRef("5 seconds"));
 
         map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
         map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
@@ -49,13 +62,20 @@ public class PostgresAccountDaoIT extends BaseAccountDaoTest {
         final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
         Mockito.when(configSupplier.get()).thenReturn(config);
 
-        dataSourceSupplier =
-                new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier));
+        metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        dataSourceSupplier = new DataSourceSupplier(configSupplier,
+                new PasswordBasedEncryptionSupplier(configSupplier), metricRegistrySupplier, healthCheckRegistrySupplier);
+        // The replica lag is normally sampled in the background, the reads use the primary until it is first sampled.
+        dataSourceSupplier.checkReplica();
     }
 
     @Override
     public AccountDao getAccountDao() {
-        return new PostgresAccountDao(dataSourceSupplier, new ServiceLevelDaoSupplier());
+        return new PostgresAccountDao(dataSourceSupplier, new ServiceLevelDaoSupplier(), metricRegistrySupplier);
     }
 
     @Override
@@ -66,8 +86,10 @@ public class PostgresAccountDaoIT extends BaseAccountDaoTest {
 
             final DataSourceSupplier mockDataSourceSupplier = Mockito.mock(DataSourceSupplier.class);
             Mockito.when(mockDataSourceSupplier.get()).thenReturn(mockDataSource);
+            Mockito.when(mockDataSourceSupplier.getReadOnly()).thenReturn(mockDataSource);
 
-            return new PostgresAccountDao(mockDataSourceSupplier, new ServiceLevelDaoSupplier());
+            return new PostgresAccountDao(
+                    mockDataSourceSupplier, new ServiceLevelDaoSupplier(), metricRegistrySupplier);
         } catch (final SQLException fake) {
             throw new RuntimeException("Fake");
         }
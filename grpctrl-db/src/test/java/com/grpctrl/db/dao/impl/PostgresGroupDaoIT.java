@@ -1,24 +1,42 @@
 package com.grpctrl.db.dao.impl;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
 import com.grpctrl.common.config.ConfigKeys;
 import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
 import com.grpctrl.db.DataSourceSupplier;
 import com.grpctrl.db.dao.AccountDao;
 import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.dao.supplier.AccountUsageDaoSupplier;
 import com.grpctrl.db.dao.supplier.ServiceLevelDaoSupplier;
 import com.grpctrl.db.dao.supplier.TagDaoSupplier;
+import com.grpctrl.db.dao.supplier.TagDictionaryDaoSupplier;
+import com.grpctrl.db.feed.ChangeFeed;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueFactory;
 
+import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.BeforeClass;
+import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.sql.DataSource;
 
@@ -28,6 +46,8 @@ import javax.sql.DataSource;
  */
 public class PostgresGroupDaoIT extends BaseGroupDaoTest {
     private static DataSourceSupplier dataSourceSupplier;
+    private static MetricRegistrySupplier metricRegistrySupplier;
+    private static ChangeFeedSupplier changeFeedSupplier;
 
     @BeforeClass
     public static void setup() {
@@ -42,6 +62,14 @@ public class PostgresGroupDaoIT extends BaseGroupDaoTest {
         map.put(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
         map.put(ConfigKeys.DB_CLEAN.getKey(), ConfigValueFactory.fromAnyRef("true"));
         map.put(ConfigKeys.DB_MIGRATE.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        // Use a small fetch size so streamed results span multiple cursor fetches.
+        map.put(ConfigKeys.DB_FETCH_SIZE.getKey(), ConfigValueFactory.fromAnyRef(2));
+        // The primary database also serves as the replica, so the read-only queries use the replica pool.
+        map.put(ConfigKeys.DB_REPLICA_URL.getKey(),
+                ConfigValueFactory.fromAnyRef("jdbc:postgresql://localhost:5432/grpctrl"));
+        map.put(ConfigKeys.DB_REPLICA_MAXIMUM_POOL_SIZE.getKey(), ConfigValueFactory.fromAnyRef(5));
+        map.put(ConfigKeys.DB_REPLICA_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("1 second"));
+        map.put(ConfigKeys.DB_REPLICA_MAX_LAG.getKey(), ConfigValueFactory.fromAnyRef("5 seconds"));
 
         map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
         map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
@@ -51,18 +79,33 @@ public class PostgresGroupDaoIT extends BaseGroupDaoTest {
         final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
         Mockito.when(configSupplier.get()).thenReturn(config);
 
-        dataSourceSupplier =
-                new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier));
+        metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        changeFeedSupplier = Mockito.mock(ChangeFeedSupplier.class);
+        Mockito.when(changeFeedSupplier.get()).thenReturn(Mockito.mock(ChangeFeed.class));
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        dataSourceSupplier = new DataSourceSupplier(configSupplier,
+                new PasswordBasedEncryptionSupplier(configSupplier), metricRegistrySupplier, healthCheckRegistrySupplier);
+        // The replica lag is normally sampled in the background, the reads use the primary until it is first sampled.
+        dataSourceSupplier.checkReplica();
     }
 
     @Override
     public AccountDao getAccountDao() {
-        return new PostgresAccountDao(dataSourceSupplier, new ServiceLevelDaoSupplier());
+        return new PostgresAccountDao(dataSourceSupplier, new ServiceLevelDaoSupplier(), metricRegistrySupplier);
     }
 
     @Override
     public GroupDao getGroupDao() {
-        return new PostgresGroupDao(dataSourceSupplier, new TagDaoSupplier(dataSourceSupplier));
+        final AccountUsageDaoSupplier accountUsageDaoSupplier =
+                new AccountUsageDaoSupplier(dataSourceSupplier, changeFeedSupplier);
+        final TagDictionaryDaoSupplier tagDictionaryDaoSupplier = new TagDictionaryDaoSupplier();
+        final TagDaoSupplier tagDaoSupplier = new TagDaoSupplier(dataSourceSupplier, accountUsageDaoSupplier,
+                tagDictionaryDaoSupplier, metricRegistrySupplier, changeFeedSupplier);
+        return new PostgresGroupDao(dataSourceSupplier, tagDaoSupplier, accountUsageDaoSupplier,
+                tagDictionaryDaoSupplier, metricRegistrySupplier);
     }
 
     @Override
@@ -73,10 +116,49 @@ public class PostgresGroupDaoIT extends BaseGroupDaoTest {
 
             final DataSourceSupplier mockDataSourceSupplier = Mockito.mock(DataSourceSupplier.class);
             Mockito.when(mockDataSourceSupplier.get()).thenReturn(mockDataSource);
+            Mockito.when(mockDataSourceSupplier.getReadOnly()).thenReturn(mockDataSource);
+            Mockito.when(mockDataSourceSupplier.getReadOnlyConnection()).thenThrow(new SQLException("Fake"));
 
-            return new PostgresGroupDao(mockDataSourceSupplier, new TagDaoSupplier(mockDataSourceSupplier));
+            final AccountUsageDaoSupplier accountUsageDaoSupplier =
+                    new AccountUsageDaoSupplier(mockDataSourceSupplier, changeFeedSupplier);
+            final TagDictionaryDaoSupplier tagDictionaryDaoSupplier = new TagDictionaryDaoSupplier();
+            return new PostgresGroupDao(mockDataSourceSupplier, new TagDaoSupplier(mockDataSourceSupplier,
+                    accountUsageDaoSupplier, tagDictionaryDaoSupplier, metricRegistrySupplier, changeFeedSupplier),
+                    accountUsageDaoSupplier, tagDictionaryDaoSupplier, metricRegistrySupplier);
         } catch (final SQLException fake) {
             throw new RuntimeException("Fake");
         }
     }
+
+    @Test
+    public void testPartitionPruning() throws SQLException {
+        try (final Connection conn = dataSourceSupplier.get().getConnection()) {
+            // The groups table is only partitioned on servers that support it.
+            try (final PreparedStatement ps = conn.prepareStatement(
+                    "SELECT relkind FROM pg_class WHERE relname = 'groups'");
+                 final ResultSet rs = ps.executeQuery()) {
+                Assume.assumeTrue(rs.next() && "p".equals(rs.getString(1)));
+            }
+
+            final Set<String> partitions = new TreeSet<>();
+            try (final PreparedStatement ps = conn.prepareStatement("EXPLAIN " + GroupResults.pageQuery("TRUE"))) {
+                ps.setLong(1, 1L);
+                ps.setLong(2, 0L);
+                ps.setLong(3, 10L);
+                try (final ResultSet rs = ps.executeQuery()) {
+                    final Pattern pattern = Pattern.compile("\\bgroups_p\\d+\\b");
+                    while (rs.next()) {
+                        final Matcher matcher = pattern.matcher(rs.getString(1));
+                        while (matcher.find()) {
+                            partitions.add(matcher.group());
+                        }
+                    }
+                }
+            } finally {
+                conn.rollback();
+            }
+
+            Assert.assertEquals("Scanned partitions: " + partitions, 1, partitions.size());
+        }
+    }
 }
@@ -0,0 +1,124 @@
+package com.grpctrl.db.dao.impl;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.dao.TagDao;
+import com.grpctrl.db.dao.supplier.AccountUsageDaoSupplier;
+import com.grpctrl.db.dao.supplier.ServiceLevelDaoSupplier;
+import com.grpctrl.db.dao.supplier.TagDaoSupplier;
+import com.grpctrl.db.dao.supplier.TagDictionaryDaoSupplier;
+import com.grpctrl.db.feed.ChangeFeed;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.junit.BeforeClass;
+import org.mockito.Mockito;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Perform testing on the {@link PostgresTagDao} class. This is an integration test because it expects a
+ * live PostgreSQL server to be up and running.
+ */
+public class PostgresTagDaoIT extends BaseTagDaoTest {
+    private static DataSourceSupplier dataSourceSupplier;
+    private static MetricRegistrySupplier metricRegistrySupplier;
+    private static ChangeFeedSupplier changeFeedSupplier;
+    private static AccountUsageDaoSupplier accountUsageDaoSupplier;
+    private static TagDictionaryDaoSupplier tagDictionaryDaoSupplier;
+    private static TagDaoSupplier tagDaoSupplier;
+
+    @BeforeClass
+    public static void setup() {
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_URL.getKey(), ConfigValueFactory.fromAnyRef("jdbc:postgresql://localhost:5432/grpctrl"));
+        map.put(ConfigKeys.DB_USERNAME.getKey(), ConfigValueFactory.fromAnyRef("grpctrl"));
+        map.put(ConfigKeys.DB_PASSWORD.getKey(), ConfigValueFactory.fromAnyRef("password"));
+        map.put(ConfigKeys.DB_MINIMUM_IDLE.getKey(), ConfigValueFactory.fromAnyRef(10));
+        map.put(ConfigKeys.DB_MAXIMUM_POOL_SIZE.getKey(), ConfigValueFactory.fromAnyRef(20));
+        map.put(ConfigKeys.DB_TIMEOUT_IDLE.getKey(), ConfigValueFactory.fromAnyRef("10 minutes"));
+        map.put(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
+        map.put(ConfigKeys.DB_CLEAN.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        map.put(ConfigKeys.DB_MIGRATE.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        map.put(ConfigKeys.DB_FETCH_SIZE.getKey(), ConfigValueFactory.fromAnyRef(1000));
+
+        map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+        map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+
+        final Config config = ConfigFactory.parseMap(map);
+
+        final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
+        Mockito.when(configSupplier.get()).thenReturn(config);
+
+        metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        changeFeedSupplier = Mockito.mock(ChangeFeedSupplier.class);
+        Mockito.when(changeFeedSupplier.get()).thenReturn(Mockito.mock(ChangeFeed.class));
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        dataSourceSupplier = new DataSourceSupplier(configSupplier,
+                new PasswordBasedEncryptionSupplier(configSupplier), metricRegistrySupplier, healthCheckRegistrySupplier);
+
+        // The group DAO shares the tag DAO being tested, as it does when injected.
+        accountUsageDaoSupplier = new AccountUsageDaoSupplier(dataSourceSupplier, changeFeedSupplier);
+        tagDictionaryDaoSupplier = new TagDictionaryDaoSupplier();
+        tagDaoSupplier = new TagDaoSupplier(dataSourceSupplier, accountUsageDaoSupplier, tagDictionaryDaoSupplier,
+                metricRegistrySupplier, changeFeedSupplier);
+    }
+
+    @Override
+    public AccountDao getAccountDao() {
+        return new PostgresAccountDao(dataSourceSupplier, new ServiceLevelDaoSupplier(), metricRegistrySupplier);
+    }
+
+    @Override
+    public GroupDao getGroupDao() {
+        return new PostgresGroupDao(dataSourceSupplier, tagDaoSupplier, accountUsageDaoSupplier,
+                tagDictionaryDaoSupplier, metricRegistrySupplier);
+    }
+
+    @Override
+    public TagDao getTagDao() {
+        return tagDaoSupplier.get();
+    }
+
+    @Override
+    public TagDao getNewTagDao() {
+        return new PostgresTagDao(dataSourceSupplier, accountUsageDaoSupplier, tagDictionaryDaoSupplier,
+                metricRegistrySupplier);
+    }
+
+    @Override
+    public TagDao getTagDaoWithDataSourceException() {
+        try {
+            final DataSource mockDataSource = Mockito.mock(DataSource.class);
+            Mockito.when(mockDataSource.getConnection()).thenThrow(new SQLException("Fake"));
+
+            final DataSourceSupplier mockDataSourceSupplier = Mockito.mock(DataSourceSupplier.class);
+            Mockito.when(mockDataSourceSupplier.get()).thenReturn(mockDataSource);
+            Mockito.when(mockDataSourceSupplier.getReadOnlyConnection()).thenThrow(new SQLException("Fake"));
+
+            return new PostgresTagDao(mockDataSourceSupplier,
+                    new AccountUsageDaoSupplier(mockDataSourceSupplier, changeFeedSupplier),
+                    new TagDictionaryDaoSupplier(), metricRegistrySupplier);
+        } catch (final SQLException fake) {
+            throw new RuntimeException("Fake");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.grpctrl.db.dao.impl;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.dao.TagDictionaryDao;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.junit.BeforeClass;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Perform testing on the {@link PostgresTagDictionaryDao} class. This is an integration test because it expects a
+ * live PostgreSQL server to be up and running.
+ */
+public class PostgresTagDictionaryDaoIT extends BaseTagDictionaryDaoTest {
+    private static DataSourceSupplier dataSourceSupplier;
+    private static TagDictionaryDao tagDictionaryDao;
+
+    @BeforeClass
+    public static void setup() {
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_URL.getKey(), ConfigValueFactory.fromAnyRef("jdbc:postgresql://localhost:5432/grpctrl"));
+        map.put(ConfigKeys.DB_USERNAME.getKey(), ConfigValueFactory.fromAnyRef("grpctrl"));
+        map.put(ConfigKeys.DB_PASSWORD.getKey(), ConfigValueFactory.fromAnyRef("password"));
+        map.put(ConfigKeys.DB_MINIMUM_IDLE.getKey(), ConfigValueFactory.fromAnyRef(10));
+        map.put(ConfigKeys.DB_MAXIMUM_POOL_SIZE.getKey(), ConfigValueFactory.fromAnyRef(20));
+        map.put(ConfigKeys.DB_TIMEOUT_IDLE.getKey(), ConfigValueFactory.fromAnyRef("10 minutes"));
+        map.put(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
+        map.put(ConfigKeys.DB_CLEAN.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        map.put(ConfigKeys.DB_MIGRATE.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        map.put(ConfigKeys.DB_FETCH_SIZE.getKey(), ConfigValueFactory.fromAnyRef(1000));
+
+        map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+        map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+
+        final Config config = ConfigFactory.parseMap(map);
+
+        final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
+        Mockito.when(configSupplier.get()).thenReturn(config);
+
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        dataSourceSupplier = new DataSourceSupplier(configSupplier,
+                new PasswordBasedEncryptionSupplier(configSupplier), metricRegistrySupplier, healthCheckRegistrySupplier);
+
+        tagDictionaryDao = new PostgresTagDictionaryDao();
+    }
+
+    @Override
+    public DataSource getDataSource() {
+        return dataSourceSupplier.get();
+    }
+
+    @Override
+    public TagDictionaryDao getTagDictionaryDao() {
+        return tagDictionaryDao;
+    }
+}
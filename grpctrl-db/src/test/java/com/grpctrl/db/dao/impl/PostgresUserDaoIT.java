@@ -0,0 +1,150 @@
+package com.grpctrl.db.dao.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.common.model.User;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.UserDao;
+import com.grpctrl.db.dao.supplier.ServiceLevelDaoSupplier;
+import com.grpctrl.db.dao.supplier.UserAuthDaoSupplier;
+import com.grpctrl.db.dao.supplier.UserEmailDaoSupplier;
+import com.grpctrl.db.dao.supplier.UserRoleDaoSupplier;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.sql.DataSource;
+
+/**
+ * Perform testing on the {@link PostgresUserDao} class. This is an integration test because it expects a
+ * live PostgreSQL server to be up and running.
+ */
+public class PostgresUserDaoIT extends BaseUserDaoTest {
+    private static DataSourceSupplier dataSourceSupplier;
+    private static MetricRegistrySupplier metricRegistrySupplier;
+
+    @BeforeClass
+    public static void setup() {
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_URL.getKey(), ConfigValueFactory.fromAnyRef("jdbc:postgresql://localhost:5432/grpctrl"));
+        map.put(ConfigKeys.DB_USERNAME.getKey(), ConfigValueFactory.fromAnyRef("grpctrl"));
+        map.put(ConfigKeys.DB_PASSWORD.getKey(), ConfigValueFactory.fromAnyRef("password"));
+        map.put(ConfigKeys.DB_MINIMUM_IDLE.getKey(), ConfigValueFactory.fromAnyRef(10));
+        map.put(ConfigKeys.DB_MAXIMUM_POOL_SIZE.getKey(), ConfigValueFactory.fromAnyRef(10));
+        map.put(ConfigKeys.DB_TIMEOUT_IDLE.getKey(), ConfigValueFactory.fromAnyRef("10 minutes"));
+        map.put(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
+        map.put(ConfigKeys.DB_CLEAN.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        map.put(ConfigKeys.DB_MIGRATE.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        map.put(ConfigKeys.DB_FETCH_SIZE.getKey(), ConfigValueFactory.fromAnyRef(100));
+
+        map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+        map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+
+        final Config config = ConfigFactory.parseMap(map);
+
+        final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
+        Mockito.when(configSupplier.get()).thenReturn(config);
+
+        metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        dataSourceSupplier = new DataSourceSupplier(configSupplier,
+                new PasswordBasedEncryptionSupplier(configSupplier), metricRegistrySupplier, healthCheckRegistrySupplier);
+    }
+
+    @Override
+    public UserDao getUserDao() {
+        return new PostgresUserDao(dataSourceSupplier, new UserAuthDaoSupplier(), new UserEmailDaoSupplier(),
+                new UserRoleDaoSupplier());
+    }
+
+    @Override
+    public UserDao getUserDaoWithDataSourceException() {
+        try {
+            final DataSource mockDataSource = Mockito.mock(DataSource.class);
+            Mockito.when(mockDataSource.getConnection()).thenThrow(new SQLException("Fake"));
+
+            final DataSourceSupplier mockDataSourceSupplier = Mockito.mock(DataSourceSupplier.class);
+            Mockito.when(mockDataSourceSupplier.get()).thenReturn(mockDataSource);
+            Mockito.when(mockDataSourceSupplier.getReadOnly()).thenReturn(mockDataSource);
+
+            return new PostgresUserDao(mockDataSourceSupplier, new UserAuthDaoSupplier(), new UserEmailDaoSupplier(),
+                    new UserRoleDaoSupplier());
+        } catch (final SQLException fake) {
+            throw new RuntimeException("Fake");
+        }
+    }
+
+    @Test
+    public void testUserAccounts() throws SQLException {
+        final AccountDao accountDao =
+                new PostgresAccountDao(dataSourceSupplier, new ServiceLevelDaoSupplier(), metricRegistrySupplier);
+        final Account account1 = new Account("user-accounts-test-1", new ServiceLevel(11, 12, 13));
+        final Account account2 = new Account("user-accounts-test-2");
+        accountDao.add(Arrays.asList(account1, account2).iterator(), added -> {
+        });
+        final Long account1id = account1.getId().orElse(null);
+        final Long account2id = account2.getId().orElse(null);
+
+        final UserDao dao = getUserDao();
+        final User user = new User("user-accounts-test");
+        dao.add(user);
+        final Long userId = user.getId().orElse(null);
+
+        // The user accounts are not managed by the user dao.
+        try (final Connection conn = dataSourceSupplier.get().getConnection();
+             final PreparedStatement ps = conn.prepareStatement(
+                     "INSERT INTO user_accounts (user_id, account_id) VALUES (?, ?)")) {
+            for (final Long accountId : Arrays.asList(account1id, account2id)) {
+                ps.setLong(1, userId);
+                ps.setLong(2, accountId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            conn.commit();
+        }
+
+        // The accounts are retrieved along with their service levels.
+        final Optional<User> found = dao.get(userId);
+        assertTrue(found.isPresent());
+        assertEquals(2, found.get().getAccounts().size());
+        assertTrue(found.get().getAccounts().contains(account1));
+        assertTrue(found.get().getAccounts().contains(account2));
+
+        // The removed accounts are no longer included.
+        accountDao.remove(Collections.singleton(account2id));
+        final Optional<User> removed = dao.get(userId);
+        assertTrue(removed.isPresent());
+        assertEquals(Collections.singleton(account1), removed.get().getAccounts());
+
+        dao.remove(userId);
+        accountDao.remove(Collections.singleton(account1id));
+    }
+}
@@ -0,0 +1,59 @@
+package com.grpctrl.db.dao.impl;
+
+import static com.grpctrl.db.selector.TagSelector.and;
+import static com.grpctrl.db.selector.TagSelector.equal;
+import static com.grpctrl.db.selector.TagSelector.exists;
+import static com.grpctrl.db.selector.TagSelector.not;
+import static com.grpctrl.db.selector.TagSelector.or;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Perform testing on the {@link TagSetFilter} class.
+ */
+public class TagSetFilterTest {
+    @Test
+    public void testEqual() {
+        final TagSetFilter filter = TagSetFilter.compile(equal("env", "prod"));
+        assertEquals("tag_set @> CAST(? AS JSONB)", filter.getSql());
+        assertEquals(singletonList("{\"env\":[\"prod\"]}"), filter.getParams());
+    }
+
+    @Test
+    public void testExists() {
+        final TagSetFilter filter = TagSetFilter.compile(exists("env"));
+        assertEquals("tag_set ?? ?", filter.getSql());
+        assertEquals(singletonList("env"), filter.getParams());
+    }
+
+    @Test
+    public void testAndCombinesEqual() {
+        final TagSetFilter filter =
+                TagSetFilter.compile(and(equal("tier", "web"), not(exists("old")), equal("env", "prod"),
+                        equal("tier", "api")));
+        assertEquals("(tag_set @> CAST(? AS JSONB) AND NOT (tag_set ?? ?))", filter.getSql());
+        assertEquals(asList("{\"env\":[\"prod\"],\"tier\":[\"web\",\"api\"]}", "old"), filter.getParams());
+    }
+
+    @Test
+    public void testOr() {
+        final TagSetFilter filter = TagSetFilter.compile(or(equal("tier", "web"), exists("env")));
+        assertEquals("(tag_set @> CAST(? AS JSONB) OR tag_set ?? ?)", filter.getSql());
+        assertEquals(asList("{\"tier\":[\"web\"]}", "env"), filter.getParams());
+    }
+
+    @Test
+    public void testSameShape() {
+        assertEquals(TagSetFilter.compile(and(equal("a", "b"), exists("c"))).getSql(),
+                TagSetFilter.compile(and(equal("x", "y"), exists("z"))).getSql());
+    }
+
+    @Test
+    public void testEscaping() {
+        assertEquals(singletonList("{\"a\\\"b\":[\"c\\\\d\\u000a\"]}"),
+                TagSetFilter.compile(equal("a\"b", "c\\d\n")).getParams());
+    }
+}
@@ -2,8 +2,12 @@ package com.grpctrl.db.dao.supplier;
 
 import static org.junit.Assert.assertNotNull;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
 import com.grpctrl.common.config.ConfigKeys;
 import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
 import com.grpctrl.db.DataSourceSupplier;
 import com.typesafe.config.Config;
@@ -46,9 +50,15 @@ public class AccountDaoSupplierTest {
         final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
         Mockito.when(configSupplier.get()).thenReturn(config);
 
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
         supplier = new AccountDaoSupplier(
-                new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier)),
-                new ServiceLevelDaoSupplier());
+                new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier),
+                        metricRegistrySupplier, healthCheckRegistrySupplier),
+                new ServiceLevelDaoSupplier(), metricRegistrySupplier);
     }
 
     @Test
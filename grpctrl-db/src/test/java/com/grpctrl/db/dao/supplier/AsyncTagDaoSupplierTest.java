@@ -0,0 +1,50 @@
+package com.grpctrl.db.dao.supplier;
+
+import static org.junit.Assert.assertNotNull;
+
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+
+import org.glassfish.hk2.api.DynamicConfiguration;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Perform testing on the {@link AsyncTagDaoSupplier}.
+ */
+public class AsyncTagDaoSupplierTest {
+    private static AsyncTagDaoSupplier supplier;
+
+    @BeforeClass
+    public static void beforeClass() {
+        supplier = new AsyncTagDaoSupplier(
+                Mockito.mock(TagDaoSupplier.class), Mockito.mock(DatabaseExecutorSupplier.class));
+    }
+
+    @Test
+    public void testGet() {
+        assertNotNull(supplier.get());
+    }
+
+    @Test
+    public void testGetContext() {
+        assertNotNull(supplier.getContext(getClass()));
+    }
+
+    @Test
+    public void testProvide() {
+        assertNotNull(supplier.provide());
+    }
+
+    @Test
+    public void testDispose() {
+        // Nothing to really test here.
+        supplier.dispose(supplier.get());
+    }
+
+    @Test
+    public void testBinder() {
+        // Nothing to really test here.
+        new AsyncTagDaoSupplier.Binder().bind(Mockito.mock(DynamicConfiguration.class));
+    }
+}
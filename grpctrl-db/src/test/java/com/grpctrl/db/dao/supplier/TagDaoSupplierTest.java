@@ -2,10 +2,17 @@ package com.grpctrl.db.dao.supplier;
 
 import static org.junit.Assert.assertNotNull;
 
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
 import com.grpctrl.common.config.ConfigKeys;
 import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
 import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
 import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.dao.impl.PostgresTagDao;
+import com.grpctrl.db.feed.ChangeFeed;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValue;
@@ -24,6 +31,7 @@ import java.util.Map;
  */
 public class TagDaoSupplierTest {
     private static TagDaoSupplier supplier;
+    private static ChangeFeed changeFeed;
 
     @BeforeClass
     public static void beforeClass() {
@@ -46,13 +54,26 @@ public class TagDaoSupplierTest {
         final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
         Mockito.when(configSupplier.get()).thenReturn(config);
 
-        supplier = new TagDaoSupplier(
-                new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier)));
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        final DataSourceSupplier dataSourceSupplier = new DataSourceSupplier(configSupplier,
+                new PasswordBasedEncryptionSupplier(configSupplier), metricRegistrySupplier, healthCheckRegistrySupplier);
+        changeFeed = Mockito.mock(ChangeFeed.class);
+        final ChangeFeedSupplier changeFeedSupplier = Mockito.mock(ChangeFeedSupplier.class);
+        Mockito.when(changeFeedSupplier.get()).thenReturn(changeFeed);
+
+        supplier = new TagDaoSupplier(dataSourceSupplier,
+                new AccountUsageDaoSupplier(dataSourceSupplier, changeFeedSupplier), new TagDictionaryDaoSupplier(),
+                metricRegistrySupplier, changeFeedSupplier);
     }
 
     @Test
     public void testGet() {
         assertNotNull(supplier.get());
+        Mockito.verify(changeFeed).subscribe(Mockito.isA(PostgresTagDao.class));
     }
 
     @Test
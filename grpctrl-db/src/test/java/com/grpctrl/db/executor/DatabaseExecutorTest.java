@@ -0,0 +1,106 @@
+package com.grpctrl.db.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.ServiceUnavailableException;
+
+/**
+ * Perform testing on the {@link DatabaseExecutor} class.
+ */
+public class DatabaseExecutorTest {
+    @Test
+    public void testSupply() throws Exception {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final DatabaseExecutor executor = new DatabaseExecutor(2, 10, metricRegistry);
+        try {
+            assertEquals("value", executor.supply(() -> "value").get(10, TimeUnit.SECONDS));
+            assertEquals(1, metricRegistry.timer(MetricRegistry.name(DatabaseExecutor.class, "wait")).getCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSupplyFailure() throws Exception {
+        final DatabaseExecutor executor = new DatabaseExecutor(1, 10, new MetricRegistry());
+        try {
+            final CompletableFuture<Void> future = executor.run(() -> {
+                throw new InternalServerErrorException("Fake");
+            });
+            future.get(10, TimeUnit.SECONDS);
+            fail("Expected the operation to fail");
+        } catch (final ExecutionException failure) {
+            assertTrue(failure.getCause() instanceof InternalServerErrorException);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testQueueFull() throws Exception {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final DatabaseExecutor executor = new DatabaseExecutor(1, 1, metricRegistry);
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Occupy the only thread, and then the only queue slot.
+            final CompletableFuture<Void> first = executor.run(() -> {
+                running.countDown();
+                try {
+                    release.await();
+                } catch (final InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            running.await(10, TimeUnit.SECONDS);
+            final CompletableFuture<Void> queued = executor.run(() -> {
+            });
+
+            final Gauge<Integer> depth = (Gauge<Integer>) metricRegistry.getGauges()
+                    .get(MetricRegistry.name(DatabaseExecutor.class, "queue-depth"));
+            assertEquals(Integer.valueOf(1), depth.getValue());
+
+            // The next operation is rejected instead of waiting.
+            final CompletableFuture<Void> rejected = executor.run(() -> {
+            });
+            assertTrue(rejected.isCompletedExceptionally());
+            try {
+                rejected.get();
+                fail("Expected the operation to fail");
+            } catch (final ExecutionException failure) {
+                assertTrue(failure.getCause() instanceof ServiceUnavailableException);
+            }
+            assertEquals(1, metricRegistry.meter(MetricRegistry.name(DatabaseExecutor.class, "rejected")).getCount());
+
+            release.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            queued.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testReplaceGauges() {
+        // Creating another executor with the same registry replaces the gauges of the previous one.
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        new DatabaseExecutor(1, 1, metricRegistry).shutdown();
+        new DatabaseExecutor(1, 1, metricRegistry).shutdown();
+        assertEquals(2, metricRegistry.getGauges().size());
+    }
+}
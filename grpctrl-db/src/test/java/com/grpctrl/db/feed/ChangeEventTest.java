@@ -0,0 +1,71 @@
+package com.grpctrl.db.feed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+/**
+ * Perform testing on the {@link ChangeEvent} class.
+ */
+public class ChangeEventTest {
+    @Test
+    public void testParse() {
+        final ChangeEvent event = ChangeEvent.parse("group,1,42,1000");
+        assertEquals(ChangeEvent.Entity.GROUP, event.getEntity());
+        assertEquals(1L, event.getAccountId());
+        assertEquals(Optional.of(42L), event.getId());
+        assertEquals(1000L, event.getVersion());
+        assertFalse(event.getOrigin().isPresent());
+    }
+
+    @Test
+    public void testParseWithOrigin() {
+        final ChangeEvent event = ChangeEvent.parse("group,1,42,1000,grpctrl-node,1");
+        assertEquals(Optional.of(42L), event.getId());
+        assertEquals(Optional.of("grpctrl-node,1"), event.getOrigin());
+        assertFalse(ChangeEvent.parse("group,1,42,1000,").getOrigin().isPresent());
+    }
+
+    @Test
+    public void testParseWithoutId() {
+        final ChangeEvent event = ChangeEvent.parse("tag,1,,1000");
+        assertEquals(ChangeEvent.Entity.TAG, event.getEntity());
+        assertFalse(event.getId().isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseWrongFieldCount() {
+        ChangeEvent.parse("group,1,42");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseUnknownEntity() {
+        ChangeEvent.parse("login,1,42,1000");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseInvalidNumber() {
+        ChangeEvent.parse("group,a,42,1000");
+    }
+
+    @Test
+    public void testEquals() {
+        final ChangeEvent event = new ChangeEvent(ChangeEvent.Entity.ACCOUNT, 1, 1L, 1000);
+        assertEquals(event, ChangeEvent.parse("account,1,1,1000"));
+        assertEquals(event.hashCode(), ChangeEvent.parse("account,1,1,1000").hashCode());
+        assertNotEquals(event, new ChangeEvent(ChangeEvent.Entity.ACCOUNT, 1, null, 1000));
+        assertNotEquals(event, new ChangeEvent(ChangeEvent.Entity.ACCOUNT, 1, 1L, 1001));
+        assertNotEquals(event, new ChangeEvent(ChangeEvent.Entity.ACCOUNT, 1, 1L, 1000, "grpctrl-node"));
+        assertNotEquals(event, null);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ChangeEvent[entity=GROUP,accountId=1,id=<null>,version=1000,origin=<null>]",
+                new ChangeEvent(ChangeEvent.Entity.GROUP, 1, null, 1000).toString());
+    }
+}
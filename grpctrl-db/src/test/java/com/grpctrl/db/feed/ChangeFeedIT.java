@@ -0,0 +1,315 @@
+package com.grpctrl.db.feed;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.dao.AccountDao;
+import com.grpctrl.db.dao.GroupDao;
+import com.grpctrl.db.dao.impl.PostgresAccountDao;
+import com.grpctrl.db.dao.impl.PostgresGroupDao;
+import com.grpctrl.db.dao.supplier.AccountUsageDaoSupplier;
+import com.grpctrl.db.dao.supplier.ServiceLevelDaoSupplier;
+import com.grpctrl.db.dao.supplier.TagDaoSupplier;
+import com.grpctrl.db.dao.supplier.TagDictionaryDaoSupplier;
+import com.grpctrl.db.page.Page;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Perform testing on the {@link ChangeFeed} class. This is an integration test because it expects a live PostgreSQL
+ * server to be up and running.
+ */
+public class ChangeFeedIT {
+    private static DataSourceSupplier dataSourceSupplier;
+    private static AccountDao accountDao;
+    private static PostgresGroupDao groupDao;
+    private static GroupDao otherGroupDao;
+
+    @BeforeClass
+    public static void setup() {
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        final ChangeFeedSupplier changeFeedSupplier = Mockito.mock(ChangeFeedSupplier.class);
+        Mockito.when(changeFeedSupplier.get()).thenReturn(Mockito.mock(ChangeFeed.class));
+
+        dataSourceSupplier = createDataSourceSupplier(true, metricRegistrySupplier);
+        // Clean and migrate the database before the other node connects to it.
+        dataSourceSupplier.get();
+
+        final AccountUsageDaoSupplier accountUsageDaoSupplier =
+                new AccountUsageDaoSupplier(dataSourceSupplier, changeFeedSupplier);
+        final TagDictionaryDaoSupplier tagDictionaryDaoSupplier = new TagDictionaryDaoSupplier();
+        final TagDaoSupplier tagDaoSupplier = new TagDaoSupplier(dataSourceSupplier, accountUsageDaoSupplier,
+                tagDictionaryDaoSupplier, metricRegistrySupplier, changeFeedSupplier);
+        accountDao = new PostgresAccountDao(dataSourceSupplier, new ServiceLevelDaoSupplier(), metricRegistrySupplier);
+        groupDao = new PostgresGroupDao(dataSourceSupplier, tagDaoSupplier, accountUsageDaoSupplier,
+                tagDictionaryDaoSupplier, metricRegistrySupplier);
+
+        // Separate connections and DAOs with their own indexes, standing in for another node sharing the database.
+        final DataSourceSupplier otherDataSourceSupplier = createDataSourceSupplier(false, metricRegistrySupplier);
+        final AccountUsageDaoSupplier otherAccountUsageDaoSupplier =
+                new AccountUsageDaoSupplier(otherDataSourceSupplier, changeFeedSupplier);
+        otherGroupDao = new PostgresGroupDao(otherDataSourceSupplier,
+                new TagDaoSupplier(otherDataSourceSupplier, otherAccountUsageDaoSupplier, tagDictionaryDaoSupplier,
+                        metricRegistrySupplier, changeFeedSupplier),
+                otherAccountUsageDaoSupplier, tagDictionaryDaoSupplier, metricRegistrySupplier);
+    }
+
+    @Nonnull
+    private static DataSourceSupplier createDataSourceSupplier(
+            final boolean migrate, @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_URL.getKey(), ConfigValueFactory.fromAnyRef("jdbc:postgresql://localhost:5432/grpctrl"));
+        map.put(ConfigKeys.DB_USERNAME.getKey(), ConfigValueFactory.fromAnyRef("grpctrl"));
+        map.put(ConfigKeys.DB_PASSWORD.getKey(), ConfigValueFactory.fromAnyRef("password"));
+        map.put(ConfigKeys.DB_MINIMUM_IDLE.getKey(), ConfigValueFactory.fromAnyRef(10));
+        map.put(ConfigKeys.DB_MAXIMUM_POOL_SIZE.getKey(), ConfigValueFactory.fromAnyRef(10));
+        map.put(ConfigKeys.DB_TIMEOUT_IDLE.getKey(), ConfigValueFactory.fromAnyRef("10 minutes"));
+        map.put(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
+        map.put(ConfigKeys.DB_CLEAN.getKey(), ConfigValueFactory.fromAnyRef(migrate));
+        map.put(ConfigKeys.DB_MIGRATE.getKey(), ConfigValueFactory.fromAnyRef(migrate));
+        map.put(ConfigKeys.DB_FETCH_SIZE.getKey(), ConfigValueFactory.fromAnyRef(100));
+
+        map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+        map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+
+        final Config config = ConfigFactory.parseMap(map);
+
+        final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
+        Mockito.when(configSupplier.get()).thenReturn(config);
+
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        return new DataSourceSupplier(configSupplier,
+                new PasswordBasedEncryptionSupplier(configSupplier), metricRegistrySupplier, healthCheckRegistrySupplier);
+    }
+
+    @Test
+    public void testChanges() throws InterruptedException {
+        final RecordingListener listener = new RecordingListener();
+        final ChangeFeed changeFeed = new ChangeFeed(dataSourceSupplier);
+        changeFeed.subscribe(listener);
+        try {
+            changeFeed.run();
+            assertEquals(1, listener.resyncs);
+
+            final Account account = new Account("change-feed-account");
+            accountDao.add(Collections.singleton(account).iterator(), added -> {
+            });
+            final long accountId = account.getId().orElse(null);
+
+            final Group group = new Group("change-feed-group");
+            group.getTags().add(new Tag("env", "prod"));
+            groupDao.add(account, Collections.singleton(group).iterator(), (added, tags) -> {
+            });
+            final long groupId = group.getId().orElse(null);
+
+            final List<ChangeEvent> events = await(changeFeed, listener, 3);
+            assertTrue(events.toString(), contains(events, ChangeEvent.Entity.ACCOUNT, accountId, accountId));
+            assertTrue(events.toString(), contains(events, ChangeEvent.Entity.GROUP, accountId, groupId));
+            assertTrue(events.toString(), contains(events, ChangeEvent.Entity.TAG, accountId, groupId));
+
+            // Losing the connection requires the listeners to resync once the feed reconnects.
+            changeFeed.close();
+            changeFeed.run();
+            assertEquals(2, listener.resyncs);
+        } finally {
+            changeFeed.unsubscribe(listener);
+            changeFeed.close();
+        }
+    }
+
+    @Test
+    public void testBatchedChanges() throws InterruptedException {
+        final RecordingListener listener = new RecordingListener();
+        final ChangeFeed changeFeed = new ChangeFeed(dataSourceSupplier);
+        changeFeed.subscribe(listener);
+        try {
+            changeFeed.run();
+
+            final Account account = new Account("change-feed-batch");
+            accountDao.add(Collections.singleton(account).iterator(), added -> {
+            });
+            final List<Group> groups = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                final Group group = new Group("change-feed-batch-" + i);
+                group.getTags().add(new Tag("env", "prod"));
+                groups.add(group);
+            }
+            groupDao.add(account, groups.iterator(), (added, tags) -> {
+            });
+
+            // Each batch of groups, and of their tags, is inserted by one statement that publishes a single event.
+            final List<ChangeEvent> events = await(changeFeed, listener, 3);
+            changeFeed.run();
+            assertEquals(events.toString(), 3, events.size());
+            final long accountId = account.getId().orElse(null);
+            assertTrue(events.toString(), events.contains(
+                    new ChangeEvent(ChangeEvent.Entity.GROUP, accountId, null, events.get(1).getVersion(),
+                            dataSourceSupplier.getApplicationName())));
+            assertTrue(events.toString(), events.contains(
+                    new ChangeEvent(ChangeEvent.Entity.TAG, accountId, null, events.get(1).getVersion(),
+                            dataSourceSupplier.getApplicationName())));
+        } finally {
+            changeFeed.unsubscribe(listener);
+            changeFeed.close();
+        }
+    }
+
+    @Test
+    public void testOtherNodeChanges() throws InterruptedException {
+        final ChangeFeed changeFeed = new ChangeFeed(dataSourceSupplier);
+        final RecordingListener listener = new RecordingListener();
+        changeFeed.subscribe(groupDao);
+        changeFeed.subscribe(listener);
+        try {
+            changeFeed.run();
+
+            final Account account = new Account("change-feed-other-node");
+            accountDao.add(Collections.singleton(account).iterator(), added -> {
+            });
+            await(changeFeed, listener, 1);
+
+            // Load the name index for the account, before the other node adds a group.
+            assertEquals(Collections.emptyList(), find(groupDao, account));
+
+            otherGroupDao.add(account, Collections.singleton(new Group("other-node-group")).iterator(),
+                    (added, tags) -> {
+                    });
+            await(changeFeed, listener, 2);
+
+            assertEquals(Collections.singletonList("other-node-group"), find(groupDao, account));
+        } finally {
+            changeFeed.unsubscribe(listener);
+            changeFeed.unsubscribe(groupDao);
+            changeFeed.close();
+        }
+    }
+
+    @Test
+    public void testLocalChanges() throws InterruptedException, SQLException {
+        final ChangeFeed changeFeed = new ChangeFeed(dataSourceSupplier);
+        final RecordingListener listener = new RecordingListener();
+        changeFeed.subscribe(groupDao);
+        changeFeed.subscribe(listener);
+        try {
+            changeFeed.run();
+
+            final Account account = new Account("change-feed-local-node");
+            accountDao.add(Collections.singleton(account).iterator(), added -> {
+            });
+            final Group root = new Group("local-root");
+            groupDao.add(account, Collections.singleton(root).iterator(), (added, tags) -> {
+            });
+            await(changeFeed, listener, 2);
+
+            // Load the hierarchy index for the account.
+            assertEquals(Collections.emptyList(), descendants(groupDao, account, root));
+
+            // A child added behind the back of the DAO, which only a reloaded index would include.
+            try (final Connection conn = dataSourceSupplier.get().getConnection();
+                 final PreparedStatement ps = conn.prepareStatement(
+                         "INSERT INTO groups (account_id, parent_id, group_name) VALUES (?, ?, 'unseen-child')")) {
+                ps.setLong(1, account.getId().orElse(null));
+                ps.setLong(2, root.getId().orElse(null));
+                ps.executeUpdate();
+                conn.commit();
+            }
+            groupDao.add(account, root.getId().orElse(null),
+                    Collections.singleton(new Group("local-child")).iterator(), (added, tags) -> {
+                    });
+            final List<ChangeEvent> events = await(changeFeed, listener, 4);
+            assertEquals(events.toString(), 4, events.size());
+
+            // The local changes still reach the listeners that ask for them, but leave the updated index in place.
+            assertEquals(Collections.singletonList("local-child"), descendants(groupDao, account, root));
+        } finally {
+            changeFeed.unsubscribe(listener);
+            changeFeed.unsubscribe(groupDao);
+            changeFeed.close();
+        }
+    }
+
+    @Nonnull
+    private List<String> descendants(
+            @Nonnull final GroupDao dao, @Nonnull final Account account, @Nonnull final Group root) {
+        final List<String> names = new ArrayList<>();
+        dao.descendants(account, Collections.singleton(root.getId().orElse(null)), 0, Page.all(),
+                (group, tags) -> names.add(group.getName()));
+        return names;
+    }
+
+    @Nonnull
+    private List<String> find(@Nonnull final GroupDao dao, @Nonnull final Account account) {
+        final List<String> names = new ArrayList<>();
+        dao.find(account, Collections.singleton("^other"), true, Page.all(),
+                (group, tags) -> names.add(group.getName()));
+        return names;
+    }
+
+    @Nonnull
+    private List<ChangeEvent> await(
+            @Nonnull final ChangeFeed changeFeed, @Nonnull final RecordingListener listener, final int count)
+            throws InterruptedException {
+        // The notifications are delivered asynchronously once the transactions commit.
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (listener.events.size() < count && System.nanoTime() < deadline) {
+            changeFeed.run();
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        return listener.events;
+    }
+
+    private boolean contains(
+            @Nonnull final Collection<ChangeEvent> events, @Nonnull final ChangeEvent.Entity entity,
+            final long accountId, final long id) {
+        return events.stream().anyMatch(event -> event.getEntity() == entity && event.getAccountId() == accountId
+                && event.getId().isPresent() && event.getId().get() == id);
+    }
+
+    private static class RecordingListener implements ChangeListener {
+        private final List<ChangeEvent> events = new ArrayList<>();
+        private int resyncs = 0;
+
+        @Override
+        public void changed(@Nonnull final Collection<ChangeEvent> changes) {
+            this.events.addAll(changes);
+        }
+
+        @Override
+        public void resync() {
+            this.resyncs++;
+        }
+    }
+}
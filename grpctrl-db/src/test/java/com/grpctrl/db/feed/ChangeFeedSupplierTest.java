@@ -0,0 +1,95 @@
+package com.grpctrl.db.feed;
+
+import static org.junit.Assert.assertNotNull;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.common.supplier.ScheduledExecutorServiceSupplier;
+import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.glassfish.hk2.api.DynamicConfiguration;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perform testing on the {@link ChangeFeedSupplier}.
+ */
+public class ChangeFeedSupplierTest {
+    private static ScheduledExecutorService executorService;
+    private static ChangeFeedSupplier supplier;
+
+    @BeforeClass
+    public static void beforeClass() {
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_URL.getKey(), ConfigValueFactory.fromAnyRef("jdbc:hsqldb:mem:grpctrl"));
+        map.put(ConfigKeys.DB_USERNAME.getKey(), ConfigValueFactory.fromAnyRef("SA"));
+        map.put(ConfigKeys.DB_PASSWORD.getKey(), ConfigValueFactory.fromAnyRef(""));
+        map.put(ConfigKeys.DB_FEED_POLL_INTERVAL.getKey(), ConfigValueFactory.fromAnyRef("1 second"));
+
+        map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+        map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+
+        final Config config = ConfigFactory.parseMap(map);
+
+        final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
+        Mockito.when(configSupplier.get()).thenReturn(config);
+
+        // The feed is not polled, since the in-memory database does not support listening for notifications.
+        executorService = Mockito.mock(ScheduledExecutorService.class);
+        final ScheduledExecutorServiceSupplier executorServiceSupplier =
+                Mockito.mock(ScheduledExecutorServiceSupplier.class);
+        Mockito.when(executorServiceSupplier.get()).thenReturn(executorService);
+
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        supplier = new ChangeFeedSupplier(configSupplier, executorServiceSupplier,
+                new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier),
+                        metricRegistrySupplier, healthCheckRegistrySupplier));
+    }
+
+    @Test
+    public void testGet() {
+        assertNotNull(supplier.get());
+        Mockito.verify(executorService).scheduleWithFixedDelay(supplier.get(), 0, 1000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void testGetContext() {
+        assertNotNull(supplier.getContext(getClass()));
+    }
+
+    @Test
+    public void testProvide() {
+        assertNotNull(supplier.provide());
+    }
+
+    @Test
+    public void testDispose() {
+        // Nothing to really test here.
+        supplier.dispose(supplier.get());
+    }
+
+    @Test
+    public void testBinder() {
+        // Nothing to really test here.
+        new ChangeFeedSupplier.Binder().bind(Mockito.mock(DynamicConfiguration.class));
+    }
+}
@@ -0,0 +1,35 @@
+package com.grpctrl.db.feed;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+/**
+ * Perform testing on the {@link ChangeFeed} class.
+ */
+public class ChangeFeedTest {
+    @Test
+    public void testCoalesceEmpty() {
+        assertEquals(Collections.emptyList(), new ArrayList<>(ChangeFeed.coalesce(Collections.emptyList())));
+    }
+
+    @Test
+    public void testCoalesceKeepsLatestVersion() {
+        assertEquals(asList(ChangeEvent.parse("group,1,5,12"), ChangeEvent.parse("group,1,6,11")),
+                new ArrayList<>(ChangeFeed.coalesce(asList(ChangeEvent.parse("group,1,5,10"),
+                        ChangeEvent.parse("group,1,6,11"), ChangeEvent.parse("group,1,5,12")))));
+    }
+
+    @Test
+    public void testCoalesceAccountWideEvent() {
+        assertEquals(asList(ChangeEvent.parse("tag,1,5,10"), ChangeEvent.parse("group,1,,11"),
+                ChangeEvent.parse("group,2,7,12")),
+                new ArrayList<>(ChangeFeed.coalesce(asList(ChangeEvent.parse("group,1,5,10"),
+                        ChangeEvent.parse("tag,1,5,10"), ChangeEvent.parse("group,1,,11"),
+                        ChangeEvent.parse("group,2,7,12"), ChangeEvent.parse("group,1,6,12")))));
+    }
+}
@@ -0,0 +1,184 @@
+package com.grpctrl.db.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Perform testing on the {@link AccountIndexCache} class.
+ */
+public class AccountIndexCacheTest {
+    private static final long SIZE = 100;
+    private static final long TTL = TimeUnit.MINUTES.toMillis(10);
+
+    @Test
+    public void testLoadedOnce() {
+        final AccountIndexCache<String> cache = new AccountIndexCache<>(SIZE, TTL);
+        final AtomicInteger loads = new AtomicInteger();
+
+        assertFalse(cache.getIfPresent(1).isPresent());
+        assertEquals("index-1", cache.get(1, () -> "index-" + loads.incrementAndGet()));
+        assertEquals("index-1", cache.get(1, () -> "index-" + loads.incrementAndGet()));
+        assertEquals("index-1", cache.getIfPresent(1).get());
+
+        cache.invalidate(1);
+        assertFalse(cache.getIfPresent(1).isPresent());
+        assertEquals("index-2", cache.get(1, () -> "index-" + loads.incrementAndGet()));
+    }
+
+    @Test
+    public void testFailureNotCached() {
+        final AccountIndexCache<String> cache = new AccountIndexCache<>(SIZE, TTL);
+        try {
+            cache.get(1, () -> {
+                throw new IllegalStateException("Fake");
+            });
+        } catch (final IllegalStateException expected) {
+            // Expected.
+        }
+        assertFalse(cache.getIfPresent(1).isPresent());
+        assertEquals("index", cache.get(1, () -> "index"));
+    }
+
+    @Test
+    public void testLoadOutsideMap() throws Exception {
+        final AccountIndexCache<String> cache = new AccountIndexCache<>(SIZE, TTL);
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executor.submit(() -> cache.get(1, () -> {
+                loading.countDown();
+                awaitQuietly(release);
+                return "slow";
+            }));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+            // Other accounts are not blocked by the slow load, and the in-progress index is not yet available.
+            assertEquals("other", cache.get(2, () -> "other"));
+            assertFalse(cache.getIfPresent(1).isPresent());
+
+            // A second caller waits for the same load rather than loading again.
+            final Future<String> second = executor.submit(() -> cache.get(1, () -> "duplicate"));
+            release.countDown();
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals("slow", cache.getIfPresent(1).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidateDuringLoad() throws Exception {
+        final AccountIndexCache<String> cache = new AccountIndexCache<>(SIZE, TTL);
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<String> stale = executor.submit(() -> cache.get(1, () -> {
+                loading.countDown();
+                awaitQuietly(release);
+                return "stale";
+            }));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+            cache.invalidate(1);
+            release.countDown();
+
+            // The load that was in progress completes, but is not kept.
+            assertEquals("stale", stale.get(10, TimeUnit.SECONDS));
+            assertFalse(cache.getIfPresent(1).isPresent());
+            assertEquals("fresh", cache.get(1, () -> "fresh"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidateUnless() throws Exception {
+        final AccountIndexCache<Object> cache = new AccountIndexCache<>(SIZE, TTL);
+        final Object updated = cache.get(1, Object::new);
+
+        // The updated index is kept, while any other index is dropped.
+        cache.invalidateUnless(1, Optional.of(updated));
+        assertSame(updated, cache.getIfPresent(1).get());
+        cache.invalidateUnless(1, Optional.of(new Object()));
+        assertFalse(cache.getIfPresent(1).isPresent());
+
+        final CountDownLatch loading = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<Object> stale = executor.submit(() -> cache.get(1, () -> {
+                loading.countDown();
+                awaitQuietly(release);
+                return new Object();
+            }));
+            assertTrue(loading.await(10, TimeUnit.SECONDS));
+
+            // A change made while the index is loading, when no index was loaded to be updated, drops the load.
+            cache.invalidateUnless(1, Optional.empty());
+            release.countDown();
+            stale.get(10, TimeUnit.SECONDS);
+            assertFalse(cache.getIfPresent(1).isPresent());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testBounded() {
+        final AccountIndexCache<String> cache = new AccountIndexCache<>(2, TTL);
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        cache.register(metricRegistry, "size");
+        final Gauge<?> size = metricRegistry.getGauges().get("size");
+
+        cache.get(1, () -> "index-1");
+        cache.get(2, () -> "index-2");
+        assertEquals(2L, size.getValue());
+
+        // The least recently used index is dropped once the cache is full.
+        cache.get(1, () -> "index-1");
+        cache.get(3, () -> "index-3");
+        assertEquals(2L, size.getValue());
+        assertTrue(cache.getIfPresent(1).isPresent());
+        assertFalse(cache.getIfPresent(2).isPresent());
+        assertTrue(cache.getIfPresent(3).isPresent());
+
+        // Registering another cache with the same name replaces the gauge.
+        new AccountIndexCache<String>(2, TTL).register(metricRegistry, "size");
+        assertEquals(0L, metricRegistry.getGauges().get("size").getValue());
+    }
+
+    @Test
+    public void testExpired() {
+        final AccountIndexCache<String> cache = new AccountIndexCache<>(SIZE, 0);
+        assertEquals("index", cache.get(1, () -> "index"));
+        assertFalse(cache.getIfPresent(1).isPresent());
+        assertEquals(0, cache.size());
+    }
+
+    private static void awaitQuietly(final CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.grpctrl.db.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+/**
+ * Perform testing on the {@link GroupBitmap} class.
+ */
+public class GroupBitmapTest {
+    @Test
+    public void testAddRemoveContains() {
+        final GroupBitmap bitmap = new GroupBitmap();
+        assertTrue(bitmap.isEmpty());
+
+        assertTrue(bitmap.add(10));
+        assertTrue(bitmap.add(70_000));
+        assertTrue(bitmap.add(5));
+        assertFalse(bitmap.add(10));
+        assertEquals(3, bitmap.cardinality());
+        assertTrue(bitmap.contains(10));
+        assertTrue(bitmap.contains(70_000));
+        assertFalse(bitmap.contains(11));
+        assertArrayEquals(new long[] {5, 10, 70_000}, bitmap.toArray());
+
+        assertTrue(bitmap.remove(70_000));
+        assertFalse(bitmap.remove(70_000));
+        assertFalse(bitmap.remove(123_456));
+        assertArrayEquals(new long[] {5, 10}, bitmap.toArray());
+
+        assertTrue(bitmap.remove(5));
+        assertTrue(bitmap.remove(10));
+        assertTrue(bitmap.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeId() {
+        new GroupBitmap().add(-1);
+    }
+
+    @Test
+    public void testDenseChunk() {
+        // Enough groups to convert the chunk into a bitmap, then back into an array as they are removed.
+        final GroupBitmap bitmap = new GroupBitmap();
+        for (long id = 0; id < 10_000; id++) {
+            bitmap.add(id * 2);
+        }
+        assertEquals(10_000, bitmap.cardinality());
+        assertTrue(bitmap.contains(19_998));
+        assertFalse(bitmap.contains(19_999));
+
+        for (long id = 0; id < 9_000; id++) {
+            assertTrue(bitmap.remove(id * 2));
+        }
+        assertEquals(1_000, bitmap.cardinality());
+        assertArrayEquals(new long[] {18_000, 18_002}, bitmap.toArray(17_999, 2));
+    }
+
+    @Test
+    public void testToArrayAfter() {
+        final GroupBitmap bitmap = GroupBitmap.of(1, 2, 3, 65_535, 65_536, 200_000);
+        assertArrayEquals(new long[] {3, 65_535}, bitmap.toArray(2, 2));
+        assertArrayEquals(new long[] {65_536, 200_000}, bitmap.toArray(65_535, 10));
+        assertArrayEquals(new long[] {200_000}, bitmap.toArray(65_536, 10));
+        assertArrayEquals(new long[0], bitmap.toArray(200_000, 10));
+        assertArrayEquals(new long[0], bitmap.toArray(0, 0));
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        final GroupBitmap bitmap = GroupBitmap.of(1, 2);
+        final GroupBitmap copy = bitmap.copy();
+        copy.add(3);
+        bitmap.remove(1);
+        assertArrayEquals(new long[] {2}, bitmap.toArray());
+        assertArrayEquals(new long[] {1, 2, 3}, copy.toArray());
+    }
+
+    @Test
+    public void testSetOperations() {
+        final GroupBitmap first = GroupBitmap.of(1, 2, 3, 100_000);
+        final GroupBitmap second = GroupBitmap.of(2, 3, 4, 200_000);
+        assertArrayEquals(new long[] {2, 3}, GroupBitmap.and(first, second).toArray());
+        assertArrayEquals(new long[] {1, 2, 3, 4, 100_000, 200_000}, GroupBitmap.or(first, second).toArray());
+        assertArrayEquals(new long[] {1, 100_000}, GroupBitmap.andNot(first, second).toArray());
+        assertTrue(GroupBitmap.and(first, new GroupBitmap()).isEmpty());
+    }
+
+    @Test
+    public void testRandomSetOperations() {
+        // Compare against sets with a mix of sparse and dense chunks.
+        final Random random = new Random(42);
+        final TreeSet<Long> firstSet = new TreeSet<>();
+        final TreeSet<Long> secondSet = new TreeSet<>();
+        final GroupBitmap first = new GroupBitmap();
+        final GroupBitmap second = new GroupBitmap();
+        for (int i = 0; i < 50_000; i++) {
+            final long a = random.nextInt(150_000);
+            final long b = random.nextBoolean() ? random.nextInt(70_000) : random.nextInt(1_000_000);
+            firstSet.add(a);
+            first.add(a);
+            secondSet.add(b);
+            second.add(b);
+        }
+
+        final TreeSet<Long> and = new TreeSet<>(firstSet);
+        and.retainAll(secondSet);
+        check(and, GroupBitmap.and(first, second));
+
+        final TreeSet<Long> or = new TreeSet<>(firstSet);
+        or.addAll(secondSet);
+        check(or, GroupBitmap.or(first, second));
+
+        final TreeSet<Long> andNot = new TreeSet<>(firstSet);
+        andNot.removeAll(secondSet);
+        check(andNot, GroupBitmap.andNot(first, second));
+    }
+
+    private void check(final TreeSet<Long> expected, final GroupBitmap result) {
+        assertEquals(expected.size(), result.cardinality());
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).toArray(), result.toArray());
+    }
+}
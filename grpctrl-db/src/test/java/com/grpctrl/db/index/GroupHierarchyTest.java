@@ -0,0 +1,192 @@
+package com.grpctrl.db.index;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Perform testing on the {@link GroupHierarchy} class.
+ */
+public class GroupHierarchyTest {
+    private static Set<Long> descendants(final GroupHierarchy hierarchy, final long groupId) {
+        final Set<Long> ids = new TreeSet<>();
+        hierarchy.descendants(groupId, ids::add);
+        return ids;
+    }
+
+    @Test
+    public void testOfUnorderedInput() {
+        // Children are listed before their parents.
+        final long[] groupIds = {4, 3, 2, 1, 5};
+        final long[] parentIds = {3, 2, 1, 0, 0};
+        final GroupHierarchy hierarchy = GroupHierarchy.of(groupIds, parentIds, groupIds.length);
+
+        assertEquals(5, hierarchy.size());
+        assertEquals(1, hierarchy.depth(1));
+        assertEquals(2, hierarchy.depth(2));
+        assertEquals(3, hierarchy.depth(3));
+        assertEquals(4, hierarchy.depth(4));
+        assertEquals(1, hierarchy.depth(5));
+        assertEquals(-1, hierarchy.depth(6));
+        assertArrayEquals(new long[] {3, 2, 1}, hierarchy.ancestors(4));
+        assertArrayEquals(new long[0], hierarchy.ancestors(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfMissingParent() {
+        GroupHierarchy.of(new long[] {2}, new long[] {1}, 1);
+    }
+
+    @Test
+    public void testAddAndDescendants() {
+        final GroupHierarchy hierarchy = new GroupHierarchy();
+        assertTrue(hierarchy.add(1, null));
+        assertTrue(hierarchy.add(2, 1L));
+        assertTrue(hierarchy.add(3, 1L));
+        assertTrue(hierarchy.add(4, 2L));
+        assertTrue(hierarchy.add(5, 4L));
+        assertFalse(hierarchy.add(6, 100L));
+
+        assertEquals(5, hierarchy.size());
+        assertTrue(hierarchy.contains(5));
+        assertFalse(hierarchy.contains(6));
+        assertEquals(4, hierarchy.depth(5));
+        assertEquals(new TreeSet<>(Arrays.asList(2L, 3L, 4L, 5L)), descendants(hierarchy, 1));
+        assertEquals(new TreeSet<>(Arrays.asList(4L, 5L)), descendants(hierarchy, 2));
+        assertTrue(descendants(hierarchy, 3).isEmpty());
+        assertTrue(descendants(hierarchy, 100).isEmpty());
+    }
+
+    @Test
+    public void testDescendantsWithLevels() {
+        final GroupHierarchy hierarchy = new GroupHierarchy();
+        hierarchy.add(1, null);
+        hierarchy.add(2, 1L);
+        hierarchy.add(3, 2L);
+        hierarchy.add(4, 3L);
+        hierarchy.add(5, 1L);
+        hierarchy.add(6, 5L);
+
+        final Set<Long> ids = new TreeSet<>();
+        assertEquals(2, hierarchy.descendants(1, 1, ids::add));
+        assertEquals(new TreeSet<>(Arrays.asList(2L, 5L)), ids);
+
+        // The levels are counted from the root of the walk, not from the top of the hierarchy.
+        ids.clear();
+        assertEquals(2, hierarchy.descendants(2, 2, ids::add));
+        assertEquals(new TreeSet<>(Arrays.asList(3L, 4L)), ids);
+
+        ids.clear();
+        assertEquals(5, hierarchy.descendants(1, 0, ids::add));
+        assertEquals(descendants(hierarchy, 1), ids);
+    }
+
+    @Test
+    public void testAddExistingWithNewParent() {
+        final GroupHierarchy hierarchy = new GroupHierarchy();
+        hierarchy.add(1, null);
+        hierarchy.add(2, null);
+        hierarchy.add(3, 2L);
+
+        // Re-adding a known group under a different parent updates the depth of its subtree.
+        assertTrue(hierarchy.add(2, 1L));
+        assertEquals(2, hierarchy.depth(2));
+        assertEquals(3, hierarchy.depth(3));
+        assertArrayEquals(new long[] {2, 1}, hierarchy.ancestors(3));
+    }
+
+    @Test
+    public void testRemoveSubtree() {
+        final GroupHierarchy hierarchy = new GroupHierarchy();
+        hierarchy.add(1, null);
+        hierarchy.add(2, 1L);
+        hierarchy.add(3, 1L);
+        hierarchy.add(4, 2L);
+        hierarchy.add(5, 4L);
+        hierarchy.add(6, 2L);
+
+        assertEquals(4, hierarchy.remove(2));
+        assertEquals(0, hierarchy.remove(2));
+        assertEquals(2, hierarchy.size());
+        assertFalse(hierarchy.contains(4));
+        assertFalse(hierarchy.contains(5));
+        assertFalse(hierarchy.contains(6));
+        assertEquals(new TreeSet<>(Collections.singleton(3L)), descendants(hierarchy, 1));
+
+        // Released slots are reused by later additions.
+        hierarchy.add(7, 3L);
+        assertEquals(3, hierarchy.size());
+        assertEquals(3, hierarchy.depth(7));
+    }
+
+    @Test
+    public void testDescendantsPaged() {
+        final GroupHierarchy hierarchy = new GroupHierarchy();
+        hierarchy.add(1, null);
+        hierarchy.add(2, 1L);
+        hierarchy.add(3, 2L);
+        hierarchy.add(4, 3L);
+        hierarchy.add(5, 1L);
+        hierarchy.add(6, 5L);
+        hierarchy.add(7, null);
+        hierarchy.add(8, 7L);
+
+        // Each page resumes the walk after the last group of the previous page, with children in the order added.
+        final long[] root = {1};
+        assertArrayEquals(new long[] {2, 3}, hierarchy.descendants(root, 0, 0, 2));
+        assertArrayEquals(new long[] {4, 5}, hierarchy.descendants(root, 0, 3, 2));
+        assertArrayEquals(new long[] {6}, hierarchy.descendants(root, 0, 5, 2));
+        assertArrayEquals(new long[0], hierarchy.descendants(root, 0, 6, 2));
+
+        // The roots are walked in turn, ignoring those that are repeated or unknown.
+        assertArrayEquals(new long[] {2, 3, 4, 5, 6, 8}, hierarchy.descendants(new long[] {1, 99, 7, 1}, 0, 0, 10));
+        assertArrayEquals(new long[] {6, 8}, hierarchy.descendants(new long[] {1, 7}, 0, 5, 2));
+
+        // Groups below nested roots are only returned with the first of those roots.
+        assertArrayEquals(new long[] {2, 3, 4, 5, 6}, hierarchy.descendants(new long[] {1, 2}, 0, 0, 10));
+        assertArrayEquals(new long[] {3, 4, 2, 5, 6}, hierarchy.descendants(new long[] {2, 1}, 0, 0, 10));
+        assertArrayEquals(new long[] {2, 5}, hierarchy.descendants(new long[] {2, 1}, 0, 4, 2));
+
+        // With limited levels, the groups beyond the levels of an earlier root are still returned with a later root.
+        assertArrayEquals(new long[] {2, 5, 4}, hierarchy.descendants(new long[] {1, 3}, 1, 0, 10));
+        assertArrayEquals(new long[] {4}, hierarchy.descendants(new long[] {1, 3}, 1, 5, 10));
+
+        // Moved groups are walked after the existing children of their new parent.
+        hierarchy.add(2, 7L);
+        assertArrayEquals(new long[] {8, 2, 3, 4}, hierarchy.descendants(new long[] {7}, 0, 0, 10));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDescendantsAfterRemovedGroup() {
+        final GroupHierarchy hierarchy = new GroupHierarchy();
+        hierarchy.add(1, null);
+        hierarchy.add(2, 1L);
+        hierarchy.add(3, 1L);
+        hierarchy.remove(2);
+
+        hierarchy.descendants(new long[] {1}, 0, 2, 10);
+    }
+
+    @Test
+    public void testDeepHierarchy() {
+        final GroupHierarchy hierarchy = new GroupHierarchy();
+        hierarchy.add(1, null);
+        for (long id = 2; id <= 100_000; id++) {
+            hierarchy.add(id, id - 1);
+        }
+
+        assertEquals(100_000, hierarchy.depth(100_000));
+        assertEquals(99_999, hierarchy.ancestors(100_000).length);
+        assertEquals(99_999, hierarchy.descendants(1, id -> { }));
+        assertEquals(100_000, hierarchy.remove(1));
+        assertEquals(0, hierarchy.size());
+    }
+}
@@ -0,0 +1,55 @@
+package com.grpctrl.db.index;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collection;
+
+/**
+ * Perform testing on the {@link GroupNameIndex} class.
+ */
+public class GroupNameIndexTest {
+    private GroupNameIndex index;
+
+    @Before
+    public void before() {
+        this.index = new GroupNameIndex();
+        this.index.add(1, "Web-Servers");
+        this.index.add(2, "web.proxy");
+        this.index.add(3, "database");
+        this.index.add(4, "db");
+    }
+
+    private void assertCandidates(final long[] expected, final Collection<String> regexes) {
+        assertArrayEquals(expected, this.index.candidates(regexes).get().toArray());
+    }
+
+    @Test
+    public void testCandidates() {
+        assertCandidates(new long[] {1, 2}, singletonList("^web"));
+        assertCandidates(new long[] {1}, singletonList("WEB.*SERVERS"));
+        assertCandidates(new long[] {2, 3}, asList("proxy", "data"));
+        assertCandidates(new long[0], singletonList("missing"));
+        assertCandidates(new long[0], singletonList("web.*data"));
+    }
+
+    @Test
+    public void testCandidatesIncludeNonMatching() {
+        // The trigrams are present, but not in the required order, so the database rejects the group.
+        assertCandidates(new long[] {3}, singletonList("tabase.*data"));
+    }
+
+    @Test
+    public void testNoCandidates() {
+        assertFalse(this.index.candidates(emptyList()).isPresent());
+        assertFalse(this.index.candidates(singletonList("db")).isPresent());
+        assertFalse(this.index.candidates(asList("^web", "d.b")).isPresent());
+        assertFalse(this.index.candidates(singletonList("web|db")).isPresent());
+    }
+}
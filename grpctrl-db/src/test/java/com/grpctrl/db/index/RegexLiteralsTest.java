@@ -0,0 +1,66 @@
+package com.grpctrl.db.index;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Perform testing on the {@link RegexLiterals} class.
+ */
+public class RegexLiteralsTest {
+    @Test
+    public void testLiterals() {
+        assertEquals(singletonList("web"), RegexLiterals.required("^Web$"));
+        assertEquals(asList("web", "servers"), RegexLiterals.required("web.*servers"));
+        assertEquals(asList("web", "01"), RegexLiterals.required("web-?01"));
+        assertEquals(asList("web-", "01"), RegexLiterals.required("web-+01"));
+        assertEquals(singletonList("a.b"), RegexLiterals.required("a\\.b"));
+    }
+
+    @Test
+    public void testQuantifiers() {
+        assertEquals(asList("ab", "d"), RegexLiterals.required("abc*d"));
+        assertEquals(asList("ab", "d"), RegexLiterals.required("abc{0,2}d"));
+        assertEquals(asList("abc", "d"), RegexLiterals.required("abc{2}d"));
+        assertEquals(asList("abc", "d"), RegexLiterals.required("abc{10}d"));
+        assertEquals(asList("a", "d"), RegexLiterals.required("a\\.?d"));
+    }
+
+    @Test
+    public void testSkipped() {
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("ab(x|y)cd"));
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("ab(x(y)z)?cd"));
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("ab[]x]cd"));
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("ab[[:alpha:]]cd"));
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("ab\\dcd"));
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("abécd"));
+    }
+
+    @Test
+    public void testEscapeOperands() {
+        // The operands of character entry escapes and back references are not literal text.
+        assertEquals(emptyList(), RegexLiterals.required("\\x41bc"));
+        assertEquals(asList("a", "gz"), RegexLiterals.required("a\\x4gz"));
+        assertEquals(singletonList("bcd"), RegexLiterals.required("\\u0041bcd"));
+        assertEquals(asList("ab", "yz"), RegexLiterals.required("ab\\U00000041yz"));
+        assertEquals(asList("ab", "xyz"), RegexLiterals.required("ab\\cJxyz"));
+        assertEquals(singletonList("ab"), RegexLiterals.required("\\012ab"));
+        assertEquals(asList("x", "ab"), RegexLiterals.required("(x)x\\12ab"));
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("ab\\ncd"));
+        assertEquals(singletonList("ab"), RegexLiterals.required("ab\\c"));
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("ab(\\c)x)cd"));
+        assertEquals(asList("ab", "cd"), RegexLiterals.required("ab[\\c]x]cd"));
+    }
+
+    @Test
+    public void testNone() {
+        assertEquals(emptyList(), RegexLiterals.required(""));
+        assertEquals(emptyList(), RegexLiterals.required(".*"));
+        assertEquals(emptyList(), RegexLiterals.required("abc|def"));
+        assertEquals(emptyList(), RegexLiterals.required("(?i)abc"));
+        assertEquals(emptyList(), RegexLiterals.required("***=abc"));
+    }
+}
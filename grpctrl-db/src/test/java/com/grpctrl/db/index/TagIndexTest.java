@@ -0,0 +1,110 @@
+package com.grpctrl.db.index;
+
+import static com.grpctrl.db.selector.TagSelector.and;
+import static com.grpctrl.db.selector.TagSelector.equal;
+import static com.grpctrl.db.selector.TagSelector.exists;
+import static com.grpctrl.db.selector.TagSelector.not;
+import static com.grpctrl.db.selector.TagSelector.or;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.grpctrl.db.selector.TagSelector;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Perform testing on the {@link TagIndex} class.
+ */
+public class TagIndexTest {
+    private TagIndex index;
+
+    @Before
+    public void before() {
+        // Group 5 has no tags, so it is only included in complement selections.
+        this.index = new TagIndex();
+        this.index.add(1, "env", "prod");
+        this.index.add(1, "region", "eu");
+        this.index.add(2, "env", "prod");
+        this.index.add(2, "region", "us");
+        this.index.add(3, "env", "dev");
+        this.index.add(3, "region", "eu");
+        this.index.add(4, "owner", "ops");
+    }
+
+    private void assertSelected(final long[] expected, final TagSelector selector) {
+        final TagIndex.Selection selection = this.index.select(selector);
+        assertFalse(selection.isComplement());
+        assertArrayEquals(expected, selection.getGroups().toArray());
+    }
+
+    private void assertExcluded(final long[] expected, final TagSelector selector) {
+        final TagIndex.Selection selection = this.index.select(selector);
+        assertTrue(selection.isComplement());
+        assertArrayEquals(expected, selection.getGroups().toArray());
+    }
+
+    @Test
+    public void testEqual() {
+        assertSelected(new long[] {1, 2}, equal("env", "prod"));
+        assertSelected(new long[0], equal("env", "missing"));
+        assertSelected(new long[0], equal("missing", "prod"));
+    }
+
+    @Test
+    public void testExists() {
+        assertSelected(new long[] {1, 2, 3}, exists("region"));
+        assertSelected(new long[0], exists("missing"));
+    }
+
+    @Test
+    public void testAndOr() {
+        assertSelected(new long[] {1}, and(equal("env", "prod"), equal("region", "eu")));
+        assertSelected(new long[] {1, 2, 3}, or(equal("env", "prod"), equal("region", "eu")));
+        assertSelected(new long[] {1, 4}, or(and(equal("env", "prod"), equal("region", "eu")), exists("owner")));
+    }
+
+    @Test
+    public void testNot() {
+        // Groups that are not production, including those without tags.
+        assertExcluded(new long[] {1, 2}, not(equal("env", "prod")));
+        assertSelected(new long[] {3}, and(exists("env"), not(equal("env", "prod"))));
+        assertSelected(new long[] {3}, and(not(equal("env", "prod")), exists("env")));
+        assertSelected(new long[] {1, 2}, not(not(equal("env", "prod"))));
+
+        // Neither production nor in the EU, which excludes either.
+        assertExcluded(new long[] {1, 2, 3}, and(not(equal("env", "prod")), not(equal("region", "eu"))));
+        // Either not production or not in the EU, which excludes both.
+        assertExcluded(new long[] {1}, or(not(equal("env", "prod")), not(equal("region", "eu"))));
+        // Production or not in the EU, which excludes the EU groups that are not production.
+        assertExcluded(new long[] {3}, or(equal("env", "prod"), not(equal("region", "eu"))));
+        assertExcluded(new long[] {3}, or(not(equal("region", "eu")), equal("env", "prod")));
+    }
+
+    @Test
+    public void testRemove() {
+        this.index.remove(1, "env", "prod");
+        this.index.remove(1, "env", "missing");
+        this.index.remove(4, "owner", "ops");
+        assertSelected(new long[] {2}, equal("env", "prod"));
+        assertSelected(new long[0], exists("owner"));
+    }
+
+    @Test
+    public void testRemoveLabel() {
+        this.index.add(1, "region", "us");
+        this.index.removeLabel(1, "region");
+        this.index.removeLabel(1, "missing");
+        assertSelected(new long[] {2, 3}, exists("region"));
+        assertSelected(new long[] {1, 2}, equal("env", "prod"));
+    }
+
+    @Test
+    public void testSelectionIsIndependent() {
+        final TagIndex.Selection selection = this.index.select(equal("env", "prod"));
+        this.index.add(3, "env", "prod");
+        assertArrayEquals(new long[] {1, 2}, selection.getGroups().toArray());
+        assertSelected(new long[] {1, 2, 3}, equal("env", "prod"));
+    }
+}
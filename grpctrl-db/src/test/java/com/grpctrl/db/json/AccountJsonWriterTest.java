@@ -0,0 +1,54 @@
+package com.grpctrl.db.json;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.ServiceLevel;
+import com.grpctrl.common.supplier.ObjectMapperSupplier;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Perform testing on the {@link AccountJsonWriter} class.
+ */
+public class AccountJsonWriterTest {
+    private static ResultSet row(final Account account) throws SQLException {
+        final ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.when(rs.getLong(1)).thenReturn(account.getId().orElse(null));
+        Mockito.when(rs.getString(2)).thenReturn(account.getName());
+        Mockito.when(rs.getInt(3)).thenReturn(account.getServiceLevel().getMaxGroups());
+        Mockito.when(rs.getInt(4)).thenReturn(account.getServiceLevel().getMaxTags());
+        Mockito.when(rs.getInt(5)).thenReturn(account.getServiceLevel().getMaxDepth());
+        return rs;
+    }
+
+    @Test
+    public void testWrite() throws SQLException, IOException {
+        final Account account1 = new Account(1L, "name", new ServiceLevel(10, 20, 3));
+        final Account account2 = new Account(2L, "\"quoted\" \u00e9 name\n", new ServiceLevel());
+
+        final ObjectMapper objectMapper = new ObjectMapperSupplier().get();
+        final StringWriter written = new StringWriter();
+        try (final JsonGenerator generator = objectMapper.getFactory().createGenerator(written)) {
+            generator.writeStartArray();
+            AccountJsonWriter.write(row(account1), generator);
+            AccountJsonWriter.write(row(account2), generator);
+            generator.writeEndArray();
+        }
+
+        assertEquals(objectMapper.writeValueAsString(new Account[] {account1, account2}), written.toString());
+    }
+
+    @Test
+    public void testGetAccountId() throws SQLException {
+        assertEquals(5L, AccountJsonWriter.getAccountId(row(new Account(5L, "name", new ServiceLevel()))));
+    }
+}
@@ -0,0 +1,37 @@
+package com.grpctrl.db.json;
+
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.common.supplier.ObjectMapperSupplier;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * Perform testing on the {@link GroupJsonWriter} class.
+ */
+public class GroupJsonWriterTest {
+    @Test
+    public void testWrite() throws IOException {
+        final Group withTags = new Group(5L, 2L, "with \"tags\"");
+        withTags.setTags(new Tag("b", "2"), new Tag("a", "1"), new Tag("a", "\u00e9\n"));
+        final Group withoutIds = new Group("without ids");
+
+        final ObjectMapper objectMapper = new ObjectMapperSupplier().get();
+        final StringWriter written = new StringWriter();
+        try (final JsonGenerator generator = objectMapper.getFactory().createGenerator(written)) {
+            generator.writeStartArray();
+            GroupJsonWriter.write(withTags, withTags.getTags().iterator(), generator);
+            GroupJsonWriter.write(withoutIds, withoutIds.getTags().iterator(), generator);
+            generator.writeEndArray();
+        }
+
+        assertEquals(objectMapper.writeValueAsString(new Group[] {withTags, withoutIds}), written.toString());
+    }
+}
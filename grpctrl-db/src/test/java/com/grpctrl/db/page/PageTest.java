@@ -0,0 +1,41 @@
+package com.grpctrl.db.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+/**
+ * Perform testing on the {@link Page} class.
+ */
+public class PageTest {
+    @Test
+    public void testFirstPage() {
+        final Page page = new Page(10);
+        assertEquals(10, page.getLimit());
+        assertFalse(page.getAfter().isPresent());
+    }
+
+    @Test
+    public void testNextPage() {
+        final Page page = new Page(10, new PageToken(1, 2));
+        assertEquals(10, page.getLimit());
+        assertEquals(new PageToken(1, 2), page.getAfter().orElse(null));
+    }
+
+    @Test
+    public void testAll() {
+        assertEquals(Integer.MAX_VALUE, Page.all().getLimit());
+        assertFalse(Page.all().getAfter().isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimit() {
+        new Page(0);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("Page[limit=5,after=PageToken[accountId=1,id=2]]", new Page(5, new PageToken(1, 2)).toString());
+    }
+}
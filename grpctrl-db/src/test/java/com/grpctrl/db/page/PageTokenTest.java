@@ -0,0 +1,51 @@
+package com.grpctrl.db.page;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+/**
+ * Perform testing on the {@link PageToken} class.
+ */
+public class PageTokenTest {
+    @Test
+    public void testEncodeDecode() {
+        final PageToken token = new PageToken(12, 10345);
+        final String encoded = token.encode();
+
+        assertEquals("AAAAAAAAAAwAAAAAAAAoaQ", encoded);
+        assertEquals(token, PageToken.decode(encoded));
+        assertEquals(12, PageToken.decode(encoded).getAccountId());
+        assertEquals(10345, PageToken.decode(encoded).getId());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalidEncoding() {
+        PageToken.decode("not a token!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeInvalidLength() {
+        PageToken.decode("AAAAAAAAAAw");
+    }
+
+    @Test
+    public void testEquals() {
+        final PageToken a = new PageToken(1, 2);
+        final PageToken b = new PageToken(1, 3);
+        final PageToken c = new PageToken(2, 2);
+
+        assertNotEquals(a, null);
+        assertEquals(a, a);
+        assertEquals(a, new PageToken(1, 2));
+        assertNotEquals(a, b);
+        assertNotEquals(a, c);
+        assertEquals(a.hashCode(), new PageToken(1, 2).hashCode());
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("PageToken[accountId=1,id=2]", new PageToken(1, 2).toString());
+    }
+}
@@ -0,0 +1,86 @@
+package com.grpctrl.db.pool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.metrics.MetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perform testing on the {@link PoolMonitor} class.
+ */
+public class PoolMonitorTest {
+    private static PoolStats poolStats(final int active, final int total, final int pending) {
+        return new PoolStats(0) {
+            @Override
+            protected void update() {
+                this.activeConnections = active;
+                this.totalConnections = total;
+                this.pendingThreads = pending;
+            }
+        };
+    }
+
+    @Test
+    public void testSampleBeforeCreate() {
+        final PoolSample sample = new PoolMonitor(new MetricRegistry()).sample();
+        assertEquals(0, sample.getAcquisitions());
+        assertEquals(0, sample.getMeanWaitMillis(), 0);
+        assertEquals(0, sample.getTotalConnections());
+    }
+
+    @Test
+    public void testSample() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final PoolMonitor poolMonitor = new PoolMonitor(metricRegistry);
+        final MetricsTracker tracker = poolMonitor.create("test", poolStats(3, 5, 2));
+
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(20));
+        tracker.recordConnectionUsageMillis(100);
+        tracker.recordConnectionTimeout();
+
+        final PoolSample sample = poolMonitor.sample();
+        assertEquals(2, sample.getAcquisitions());
+        assertEquals(15, sample.getMeanWaitMillis(), 0.001);
+        assertEquals(1, sample.getUsages());
+        assertEquals(100, sample.getMeanUsageMillis(), 0.001);
+        assertEquals(1, sample.getTimeouts());
+        assertEquals(3, sample.getActiveConnections());
+        assertEquals(5, sample.getTotalConnections());
+        assertEquals(2, sample.getPendingThreads());
+
+        // The activity is also published to the metric registry.
+        assertEquals(2, metricRegistry.getTimers().get("test.pool.Wait").getCount());
+        assertEquals(1, metricRegistry.getMeters().get("test.pool.ConnectionTimeoutRate").getCount());
+
+        // The next sample only covers the activity since the previous one.
+        final PoolSample next = poolMonitor.sample();
+        assertEquals(0, next.getAcquisitions());
+        assertEquals(0, next.getMeanWaitMillis(), 0);
+        assertEquals(0, next.getUsages());
+        assertEquals(0, next.getTimeouts());
+        assertEquals(3, next.getActiveConnections());
+    }
+
+    @Test
+    public void testCreateReplacesMetrics() {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final PoolMonitor poolMonitor = new PoolMonitor(metricRegistry);
+        poolMonitor.create("test", poolStats(1, 1, 0));
+        poolMonitor.create("test", poolStats(2, 2, 0)).recordConnectionUsageMillis(5);
+
+        assertEquals(2, metricRegistry.getGauges().get("test.pool.TotalConnections").getValue());
+        assertTrue(metricRegistry.getHistograms().containsKey("test.pool.Usage"));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNull() {
+        new PoolMonitor(null);
+    }
+}
@@ -0,0 +1,130 @@
+package com.grpctrl.db.pool;
+
+import static org.junit.Assert.assertEquals;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+/**
+ * Perform testing on the {@link PoolSizer} class.
+ */
+public class PoolSizerTest {
+    private static PoolSample sample(
+            final double meanWaitMillis, final double meanUsageMillis, final long timeouts, final int active,
+            final int pending) {
+        return new PoolSample(100, meanWaitMillis, 100, meanUsageMillis, timeouts, active, active, pending);
+    }
+
+    private static HikariConfigMXBean pool(final int maximumPoolSize, final int minimumIdle) {
+        final HikariConfig pool = new HikariConfig();
+        pool.setPoolName("test");
+        pool.setMaximumPoolSize(maximumPoolSize);
+        pool.setMinimumIdle(minimumIdle);
+        return pool;
+    }
+
+    private static PoolSizer sizer(final HikariConfigMXBean pool) {
+        return new PoolSizer(pool, new PoolMonitor(new MetricRegistry()), 4, 40, 10, 500);
+    }
+
+    @Test
+    public void testSizeSteady() {
+        assertEquals(20, sizer(pool(20, 10)).size(20, sample(5, 50, 0, 15, 0)));
+    }
+
+    @Test
+    public void testSizeGrowOnWait() {
+        assertEquals(25, sizer(pool(20, 10)).size(20, sample(50, 50, 0, 20, 8)));
+    }
+
+    @Test
+    public void testSizeGrowOnTimeout() {
+        assertEquals(25, sizer(pool(20, 10)).size(20, sample(5, 50, 1, 20, 0)));
+    }
+
+    @Test
+    public void testSizeGrowWithinMaximum() {
+        assertEquals(40, sizer(pool(38, 10)).size(38, sample(50, 50, 0, 38, 8)));
+    }
+
+    @Test
+    public void testSizeShrinkOnLatency() {
+        // The database is slow, so the connection waits do not justify more connections.
+        assertEquals(15, sizer(pool(20, 10)).size(20, sample(50, 900, 0, 20, 8)));
+    }
+
+    @Test
+    public void testSizeShrinkWhenIdle() {
+        assertEquals(19, sizer(pool(20, 10)).size(20, sample(0, 50, 0, 2, 0)));
+    }
+
+    @Test
+    public void testSizeShrinkWithinMinimum() {
+        assertEquals(4, sizer(pool(4, 2)).size(4, sample(0, 900, 0, 0, 0)));
+        assertEquals(4, sizer(pool(2, 2)).size(2, sample(0, 50, 0, 0, 0)));
+    }
+
+    @Test
+    public void testRunGrows() {
+        final HikariConfigMXBean pool = pool(8, 10);
+        final PoolMonitor poolMonitor = Mockito.mock(PoolMonitor.class);
+        Mockito.when(poolMonitor.sample()).thenReturn(sample(50, 50, 0, 8, 4));
+
+        new PoolSizer(pool, poolMonitor, 4, 40, 10, 500).run();
+
+        assertEquals(10, pool.getMaximumPoolSize());
+        assertEquals(10, pool.getMinimumIdle());
+    }
+
+    @Test
+    public void testRunShrinksMinimumIdle() {
+        final HikariConfigMXBean pool = pool(10, 10);
+        final PoolMonitor poolMonitor = Mockito.mock(PoolMonitor.class);
+        Mockito.when(poolMonitor.sample()).thenReturn(sample(50, 900, 0, 10, 0));
+
+        new PoolSizer(pool, poolMonitor, 4, 40, 10, 500).run();
+
+        assertEquals(8, pool.getMaximumPoolSize());
+        assertEquals(8, pool.getMinimumIdle());
+    }
+
+    @Test
+    public void testRunUnchanged() {
+        final HikariConfigMXBean pool = Mockito.mock(HikariConfigMXBean.class);
+        Mockito.when(pool.getMaximumPoolSize()).thenReturn(20);
+        final PoolMonitor poolMonitor = Mockito.mock(PoolMonitor.class);
+        Mockito.when(poolMonitor.sample()).thenReturn(sample(5, 50, 0, 15, 0));
+
+        new PoolSizer(pool, poolMonitor, 4, 40, 10, 500).run();
+
+        Mockito.verify(pool, Mockito.never()).setMaximumPoolSize(Mockito.anyInt());
+    }
+
+    @Test
+    public void testRunException() {
+        final PoolMonitor poolMonitor = Mockito.mock(PoolMonitor.class);
+        Mockito.when(poolMonitor.sample()).thenThrow(new RuntimeException("Fake"));
+
+        // The exception is logged, rather than cancelling future runs.
+        new PoolSizer(pool(10, 10), poolMonitor, 4, 40, 10, 500).run();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorInvalidMinimum() {
+        new PoolSizer(pool(10, 10), new PoolMonitor(new MetricRegistry()), 0, 40, 10, 500);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorInvalidMaximum() {
+        new PoolSizer(pool(10, 10), new PoolMonitor(new MetricRegistry()), 10, 5, 10, 500);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNullPool() {
+        new PoolSizer(null, new PoolMonitor(new MetricRegistry()), 4, 40, 10, 500);
+    }
+}
@@ -0,0 +1,57 @@
+package com.grpctrl.db.selector;
+
+import static com.grpctrl.db.selector.TagSelector.and;
+import static com.grpctrl.db.selector.TagSelector.equal;
+import static com.grpctrl.db.selector.TagSelector.exists;
+import static com.grpctrl.db.selector.TagSelector.not;
+import static com.grpctrl.db.selector.TagSelector.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+/**
+ * Perform testing on the {@link TagSelectorParser} class.
+ */
+public class TagSelectorParserTest {
+    @Test
+    public void testRequirements() {
+        assertEquals(exists("env"), TagSelectorParser.parse("env"));
+        assertEquals(not(exists("env")), TagSelectorParser.parse("!env"));
+        assertEquals(equal("env", "prod"), TagSelectorParser.parse("env=prod"));
+        assertEquals(equal("env", "prod"), TagSelectorParser.parse("env==prod"));
+        assertEquals(not(equal("env", "prod")), TagSelectorParser.parse("env!=prod"));
+        assertEquals(or(equal("tier", "web"), equal("tier", "api")), TagSelectorParser.parse("tier in (web,api)"));
+        assertEquals(not(or(equal("tier", "web"))), TagSelectorParser.parse("tier NOTIN (web)"));
+    }
+
+    @Test
+    public void testCombined() {
+        assertEquals(and(equal("env", "prod"), or(equal("tier", "web"), equal("tier", "api")), not(exists("old"))),
+                TagSelectorParser.parse(" env = prod , tier in ( web , api ) , ! old "));
+    }
+
+    @Test
+    public void testQuoted() {
+        assertEquals(equal("a label", "x,y=\"z\""), TagSelectorParser.parse("\"a label\"=\"x,y=\\\"z\\\"\""));
+        assertEquals(exists("in"), TagSelectorParser.parse("\"in\""));
+    }
+
+    @Test
+    public void testInvalid() {
+        for (final String selector : new String[] {"", " ", "env=", "=prod", "env,", ",env", "env prod", "env in web",
+                "env in (web", "env in ()", "env in (web,)", "env=prod)", "\"env", "env=\"prod", "!", "env notin"}) {
+            try {
+                TagSelectorParser.parse(selector);
+                fail("Expected selector to be invalid: " + selector);
+            } catch (final IllegalArgumentException expected) {
+                // Expected.
+            }
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNull() {
+        TagSelectorParser.parse(null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.grpctrl.db.selector;
+
+import static com.grpctrl.db.selector.TagSelector.and;
+import static com.grpctrl.db.selector.TagSelector.equal;
+import static com.grpctrl.db.selector.TagSelector.exists;
+import static com.grpctrl.db.selector.TagSelector.not;
+import static com.grpctrl.db.selector.TagSelector.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Perform testing on the {@link TagSelector} class.
+ */
+public class TagSelectorTest {
+    @Test
+    public void testEquals() {
+        assertEquals(equal("env", "prod"), equal("env", "prod"));
+        assertEquals(equal("env", "prod").hashCode(), equal("env", "prod").hashCode());
+        assertNotEquals(equal("env", "prod"), equal("env", "dev"));
+        assertNotEquals(equal("env", "prod"), exists("env"));
+        assertEquals(and(exists("a"), exists("b")), and(exists("a"), exists("b")));
+        assertNotEquals(and(exists("a"), exists("b")), or(exists("a"), exists("b")));
+        assertEquals(not(exists("a")), not(exists("a")));
+        assertNotEquals(not(exists("a")), exists("a"));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("(env = prod AND (region = eu OR NOT owner))",
+                and(equal("env", "prod"), or(equal("region", "eu"), not(exists("owner")))).toString());
+    }
+
+    @Test
+    public void testVisitor() {
+        final TagSelector.Visitor<String> visitor = new TagSelector.Visitor<String>() {
+            @Override
+            public String visitEqual(final String label, final String value) {
+                return label + "=" + value;
+            }
+
+            @Override
+            public String visitExists(final String label) {
+                return label;
+            }
+
+            @Override
+            public String visitAnd(final List<TagSelector> selectors) {
+                return "and" + selectors.size();
+            }
+
+            @Override
+            public String visitOr(final List<TagSelector> selectors) {
+                return "or" + selectors.size();
+            }
+
+            @Override
+            public String visitNot(final TagSelector selector) {
+                return "not " + selector.accept(this);
+            }
+        };
+
+        assertEquals("a=b", equal("a", "b").accept(visitor));
+        assertEquals("a", exists("a").accept(visitor));
+        assertEquals("and2", and(exists("a"), exists("b")).accept(visitor));
+        assertEquals("or3", or(exists("a"), exists("b"), exists("c")).accept(visitor));
+        assertEquals("not a", not(exists("a")).accept(visitor));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAndEmpty() {
+        and(Collections.emptyList());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrEmpty() {
+        or();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullOperand() {
+        and(exists("a"), null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.grpctrl.db.slow;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * Perform testing on the {@link BoundParameter} class.
+ */
+public class BoundParameterTest {
+    private static BoundParameter parameter(final String setter, final Class<?> type, final Object value)
+            throws NoSuchMethodException {
+        return new BoundParameter(
+                PreparedStatement.class.getMethod(setter, int.class, type), new Object[] {1, value});
+    }
+
+    @Test
+    public void testDescribe() throws Exception {
+        assertEquals("Long", parameter("setLong", long.class, 5L).describe());
+        assertEquals("String(5)", parameter("setString", String.class, "value").describe());
+        assertEquals("Bytes(3)", parameter("setBytes", byte[].class, new byte[3]).describe());
+        assertEquals("Null(VARCHAR)", parameter("setNull", int.class, Types.VARCHAR).describe());
+        assertEquals("Object(Integer)", parameter("setObject", Object.class, 5).describe());
+        assertEquals("Object", parameter("setObject", Object.class, null).describe());
+    }
+
+    @Test
+    public void testDescribeArray() throws Exception {
+        final Array array = Mockito.mock(Array.class);
+        Mockito.when(array.getArray()).thenReturn(new Long[] {1L, 2L});
+        assertEquals("Array(2)", parameter("setArray", Array.class, array).describe());
+
+        final Array freed = Mockito.mock(Array.class);
+        Mockito.when(freed.getArray()).thenThrow(new SQLException("Freed"));
+        assertEquals("Array", parameter("setArray", Array.class, freed).describe());
+    }
+
+    @Test
+    public void testBind() throws Exception {
+        final PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        parameter("setString", String.class, "value").bind(ps);
+        Mockito.verify(ps).setString(1, "value");
+    }
+
+    @Test(expected = SQLException.class)
+    public void testBindFailure() throws Exception {
+        final PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        Mockito.doThrow(new SQLException("Closed")).when(ps).setString(1, "value");
+        parameter("setString", String.class, "value").bind(ps);
+    }
+}
@@ -0,0 +1,165 @@
+package com.grpctrl.db.slow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+
+import org.hsqldb.jdbc.JDBCDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+/**
+ * Perform testing on the {@link SlowQueryInterceptor} class.
+ */
+public class SlowQueryInterceptorTest {
+    private static JDBCDataSource dataSource;
+
+    @BeforeClass
+    public static void beforeClass() throws SQLException {
+        dataSource = new JDBCDataSource();
+        dataSource.setUrl("jdbc:hsqldb:mem:slow-queries");
+        dataSource.setUser("SA");
+        dataSource.setPassword("");
+        try (final Connection conn = dataSource.getConnection();
+             final Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE slow (id INTEGER, name VARCHAR(20))");
+        }
+    }
+
+    private static SlowQueryLog slowQueryLog(final long threshold) {
+        // The plans are not captured, since the in-memory database does not support the same explain syntax.
+        return new SlowQueryLog(threshold, 10, 6_000_000, 30, runnable -> { }, new MetricRegistry());
+    }
+
+    @Test
+    public void testPreparedStatement() throws Exception {
+        final SlowQueryLog slowQueryLog = slowQueryLog(0);
+        final DataSource intercepted = SlowQueryInterceptor.wrap(dataSource, slowQueryLog);
+
+        try (final Connection conn = intercepted.getConnection();
+             final PreparedStatement ps = conn.prepareStatement("SELECT  id\n FROM slow WHERE name = ? AND id = ?")) {
+            ps.setString(1, "name");
+            ps.setNull(2, Types.INTEGER);
+            try (final ResultSet rs = ps.executeQuery()) {
+                assertFalse(rs.next());
+            }
+        }
+
+        final List<SlowQuery> slowQueries = slowQueryLog.getSlowQueries();
+        assertEquals(1, slowQueries.size());
+        assertEquals("SELECT id FROM slow WHERE name = ? AND id = ?", slowQueries.get(0).getSql());
+        assertEquals(Arrays.asList("String(4)", "Null(INTEGER)"), slowQueries.get(0).getParameters());
+    }
+
+    @Test
+    public void testClearParameters() throws Exception {
+        final SlowQueryLog slowQueryLog = slowQueryLog(0);
+        final DataSource intercepted = SlowQueryInterceptor.wrap(dataSource, slowQueryLog);
+
+        try (final Connection conn = intercepted.getConnection();
+             final PreparedStatement ps = conn.prepareStatement("SELECT id FROM slow WHERE id = ?")) {
+            ps.setLong(1, 1L);
+            ps.clearParameters();
+            ps.setInt(1, 2);
+            try (final ResultSet rs = ps.executeQuery()) {
+                assertFalse(rs.next());
+            }
+        }
+
+        assertEquals(Collections.singletonList("Int"), slowQueryLog.getSlowQueries().get(0).getParameters());
+    }
+
+    @Test
+    public void testStatement() throws Exception {
+        final SlowQueryLog slowQueryLog = slowQueryLog(0);
+        final DataSource intercepted = SlowQueryInterceptor.wrap(dataSource, slowQueryLog);
+
+        try (final Connection conn = intercepted.getConnection();
+             final Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM slow WHERE id = 5");
+        }
+
+        assertEquals("DELETE FROM slow WHERE id = 5", slowQueryLog.getSlowQueries().get(0).getSql());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        final SlowQueryLog slowQueryLog = slowQueryLog(0);
+        final DataSource intercepted = SlowQueryInterceptor.wrap(dataSource, slowQueryLog);
+
+        try (final Connection conn = intercepted.getConnection();
+             final PreparedStatement ps = conn.prepareStatement("INSERT INTO slow (id, name) VALUES (?, ?)")) {
+            conn.setAutoCommit(false);
+            for (int id = 0; id < 3; id++) {
+                ps.setInt(1, id);
+                ps.setString(2, "name" + id);
+                ps.addBatch();
+            }
+            assertEquals(3, ps.executeBatch().length);
+            conn.rollback();
+        }
+
+        final SlowQuery slowQuery = slowQueryLog.getSlowQueries().get(0);
+        assertTrue(slowQuery.getParameters().isEmpty());
+        assertEquals("Plans are not captured for batches", slowQuery.getPlan());
+    }
+
+    @Test
+    public void testCallableStatement() throws Exception {
+        final SlowQueryLog slowQueryLog = slowQueryLog(0);
+        final DataSource intercepted = SlowQueryInterceptor.wrap(dataSource, slowQueryLog);
+
+        try (final Connection conn = intercepted.getConnection();
+             final CallableStatement cs = conn.prepareCall("CALL ABS(?)")) {
+            cs.setInt(1, -1);
+            cs.execute();
+        }
+
+        assertEquals("CALL ABS(?)", slowQueryLog.getSlowQueries().get(0).getSql());
+    }
+
+    @Test
+    public void testFastStatementsNotRecorded() throws Exception {
+        final SlowQueryLog slowQueryLog = slowQueryLog(60_000);
+        final DataSource intercepted = SlowQueryInterceptor.wrap(dataSource, slowQueryLog);
+
+        try (final Connection conn = intercepted.getConnection();
+             final PreparedStatement ps = conn.prepareStatement("SELECT id FROM slow");
+             final ResultSet rs = ps.executeQuery()) {
+            assertFalse(rs.next());
+        }
+
+        assertTrue(slowQueryLog.getSlowQueries().isEmpty());
+    }
+
+    @Test(expected = SQLException.class)
+    public void testExceptionsUnwrapped() throws Exception {
+        final DataSource intercepted = SlowQueryInterceptor.wrap(dataSource, slowQueryLog(0));
+
+        try (final Connection conn = intercepted.getConnection();
+             final Statement stmt = conn.createStatement()) {
+            stmt.execute("SELECT missing FROM slow");
+        }
+    }
+
+    @Test
+    public void testUnwrap() throws Exception {
+        final DataSource intercepted = SlowQueryInterceptor.wrap(dataSource, slowQueryLog(0));
+        assertTrue(intercepted.isWrapperFor(JDBCDataSource.class));
+    }
+}
@@ -0,0 +1,127 @@
+package com.grpctrl.db.slow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.health.HealthCheckRegistry;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.HealthCheckRegistrySupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.crypto.pbe.PasswordBasedEncryptionSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perform testing on the {@link SlowQueryLog} class. This is an integration test because it expects a live PostgreSQL
+ * server to be up and running.
+ */
+public class SlowQueryLogIT {
+    private static DataSourceSupplier dataSourceSupplier;
+
+    @BeforeClass
+    public static void setup() {
+        final Map<String, ConfigValue> map = new HashMap<>();
+        map.put(ConfigKeys.DB_URL.getKey(), ConfigValueFactory.fromAnyRef("jdbc:postgresql://localhost:5432/grpctrl"));
+        map.put(ConfigKeys.DB_USERNAME.getKey(), ConfigValueFactory.fromAnyRef("grpctrl"));
+        map.put(ConfigKeys.DB_PASSWORD.getKey(), ConfigValueFactory.fromAnyRef("password"));
+        map.put(ConfigKeys.DB_MINIMUM_IDLE.getKey(), ConfigValueFactory.fromAnyRef(2));
+        map.put(ConfigKeys.DB_MAXIMUM_POOL_SIZE.getKey(), ConfigValueFactory.fromAnyRef(2));
+        map.put(ConfigKeys.DB_TIMEOUT_IDLE.getKey(), ConfigValueFactory.fromAnyRef("10 minutes"));
+        map.put(ConfigKeys.DB_TIMEOUT_CONNECTION.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
+        map.put(ConfigKeys.DB_CLEAN.getKey(), ConfigValueFactory.fromAnyRef("false"));
+        map.put(ConfigKeys.DB_MIGRATE.getKey(), ConfigValueFactory.fromAnyRef("true"));
+        map.put(ConfigKeys.DB_FETCH_SIZE.getKey(), ConfigValueFactory.fromAnyRef(100));
+        // Every statement is slow.
+        map.put(ConfigKeys.DB_SLOW_QUERY_ENABLED.getKey(), ConfigValueFactory.fromAnyRef(true));
+        map.put(ConfigKeys.DB_SLOW_QUERY_THRESHOLD.getKey(), ConfigValueFactory.fromAnyRef("0 seconds"));
+        map.put(ConfigKeys.DB_SLOW_QUERY_RATE_LIMIT.getKey(), ConfigValueFactory.fromAnyRef(600_000));
+        map.put(ConfigKeys.DB_SLOW_QUERY_LOG_SIZE.getKey(), ConfigValueFactory.fromAnyRef(10));
+        map.put(ConfigKeys.DB_SLOW_QUERY_EXPLAIN_TIMEOUT.getKey(), ConfigValueFactory.fromAnyRef("10 seconds"));
+
+        map.put(ConfigKeys.CRYPTO_SHARED_SECRET_VARIABLE.getKey(), ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+        map.put("SHARED_SECRET", ConfigValueFactory.fromAnyRef("SHARED_SECRET"));
+
+        final Config config = ConfigFactory.parseMap(map);
+
+        final ConfigSupplier configSupplier = Mockito.mock(ConfigSupplier.class);
+        Mockito.when(configSupplier.get()).thenReturn(config);
+
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(new MetricRegistry());
+        final HealthCheckRegistrySupplier healthCheckRegistrySupplier = Mockito.mock(HealthCheckRegistrySupplier.class);
+        Mockito.when(healthCheckRegistrySupplier.get()).thenReturn(new HealthCheckRegistry());
+
+        dataSourceSupplier = new DataSourceSupplier(configSupplier, new PasswordBasedEncryptionSupplier(configSupplier),
+                metricRegistrySupplier, healthCheckRegistrySupplier);
+    }
+
+    private static String plan(final String sql) throws InterruptedException {
+        final SlowQueryLog slowQueryLog = dataSourceSupplier.getSlowQueryLog().get();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            final SlowQuery slowQuery = slowQueryLog.getSlowQueries().stream().filter(s -> s.getSql().equals(sql))
+                    .findFirst().orElse(null);
+            if (slowQuery != null && slowQuery.getPlan() != null) {
+                return slowQuery.getPlan();
+            }
+            Thread.sleep(10);
+        }
+        return null;
+    }
+
+    @Test
+    public void testReadsAnalyzed() throws SQLException, InterruptedException {
+        final String sql = "SELECT account_id FROM accounts WHERE name = ?";
+        try (final Connection conn = dataSourceSupplier.get().getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, "slow");
+            try (final ResultSet rs = ps.executeQuery()) {
+                assertFalse(rs.next());
+            }
+            conn.rollback();
+        }
+
+        final String plan = plan(sql);
+        assertNotNull(plan);
+        assertTrue(plan, plan.contains("actual time"));
+        assertEquals(Collections.singletonList("String(4)"), dataSourceSupplier.getSlowQueryLog().get()
+                .getSlowQueries().stream().filter(s -> s.getSql().equals(sql)).findFirst().get().getParameters());
+    }
+
+    @Test
+    public void testWritesNotAnalyzed() throws SQLException, InterruptedException {
+        final String sql = "UPDATE accounts SET name = ? WHERE account_id = ?";
+        try (final Connection conn = dataSourceSupplier.get().getConnection();
+             final PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, "slow");
+            ps.setLong(2, -1L);
+            assertEquals(0, ps.executeUpdate());
+            conn.rollback();
+        }
+
+        final String plan = plan(sql);
+        assertNotNull(plan);
+        assertTrue(plan, plan.startsWith("Update on accounts"));
+        assertFalse(plan, plan.contains("actual time"));
+    }
+}
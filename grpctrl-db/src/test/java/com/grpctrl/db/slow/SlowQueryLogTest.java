@@ -0,0 +1,178 @@
+package com.grpctrl.db.slow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+/**
+ * Perform testing on the {@link SlowQueryLog} class.
+ */
+public class SlowQueryLogTest {
+    // Fast enough that the statements recorded a millisecond apart are not rate limited.
+    private static final int UNLIMITED = 6_000_000;
+
+    private static DataSource dataSource(final PreparedStatement ps) throws SQLException {
+        final Connection conn = Mockito.mock(Connection.class);
+        Mockito.when(conn.prepareStatement(Mockito.anyString())).thenReturn(ps);
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(conn);
+        return dataSource;
+    }
+
+    private static PreparedStatement plan(final String... rows) throws SQLException {
+        final ResultSet rs = Mockito.mock(ResultSet.class);
+        final Boolean[] more = new Boolean[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            more[i] = i < rows.length - 1;
+        }
+        Mockito.when(rs.next()).thenReturn(true, more);
+        Mockito.when(rs.getString(1)).thenReturn(rows[0], Arrays.copyOfRange(rows, 1, rows.length));
+        final PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        Mockito.when(ps.executeQuery()).thenReturn(rs);
+        return ps;
+    }
+
+    private static SlowQueryLog create(final int capacity, final int perMinute, final Executor executor) {
+        return new SlowQueryLog(10, capacity, perMinute, 30, executor, new MetricRegistry());
+    }
+
+    @Test
+    public void testIsSlow() {
+        final SlowQueryLog log = create(10, UNLIMITED, Runnable::run);
+        assertFalse(log.isSlow(TimeUnit.MILLISECONDS.toNanos(9)));
+        assertTrue(log.isSlow(TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+
+    @Test
+    public void testRecordAnalyzesReads() throws Exception {
+        final PreparedStatement ps = plan("Seq Scan on accounts", "Buffers: shared hit=1");
+        final DataSource dataSource = dataSource(ps);
+        final SlowQueryLog log = create(10, UNLIMITED, Runnable::run);
+
+        final BoundParameter parameter = new BoundParameter(
+                PreparedStatement.class.getMethod("setString", int.class, String.class), new Object[] {1, "abc"});
+        log.record(dataSource, "SELECT *\n  FROM accounts\n WHERE name = ?", Collections.singletonList(parameter), true,
+                TimeUnit.MILLISECONDS.toNanos(25));
+
+        final List<SlowQuery> slowQueries = log.getSlowQueries();
+        assertEquals(1, slowQueries.size());
+        assertEquals("SELECT * FROM accounts WHERE name = ?", slowQueries.get(0).getSql());
+        assertEquals(25, slowQueries.get(0).getDurationMillis());
+        assertEquals(Collections.singletonList("String(3)"), slowQueries.get(0).getParameters());
+        assertEquals("Seq Scan on accounts\nBuffers: shared hit=1", slowQueries.get(0).getPlan());
+
+        final Connection conn = dataSource.getConnection();
+        Mockito.verify(conn).prepareStatement("EXPLAIN (ANALYZE, BUFFERS) SELECT *\n  FROM accounts\n WHERE name = ?");
+        Mockito.verify(ps).setQueryTimeout(30);
+        Mockito.verify(ps).setString(1, "abc");
+        Mockito.verify(conn).rollback();
+    }
+
+    @Test
+    public void testRecordDoesNotAnalyzeWrites() throws Exception {
+        final DataSource dataSource = dataSource(plan("Update on accounts"));
+        final SlowQueryLog log = create(10, UNLIMITED, Runnable::run);
+
+        log.record(dataSource, "UPDATE accounts SET name = 'a'", Collections.emptyList(), true, 0);
+        Thread.sleep(1);
+        log.record(dataSource, "WITH x AS (DELETE FROM accounts RETURNING *) SELECT * FROM x", Collections.emptyList(),
+                true, 0);
+
+        final Connection conn = dataSource.getConnection();
+        Mockito.verify(conn).prepareStatement("EXPLAIN UPDATE accounts SET name = 'a'");
+        Mockito.verify(conn).prepareStatement("EXPLAIN WITH x AS (DELETE FROM accounts RETURNING *) SELECT * FROM x");
+    }
+
+    @Test
+    public void testCapacity() throws Exception {
+        final DataSource dataSource = dataSource(plan("Result"));
+        final SlowQueryLog log = create(2, UNLIMITED, Runnable::run);
+
+        for (final String sql : new String[] {"SELECT 1", "SELECT 2", "SELECT 3"}) {
+            log.record(dataSource, sql, Collections.emptyList(), true, 0);
+            Thread.sleep(1);
+        }
+
+        final List<SlowQuery> slowQueries = log.getSlowQueries();
+        assertEquals(2, slowQueries.size());
+        assertEquals("SELECT 3", slowQueries.get(0).getSql());
+        assertEquals("SELECT 2", slowQueries.get(1).getSql());
+    }
+
+    @Test
+    public void testRateLimit() throws Exception {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+        final DataSource dataSource = dataSource(plan("Result"));
+        final SlowQueryLog log = new SlowQueryLog(10, 10, 1, 30, Runnable::run, metricRegistry);
+
+        log.record(dataSource, "SELECT 1", Collections.emptyList(), true, 0);
+        log.record(dataSource, "SELECT 2", Collections.emptyList(), true, 0);
+
+        // Only the first is recorded, but both are counted.
+        assertEquals(1, log.getSlowQueries().size());
+        assertEquals(2, metricRegistry.meter("com.grpctrl.db.slow.SlowQueryLog.slow-queries").getCount());
+        Mockito.verify(dataSource, Mockito.times(1)).getConnection();
+    }
+
+    @Test
+    public void testBatchNotExplained() throws Exception {
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        final SlowQueryLog log = create(10, UNLIMITED, Runnable::run);
+
+        log.record(dataSource, "INSERT INTO tags VALUES (?, ?)", Collections.emptyList(), false, 0);
+
+        assertEquals("Plans are not captured for batches", log.getSlowQueries().get(0).getPlan());
+        Mockito.verifyZeroInteractions(dataSource);
+    }
+
+    @Test
+    public void testExplainRejected() {
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        final SlowQueryLog log = create(10, UNLIMITED, runnable -> {
+            throw new RejectedExecutionException("Full");
+        });
+
+        log.record(dataSource, "SELECT 1", Collections.emptyList(), true, 0);
+
+        assertEquals("Too many plans are already being captured", log.getSlowQueries().get(0).getPlan());
+    }
+
+    @Test
+    public void testExplainFailure() throws SQLException {
+        final DataSource dataSource = Mockito.mock(DataSource.class);
+        Mockito.when(dataSource.getConnection()).thenThrow(new SQLException("Unavailable"));
+        final SlowQueryLog log = create(10, UNLIMITED, Runnable::run);
+
+        log.record(dataSource, "SELECT 1", Collections.emptyList(), true, 0);
+
+        assertEquals("Failed to capture plan: Unavailable", log.getSlowQueries().get(0).getPlan());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        create(0, UNLIMITED, Runnable::run);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRateLimit() {
+        create(10, 0, Runnable::run);
+    }
+}
@@ -0,0 +1,78 @@
+package com.grpctrl.db.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.db.DataSourceSupplier;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Perform testing on the {@link ResultStreamer} and {@link ResultStream} classes.
+ */
+public class ResultStreamerTest {
+    private static ResultStreamer streamer(final int fetchSize, final MetricRegistry metricRegistry) {
+        final DataSourceSupplier dataSourceSupplier = Mockito.mock(DataSourceSupplier.class);
+        Mockito.when(dataSourceSupplier.getFetchSize()).thenReturn(fetchSize);
+
+        final MetricRegistrySupplier metricRegistrySupplier = Mockito.mock(MetricRegistrySupplier.class);
+        Mockito.when(metricRegistrySupplier.get()).thenReturn(metricRegistry);
+
+        return new ResultStreamer(dataSourceSupplier, metricRegistrySupplier, ResultStreamerTest.class);
+    }
+
+    @Test
+    public void testStreamWithFetchSize() throws SQLException {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+
+        final ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.when(rs.next()).thenReturn(true, true, true, false);
+        final PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        Mockito.when(ps.executeQuery()).thenReturn(rs);
+
+        try (final ResultStream stream = streamer(50, metricRegistry).open(ps)) {
+            assertEquals(rs, stream.getResultSet());
+            while (stream.next()) {
+                assertTrue(stream.getRows() > 0);
+            }
+            assertEquals(3, stream.getRows());
+        }
+
+        Mockito.verify(ps).setFetchDirection(ResultSet.FETCH_FORWARD);
+        Mockito.verify(ps).setFetchSize(50);
+        Mockito.verify(rs).close();
+
+        final String prefix = ResultStreamerTest.class.getName();
+        assertEquals(3, metricRegistry.meter(prefix + ".rows-streamed").getCount());
+        assertEquals(1, metricRegistry.timer(prefix + ".time-to-first-row").getCount());
+    }
+
+    @Test
+    public void testStreamWithoutFetchSize() throws SQLException {
+        final MetricRegistry metricRegistry = new MetricRegistry();
+
+        final ResultSet rs = Mockito.mock(ResultSet.class);
+        Mockito.when(rs.next()).thenReturn(false);
+        final PreparedStatement ps = Mockito.mock(PreparedStatement.class);
+        Mockito.when(ps.executeQuery()).thenReturn(rs);
+
+        try (final ResultStream stream = streamer(0, metricRegistry).open(ps)) {
+            assertFalse(stream.next());
+        }
+
+        Mockito.verify(ps, Mockito.never()).setFetchSize(Mockito.anyInt());
+
+        // No rows were streamed, so there is no time-to-first-row measurement.
+        final String prefix = ResultStreamerTest.class.getName();
+        assertEquals(0, metricRegistry.meter(prefix + ".rows-streamed").getCount());
+        assertEquals(0, metricRegistry.timer(prefix + ".time-to-first-row").getCount());
+    }
+}
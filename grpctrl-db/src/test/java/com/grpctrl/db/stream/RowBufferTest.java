@@ -0,0 +1,70 @@
+package com.grpctrl.db.stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Perform testing on the {@link RowBuffer} class.
+ */
+public class RowBufferTest {
+    @Test
+    public void testBuffered() {
+        final List<Integer> received = new ArrayList<>();
+        final RowBuffer<Integer> buffer = new RowBuffer<>(3, received::add);
+
+        buffer.accept(1);
+        buffer.accept(2);
+        buffer.accept(3);
+        assertTrue(received.isEmpty());
+        assertFalse(buffer.isOverflowed());
+
+        buffer.flush();
+        assertEquals(Arrays.asList(1, 2, 3), received);
+
+        // Flushing again does not pass the rows along a second time.
+        buffer.flush();
+        assertEquals(Arrays.asList(1, 2, 3), received);
+    }
+
+    @Test
+    public void testOverflow() {
+        final List<Integer> received = new ArrayList<>();
+        final RowBuffer<Integer> buffer = new RowBuffer<>(2, received::add);
+
+        buffer.accept(1);
+        buffer.accept(2);
+        assertTrue(received.isEmpty());
+
+        // Exceeding the capacity passes the buffered rows and all later rows straight through, in order.
+        buffer.accept(3);
+        assertTrue(buffer.isOverflowed());
+        assertEquals(Arrays.asList(1, 2, 3), received);
+
+        buffer.accept(4);
+        assertEquals(Arrays.asList(1, 2, 3, 4), received);
+
+        buffer.flush();
+        assertEquals(Arrays.asList(1, 2, 3, 4), received);
+    }
+
+    @Test
+    public void testEmpty() {
+        final List<Integer> received = new ArrayList<>();
+        final RowBuffer<Integer> buffer = new RowBuffer<>(2, received::add);
+        buffer.flush();
+        assertEquals(Collections.emptyList(), received);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullDownstream() {
+        new RowBuffer<Integer>(2, null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.grpctrl.db.usage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+/**
+ * Perform testing on the {@link AccountUsageCache} class.
+ */
+public class AccountUsageCacheTest {
+    @Test
+    public void testPutAndGet() {
+        final AccountUsageCache cache = new AccountUsageCache();
+        assertFalse(cache.get(1).isPresent());
+
+        final AccountUsage usage = new AccountUsage(1, 2, 3, 1, 1);
+        assertTrue(cache.put(usage));
+        assertEquals(Optional.of(usage), cache.get(1));
+        assertFalse(cache.get(2).isPresent());
+    }
+
+    @Test
+    public void testOlderVersionIgnored() {
+        final AccountUsageCache cache = new AccountUsageCache();
+
+        final AccountUsage newer = new AccountUsage(1, 5, 5, 2, 4);
+        assertTrue(cache.put(newer));
+
+        // Usage published out of order does not replace the newer usage.
+        assertFalse(cache.put(new AccountUsage(1, 4, 4, 2, 3)));
+        assertFalse(cache.put(new AccountUsage(1, 4, 4, 2, 4)));
+        assertEquals(Optional.of(newer), cache.get(1));
+
+        final AccountUsage newest = new AccountUsage(1, 3, 3, 2, 5);
+        assertTrue(cache.put(newest));
+        assertEquals(Optional.of(newest), cache.get(1));
+    }
+
+    @Test
+    public void testInvalidate() {
+        final AccountUsageCache cache = new AccountUsageCache();
+        cache.put(new AccountUsage(1, 5, 5, 2, 4));
+        cache.invalidate(1);
+        assertFalse(cache.get(1).isPresent());
+
+        // Once dropped, usage with any version can be stored.
+        assertTrue(cache.put(new AccountUsage(1, 1, 1, 1, 1)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final AccountUsageCache cache = new AccountUsageCache(1, 2);
+        cache.put(new AccountUsage(1, 0, 0, 0, 1));
+        cache.put(new AccountUsage(2, 0, 0, 0, 1));
+
+        // Reading the first account makes the second the least recently used.
+        assertTrue(cache.get(1).isPresent());
+        cache.put(new AccountUsage(3, 0, 0, 0, 1));
+
+        assertTrue(cache.get(1).isPresent());
+        assertFalse(cache.get(2).isPresent());
+        assertTrue(cache.get(3).isPresent());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testStripesNotPowerOfTwo() {
+        new AccountUsageCache(3, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidStripeSize() {
+        new AccountUsageCache(2, 0);
+    }
+}
@@ -2,9 +2,13 @@ package com.grpctrl.rest;
 
 import com.grpctrl.common.supplier.ObjectMapperSupplier;
 import com.grpctrl.rest.providers.AccountLookupFilter;
+import com.grpctrl.rest.providers.AccountUsageReconciler;
+import com.grpctrl.rest.providers.ConnectionPoolSizer;
 import com.grpctrl.rest.providers.GenericExceptionMapper;
 import com.grpctrl.rest.providers.MemoryUsageLogger;
+import com.grpctrl.rest.providers.ReplicaLagMonitor;
 import com.grpctrl.rest.providers.RequestLoggingFilter;
+import com.grpctrl.rest.providers.TombstonePurger;
 import com.grpctrl.rest.providers.UserLookupFilter;
 import com.grpctrl.rest.resource.auth.Login;
 import com.grpctrl.rest.resource.auth.Logout;
@@ -13,7 +17,10 @@ import com.grpctrl.rest.resource.v1.account.AccountGet;
 import com.grpctrl.rest.resource.v1.account.AccountGetAll;
 import com.grpctrl.rest.resource.v1.account.AccountRemove;
 import com.grpctrl.rest.resource.v1.group.GroupAdd;
+import com.grpctrl.rest.resource.v1.group.GroupDescendants;
+import com.grpctrl.rest.resource.v1.group.GroupMove;
 import com.grpctrl.rest.resource.v1.status.AccountStatus;
+import com.grpctrl.rest.resource.v1.status.SlowQueryStatus;
 
 import org.glassfish.jersey.message.GZipEncoder;
 import org.glassfish.jersey.server.ResourceConfig;
@@ -40,13 +47,20 @@ public class ApiApplication extends ResourceConfig {
         register(AccountGetAll.class);
         register(AccountStatus.class);
         register(GroupAdd.class);
+        register(GroupDescendants.class);
+        register(GroupMove.class);
         register(Login.class);
         register(Logout.class);
+        register(SlowQueryStatus.class);
 
         register(RequestLoggingFilter.class);
         register(UserLookupFilter.class);
         register(AccountLookupFilter.class);
         register(MemoryUsageLogger.class);
+        register(AccountUsageReconciler.class);
+        register(TombstonePurger.class);
+        register(ConnectionPoolSizer.class);
+        register(ReplicaLagMonitor.class);
         register(GenericExceptionMapper.class);
 
         EncodingFilter.enableFor(this, GZipEncoder.class);
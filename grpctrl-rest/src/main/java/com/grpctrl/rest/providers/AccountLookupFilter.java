@@ -2,7 +2,7 @@ package com.grpctrl.rest.providers;
 
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.ApiLogin;
-import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.cache.AccountCacheSupplier;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -22,7 +22,8 @@ import javax.ws.rs.container.ContainerRequestFilter;
 import javax.ws.rs.ext.Provider;
 
 /**
- * Injects account information into the request based on input headers.
+ * Injects account information into the request based on input headers. The accounts are found through the
+ * {@link AccountCacheSupplier}, so most requests do not need to query the database.
  */
 @Provider
 public class AccountLookupFilter implements ContainerRequestFilter {
@@ -31,11 +32,11 @@ public class AccountLookupFilter implements ContainerRequestFilter {
     public static final String ACCOUNT_PROPERTY = "grpctrl.account";
 
     @Nonnull
-    private final AccountDaoSupplier accountDaoSupplier;
+    private final AccountCacheSupplier accountCacheSupplier;
 
     @Inject
-    public AccountLookupFilter(@Nonnull final AccountDaoSupplier accountDaoSupplier) {
-        this.accountDaoSupplier = Objects.requireNonNull(accountDaoSupplier);
+    public AccountLookupFilter(@Nonnull final AccountCacheSupplier accountCacheSupplier) {
+        this.accountCacheSupplier = Objects.requireNonNull(accountCacheSupplier);
     }
 
     @Override
@@ -43,7 +44,7 @@ public class AccountLookupFilter implements ContainerRequestFilter {
         final Optional<ApiLogin> apiLogin = getApiLogin(requestContext);
 
         if (apiLogin.isPresent()) {
-            final Optional<Account> account = this.accountDaoSupplier.get().get(apiLogin.get());
+            final Optional<Account> account = this.accountCacheSupplier.get().get(apiLogin.get());
             if (!account.isPresent()) {
                 throw new BadRequestException("Failed to find account corresponding to the specified api key");
             }
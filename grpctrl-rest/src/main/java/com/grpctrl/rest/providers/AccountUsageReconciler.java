@@ -0,0 +1,87 @@
+package com.grpctrl.rest.providers;
+
+import com.codahale.metrics.MetricRegistry;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.common.supplier.ScheduledExecutorServiceSupplier;
+import com.grpctrl.db.dao.AccountUsageDao;
+import com.grpctrl.db.dao.supplier.AccountUsageDaoSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Responsible for periodically reconciling the stored account usage with the groups and tags owned by each account,
+ * logging and counting any accounts whose usage had drifted.
+ */
+@Provider
+public class AccountUsageReconciler implements ContainerRequestFilter, Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(AccountUsageReconciler.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    @Nonnull
+    private final AccountUsageDaoSupplier accountUsageDaoSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+
+    /**
+     * Create the reconciler and schedule it to run periodically.
+     *
+     * @param configSupplier the {@link ConfigSupplier} providing the reconcile interval
+     * @param executorServiceSupplier the {@link ScheduledExecutorServiceSupplier} used to schedule the reconciler
+     * @param accountUsageDaoSupplier the {@link AccountUsageDaoSupplier} used to reconcile the account usage
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to count the drifted accounts
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public AccountUsageReconciler(
+            @Nonnull final ConfigSupplier configSupplier,
+            @Nonnull final ScheduledExecutorServiceSupplier executorServiceSupplier,
+            @Nonnull final AccountUsageDaoSupplier accountUsageDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
+        this.accountUsageDaoSupplier = Objects.requireNonNull(accountUsageDaoSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+
+        final long interval = Objects.requireNonNull(configSupplier).get()
+                .getDuration(ConfigKeys.DB_USAGE_RECONCILE_INTERVAL.getKey(), TimeUnit.SECONDS);
+        Objects.requireNonNull(executorServiceSupplier).get()
+                .scheduleWithFixedDelay(this, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void run() {
+        try {
+            final AccountUsageDao accountUsageDao = this.accountUsageDaoSupplier.get();
+            final String driftMetric = MetricRegistry.name(AccountUsageReconciler.class, "drifted-accounts");
+
+            Optional<Long> after = Optional.of(0L);
+            while (after.isPresent()) {
+                after = accountUsageDao.reconcile(after.get(), BATCH_SIZE, (stored, actual) -> {
+                    LOG.warn("Corrected drifted account usage from {} to {}", stored, actual);
+                    this.metricRegistrySupplier.get().counter(driftMetric).inc();
+                });
+            }
+        } catch (final RuntimeException exception) {
+            // Do not let the exception cancel future runs of the reconciler.
+            LOG.error("Failed to reconcile account usage", exception);
+        }
+    }
+
+    @Override
+    public void filter(@Nonnull final ContainerRequestContext requestContext) throws IOException {
+    }
+}
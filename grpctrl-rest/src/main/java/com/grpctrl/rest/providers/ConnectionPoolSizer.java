@@ -0,0 +1,82 @@
+package com.grpctrl.rest.providers;
+
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.ScheduledExecutorServiceSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.pool.PoolSizer;
+import com.typesafe.config.Config;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Responsible for periodically resizing the database connection pool, when enabled, based on how long requests wait
+ * for a connection and how long the database operations hold them. See {@link PoolSizer} for how the size is chosen.
+ */
+@Provider
+public class ConnectionPoolSizer implements ContainerRequestFilter, Runnable {
+    @Nonnull
+    private final DataSourceSupplier dataSourceSupplier;
+
+    private final int minimum;
+    private final int maximum;
+    private final long waitTarget;
+    private final long latencyLimit;
+
+    @Nullable
+    private PoolSizer poolSizer;
+
+    /**
+     * Create the sizer and, when enabled, schedule it to run periodically.
+     *
+     * @param configSupplier the {@link ConfigSupplier} providing the sizing bounds, targets, and interval
+     * @param executorServiceSupplier the {@link ScheduledExecutorServiceSupplier} used to schedule the sizer
+     * @param dataSourceSupplier the {@link DataSourceSupplier} providing the connection pool to resize
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public ConnectionPoolSizer(
+            @Nonnull final ConfigSupplier configSupplier,
+            @Nonnull final ScheduledExecutorServiceSupplier executorServiceSupplier,
+            @Nonnull final DataSourceSupplier dataSourceSupplier) {
+        this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+
+        final Config config = Objects.requireNonNull(configSupplier).get();
+        this.minimum = config.getInt(ConfigKeys.DB_POOL_SIZING_MINIMUM.getKey());
+        this.maximum = config.getInt(ConfigKeys.DB_POOL_SIZING_MAXIMUM.getKey());
+        this.waitTarget = config.getDuration(ConfigKeys.DB_POOL_SIZING_WAIT_TARGET.getKey(), TimeUnit.MILLISECONDS);
+        this.latencyLimit =
+                config.getDuration(ConfigKeys.DB_POOL_SIZING_LATENCY_LIMIT.getKey(), TimeUnit.MILLISECONDS);
+
+        if (config.getBoolean(ConfigKeys.DB_POOL_SIZING_ENABLED.getKey())) {
+            final long interval = config.getDuration(ConfigKeys.DB_POOL_SIZING_INTERVAL.getKey(), TimeUnit.SECONDS);
+            Objects.requireNonNull(executorServiceSupplier).get()
+                    .scheduleWithFixedDelay(this, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public void run() {
+        // Created on the first run, rather than in the constructor, so the pool is not started before it is needed.
+        if (this.poolSizer == null) {
+            this.poolSizer = new PoolSizer(this.dataSourceSupplier.getPoolConfig(),
+                    this.dataSourceSupplier.getPoolMonitor(), this.minimum, this.maximum, this.waitTarget,
+                    this.latencyLimit);
+        }
+        this.poolSizer.run();
+    }
+
+    @Override
+    public void filter(@Nonnull final ContainerRequestContext requestContext) throws IOException {
+    }
+}
@@ -0,0 +1,74 @@
+package com.grpctrl.rest.providers;
+
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.ScheduledExecutorServiceSupplier;
+import com.grpctrl.db.DataSourceSupplier;
+import com.typesafe.config.Config;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Responsible for periodically sampling the replication lag of the read replica, when one is configured, so the
+ * read-only queries are routed on the latest sample without waiting for the lag to be measured.
+ */
+@Provider
+public class ReplicaLagMonitor implements ContainerRequestFilter, Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    @Nonnull
+    private final DataSourceSupplier dataSourceSupplier;
+
+    /**
+     * Create the monitor and, when a replica is configured, schedule it to run periodically.
+     *
+     * @param configSupplier the {@link ConfigSupplier} providing the replica configuration and check interval
+     * @param executorServiceSupplier the {@link ScheduledExecutorServiceSupplier} used to schedule the monitor
+     * @param dataSourceSupplier the {@link DataSourceSupplier} providing the replica to check
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public ReplicaLagMonitor(
+            @Nonnull final ConfigSupplier configSupplier,
+            @Nonnull final ScheduledExecutorServiceSupplier executorServiceSupplier,
+            @Nonnull final DataSourceSupplier dataSourceSupplier) {
+        this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+
+        final Config config = Objects.requireNonNull(configSupplier).get();
+        if (config.hasPath(ConfigKeys.DB_REPLICA_URL.getKey())
+                && StringUtils.isNotBlank(config.getString(ConfigKeys.DB_REPLICA_URL.getKey()))) {
+            // Checked right away, since the reads use the primary database until the replica has first been checked.
+            final long interval =
+                    config.getDuration(ConfigKeys.DB_REPLICA_CHECK_INTERVAL.getKey(), TimeUnit.MILLISECONDS);
+            Objects.requireNonNull(executorServiceSupplier).get()
+                    .scheduleWithFixedDelay(this, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            this.dataSourceSupplier.checkReplica();
+        } catch (final RuntimeException exception) {
+            // Do not let the exception cancel future runs of the monitor.
+            LOG.error("Failed to check the replication lag of the read replica", exception);
+        }
+    }
+
+    @Override
+    public void filter(@Nonnull final ContainerRequestContext requestContext) throws IOException {
+    }
+}
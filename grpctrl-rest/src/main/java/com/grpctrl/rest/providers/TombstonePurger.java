@@ -0,0 +1,132 @@
+package com.grpctrl.rest.providers;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.grpctrl.common.config.ConfigKeys;
+import com.grpctrl.common.supplier.ConfigSupplier;
+import com.grpctrl.common.supplier.MetricRegistrySupplier;
+import com.grpctrl.common.supplier.ScheduledExecutorServiceSupplier;
+import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.dao.supplier.GroupDaoSupplier;
+import com.typesafe.config.Config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Responsible for periodically deleting the accounts and groups that have been removed, and are only marked as
+ * deleted, from the database. The rows are deleted in small transactions with a pause between each of them, so large
+ * removals do not hold locks or load the database for long periods of time. Each run purges a single batch and then
+ * schedules the next run, so a large purge never holds one of the shared scheduler threads for long.
+ */
+@Provider
+public class TombstonePurger implements ContainerRequestFilter, Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(TombstonePurger.class);
+
+    @Nonnull
+    private final ScheduledExecutorService executor;
+    @Nonnull
+    private final GroupDaoSupplier groupDaoSupplier;
+    @Nonnull
+    private final AccountDaoSupplier accountDaoSupplier;
+    @Nonnull
+    private final MetricRegistrySupplier metricRegistrySupplier;
+
+    private final int batchSize;
+    private final long pause;
+    private final long interval;
+
+    // The number of rows purged of each type since the last run that found nothing, only used by the scheduled runs.
+    @Nonnull
+    private final Map<String, Long> totals = new HashMap<>();
+
+    /**
+     * Create the purger and schedule it to run periodically.
+     *
+     * @param configSupplier the {@link ConfigSupplier} providing the purge interval, batch size, and pause
+     * @param executorServiceSupplier the {@link ScheduledExecutorServiceSupplier} used to schedule the purger
+     * @param groupDaoSupplier the {@link GroupDaoSupplier} used to purge the removed groups
+     * @param accountDaoSupplier the {@link AccountDaoSupplier} used to purge the removed accounts
+     * @param metricRegistrySupplier the {@link MetricRegistrySupplier} used to track the purge progress
+     *
+     * @throws NullPointerException if any of the provided parameters are {@code null}
+     */
+    @Inject
+    public TombstonePurger(
+            @Nonnull final ConfigSupplier configSupplier,
+            @Nonnull final ScheduledExecutorServiceSupplier executorServiceSupplier,
+            @Nonnull final GroupDaoSupplier groupDaoSupplier,
+            @Nonnull final AccountDaoSupplier accountDaoSupplier,
+            @Nonnull final MetricRegistrySupplier metricRegistrySupplier) {
+        this.executor = Objects.requireNonNull(executorServiceSupplier).get();
+        this.groupDaoSupplier = Objects.requireNonNull(groupDaoSupplier);
+        this.accountDaoSupplier = Objects.requireNonNull(accountDaoSupplier);
+        this.metricRegistrySupplier = Objects.requireNonNull(metricRegistrySupplier);
+
+        final Config config = Objects.requireNonNull(configSupplier).get();
+        this.batchSize = config.getInt(ConfigKeys.DB_PURGE_BATCH_SIZE.getKey());
+        this.pause = config.getDuration(ConfigKeys.DB_PURGE_PAUSE.getKey(), TimeUnit.MILLISECONDS);
+        this.interval = config.getDuration(ConfigKeys.DB_PURGE_INTERVAL.getKey(), TimeUnit.MILLISECONDS);
+
+        this.executor.schedule(this, this.interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        boolean purged = false;
+        try {
+            // The groups are purged first, since the removed accounts are only deleted once they own no more groups.
+            purged = purge("groups", () -> this.groupDaoSupplier.get().purge(this.batchSize))
+                    || purge("accounts", () -> this.accountDaoSupplier.get().purge(this.batchSize));
+        } catch (final RuntimeException exception) {
+            // Do not let the exception cancel future runs of the purger.
+            LOG.error("Failed to purge removed accounts and groups", exception);
+        } finally {
+            // Only the groups without children are purged in each batch, so keep going, after a short pause, until a
+            // batch finds nothing, and then wait for the full interval.
+            this.executor.schedule(this, purged ? this.pause : this.interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private boolean purge(@Nonnull final String type, @Nonnull final IntSupplier batch) {
+        final MetricRegistry metricRegistry = this.metricRegistrySupplier.get();
+        final Timer timer = metricRegistry.timer(MetricRegistry.name(TombstonePurger.class, type, "batch"));
+
+        final int purged;
+        final Timer.Context context = timer.time();
+        try {
+            purged = batch.getAsInt();
+        } finally {
+            context.stop();
+        }
+        metricRegistry.counter(MetricRegistry.name(TombstonePurger.class, "purged-" + type)).inc(purged);
+
+        if (purged > 0) {
+            this.totals.merge(type, (long) purged, Long::sum);
+            return true;
+        }
+        final Long total = this.totals.remove(type);
+        if (total != null) {
+            LOG.info("Purged {} removed {}", total, type);
+        }
+        return false;
+    }
+
+    @Override
+    public void filter(@Nonnull final ContainerRequestContext requestContext) throws IOException {
+    }
+}
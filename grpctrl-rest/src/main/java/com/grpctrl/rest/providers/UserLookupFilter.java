@@ -4,6 +4,7 @@ import com.google.common.base.Charsets;
 import com.grpctrl.common.model.User;
 import com.grpctrl.common.model.UserAuth;
 import com.grpctrl.common.model.UserSource;
+import com.grpctrl.db.cache.UserCacheSupplier;
 import com.grpctrl.db.dao.supplier.UserDaoSupplier;
 
 import org.apache.commons.lang3.StringUtils;
@@ -30,7 +31,8 @@ import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.ext.Provider;
 
 /**
- * Injects user information into the request based on input headers.
+ * Injects user information into the request based on input headers. Credentials that were recently validated are
+ * found in the {@link UserCacheSupplier}, so most requests do not need to query the database or hash the password.
  */
 @Provider
 public class UserLookupFilter implements ContainerRequestFilter {
@@ -38,10 +40,14 @@ public class UserLookupFilter implements ContainerRequestFilter {
 
     @Nonnull
     private final UserDaoSupplier userDaoSupplier;
+    @Nonnull
+    private final UserCacheSupplier userCacheSupplier;
 
     @Inject
-    public UserLookupFilter(@Nonnull final UserDaoSupplier userDaoSupplier) {
+    public UserLookupFilter(
+            @Nonnull final UserDaoSupplier userDaoSupplier, @Nonnull final UserCacheSupplier userCacheSupplier) {
         this.userDaoSupplier = Objects.requireNonNull(userDaoSupplier);
+        this.userCacheSupplier = Objects.requireNonNull(userCacheSupplier);
     }
 
     @Override
@@ -56,24 +62,31 @@ public class UserLookupFilter implements ContainerRequestFilter {
         final Optional<Pair<String, String>> login = getAuthorization(requestContext);
 
         if (login.isPresent()) {
-            // Fetch the corresponding user.
-            final Optional<User> user = this.userDaoSupplier.get().get(UserSource.LOCAL, login.get().getKey());
-            if (!user.isPresent()) {
-                throw new ForbiddenException("User login or password invalid (user not found)");
-            }
-
-            // Validate the user password.
-            final Optional<UserAuth> userAuth = user.get().getUserAuth();
-            if (!userAuth.isPresent()) {
-                throw new ForbiddenException("User login or password invalid (user auth not present)");
-            }
-            if (!userAuth.get().validate(login.get().getValue())) {
-                throw new ForbiddenException("User login or password invalid (password validation failed)");
-            }
+            final User user = this.userCacheSupplier.get()
+                    .get(login.get().getKey(), login.get().getValue(), () -> validate(login.get()));
 
             // Update the security context for this user.
-            requestContext.setSecurityContext(user.get());
+            requestContext.setSecurityContext(user);
+        }
+    }
+
+    @Nonnull
+    private User validate(@Nonnull final Pair<String, String> login) {
+        // Fetch the corresponding user.
+        final Optional<User> user = this.userDaoSupplier.get().get(UserSource.LOCAL, login.getKey());
+        if (!user.isPresent()) {
+            throw new ForbiddenException("User login or password invalid (user not found)");
+        }
+
+        // Validate the user password.
+        final Optional<UserAuth> userAuth = user.get().getUserAuth();
+        if (!userAuth.isPresent()) {
+            throw new ForbiddenException("User login or password invalid (user auth not present)");
+        }
+        if (!userAuth.get().validate(login.getValue())) {
+            throw new ForbiddenException("User login or password invalid (password validation failed)");
         }
+        return user.get();
     }
 
     private Optional<Pair<String, String>> getAuthorization(@Nonnull final ContainerRequestContext requestContext) {
@@ -3,12 +3,15 @@ package com.grpctrl.rest.resource.v1;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.model.User;
 import com.grpctrl.common.model.UserRole;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
 import com.grpctrl.rest.providers.AccountLookupFilter;
 
 import java.util.Objects;
 import java.util.Optional;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.ws.rs.BadRequestException;
 import javax.ws.rs.ForbiddenException;
 import javax.ws.rs.container.ContainerRequestContext;
@@ -18,6 +21,11 @@ import javax.ws.rs.core.SecurityContext;
  * The base class for resources.
  */
 public class BaseResource {
+    /**
+     * The largest number of results that can be requested in a single page.
+     */
+    public static final int MAX_PAGE_LIMIT = 1000;
+
     public Optional<Account> getAccount(@Nonnull final ContainerRequestContext requestContext) {
         return Optional.ofNullable((Account) requestContext.getProperty(AccountLookupFilter.ACCOUNT_PROPERTY));
     }
@@ -44,4 +52,25 @@ public class BaseResource {
             throw new ForbiddenException("Access to resource requires role: " + userRole.name());
         }
     }
+
+    /**
+     * @param limit the maximum number of results requested by the client
+     * @param next the continuation token provided by the client to retrieve the next page, possibly {@code null} when
+     *     requesting the first page
+     *
+     * @return the requested page of results, with the limit capped at {@link #MAX_PAGE_LIMIT}
+     *
+     * @throws BadRequestException if the limit is not positive or the continuation token is invalid
+     */
+    @Nonnull
+    public Page getPage(final int limit, @Nullable final String next) {
+        if (limit < 1) {
+            throw new BadRequestException("The page limit must be positive");
+        }
+        try {
+            return new Page(Math.min(limit, MAX_PAGE_LIMIT), next == null ? null : PageToken.decode(next));
+        } catch (final IllegalArgumentException invalid) {
+            throw new BadRequestException("The provided continuation token is not valid", invalid);
+        }
+    }
 }
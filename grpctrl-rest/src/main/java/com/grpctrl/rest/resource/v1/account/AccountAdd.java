@@ -15,10 +15,12 @@ import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.InternalServerErrorException;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -26,7 +28,8 @@ import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.StreamingOutput;
 
 /**
- * Add accounts to the backing data store.
+ * Add accounts to the backing data store. Large payloads should be added with the {@code bulk} query parameter, which
+ * loads all of the accounts in a single bulk operation instead of in batches.
  */
 @Singleton
 @Path("/v1/account/")
@@ -42,7 +45,8 @@ public class AccountAdd extends BaseAccountResource {
 
     @POST
     public Response add(
-            @Nonnull @Context final SecurityContext securityContext, @Nonnull final InputStream inputStream) {
+            @Nonnull @Context final SecurityContext securityContext,
+            @QueryParam("bulk") @DefaultValue("false") final boolean bulk, @Nonnull final InputStream inputStream) {
         requireRole(securityContext, UserRole.ADMIN);
 
         final StreamingOutput streamingOutput = new MultipleAccountStreamer(getObjectMapperSupplier(), consumer -> {
@@ -59,7 +63,11 @@ public class AccountAdd extends BaseAccountResource {
                     final JsonToken firstAccount = jsonParser.nextToken();
                     if (firstAccount == JsonToken.START_OBJECT) {
                         final Iterator<Account> iter = jsonParser.readValuesAs(Account.class);
-                        getAccountDaoSupplier().get().add(iter, consumer);
+                        if (bulk) {
+                            getAccountDaoSupplier().get().bulkAdd(iter, consumer);
+                        } else {
+                            getAccountDaoSupplier().get().add(iter, consumer);
+                        }
                     }
                 }
             } catch (final IOException ioException) {
@@ -1,19 +1,24 @@
 package com.grpctrl.rest.resource.v1.account;
 
-import com.grpctrl.common.model.Account;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.grpctrl.common.model.UserRole;
 import com.grpctrl.common.supplier.ObjectMapperSupplier;
 import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
 
-import java.util.function.Consumer;
+import java.util.Optional;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -21,14 +26,12 @@ import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.StreamingOutput;
 
 /**
- * Retrieve all of the accounts in the system.
+ * Retrieve all of the accounts in the system, one page at a time.
  */
 @Singleton
 @Path("/v1/account/")
 @Produces(MediaType.APPLICATION_JSON)
 public class AccountGetAll extends BaseAccountResource {
-    private final Consumer<Consumer<Account>> consumer = consumer -> getAccountDaoSupplier().get().getAll(consumer);
-
     @Inject
     public AccountGetAll(
             @Nonnull final ObjectMapperSupplier objectMapperSupplier,
@@ -38,10 +41,17 @@ public class AccountGetAll extends BaseAccountResource {
 
     @GET
     @Nullable
-    public Response getAll(@Nonnull @Context SecurityContext securityContext) {
+    public Response getAll(
+            @Nonnull @Context final SecurityContext securityContext,
+            @QueryParam("limit") @DefaultValue("100") final int limit,
+            @Nullable @QueryParam("next") final String next) {
         requireRole(securityContext, UserRole.ADMIN);
 
-        final StreamingOutput streamingOutput = new MultipleAccountStreamer(getObjectMapperSupplier(), this.consumer);
+        final Page page = getPage(limit, next);
+        // The accounts are written straight from the query results, without creating account objects.
+        final Function<JsonGenerator, Optional<PageToken>> producer =
+                generator -> getAccountDaoSupplier().get().writeAll(page, generator);
+        final StreamingOutput streamingOutput = new AccountPageStreamer(getObjectMapperSupplier(), producer);
 
         return Response.ok().entity(streamingOutput).type(MediaType.APPLICATION_JSON).build();
     }
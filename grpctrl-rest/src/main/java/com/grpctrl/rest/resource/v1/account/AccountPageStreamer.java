@@ -0,0 +1,73 @@
+package com.grpctrl.rest.resource.v1.account;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.grpctrl.common.supplier.ObjectMapperSupplier;
+import com.grpctrl.db.page.PageToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Responsible for streaming a page of accounts as JSON, with the accounts written directly to the JSON generator by
+ * the producer. The output matches the {@link MultipleAccountStreamer}.
+ */
+public class AccountPageStreamer implements StreamingOutput {
+    @Nonnull
+    private final ObjectMapperSupplier objectMapperSupplier;
+    @Nonnull
+    private final Function<JsonGenerator, Optional<PageToken>> producer;
+
+    /**
+     * @param objectMapperSupplier responsible for generating JSON data
+     * @param producer the function responsible for writing a page of accounts to the JSON generator, returning the
+     *     continuation token for the next page when more accounts are available
+     */
+    public AccountPageStreamer(
+            @Nonnull final ObjectMapperSupplier objectMapperSupplier,
+            @Nonnull final Function<JsonGenerator, Optional<PageToken>> producer) {
+        this.objectMapperSupplier = Objects.requireNonNull(objectMapperSupplier);
+        this.producer = Objects.requireNonNull(producer);
+    }
+
+    /**
+     * @return the object mapper responsible for generating JSON data
+     */
+    @Nonnull
+    public ObjectMapperSupplier getObjectMapperSupplier() {
+        return this.objectMapperSupplier;
+    }
+
+    /**
+     * @return the function that will write the account data to our JSON generator, providing the continuation token
+     *     for the next page, if any
+     */
+    @Nonnull
+    public Function<JsonGenerator, Optional<PageToken>> getProducer() {
+        return this.producer;
+    }
+
+    @Override
+    public void write(@Nonnull final OutputStream output) throws IOException, WebApplicationException {
+        try (final JsonGenerator generator = getObjectMapperSupplier().get().getFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeFieldName("success");
+            generator.writeBoolean(true);
+            generator.writeFieldName("accounts");
+            generator.writeStartArray();
+            final Optional<PageToken> next = getProducer().apply(generator);
+            generator.writeEndArray();
+            if (next.isPresent()) {
+                generator.writeFieldName("next");
+                generator.writeString(next.get().encode());
+            }
+            generator.writeEndObject();
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.grpctrl.rest.resource.v1.account;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.grpctrl.common.model.Account;
 import com.grpctrl.common.supplier.ObjectMapperSupplier;
+import com.grpctrl.db.page.PageToken;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import javax.annotation.Nonnull;
 import javax.ws.rs.InternalServerErrorException;
@@ -21,7 +24,7 @@ public class MultipleAccountStreamer implements StreamingOutput {
     @Nonnull
     private final ObjectMapperSupplier objectMapperSupplier;
     @Nonnull
-    private final Consumer<Consumer<Account>> consumer;
+    private final Function<Consumer<Account>, Optional<PageToken>> producer;
 
     /**
      * @param objectMapperSupplier responsible for generating JSON data
@@ -30,8 +33,22 @@ public class MultipleAccountStreamer implements StreamingOutput {
     public MultipleAccountStreamer(
             @Nonnull final ObjectMapperSupplier objectMapperSupplier,
             @Nonnull final Consumer<Consumer<Account>> consumer) {
+        this(objectMapperSupplier, writer -> {
+            Objects.requireNonNull(consumer).accept(writer);
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * @param objectMapperSupplier responsible for generating JSON data
+     * @param producer the function responsible for pushing a page of account objects through this class, returning
+     *     the continuation token for the next page when more accounts are available
+     */
+    public MultipleAccountStreamer(
+            @Nonnull final ObjectMapperSupplier objectMapperSupplier,
+            @Nonnull final Function<Consumer<Account>, Optional<PageToken>> producer) {
         this.objectMapperSupplier = Objects.requireNonNull(objectMapperSupplier);
-        this.consumer = Objects.requireNonNull(consumer);
+        this.producer = Objects.requireNonNull(producer);
     }
 
     /**
@@ -43,11 +60,12 @@ public class MultipleAccountStreamer implements StreamingOutput {
     }
 
     /**
-     * @return the consumer that will accept our writing consumer as input when processing the account data
+     * @return the function that will accept our writing consumer as input when processing the account data, providing
+     *     the continuation token for the next page, if any
      */
     @Nonnull
-    public Consumer<Consumer<Account>> getConsumer() {
-        return this.consumer;
+    public Function<Consumer<Account>, Optional<PageToken>> getProducer() {
+        return this.producer;
     }
 
     @Override
@@ -58,7 +76,7 @@ public class MultipleAccountStreamer implements StreamingOutput {
             generator.writeBoolean(true);
             generator.writeFieldName("accounts");
             generator.writeStartArray();
-            getConsumer().accept(account -> {
+            final Optional<PageToken> next = getProducer().apply(account -> {
                 try {
                     generator.writeObject(account);
                 } catch (final IOException ioException) {
@@ -66,6 +84,10 @@ public class MultipleAccountStreamer implements StreamingOutput {
                 }
             });
             generator.writeEndArray();
+            if (next.isPresent()) {
+                generator.writeFieldName("next");
+                generator.writeString(next.get().encode());
+            }
             generator.writeEndObject();
         }
     }
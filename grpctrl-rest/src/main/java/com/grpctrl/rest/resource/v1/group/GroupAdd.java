@@ -1,26 +1,38 @@
 package com.grpctrl.rest.resource.v1.group;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
 import com.grpctrl.common.supplier.ObjectMapperSupplier;
+import com.grpctrl.db.dao.GroupDao;
 import com.grpctrl.db.dao.supplier.GroupDaoSupplier;
-import com.grpctrl.rest.resource.v1.account.MultipleAccountStreamer;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.InternalServerErrorException;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.StreamingOutput;
 
 /**
- * Add groups to the backing data store.
+ * Add groups to the backing data store. Large payloads should be added with the {@code bulk} query parameter, which
+ * loads all of the groups and tags in a single bulk operation instead of in batches.
  */
 @Singleton
 @Path("/v1/group/")
@@ -36,11 +48,36 @@ public class GroupAdd extends BaseGroupResource {
 
     @POST
     public Response add(
-            @Context @Nonnull final SecurityContext securityContext, @Nonnull final InputStream inputStream) {
-        // TODO: Determine the account based on the user/apikey security
-        //final Account account = new Account().setId(10001L).setName("parent");
+            @Nonnull @Context final ContainerRequestContext requestContext,
+            @Nullable @QueryParam("parentId") final Long parentId,
+            @QueryParam("bulk") @DefaultValue("false") final boolean bulk, @Nonnull final InputStream inputStream) {
+        final Account account = requireAccount(requestContext);
 
-        final StreamingOutput streamingOutput = new MultipleAccountStreamer(getObjectMapperSupplier(), consumer -> {
+        final StreamingOutput streamingOutput = new MultipleGroupStreamer(getObjectMapperSupplier(), consumer -> {
+            try {
+                final JsonParser jsonParser = getObjectMapperSupplier().get().getFactory().createParser(inputStream);
+
+                final Iterator<Group> groups;
+                final JsonToken startObj = jsonParser.nextToken();
+                if (startObj == JsonToken.START_OBJECT) {
+                    // Only a single group provided.
+                    groups = Collections.singleton(jsonParser.readValueAs(Group.class)).iterator();
+                } else if (startObj == JsonToken.START_ARRAY && jsonParser.nextToken() == JsonToken.START_OBJECT) {
+                    // Multiple groups provided in an array.
+                    groups = jsonParser.readValuesAs(Group.class);
+                } else {
+                    return;
+                }
+
+                final GroupDao groupDao = getGroupDaoSupplier().get();
+                if (bulk) {
+                    groupDao.bulkAdd(account, parentId, groups, consumer);
+                } else {
+                    groupDao.add(account, parentId, groups, consumer);
+                }
+            } catch (final IOException ioException) {
+                throw new InternalServerErrorException("Failed to read group JSON input data", ioException);
+            }
         });
 
         return Response.ok().entity(streamingOutput).type(MediaType.APPLICATION_JSON).build();
@@ -0,0 +1,65 @@
+package com.grpctrl.rest.resource.v1.group;
+
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.common.supplier.ObjectMapperSupplier;
+import com.grpctrl.db.dao.supplier.GroupDaoSupplier;
+import com.grpctrl.db.page.Page;
+import com.grpctrl.db.page.PageToken;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Retrieve all of the groups below the group with the provided unique group identifier, one page at a time.
+ */
+@Singleton
+@Path("/v1/group/{groupId}/descendants")
+@Produces(MediaType.APPLICATION_JSON)
+public class GroupDescendants extends BaseGroupResource {
+    @Inject
+    public GroupDescendants(
+            @Nonnull final ObjectMapperSupplier objectMapperSupplier,
+            @Nonnull final GroupDaoSupplier groupDaoSupplier) {
+        super(objectMapperSupplier, groupDaoSupplier);
+    }
+
+    @GET
+    @Nullable
+    public Response get(
+            @Nonnull @Context final ContainerRequestContext requestContext,
+            @Nonnull @PathParam("groupId") final Long groupId,
+            @QueryParam("maxDepth") @DefaultValue("0") final int maxDepth,
+            @QueryParam("limit") @DefaultValue("100") final int limit,
+            @Nullable @QueryParam("next") final String next) {
+        final Account account = requireAccount(requestContext);
+
+        final Page page = getPage(limit, next);
+        final Function<BiConsumer<Group, Iterator<Tag>>, Optional<PageToken>> producer =
+                consumer -> getGroupDaoSupplier().get()
+                        .descendants(account, Collections.singleton(groupId), maxDepth, page, consumer);
+        final StreamingOutput streamingOutput = new MultipleGroupStreamer(getObjectMapperSupplier(), producer);
+
+        return Response.ok().entity(streamingOutput).type(MediaType.APPLICATION_JSON).build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.grpctrl.rest.resource.v1.group;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.grpctrl.common.model.Account;
+import com.grpctrl.common.supplier.ObjectMapperSupplier;
+import com.grpctrl.db.dao.supplier.GroupDaoSupplier;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Move groups, along with all of their descendants, below a new parent group. The request body is a JSON array of the
+ * unique identifiers of the groups to move, and the groups become top-level groups when no parent id is provided.
+ */
+@Singleton
+@Path("/v1/group/move")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class GroupMove extends BaseGroupResource {
+    @Inject
+    public GroupMove(
+            @Nonnull final ObjectMapperSupplier objectMapperSupplier,
+            @Nonnull final GroupDaoSupplier groupDaoSupplier) {
+        super(objectMapperSupplier, groupDaoSupplier);
+    }
+
+    /**
+     * @param requestContext the context of the request, providing the account that owns the groups
+     * @param parentId the unique identifier of the new parent group, or {@code null} to move to the top level
+     * @param inputStream the request body containing the JSON array of group ids to move
+     *
+     * @return the response indicating the number of groups moved
+     */
+    @POST
+    @Nonnull
+    public MoveResponse move(
+            @Nonnull @Context final ContainerRequestContext requestContext,
+            @Nullable @QueryParam("parentId") final Long parentId, @Nonnull final InputStream inputStream) {
+        final Account account = requireAccount(requestContext);
+
+        final Long[] groupIds;
+        try {
+            groupIds = getObjectMapperSupplier().get().readValue(inputStream, Long[].class);
+        } catch (final IOException ioException) {
+            throw new BadRequestException("Failed to read group id JSON input data", ioException);
+        }
+        if (groupIds == null || groupIds.length == 0 || Arrays.asList(groupIds).contains(null)) {
+            throw new BadRequestException("A JSON array of group ids to move is required");
+        }
+
+        return new MoveResponse(getGroupDaoSupplier().get().move(account, Arrays.asList(groupIds), parentId));
+    }
+
+    @JsonPropertyOrder({"success", "moved"})
+    private static class MoveResponse {
+        private final boolean success;
+        private final int moved;
+
+        public MoveResponse(final int moved) {
+            this.success = true;
+            this.moved = moved;
+        }
+
+        public boolean isSuccess() {
+            return this.success;
+        }
+
+        public int getMoved() {
+            return this.moved;
+        }
+    }
+}
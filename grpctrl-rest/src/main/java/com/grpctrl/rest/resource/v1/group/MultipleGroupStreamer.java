@@ -0,0 +1,99 @@
+package com.grpctrl.rest.resource.v1.group;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.grpctrl.common.model.Group;
+import com.grpctrl.common.model.Tag;
+import com.grpctrl.common.supplier.ObjectMapperSupplier;
+import com.grpctrl.db.json.GroupJsonWriter;
+import com.grpctrl.db.page.PageToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nonnull;
+import javax.ws.rs.InternalServerErrorException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Responsible for streaming group objects, along with their tags, as JSON.
+ */
+public class MultipleGroupStreamer implements StreamingOutput {
+    @Nonnull
+    private final ObjectMapperSupplier objectMapperSupplier;
+    @Nonnull
+    private final Function<BiConsumer<Group, Iterator<Tag>>, Optional<PageToken>> producer;
+
+    /**
+     * @param objectMapperSupplier responsible for generating JSON data
+     * @param consumer the consumer responsible for pushing group objects through this class
+     */
+    public MultipleGroupStreamer(
+            @Nonnull final ObjectMapperSupplier objectMapperSupplier,
+            @Nonnull final Consumer<BiConsumer<Group, Iterator<Tag>>> consumer) {
+        this(objectMapperSupplier, writer -> {
+            Objects.requireNonNull(consumer).accept(writer);
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * @param objectMapperSupplier responsible for generating JSON data
+     * @param producer the function responsible for pushing a page of group objects through this class, returning
+     *     the continuation token for the next page when more groups are available
+     */
+    public MultipleGroupStreamer(
+            @Nonnull final ObjectMapperSupplier objectMapperSupplier,
+            @Nonnull final Function<BiConsumer<Group, Iterator<Tag>>, Optional<PageToken>> producer) {
+        this.objectMapperSupplier = Objects.requireNonNull(objectMapperSupplier);
+        this.producer = Objects.requireNonNull(producer);
+    }
+
+    /**
+     * @return the object mapper responsible for generating JSON data
+     */
+    @Nonnull
+    public ObjectMapperSupplier getObjectMapperSupplier() {
+        return this.objectMapperSupplier;
+    }
+
+    /**
+     * @return the function that will accept our writing consumer as input when processing the group data, providing the
+     *     continuation token for the next page, if any
+     */
+    @Nonnull
+    public Function<BiConsumer<Group, Iterator<Tag>>, Optional<PageToken>> getProducer() {
+        return this.producer;
+    }
+
+    @Override
+    public void write(@Nonnull final OutputStream output) throws IOException, WebApplicationException {
+        try (final JsonGenerator generator = getObjectMapperSupplier().get().getFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeFieldName("success");
+            generator.writeBoolean(true);
+            generator.writeFieldName("groups");
+            generator.writeStartArray();
+            final Optional<PageToken> next = getProducer().apply((group, tagIterator) -> {
+                try {
+                    // The tags are written as they are read, without copying the group or its tags.
+                    GroupJsonWriter.write(group, tagIterator, generator);
+                } catch (final IOException ioException) {
+                    throw new InternalServerErrorException("Failed to write JSON data to client", ioException);
+                }
+            });
+            generator.writeEndArray();
+            if (next.isPresent()) {
+                generator.writeFieldName("next");
+                generator.writeString(next.get().encode());
+            }
+            generator.writeEndObject();
+        }
+    }
+}
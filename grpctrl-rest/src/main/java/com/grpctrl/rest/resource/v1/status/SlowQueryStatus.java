@@ -0,0 +1,56 @@
+package com.grpctrl.rest.resource.v1.status;
+
+import com.grpctrl.common.model.UserRole;
+import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.slow.SlowQuery;
+import com.grpctrl.db.slow.SlowQueryLog;
+import com.grpctrl.rest.resource.v1.BaseResource;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+
+/**
+ * Retrieve the most recent slow database statements along with their execution plans, which is empty when slow
+ * statements are not being recorded.
+ */
+@Singleton
+@Path("/v1/status/slow-queries")
+@Produces(MediaType.APPLICATION_JSON)
+public class SlowQueryStatus extends BaseResource {
+    @Nonnull
+    private final DataSourceSupplier dataSourceSupplier;
+
+    @Inject
+    public SlowQueryStatus(@Nonnull final DataSourceSupplier dataSourceSupplier) {
+        this.dataSourceSupplier = Objects.requireNonNull(dataSourceSupplier);
+    }
+
+    /**
+     * @param securityContext the security information associated with the request, used to require the admin role
+     *
+     * @return the most recent slow statements, the most recent first
+     */
+    @GET
+    @Nullable
+    public Response get(@Nonnull @Context final SecurityContext securityContext) {
+        requireRole(securityContext, UserRole.ADMIN);
+
+        final List<SlowQuery> slowQueries = this.dataSourceSupplier.getSlowQueryLog().map(SlowQueryLog::getSlowQueries)
+                .orElse(Collections.emptyList());
+
+        return Response.ok().entity(slowQueries).type(MediaType.APPLICATION_JSON).build();
+    }
+}
@@ -24,9 +24,13 @@ public class ApiApplicationTest {
 
         assertEquals("com.grpctrl.common.supplier.ObjectMapperSupplier", nameIter.next());
         assertEquals("com.grpctrl.rest.providers.AccountLookupFilter", nameIter.next());
+        assertEquals("com.grpctrl.rest.providers.AccountUsageReconciler", nameIter.next());
+        assertEquals("com.grpctrl.rest.providers.ConnectionPoolSizer", nameIter.next());
         assertEquals("com.grpctrl.rest.providers.GenericExceptionMapper", nameIter.next());
         assertEquals("com.grpctrl.rest.providers.MemoryUsageLogger", nameIter.next());
+        assertEquals("com.grpctrl.rest.providers.ReplicaLagMonitor", nameIter.next());
         assertEquals("com.grpctrl.rest.providers.RequestLoggingFilter", nameIter.next());
+        assertEquals("com.grpctrl.rest.providers.TombstonePurger", nameIter.next());
         assertEquals("com.grpctrl.rest.providers.UserLookupFilter", nameIter.next());
         assertEquals("com.grpctrl.rest.resource.auth.Login", nameIter.next());
         assertEquals("com.grpctrl.rest.resource.auth.Logout", nameIter.next());
@@ -35,7 +39,10 @@ public class ApiApplicationTest {
         assertEquals("com.grpctrl.rest.resource.v1.account.AccountGetAll", nameIter.next());
         assertEquals("com.grpctrl.rest.resource.v1.account.AccountRemove", nameIter.next());
         assertEquals("com.grpctrl.rest.resource.v1.group.GroupAdd", nameIter.next());
+        assertEquals("com.grpctrl.rest.resource.v1.group.GroupDescendants", nameIter.next());
+        assertEquals("com.grpctrl.rest.resource.v1.group.GroupMove", nameIter.next());
         assertEquals("com.grpctrl.rest.resource.v1.status.AccountStatus", nameIter.next());
+        assertEquals("com.grpctrl.rest.resource.v1.status.SlowQueryStatus", nameIter.next());
         assertEquals("org.glassfish.jersey.message.GZipEncoder", nameIter.next());
         assertEquals("org.glassfish.jersey.server.filter.EncodingFilter", nameIter.next());
         assertFalse(nameIter.hasNext());
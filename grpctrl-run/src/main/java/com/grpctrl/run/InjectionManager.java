@@ -15,15 +15,25 @@ import com.grpctrl.crypto.ske.SymmetricKeyEncryptionSupplier;
 import com.grpctrl.crypto.ssl.SslContextSupplier;
 import com.grpctrl.crypto.store.KeyStoreSupplier;
 import com.grpctrl.db.DataSourceSupplier;
+import com.grpctrl.db.cache.AccountCacheSupplier;
+import com.grpctrl.db.cache.UserCacheSupplier;
 import com.grpctrl.db.dao.supplier.AccountDaoSupplier;
+import com.grpctrl.db.dao.supplier.AccountUsageDaoSupplier;
 import com.grpctrl.db.dao.supplier.ApiLoginDaoSupplier;
+import com.grpctrl.db.dao.supplier.AsyncAccountDaoSupplier;
+import com.grpctrl.db.dao.supplier.AsyncGroupDaoSupplier;
+import com.grpctrl.db.dao.supplier.AsyncTagDaoSupplier;
+import com.grpctrl.db.dao.supplier.AsyncUserDaoSupplier;
 import com.grpctrl.db.dao.supplier.GroupDaoSupplier;
 import com.grpctrl.db.dao.supplier.ServiceLevelDaoSupplier;
 import com.grpctrl.db.dao.supplier.TagDaoSupplier;
+import com.grpctrl.db.dao.supplier.TagDictionaryDaoSupplier;
 import com.grpctrl.db.dao.supplier.UserAuthDaoSupplier;
 import com.grpctrl.db.dao.supplier.UserDaoSupplier;
 import com.grpctrl.db.dao.supplier.UserEmailDaoSupplier;
 import com.grpctrl.db.dao.supplier.UserRoleDaoSupplier;
+import com.grpctrl.db.executor.DatabaseExecutorSupplier;
+import com.grpctrl.db.feed.ChangeFeedSupplier;
 import com.grpctrl.security.CustomLoginServiceSupplier;
 
 import org.glassfish.hk2.api.ServiceLocator;
@@ -64,15 +74,25 @@ public class InjectionManager {
         bind(this.serviceLocator, new MetricRegistrySupplier.Binder());
         bind(this.serviceLocator, new HealthCheckRegistrySupplier.Binder());
         bind(this.serviceLocator, new DataSourceSupplier.Binder());
+        bind(this.serviceLocator, new DatabaseExecutorSupplier.Binder());
         bind(this.serviceLocator, new AccountDaoSupplier.Binder());
+        bind(this.serviceLocator, new AccountUsageDaoSupplier.Binder());
         bind(this.serviceLocator, new ApiLoginDaoSupplier.Binder());
         bind(this.serviceLocator, new GroupDaoSupplier.Binder());
         bind(this.serviceLocator, new ServiceLevelDaoSupplier.Binder());
         bind(this.serviceLocator, new TagDaoSupplier.Binder());
+        bind(this.serviceLocator, new TagDictionaryDaoSupplier.Binder());
         bind(this.serviceLocator, new UserAuthDaoSupplier.Binder());
         bind(this.serviceLocator, new UserDaoSupplier.Binder());
         bind(this.serviceLocator, new UserEmailDaoSupplier.Binder());
         bind(this.serviceLocator, new UserRoleDaoSupplier.Binder());
+        bind(this.serviceLocator, new AsyncAccountDaoSupplier.Binder());
+        bind(this.serviceLocator, new AsyncGroupDaoSupplier.Binder());
+        bind(this.serviceLocator, new AsyncTagDaoSupplier.Binder());
+        bind(this.serviceLocator, new AsyncUserDaoSupplier.Binder());
+        bind(this.serviceLocator, new ChangeFeedSupplier.Binder());
+        bind(this.serviceLocator, new AccountCacheSupplier.Binder());
+        bind(this.serviceLocator, new UserCacheSupplier.Binder());
         bind(this.serviceLocator, new CustomLoginServiceSupplier.Binder());
     }
 